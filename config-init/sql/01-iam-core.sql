@@ -26,7 +26,8 @@ CREATE TABLE IF NOT EXISTS `sys_user` (
     PRIMARY KEY (`id`),
     UNIQUE KEY `uk_username` (`username`),
     KEY `idx_phone` (`phone`),
-    KEY `idx_email` (`email`)
+    KEY `idx_email` (`email`),
+    KEY `idx_del_flag_create_time` (`del_flag`, `create_time`, `id`)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='用户信息表';
 
 -- 用户角色关联表
@@ -53,7 +54,8 @@ CREATE TABLE IF NOT EXISTS `sys_role` (
     `update_time` datetime DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
     `remark` varchar(500) DEFAULT NULL COMMENT '备注',
     PRIMARY KEY (`id`),
-    UNIQUE KEY `uk_role_key` (`role_key`)
+    UNIQUE KEY `uk_role_key` (`role_key`),
+    KEY `idx_del_flag_create_time` (`del_flag`, `create_time`, `id`)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='角色信息表';
 
 -- 菜单权限表
@@ -91,7 +93,7 @@ CREATE TABLE IF NOT EXISTS `sys_role_menu` (
 CREATE TABLE IF NOT EXISTS `sys_dept` (
     `id` bigint NOT NULL COMMENT '部门id',
     `parent_id` bigint DEFAULT 0 COMMENT '父部门id',
-    `ancestors` varchar(50) DEFAULT '' COMMENT '祖级列表',
+    `ancestors` varchar(1000) DEFAULT '' COMMENT '祖级列表',
     `dept_name` varchar(30) DEFAULT '' COMMENT '部门名称',
     `order_num` int DEFAULT 0 COMMENT '显示顺序',
     `leader` varchar(20) DEFAULT NULL COMMENT '负责人',
@@ -106,6 +108,15 @@ CREATE TABLE IF NOT EXISTS `sys_dept` (
     PRIMARY KEY (`id`)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='部门表';
 
+-- 部门闭包表（每个部门与自身及所有祖先各一行，由核心服务根据部门层级维护）
+CREATE TABLE IF NOT EXISTS `sys_dept_closure` (
+    `ancestor_id` bigint NOT NULL COMMENT '祖先部门ID',
+    `descendant_id` bigint NOT NULL COMMENT '后代部门ID',
+    `depth` int NOT NULL COMMENT '层级距离（自身为0）',
+    PRIMARY KEY (`ancestor_id`, `descendant_id`),
+    KEY `idx_descendant` (`descendant_id`, `depth`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='部门闭包表';
+
 -- 岗位表
 CREATE TABLE IF NOT EXISTS `sys_post` (
     `id` bigint NOT NULL COMMENT '岗位ID',
@@ -16,12 +16,19 @@ CREATE TABLE IF NOT EXISTS `oauth2_registered_client` (
     `authorization_grant_types` varchar(1000) DEFAULT NULL COMMENT '授权类型',
     `redirect_uris` varchar(1000) DEFAULT NULL COMMENT '重定向URI',
     `scopes` varchar(1000) DEFAULT NULL COMMENT '作用域',
-    `client_settings` varchar(2000) DEFAULT NULL COMMENT '客户端设置',
-    `token_settings` varchar(2000) DEFAULT NULL COMMENT '令牌设置',
+    `post_logout_redirect_uris` varchar(1000) DEFAULT NULL COMMENT '登出后重定向URI',
+    `client_settings` varchar(2000) NOT NULL COMMENT '客户端设置',
+    `token_settings` varchar(2000) NOT NULL COMMENT '令牌设置',
+    `update_time` datetime DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间（认证服务按此列增量刷新客户端索引）',
     PRIMARY KEY (`id`),
-    UNIQUE KEY `uk_client_id` (`client_id`)
+    UNIQUE KEY `uk_client_id` (`client_id`),
+    KEY `idx_update_time` (`update_time`)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='OAuth2客户端表';
 
+-- 已有库升级（旧表缺少以下列）：
+-- ALTER TABLE `oauth2_registered_client` ADD COLUMN `post_logout_redirect_uris` varchar(1000) DEFAULT NULL COMMENT '登出后重定向URI' AFTER `scopes`;
+-- ALTER TABLE `oauth2_registered_client` ADD COLUMN `update_time` datetime DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间', ADD KEY `idx_update_time` (`update_time`);
+
 -- OAuth2授权表
 CREATE TABLE IF NOT EXISTS `oauth2_authorization` (
     `id` varchar(100) NOT NULL COMMENT '授权ID',
@@ -49,27 +56,39 @@ CREATE TABLE IF NOT EXISTS `oauth2_authorization` (
     `refresh_token_issued_at` datetime DEFAULT NULL COMMENT '刷新令牌发布时间',
     `refresh_token_expires_at` datetime DEFAULT NULL COMMENT '刷新令牌过期时间',
     `refresh_token_metadata` text COMMENT '刷新令牌元数据',
-    PRIMARY KEY (`id`)
+    PRIMARY KEY (`id`),
+    KEY `idx_access_token_value` (`access_token_value`(64))
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='OAuth2授权表';
 
+-- 已有库升级（不透明访问令牌按令牌值内省，需前缀索引避免全表扫描）：
+-- ALTER TABLE `oauth2_authorization` ADD KEY `idx_access_token_value` (`access_token_value`(64));
+
 -- 插入默认OAuth2客户端
-INSERT IGNORE INTO `oauth2_registered_client` (`id`, `client_id`, `client_secret`, `client_name`, `client_authentication_methods`, `authorization_grant_types`, `redirect_uris`, `scopes`) VALUES
-('iam-client', 'iam-client', '{noop}iam-secret', 'IAM平台客户端', 'client_secret_basic,client_secret_post', 'authorization_code,refresh_token,client_credentials', 'http://localhost:3000/callback', 'read,write');
+INSERT IGNORE INTO `oauth2_registered_client` (`id`, `client_id`, `client_secret`, `client_name`, `client_authentication_methods`, `authorization_grant_types`, `redirect_uris`, `post_logout_redirect_uris`, `scopes`, `client_settings`, `token_settings`) VALUES
+('iam-client', 'iam-client', '{noop}iam-secret', 'IAM平台客户端', 'client_secret_basic,client_secret_post', 'authorization_code,refresh_token,client_credentials', 'http://localhost:3000/callback', '', 'read,write', '{"@class":"java.util.Collections$UnmodifiableMap","settings.client.require-proof-key":false,"settings.client.require-authorization-consent":true}', '{"@class":"java.util.Collections$UnmodifiableMap","settings.token.reuse-refresh-tokens":false,"settings.token.id-token-signature-algorithm":["org.springframework.security.oauth2.jose.jws.SignatureAlgorithm","RS256"],"settings.token.access-token-time-to-live":["java.time.Duration",7200.000000000],"settings.token.access-token-format":{"@class":"org.springframework.security.oauth2.server.authorization.settings.OAuth2TokenFormat","value":"self-contained"},"settings.token.refresh-token-time-to-live":["java.time.Duration",604800.000000000],"settings.token.authorization-code-time-to-live":["java.time.Duration",300.000000000],"settings.token.device-code-time-to-live":["java.time.Duration",300.000000000]}');
+
+-- 插入网关客户端
+INSERT IGNORE INTO `oauth2_registered_client` (`id`, `client_id`, `client_secret`, `client_name`, `client_authentication_methods`, `authorization_grant_types`, `redirect_uris`, `post_logout_redirect_uris`, `scopes`, `client_settings`, `token_settings`) VALUES
+('iam-gateway', 'iam-gateway', '{noop}gateway-secret', '网关客户端', 'client_secret_basic,client_secret_post', 'client_credentials,authorization_code,refresh_token', 'http://iam-gateway:8080/login/oauth2/code/gateway', 'http://iam-gateway:8080/', 'openid,profile,internal.read,internal.write,gateway.route', '{"@class":"java.util.Collections$UnmodifiableMap","settings.client.require-proof-key":false,"settings.client.require-authorization-consent":false}', '{"@class":"java.util.Collections$UnmodifiableMap","settings.token.reuse-refresh-tokens":false,"settings.token.id-token-signature-algorithm":["org.springframework.security.oauth2.jose.jws.SignatureAlgorithm","RS256"],"settings.token.access-token-time-to-live":["java.time.Duration",7200.000000000],"settings.token.access-token-format":{"@class":"org.springframework.security.oauth2.server.authorization.settings.OAuth2TokenFormat","value":"self-contained"},"settings.token.refresh-token-time-to-live":["java.time.Duration",604800.000000000],"settings.token.authorization-code-time-to-live":["java.time.Duration",300.000000000],"settings.token.device-code-time-to-live":["java.time.Duration",300.000000000]}');
+
+-- 插入前端应用客户端
+INSERT IGNORE INTO `oauth2_registered_client` (`id`, `client_id`, `client_secret`, `client_name`, `client_authentication_methods`, `authorization_grant_types`, `redirect_uris`, `post_logout_redirect_uris`, `scopes`, `client_settings`, `token_settings`) VALUES
+('iam-frontend', 'iam-frontend', '{noop}frontend-secret', '前端应用客户端', 'client_secret_basic,client_secret_post', 'authorization_code,refresh_token', 'http://localhost:8088/login/oauth2/code/iam,http://iam-frontend:8088/login/oauth2/code/iam', 'http://localhost:8088/,http://iam-frontend:8088/', 'openid,profile,user.read,user.write,role.read,role.write', '{"@class":"java.util.Collections$UnmodifiableMap","settings.client.require-proof-key":true,"settings.client.require-authorization-consent":true}', '{"@class":"java.util.Collections$UnmodifiableMap","settings.token.reuse-refresh-tokens":false,"settings.token.id-token-signature-algorithm":["org.springframework.security.oauth2.jose.jws.SignatureAlgorithm","RS256"],"settings.token.access-token-time-to-live":["java.time.Duration",3600.000000000],"settings.token.access-token-format":{"@class":"org.springframework.security.oauth2.server.authorization.settings.OAuth2TokenFormat","value":"self-contained"},"settings.token.refresh-token-time-to-live":["java.time.Duration",86400.000000000],"settings.token.authorization-code-time-to-live":["java.time.Duration",300.000000000],"settings.token.device-code-time-to-live":["java.time.Duration",300.000000000]}');
 
 -- 插入登录前端SPA客户端
-INSERT IGNORE INTO `oauth2_registered_client` (`id`, `client_id`, `client_secret`, `client_name`, `client_authentication_methods`, `authorization_grant_types`, `redirect_uris`, `scopes`, `client_settings`, `token_settings`) VALUES
-('iam-login-client', 'iam-login-client', '{noop}login-client-secret', '登录前端SPA客户端', 'client_secret_basic,client_secret_post', 'authorization_code,refresh_token', 'http://localhost:3000/callback,http://localhost:8082', 'openid,profile,email', '{"@class":"java.util.Collections$UnmodifiableMap","settings.client.require-proof-key":true,"settings.client.require-authorization-consent":true}', '{"@class":"java.util.Collections$UnmodifiableMap","settings.token.authorization-code-time-to-live":["java.time.Duration",300.000000000],"settings.token.access-token-time-to-live":["java.time.Duration",3600.000000000],"settings.token.refresh-token-time-to-live":["java.time.Duration",86400.000000000],"settings.token.reuse-refresh-tokens":false}');
+INSERT IGNORE INTO `oauth2_registered_client` (`id`, `client_id`, `client_secret`, `client_name`, `client_authentication_methods`, `authorization_grant_types`, `redirect_uris`, `post_logout_redirect_uris`, `scopes`, `client_settings`, `token_settings`) VALUES
+('iam-login-client', 'iam-login-client', '{noop}login-client-secret', '登录前端SPA客户端', 'client_secret_basic,client_secret_post', 'authorization_code,refresh_token', 'http://localhost:3000/callback,http://localhost:8082', 'http://localhost:3000/', 'openid,profile,email', '{"@class":"java.util.Collections$UnmodifiableMap","settings.client.require-proof-key":true,"settings.client.require-authorization-consent":true}', '{"@class":"java.util.Collections$UnmodifiableMap","settings.token.reuse-refresh-tokens":false,"settings.token.id-token-signature-algorithm":["org.springframework.security.oauth2.jose.jws.SignatureAlgorithm","RS256"],"settings.token.access-token-time-to-live":["java.time.Duration",3600.000000000],"settings.token.access-token-format":{"@class":"org.springframework.security.oauth2.server.authorization.settings.OAuth2TokenFormat","value":"self-contained"},"settings.token.refresh-token-time-to-live":["java.time.Duration",86400.000000000],"settings.token.authorization-code-time-to-live":["java.time.Duration",300.000000000],"settings.token.device-code-time-to-live":["java.time.Duration",300.000000000]}');
 
 -- 插入业务系统B客户端
-INSERT IGNORE INTO `oauth2_registered_client` (`id`, `client_id`, `client_secret`, `client_name`, `client_authentication_methods`, `authorization_grant_types`, `redirect_uris`, `scopes`, `client_settings`, `token_settings`) VALUES
-('business-system-b', 'business-system-b', '{noop}business-system-b-secret', '业务系统B客户端', 'client_secret_basic,client_secret_post', 'authorization_code,refresh_token', 'http://localhost:8082/callback', 'openid,profile,email', '{"@class":"java.util.Collections$UnmodifiableMap","settings.client.require-proof-key":false,"settings.client.require-authorization-consent":true}', '{"@class":"java.util.Collections$UnmodifiableMap","settings.token.authorization-code-time-to-live":["java.time.Duration",300.000000000],"settings.token.access-token-time-to-live":["java.time.Duration",3600.000000000],"settings.token.refresh-token-time-to-live":["java.time.Duration",86400.000000000],"settings.token.reuse-refresh-tokens":false}');
-
--- 插入服务间调用客户端
-INSERT IGNORE INTO `oauth2_registered_client` (`id`, `client_id`, `client_secret`, `client_name`, `client_authentication_methods`, `authorization_grant_types`, `redirect_uris`, `scopes`, `client_settings`, `token_settings`) VALUES
-('iam-auth-service', 'iam-auth-service', '{bcrypt}$2a$10$BQMpX5VZ9oZH.1mZ1B9D9.Z2oZH1mZ1B9D9Z2oZH1mZ1B9D9Z2oZ', '认证服务客户端', 'client_secret_basic,client_secret_post', 'client_credentials', '', 'internal.read,internal.write,auth.read,auth.write', '{"@class":"java.util.Collections$UnmodifiableMap","settings.client.require-proof-key":false,"settings.client.require-authorization-consent":false}', '{"@class":"java.util.Collections$UnmodifiableMap","settings.token.authorization-code-time-to-live":["java.time.Duration",300.000000000],"settings.token.access-token-time-to-live":["java.time.Duration",3600.000000000],"settings.token.refresh-token-time-to-live":["java.time.Duration",7200.000000000],"settings.token.reuse-refresh-tokens":true}'),
-('iam-core-service', 'iam-core-service', '{bcrypt}$2a$10$YQJmX4VY7nXE.1kX8Y7A7.X9nXE1kX8Y7A7X9nXE1kX8Y7A7X9nX', '核心服务客户端', 'client_secret_basic,client_secret_post', 'client_credentials', '', 'internal.read,internal.write,user.read,user.write', '{"@class":"java.util.Collections$UnmodifiableMap","settings.client.require-proof-key":false,"settings.client.require-authorization-consent":false}', '{"@class":"java.util.Collections$UnmodifiableMap","settings.token.authorization-code-time-to-live":["java.time.Duration",300.000000000],"settings.token.access-token-time-to-live":["java.time.Duration",3600.000000000],"settings.token.refresh-token-time-to-live":["java.time.Duration",7200.000000000],"settings.token.reuse-refresh-tokens":true}'),
-('iam-audit-service', 'iam-audit-service', '{bcrypt}$2a$10$ZRKnY5WZ8oYF.1lY9Z8B8.Y0oYF1lY9Z8B8Y0oYF1lY9Z8B8Y0oY', '审计服务客户端', 'client_secret_basic,client_secret_post', 'client_credentials', '', 'internal.read,internal.write,audit.read,audit.write', '{"@class":"java.util.Collections$UnmodifiableMap","settings.client.require-proof-key":false,"settings.client.require-authorization-consent":false}', '{"@class":"java.util.Collections$UnmodifiableMap","settings.token.authorization-code-time-to-live":["java.time.Duration",300.000000000],"settings.token.access-token-time-to-live":["java.time.Duration",3600.000000000],"settings.token.refresh-token-time-to-live":["java.time.Duration",7200.000000000],"settings.token.reuse-refresh-tokens":true}'),
-('iam-system-service', 'iam-system-service', '{bcrypt}$2a$10$ARLoZ6XA9pZG.1mZ0A9C9.Z1pZG1mZ0A9C9Z1pZG1mZ0A9C9Z1pZ', '系统服务客户端', 'client_secret_basic,client_secret_post', 'client_credentials', '', 'internal.read,internal.write,system.read,system.write', '{"@class":"java.util.Collections$UnmodifiableMap","settings.client.require-proof-key":false,"settings.client.require-authorization-consent":false}', '{"@class":"java.util.Collections$UnmodifiableMap","settings.token.authorization-code-time-to-live":["java.time.Duration",300.000000000],"settings.token.access-token-time-to-live":["java.time.Duration",3600.000000000],"settings.token.refresh-token-time-to-live":["java.time.Duration",7200.000000000],"settings.token.reuse-refresh-tokens":true}');
+INSERT IGNORE INTO `oauth2_registered_client` (`id`, `client_id`, `client_secret`, `client_name`, `client_authentication_methods`, `authorization_grant_types`, `redirect_uris`, `post_logout_redirect_uris`, `scopes`, `client_settings`, `token_settings`) VALUES
+('business-system-b', 'business-system-b', '{noop}business-system-b-secret', '业务系统B客户端', 'client_secret_basic,client_secret_post', 'authorization_code,refresh_token', 'http://localhost:8082/callback', 'http://localhost:8082/', 'openid,profile,email', '{"@class":"java.util.Collections$UnmodifiableMap","settings.client.require-proof-key":false,"settings.client.require-authorization-consent":true}', '{"@class":"java.util.Collections$UnmodifiableMap","settings.token.reuse-refresh-tokens":false,"settings.token.id-token-signature-algorithm":["org.springframework.security.oauth2.jose.jws.SignatureAlgorithm","RS256"],"settings.token.access-token-time-to-live":["java.time.Duration",3600.000000000],"settings.token.access-token-format":{"@class":"org.springframework.security.oauth2.server.authorization.settings.OAuth2TokenFormat","value":"self-contained"},"settings.token.refresh-token-time-to-live":["java.time.Duration",86400.000000000],"settings.token.authorization-code-time-to-live":["java.time.Duration",300.000000000],"settings.token.device-code-time-to-live":["java.time.Duration",300.000000000]}');
+
+-- 插入服务间调用客户端（密钥与各服务 oauth2.client.client-secret 保持一致，生产环境请替换为 {bcrypt} 密文）
+INSERT IGNORE INTO `oauth2_registered_client` (`id`, `client_id`, `client_secret`, `client_name`, `client_authentication_methods`, `authorization_grant_types`, `redirect_uris`, `post_logout_redirect_uris`, `scopes`, `client_settings`, `token_settings`) VALUES
+('iam-auth-service', 'iam-auth-service', '{noop}auth-service-secret', '认证服务客户端', 'client_secret_basic,client_secret_post', 'client_credentials', '', '', 'internal.read,internal.write,user.read,user.write', '{"@class":"java.util.Collections$UnmodifiableMap","settings.client.require-proof-key":false,"settings.client.require-authorization-consent":false}', '{"@class":"java.util.Collections$UnmodifiableMap","settings.token.reuse-refresh-tokens":true,"settings.token.id-token-signature-algorithm":["org.springframework.security.oauth2.jose.jws.SignatureAlgorithm","RS256"],"settings.token.access-token-time-to-live":["java.time.Duration",7200.000000000],"settings.token.access-token-format":{"@class":"org.springframework.security.oauth2.server.authorization.settings.OAuth2TokenFormat","value":"self-contained"},"settings.token.refresh-token-time-to-live":["java.time.Duration",3600.000000000],"settings.token.authorization-code-time-to-live":["java.time.Duration",300.000000000],"settings.token.device-code-time-to-live":["java.time.Duration",300.000000000]}'),
+('iam-core-service', 'iam-core-service', '{noop}core-service-secret', '核心服务客户端', 'client_secret_basic,client_secret_post', 'client_credentials', '', '', 'internal.read,internal.write,user.read,user.write,role.read,role.write', '{"@class":"java.util.Collections$UnmodifiableMap","settings.client.require-proof-key":false,"settings.client.require-authorization-consent":false}', '{"@class":"java.util.Collections$UnmodifiableMap","settings.token.reuse-refresh-tokens":true,"settings.token.id-token-signature-algorithm":["org.springframework.security.oauth2.jose.jws.SignatureAlgorithm","RS256"],"settings.token.access-token-time-to-live":["java.time.Duration",7200.000000000],"settings.token.access-token-format":{"@class":"org.springframework.security.oauth2.server.authorization.settings.OAuth2TokenFormat","value":"self-contained"},"settings.token.refresh-token-time-to-live":["java.time.Duration",3600.000000000],"settings.token.authorization-code-time-to-live":["java.time.Duration",300.000000000],"settings.token.device-code-time-to-live":["java.time.Duration",300.000000000]}'),
+('iam-audit-service', 'iam-audit-service', '{noop}iam-audit-secret-2024', '审计服务客户端', 'client_secret_basic,client_secret_post', 'client_credentials', '', '', 'internal.read,internal.write,audit.read,audit.write', '{"@class":"java.util.Collections$UnmodifiableMap","settings.client.require-proof-key":false,"settings.client.require-authorization-consent":false}', '{"@class":"java.util.Collections$UnmodifiableMap","settings.token.reuse-refresh-tokens":true,"settings.token.id-token-signature-algorithm":["org.springframework.security.oauth2.jose.jws.SignatureAlgorithm","RS256"],"settings.token.access-token-time-to-live":["java.time.Duration",7200.000000000],"settings.token.access-token-format":{"@class":"org.springframework.security.oauth2.server.authorization.settings.OAuth2TokenFormat","value":"self-contained"},"settings.token.refresh-token-time-to-live":["java.time.Duration",3600.000000000],"settings.token.authorization-code-time-to-live":["java.time.Duration",300.000000000],"settings.token.device-code-time-to-live":["java.time.Duration",300.000000000]}'),
+('iam-system-service', 'iam-system-service', '{noop}iam-system-secret-2024', '系统服务客户端', 'client_secret_basic,client_secret_post', 'client_credentials', '', '', 'internal.read,internal.write,system.read,system.write', '{"@class":"java.util.Collections$UnmodifiableMap","settings.client.require-proof-key":false,"settings.client.require-authorization-consent":false}', '{"@class":"java.util.Collections$UnmodifiableMap","settings.token.reuse-refresh-tokens":true,"settings.token.id-token-signature-algorithm":["org.springframework.security.oauth2.jose.jws.SignatureAlgorithm","RS256"],"settings.token.access-token-time-to-live":["java.time.Duration",7200.000000000],"settings.token.access-token-format":{"@class":"org.springframework.security.oauth2.server.authorization.settings.OAuth2TokenFormat","value":"self-contained"},"settings.token.refresh-token-time-to-live":["java.time.Duration",3600.000000000],"settings.token.authorization-code-time-to-live":["java.time.Duration",300.000000000],"settings.token.device-code-time-to-live":["java.time.Duration",300.000000000]}');
 
 -- ===========================================
 -- 第三方登录增强表结构
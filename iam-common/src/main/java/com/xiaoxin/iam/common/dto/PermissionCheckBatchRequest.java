@@ -0,0 +1,36 @@
+package com.xiaoxin.iam.common.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 批量权限判定请求DTO
+ * 响应按 checks 的顺序逐一返回判定结果
+ *
+ * @author xiaoxin
+ * @since 1.0.0
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PermissionCheckBatchRequest {
+
+    /**
+     * 单次批量上限
+     */
+    public static final int MAX_BATCH_SIZE = 500;
+
+    /**
+     * 待判定的（用户, 权限）对
+     */
+    @Valid
+    @NotEmpty(message = "判定列表不能为空")
+    @Size(max = MAX_BATCH_SIZE, message = "单次最多判定" + MAX_BATCH_SIZE + "项")
+    private List<PermissionCheckDTO> checks;
+}
@@ -0,0 +1,39 @@
+package com.xiaoxin.iam.common.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 权限判定DTO
+ * 请求时携带 userId 与 permissionCode，响应时回填 allowed
+ *
+ * @author xiaoxin
+ * @since 1.0.0
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PermissionCheckDTO {
+
+    /**
+     * 用户ID
+     */
+    @NotNull(message = "用户ID不能为空")
+    private Long userId;
+
+    /**
+     * 权限编码
+     */
+    @NotBlank(message = "权限编码不能为空")
+    private String permissionCode;
+
+    /**
+     * 是否拥有该权限
+     */
+    private Boolean allowed;
+}
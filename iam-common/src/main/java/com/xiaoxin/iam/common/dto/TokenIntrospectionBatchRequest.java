@@ -0,0 +1,34 @@
+package com.xiaoxin.iam.common.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 批量令牌内省请求DTO
+ * 响应按 tokens 的顺序逐一返回内省结果
+ *
+ * @author xiaoxin
+ * @since 1.0.0
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TokenIntrospectionBatchRequest {
+
+    /**
+     * 单次批量上限
+     */
+    public static final int MAX_BATCH_SIZE = 200;
+
+    /**
+     * 待内省的访问令牌
+     */
+    @NotEmpty(message = "令牌列表不能为空")
+    @Size(max = MAX_BATCH_SIZE, message = "单次最多内省" + MAX_BATCH_SIZE + "个令牌")
+    private List<String> tokens;
+}
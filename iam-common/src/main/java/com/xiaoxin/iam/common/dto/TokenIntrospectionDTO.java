@@ -0,0 +1,62 @@
+package com.xiaoxin.iam.common.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 令牌内省结果DTO
+ * 字段含义参考 RFC 7662，时间为 Unix 秒
+ *
+ * @author xiaoxin
+ * @since 1.0.0
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TokenIntrospectionDTO {
+
+    /**
+     * 令牌是否有效
+     */
+    private boolean active;
+
+    /**
+     * 客户端ID
+     */
+    private String clientId;
+
+    /**
+     * 令牌主体（用户名或客户端ID）
+     */
+    private String sub;
+
+    /**
+     * 作用域（空格分隔）
+     */
+    private String scope;
+
+    /**
+     * 令牌类型
+     */
+    private String tokenType;
+
+    /**
+     * 过期时间
+     */
+    private Long exp;
+
+    /**
+     * 签发时间
+     */
+    private Long iat;
+
+    /**
+     * 无效令牌结果
+     */
+    public static TokenIntrospectionDTO inactive() {
+        return TokenIntrospectionDTO.builder().active(false).build();
+    }
+}
@@ -0,0 +1,94 @@
+package com.xiaoxin.iam.common.utils;
+
+/**
+ * 脱敏工具类
+ * 按 {@link ValidationUtils} 中手机号、邮箱、身份证号的格式遮盖敏感片段
+ * <p>
+ * 列表接口逐行调用，实现上不使用正则，每次只分配一个字符数组与结果字符串。
+ * 输入不符合预期格式时按通用规则保留首尾字符，不会原样输出。
+ * </p>
+ *
+ * @author xiaoxin
+ * @since 1.0.0
+ */
+public class MaskUtils {
+
+    /**
+     * 遮盖字符
+     */
+    public static final char MASK_CHAR = '*';
+
+    /**
+     * 邮箱用户名部分遮盖后固定的星号数，避免暴露用户名长度
+     */
+    private static final int EMAIL_MASK_LENGTH = 3;
+
+    /**
+     * 私有构造函数，防止实例化
+     */
+    private MaskUtils() {
+        throw new UnsupportedOperationException("Utility class");
+    }
+
+    /**
+     * 手机号脱敏：保留前3位与后4位，如 138****1234
+     */
+    public static String maskPhone(String phone) {
+        return mask(phone, 3, 4);
+    }
+
+    /**
+     * 邮箱脱敏：保留用户名首字符与域名，如 z***@example.com
+     */
+    public static String maskEmail(String email) {
+        if (email == null || email.isEmpty()) {
+            return email;
+        }
+        int at = email.indexOf('@');
+        if (at <= 0) {
+            return mask(email, 1, 0);
+        }
+        int domainLength = email.length() - at;
+        char[] chars = new char[1 + EMAIL_MASK_LENGTH + domainLength];
+        chars[0] = email.charAt(0);
+        for (int i = 1; i <= EMAIL_MASK_LENGTH; i++) {
+            chars[i] = MASK_CHAR;
+        }
+        email.getChars(at, email.length(), chars, 1 + EMAIL_MASK_LENGTH);
+        return new String(chars);
+    }
+
+    /**
+     * 身份证号脱敏：保留前3位与后4位，如 110***********123X
+     */
+    public static String maskIdCard(String idCard) {
+        return mask(idCard, 3, 4);
+    }
+
+    /**
+     * 通用脱敏：保留前 head 位与后 tail 位，其余以星号遮盖
+     * 保留位数不小于原文长度时整体遮盖
+     *
+     * @param value 原文
+     * @param head 保留的前缀长度
+     * @param tail 保留的后缀长度
+     * @return 脱敏结果，原文为空时原样返回
+     */
+    public static String mask(String value, int head, int tail) {
+        if (value == null || value.isEmpty()) {
+            return value;
+        }
+        int length = value.length();
+        char[] chars = value.toCharArray();
+        int from = Math.max(0, head);
+        int to = length - Math.max(0, tail);
+        if (from >= to) {
+            from = 0;
+            to = length;
+        }
+        for (int i = from; i < to; i++) {
+            chars[i] = MASK_CHAR;
+        }
+        return new String(chars);
+    }
+}
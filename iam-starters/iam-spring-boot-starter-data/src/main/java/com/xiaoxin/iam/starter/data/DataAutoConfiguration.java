@@ -1,13 +1,20 @@
 package com.xiaoxin.iam.starter.data;
 
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
 import com.baomidou.mybatisplus.annotation.DbType;
 import com.baomidou.mybatisplus.extension.plugins.MybatisPlusInterceptor;
 import com.baomidou.mybatisplus.extension.plugins.inner.PaginationInnerInterceptor;
+import com.xiaoxin.iam.starter.data.scope.DataScopeInnerInterceptor;
+import com.xiaoxin.iam.starter.data.scope.DataScopeProvider;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
 
 /**
@@ -18,17 +25,34 @@ import lombok.extern.slf4j.Slf4j;
  */
 @Slf4j
 @Configuration
+@EnableConfigurationProperties(DataScopeProperties.class)
 public class DataAutoConfiguration {
 
     /**
-     * MyBatis Plus分页插件
+     * 数据权限拦截器，业务服务提供 DataScopeProvider 时启用
      */
     @Bean
     @ConditionalOnMissingBean
-    public MybatisPlusInterceptor mybatisPlusInterceptor() {
+    @ConditionalOnBean(DataScopeProvider.class)
+    @ConditionalOnProperty(prefix = "iam.data.scope", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public DataScopeInnerInterceptor dataScopeInnerInterceptor(ObjectProvider<DataScopeProvider> dataScopeProvider,
+                                                               DataScopeProperties dataScopeProperties,
+                                                               ObjectProvider<MeterRegistry> meterRegistryProvider) {
+        log.info("IAM平台数据权限拦截器已启用");
+        return new DataScopeInnerInterceptor(dataScopeProvider, dataScopeProperties,
+                meterRegistryProvider.getIfAvailable());
+    }
+
+    /**
+     * MyBatis Plus插件，数据权限须在分页之前，分页计数才会基于过滤后的SQL
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public MybatisPlusInterceptor mybatisPlusInterceptor(ObjectProvider<DataScopeInnerInterceptor> dataScopeInterceptor) {
         log.info("IAM平台MyBatis Plus分页插件已启用");
         
         MybatisPlusInterceptor interceptor = new MybatisPlusInterceptor();
+        dataScopeInterceptor.ifAvailable(interceptor::addInnerInterceptor);
         interceptor.addInnerInterceptor(new PaginationInnerInterceptor(DbType.MYSQL));
         
         return interceptor;
@@ -0,0 +1,31 @@
+package com.xiaoxin.iam.starter.data;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+/**
+ * 数据权限配置属性
+ *
+ * @author xiaoxin
+ * @since 1.0.0
+ */
+@Data
+@ConfigurationProperties(prefix = "iam.data.scope")
+public class DataScopeProperties {
+
+    /**
+     * 是否启用数据权限拦截，需同时存在 DataScopeProvider 实现
+     */
+    private boolean enabled = true;
+
+    /**
+     * 最多缓存的改写模板数，按原始SQL文本缓存，超出后淘汰最久未使用的模板
+     */
+    private int parseCacheSize = 1024;
+
+    /**
+     * 部门闭包表，按子树授权的规则通过该表展开后代部门
+     */
+    private String closureTable = "sys_dept_closure";
+}
@@ -0,0 +1,167 @@
+package com.xiaoxin.iam.starter.data.concurrency;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.ConnectionProxy;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * 并发受限数据源
+ * <p>
+ * 虚拟线程下请求数不再受线程池限制，大量请求会同时等待连接池。取连接前先按公平顺序获取许可，
+ * 许可数与连接池大小一致，连接关闭时归还：
+ * </p>
+ * <ul>
+ *     <li>超出连接池的请求在许可上排队，等待的虚拟线程不占用载体线程</li>
+ *     <li>等待超时抛出 {@link SQLTransientConnectionException}，与连接池取连接超时的处理方式一致</li>
+ * </ul>
+ *
+ * @author xiaoxin
+ * @since 1.0.0
+ */
+public class ConcurrencyLimitedDataSource extends DelegatingDataSource {
+
+    private static final String METRIC_PREFIX = "iam.data.concurrency";
+
+    private final Semaphore permits;
+    private final int maxConcurrent;
+    private final Duration acquireTimeout;
+    private final Counter rejected;
+
+    public ConcurrencyLimitedDataSource(DataSource targetDataSource, int maxConcurrent, Duration acquireTimeout,
+                                        MeterRegistry meterRegistry) {
+        super(targetDataSource);
+        this.permits = new Semaphore(maxConcurrent, true);
+        this.maxConcurrent = maxConcurrent;
+        this.acquireTimeout = acquireTimeout;
+        if (meterRegistry != null) {
+            Gauge.builder(METRIC_PREFIX + ".available", permits, Semaphore::availablePermits)
+                    .description("可用的数据库连接许可数")
+                    .register(meterRegistry);
+            Gauge.builder(METRIC_PREFIX + ".waiting", permits, Semaphore::getQueueLength)
+                    .description("等待数据库连接许可的线程数（估计值）")
+                    .register(meterRegistry);
+            this.rejected = Counter.builder(METRIC_PREFIX + ".rejected")
+                    .description("等待数据库连接许可超时的次数")
+                    .register(meterRegistry);
+        } else {
+            this.rejected = null;
+        }
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        acquire();
+        return limited(() -> obtainTargetDataSource().getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        acquire();
+        return limited(() -> obtainTargetDataSource().getConnection(username, password));
+    }
+
+    public int getMaxConcurrent() {
+        return maxConcurrent;
+    }
+
+    private void acquire() throws SQLException {
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(acquireTimeout.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("等待数据库连接许可时被中断", e);
+        }
+        if (!acquired) {
+            if (rejected != null) {
+                rejected.increment();
+            }
+            throw new SQLTransientConnectionException("等待数据库连接许可超时: maxConcurrent=" + maxConcurrent
+                    + ", timeout=" + acquireTimeout.toMillis() + "ms");
+        }
+    }
+
+    /**
+     * 取连接并包装为关闭时归还许可的代理，取连接失败立即归还
+     */
+    private Connection limited(ConnectionSupplier supplier) throws SQLException {
+        Connection target;
+        try {
+            target = supplier.get();
+        } catch (SQLException | RuntimeException | Error e) {
+            permits.release();
+            throw e;
+        }
+        return (Connection) Proxy.newProxyInstance(ConnectionProxy.class.getClassLoader(),
+                new Class<?>[]{ConnectionProxy.class}, new PermitReleasingHandler(target));
+    }
+
+    @FunctionalInterface
+    private interface ConnectionSupplier {
+
+        Connection get() throws SQLException;
+    }
+
+    /**
+     * 连接关闭时归还许可，重复关闭只归还一次
+     */
+    private final class PermitReleasingHandler implements InvocationHandler {
+
+        private final Connection target;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private PermitReleasingHandler(Connection target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "Concurrency limited connection [" + target + "]";
+                case "getTargetConnection":
+                    return target;
+                case "unwrap":
+                    return ((Class<?>) args[0]).isInstance(proxy) ? proxy : target.unwrap((Class<?>) args[0]);
+                case "isWrapperFor":
+                    return ((Class<?>) args[0]).isInstance(proxy) || target.isWrapperFor((Class<?>) args[0]);
+                case "close":
+                    try {
+                        target.close();
+                    } finally {
+                        if (released.compareAndSet(false, true)) {
+                            permits.release();
+                        }
+                    }
+                    return null;
+                default:
+                    try {
+                        return method.invoke(target, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getTargetException();
+                    }
+            }
+        }
+    }
+}
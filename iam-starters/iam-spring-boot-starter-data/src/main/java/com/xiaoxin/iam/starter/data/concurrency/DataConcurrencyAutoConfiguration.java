@@ -0,0 +1,87 @@
+package com.xiaoxin.iam.starter.data.concurrency;
+
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import com.xiaoxin.iam.starter.data.routing.DataRoutingAutoConfiguration;
+import com.xiaoxin.iam.starter.data.routing.ReadWriteRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 数据库并发限制自动配置
+ * 虚拟线程生效时，将容器中的 dataSource 包装为 {@link ConcurrencyLimitedDataSource}
+ *
+ * @author xiaoxin
+ * @since 1.0.0
+ */
+@Slf4j
+@AutoConfiguration(after = {DataSourceAutoConfiguration.class, DataRoutingAutoConfiguration.class})
+@ConditionalOnThreading(Threading.VIRTUAL)
+@EnableConfigurationProperties(DataConcurrencyProperties.class)
+public class DataConcurrencyAutoConfiguration {
+
+    private static final String DATA_SOURCE_BEAN_NAME = "dataSource";
+
+    /**
+     * HikariCP 未配置 maximum-pool-size 时的默认连接池大小
+     */
+    private static final int HIKARI_DEFAULT_POOL_SIZE = 10;
+
+    @Bean
+    public static BeanPostProcessor concurrencyLimitedDataSourcePostProcessor(
+            ObjectProvider<DataConcurrencyProperties> propertiesProvider,
+            ObjectProvider<MeterRegistry> meterRegistryProvider) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!DATA_SOURCE_BEAN_NAME.equals(beanName) || !(bean instanceof DataSource dataSource)
+                        || bean instanceof ConcurrencyLimitedDataSource) {
+                    return bean;
+                }
+                DataConcurrencyProperties properties = propertiesProvider.getObject();
+                int maxConcurrent = properties.getMaxConcurrent() > 0 ? properties.getMaxConcurrent() : poolSize(dataSource);
+                if (maxConcurrent <= 0) {
+                    log.warn("无法确定数据源连接池大小，未启用数据库并发限制，可通过 iam.data.concurrency.max-concurrent 指定: type={}",
+                            bean.getClass().getName());
+                    return bean;
+                }
+                log.info("IAM平台数据库并发限制已启用: maxConcurrent={}, acquireTimeout={}ms",
+                        maxConcurrent, properties.getAcquireTimeout().toMillis());
+                return new ConcurrencyLimitedDataSource(dataSource, maxConcurrent, properties.getAcquireTimeout(),
+                        meterRegistryProvider.getIfAvailable());
+            }
+        };
+    }
+
+    /**
+     * 连接池大小，读写分离时为主库与副本之和；无法识别的数据源返回 0
+     */
+    private static int poolSize(DataSource dataSource) {
+        DataSource target = dataSource instanceof LazyConnectionDataSourceProxy lazy ? lazy.getTargetDataSource() : dataSource;
+        List<HikariDataSource> pools;
+        if (target instanceof ReadWriteRoutingDataSource routing) {
+            pools = routing.getPools();
+        } else if (target instanceof HikariDataSource hikari) {
+            pools = List.of(hikari);
+        } else {
+            return 0;
+        }
+        return pools.stream()
+                .mapToInt(pool -> pool.getMaximumPoolSize() > 0 ? pool.getMaximumPoolSize() : HIKARI_DEFAULT_POOL_SIZE)
+                .sum();
+    }
+}
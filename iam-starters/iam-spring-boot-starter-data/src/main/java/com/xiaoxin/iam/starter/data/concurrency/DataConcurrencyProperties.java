@@ -0,0 +1,29 @@
+package com.xiaoxin.iam.starter.data.concurrency;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+/**
+ * 数据库并发限制配置属性
+ * 仅在虚拟线程生效时使用
+ *
+ * @author xiaoxin
+ * @since 1.0.0
+ */
+@Data
+@ConfigurationProperties(prefix = "iam.data.concurrency")
+public class DataConcurrencyProperties {
+
+    /**
+     * 同时持有的数据库连接上限，0 表示与连接池大小一致（读写分离时为主库与副本连接池之和）
+     */
+    private int maxConcurrent = 0;
+
+    /**
+     * 等待许可的最长时间，超时抛出 SQLTransientConnectionException
+     */
+    private Duration acquireTimeout = Duration.ofSeconds(30);
+}
@@ -0,0 +1,109 @@
+package com.xiaoxin.iam.starter.data.routing;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.util.StringUtils;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * 读写分离自动配置
+ * 启用后替换默认数据源：主库沿用 spring.datasource 配置，副本复制主库的连接池参数后覆盖地址与账号
+ *
+ * @author xiaoxin
+ * @since 1.0.0
+ */
+@AutoConfiguration(before = DataSourceAutoConfiguration.class)
+@ConditionalOnProperty(prefix = "iam.data.routing", name = "enabled", havingValue = "true")
+@EnableConfigurationProperties({DataRoutingProperties.class, DataSourceProperties.class})
+public class DataRoutingAutoConfiguration {
+
+    private static final String PRIMARY_POOL_NAME = "iam-primary";
+
+    @Bean
+    @ConditionalOnMissingBean
+    public ReadYourWritesTracker readYourWritesTracker(ObjectProvider<ReadConsistencyKeyProvider> keyProvider,
+                                                       DataRoutingProperties properties) {
+        return new ReadYourWritesTracker(keyProvider, properties.getReadYourWritesWindow());
+    }
+
+    @Bean
+    public ReadWriteRoutingDataSource readWriteRoutingDataSource(DataSourceProperties dataSourceProperties,
+                                                                 DataRoutingProperties properties,
+                                                                 ReadYourWritesTracker tracker,
+                                                                 Environment environment,
+                                                                 ObjectProvider<MeterRegistry> meterRegistryProvider) {
+        MeterRegistry meterRegistry = meterRegistryProvider.getIfAvailable();
+
+        HikariDataSource primary = dataSourceProperties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(primary));
+        primary.setPoolName(PRIMARY_POOL_NAME);
+        if (meterRegistry != null) {
+            primary.setMetricRegistry(meterRegistry);
+        }
+
+        Map<String, HikariDataSource> replicas = new LinkedHashMap<>();
+        for (DataRoutingProperties.Replica replica : properties.getReplicas()) {
+            String name = StringUtils.hasText(replica.getName()) ? replica.getName() : "replica-" + (replicas.size() + 1);
+            if (replicas.containsKey(name)) {
+                throw new IllegalStateException("只读副本名称重复: " + name);
+            }
+            if (!StringUtils.hasText(replica.getUrl())) {
+                throw new IllegalStateException("只读副本未配置连接地址: " + name);
+            }
+            HikariDataSource dataSource = new HikariDataSource();
+            primary.copyStateTo(dataSource);
+            dataSource.setPoolName("iam-" + name);
+            dataSource.setJdbcUrl(replica.getUrl());
+            if (StringUtils.hasText(replica.getUsername())) {
+                dataSource.setUsername(replica.getUsername());
+            }
+            if (StringUtils.hasText(replica.getPassword())) {
+                dataSource.setPassword(replica.getPassword());
+            }
+            if (replica.getMaximumPoolSize() != null) {
+                dataSource.setMaximumPoolSize(replica.getMaximumPoolSize());
+            }
+            dataSource.setReadOnly(true);
+            replicas.put(name, dataSource);
+        }
+        return new ReadWriteRoutingDataSource(primary, replicas, tracker, properties, meterRegistry);
+    }
+
+    /**
+     * 对外暴露的数据源，取连接延迟到首条语句执行时，路由才能看到事务的只读标记
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(ReadWriteRoutingDataSource readWriteRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(readWriteRoutingDataSource);
+    }
+
+    /**
+     * MyBatis 自动配置收集容器中的拦截器并注册
+     */
+    @Bean
+    public ReadRoutingInterceptor readRoutingInterceptor(ReadYourWritesTracker tracker) {
+        return new ReadRoutingInterceptor(tracker);
+    }
+}
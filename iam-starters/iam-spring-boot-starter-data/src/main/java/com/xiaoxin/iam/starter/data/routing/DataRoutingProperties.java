@@ -0,0 +1,77 @@
+package com.xiaoxin.iam.starter.data.routing;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+/**
+ * 读写分离配置属性
+ *
+ * @author xiaoxin
+ * @since 1.0.0
+ */
+@Data
+@ConfigurationProperties(prefix = "iam.data.routing")
+public class DataRoutingProperties {
+
+    /**
+     * 是否启用读写分离，启用后主库仍使用 spring.datasource 配置
+     */
+    private boolean enabled = false;
+
+    /**
+     * 只读副本，连接池参数沿用主库的 spring.datasource.hikari 配置
+     */
+    private List<Replica> replicas = new ArrayList<>();
+
+    /**
+     * 允许的最大复制延迟，超过后该副本不再接收读请求，直到延迟恢复
+     */
+    private Duration maxLag = Duration.ofSeconds(3);
+
+    /**
+     * 复制延迟检测间隔
+     */
+    private Duration lagCheckInterval = Duration.ofSeconds(5);
+
+    /**
+     * 写后读主窗口，同一一致性键写入后该时长内的读取回退到主库
+     */
+    private Duration readYourWritesWindow = Duration.ofSeconds(5);
+
+    /**
+     * 只读副本
+     */
+    @Data
+    public static class Replica {
+
+        /**
+         * 副本名称，用于连接池名与监控标签
+         */
+        private String name;
+
+        /**
+         * JDBC 连接地址
+         */
+        private String url;
+
+        /**
+         * 用户名，为空时沿用主库
+         */
+        private String username;
+
+        /**
+         * 密码，为空时沿用主库
+         */
+        private String password;
+
+        /**
+         * 最大连接数，为空时沿用主库
+         */
+        private Integer maximumPoolSize;
+    }
+}
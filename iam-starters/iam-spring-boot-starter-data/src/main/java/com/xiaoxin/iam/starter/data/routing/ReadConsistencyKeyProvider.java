@@ -0,0 +1,21 @@
+package com.xiaoxin.iam.starter.data.routing;
+
+/**
+ * 读写一致性键提供者
+ * <p>
+ * 由业务服务实现，返回当前请求的发起者标识（通常是用户ID）。
+ * 同一键在写入后的一段时间内的读取回退到主库，保证用户能读到自己刚写入的数据。
+ * </p>
+ *
+ * @author xiaoxin
+ * @since 1.0.0
+ */
+public interface ReadConsistencyKeyProvider {
+
+    /**
+     * 当前请求的一致性键
+     *
+     * @return 一致性键，为 null 表示不跟踪（如服务间调用或后台任务）
+     */
+    String currentKey();
+}
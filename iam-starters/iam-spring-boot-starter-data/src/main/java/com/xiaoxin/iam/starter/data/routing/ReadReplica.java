@@ -0,0 +1,33 @@
+package com.xiaoxin.iam.starter.data.routing;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 只读副本路由标记
+ * <p>
+ * 标注在 Mapper 方法上时，该方法在事务之外执行的查询路由到只读副本；
+ * 标注在 Mapper 接口上时作用于 {@link #statements()} 列出的方法（为空表示全部查询方法），
+ * 可用于 BaseMapper 继承的 selectPage、selectCount 等方法。
+ * </p>
+ * <p>
+ * 读写事务中的查询始终使用主库连接；只读事务（{@code @Transactional(readOnly = true)}）无需标记即路由到副本。
+ * 副本延迟超限、没有可用副本或当前用户刚刚写入时回退到主库。
+ * </p>
+ *
+ * @author xiaoxin
+ * @since 1.0.0
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.TYPE, ElementType.METHOD})
+public @interface ReadReplica {
+
+    /**
+     * 标注在接口上时生效的方法名，为空表示全部查询方法
+     */
+    String[] statements() default {};
+}
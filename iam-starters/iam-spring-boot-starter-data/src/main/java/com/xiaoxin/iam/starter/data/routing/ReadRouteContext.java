@@ -0,0 +1,28 @@
+package com.xiaoxin.iam.starter.data.routing;
+
+/**
+ * 当前线程的只读路由请求
+ * 由 {@link ReadRoutingInterceptor} 在执行标记过的查询期间设置，{@link ReadWriteRoutingDataSource} 取连接时读取
+ *
+ * @author xiaoxin
+ * @since 1.0.0
+ */
+final class ReadRouteContext {
+
+    private static final ThreadLocal<Boolean> REQUESTED = new ThreadLocal<>();
+
+    private ReadRouteContext() {
+    }
+
+    static boolean isRequested() {
+        return REQUESTED.get() != null;
+    }
+
+    static void enter() {
+        REQUESTED.set(Boolean.TRUE);
+    }
+
+    static void exit() {
+        REQUESTED.remove();
+    }
+}
@@ -0,0 +1,103 @@
+package com.xiaoxin.iam.starter.data.routing;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.ibatis.cache.CacheKey;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.RowBounds;
+import org.springframework.util.ClassUtils;
+
+/**
+ * 读写路由拦截器
+ * <p>
+ * 执行标记了 {@link ReadReplica} 的查询时设置只读路由请求，连接在语句执行时才真正获取，
+ * 由 {@link ReadWriteRoutingDataSource} 据此选择副本；写语句执行后记录写入，开启写后读主窗口。
+ * </p>
+ *
+ * @author xiaoxin
+ * @since 1.0.0
+ */
+@Intercepts({
+        @Signature(type = Executor.class, method = "query",
+                args = {MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class}),
+        @Signature(type = Executor.class, method = "query",
+                args = {MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class, CacheKey.class, BoundSql.class}),
+        @Signature(type = Executor.class, method = "update", args = {MappedStatement.class, Object.class})
+})
+public class ReadRoutingInterceptor implements Interceptor {
+
+    private final ReadYourWritesTracker tracker;
+
+    /**
+     * 分页插件生成的计数语句后缀，随原查询一同路由
+     */
+    private static final String COUNT_SUFFIX = "_mpCount";
+
+    /**
+     * 语句ID -> 是否路由到副本
+     */
+    private final Map<String, Boolean> statements = new ConcurrentHashMap<>();
+
+    public ReadRoutingInterceptor(ReadYourWritesTracker tracker) {
+        this.tracker = tracker;
+    }
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+        MappedStatement statement = (MappedStatement) invocation.getArgs()[0];
+        if ("update".equals(invocation.getMethod().getName())) {
+            Object result = invocation.proceed();
+            tracker.recordCurrentWrite();
+            return result;
+        }
+        if (ReadRouteContext.isRequested()
+                || !statements.computeIfAbsent(statement.getId(), ReadRoutingInterceptor::lookup)) {
+            return invocation.proceed();
+        }
+        ReadRouteContext.enter();
+        try {
+            return invocation.proceed();
+        } finally {
+            ReadRouteContext.exit();
+        }
+    }
+
+    /**
+     * 解析语句对应的 Mapper 方法或接口上的标记
+     */
+    private static boolean lookup(String statementId) {
+        int dot = statementId.lastIndexOf('.');
+        if (dot < 0) {
+            return false;
+        }
+        String methodName = statementId.substring(dot + 1);
+        if (methodName.endsWith(COUNT_SUFFIX)) {
+            methodName = methodName.substring(0, methodName.length() - COUNT_SUFFIX.length());
+        }
+        Class<?> mapper;
+        try {
+            mapper = ClassUtils.forName(statementId.substring(0, dot), ClassUtils.getDefaultClassLoader());
+        } catch (ClassNotFoundException | LinkageError e) {
+            // 非 Mapper 接口的语句
+            return false;
+        }
+        for (Method method : mapper.getMethods()) {
+            if (method.getName().equals(methodName) && method.isAnnotationPresent(ReadReplica.class)) {
+                return true;
+            }
+        }
+        ReadReplica replica = mapper.getAnnotation(ReadReplica.class);
+        return replica != null && (replica.statements().length == 0
+                || Arrays.asList(replica.statements()).contains(methodName));
+    }
+}
@@ -0,0 +1,293 @@
+package com.xiaoxin.iam.starter.data.routing;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 读写路由数据源
+ * <p>
+ * 按取连接时的上下文选择主库或只读副本：
+ * </p>
+ * <ul>
+ *     <li>只读事务，或事务之外执行标记了 {@link ReadReplica} 的查询，路由到副本；其余全部走主库</li>
+ *     <li>当前一致性键处于写后读主窗口内时回退到主库</li>
+ *     <li>副本按活跃连接占连接池上限的比例选择负载最低者</li>
+ *     <li>复制延迟超过上限、延迟未知或取连接失败的副本暂停使用，由定时检测恢复；没有可用副本时回退到主库</li>
+ * </ul>
+ * 需通过 {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy} 使用，
+ * 事务管理器开启事务时尚未设置只读标记，延迟到执行首条语句时取连接才能拿到正确的上下文。
+ *
+ * @author xiaoxin
+ * @since 1.0.0
+ */
+@Slf4j
+public class ReadWriteRoutingDataSource extends AbstractDataSource implements InitializingBean, DisposableBean {
+
+    private static final String METRIC_PREFIX = "iam.data.routing";
+
+    private static final String PRIMARY = "primary";
+
+    private static final String ROUTE_WRITE = "write";
+    private static final String ROUTE_READ_YOUR_WRITES = "read-your-writes";
+    private static final String ROUTE_NO_REPLICA = "no-replica";
+    private static final String ROUTE_REPLICA_ERROR = "replica-error";
+    private static final String ROUTE_REPLICA = "replica";
+
+    private final HikariDataSource primary;
+    private final List<Target> replicas;
+    private final ReadYourWritesTracker tracker;
+    private final DataRoutingProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final ScheduledExecutorService scheduler;
+
+    /**
+     * 负载相同时的起始位置，使副本间轮流分担
+     */
+    private final AtomicInteger cursor = new AtomicInteger();
+
+    /**
+     * 目标:原因 -> 路由计数
+     */
+    private final Map<String, Counter> routeCounters = new ConcurrentHashMap<>();
+
+    public ReadWriteRoutingDataSource(HikariDataSource primary,
+                                      Map<String, HikariDataSource> replicas,
+                                      ReadYourWritesTracker tracker,
+                                      DataRoutingProperties properties,
+                                      MeterRegistry meterRegistry) {
+        this.primary = primary;
+        this.replicas = replicas.entrySet().stream()
+                .map(entry -> new Target(entry.getKey(), entry.getValue()))
+                .toList();
+        this.tracker = tracker;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "data-routing-lag-check");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        if (meterRegistry != null) {
+            for (Target target : replicas) {
+                Gauge.builder(METRIC_PREFIX + ".replica.lag", target, t -> t.lagSeconds)
+                        .description("副本复制延迟（秒），未知时为 -1")
+                        .baseUnit("seconds")
+                        .tag("target", target.name)
+                        .register(meterRegistry);
+                Gauge.builder(METRIC_PREFIX + ".replica.healthy", target, t -> t.healthy ? 1 : 0)
+                        .description("副本是否接收读请求")
+                        .tag("target", target.name)
+                        .register(meterRegistry);
+            }
+        }
+        if (!replicas.isEmpty()) {
+            long interval = Math.max(1, properties.getLagCheckInterval().toMillis());
+            // 首次检测完成前读请求全部走主库
+            scheduler.scheduleWithFixedDelay(this::checkReplicas, 0, interval, TimeUnit.MILLISECONDS);
+        }
+        log.info("IAM平台读写分离已启用: replicas={}", replicas.stream().map(t -> t.name).toList());
+    }
+
+    @Override
+    public void destroy() {
+        scheduler.shutdownNow();
+        replicas.forEach(target -> target.dataSource.close());
+        primary.close();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (!readRequested()) {
+            return primary(ROUTE_WRITE);
+        }
+        if (tracker.recentlyWrote(tracker.currentKey())) {
+            return primary(ROUTE_READ_YOUR_WRITES);
+        }
+        Target target = leastLoaded();
+        if (target == null) {
+            return primary(ROUTE_NO_REPLICA);
+        }
+        try {
+            Connection connection = target.dataSource.getConnection();
+            count(target.name, ROUTE_REPLICA);
+            return connection;
+        } catch (SQLException e) {
+            target.healthy = false;
+            log.warn("副本取连接失败，暂停使用直到延迟检测恢复: target={}", target.name, e);
+            return primary(ROUTE_REPLICA_ERROR);
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        // 指定凭据的连接不参与路由，交给主库连接池（HikariCP 本身不支持时抛出 SQLFeatureNotSupportedException）
+        return primary.getConnection(username, password);
+    }
+
+    /**
+     * 主库与全部副本的连接池
+     */
+    public List<HikariDataSource> getPools() {
+        List<HikariDataSource> pools = new ArrayList<>(replicas.size() + 1);
+        pools.add(primary);
+        replicas.forEach(target -> pools.add(target.dataSource));
+        return pools;
+    }
+
+    /**
+     * 当前取连接是否只用于读取
+     * 事务内以事务的只读标记为准；事务之外仅在没有事务同步时采用语句标记，避免连接被后续写语句复用
+     */
+    private static boolean readRequested() {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+        }
+        return ReadRouteContext.isRequested() && !TransactionSynchronizationManager.isSynchronizationActive();
+    }
+
+    private Connection primary(String reason) throws SQLException {
+        Connection connection = primary.getConnection();
+        count(PRIMARY, reason);
+        return connection;
+    }
+
+    private Target leastLoaded() {
+        int size = replicas.size();
+        if (size == 0) {
+            return null;
+        }
+        int start = Math.floorMod(cursor.getAndIncrement(), size);
+        Target best = null;
+        double bestLoad = Double.MAX_VALUE;
+        for (int i = 0; i < size; i++) {
+            Target target = replicas.get((start + i) % size);
+            if (!target.healthy) {
+                continue;
+            }
+            double load = target.load();
+            if (load < bestLoad) {
+                best = target;
+                bestLoad = load;
+            }
+        }
+        return best;
+    }
+
+    private void checkReplicas() {
+        long maxLag = properties.getMaxLag().toSeconds();
+        for (Target target : replicas) {
+            Long lag;
+            try {
+                lag = replicationLag(target.dataSource);
+            } catch (Exception e) {
+                log.warn("副本复制延迟检测失败: target={}, error={}", target.name, e.getMessage());
+                lag = null;
+            }
+            boolean healthy = lag != null && lag <= maxLag;
+            if (healthy != target.healthy) {
+                log.info("副本读路由状态变更: target={}, healthy={}, lag={}", target.name, healthy, lag);
+            }
+            target.lagSeconds = lag == null ? -1 : lag;
+            target.healthy = healthy;
+        }
+    }
+
+    /**
+     * 查询复制延迟（秒），复制线程停止时返回 null；不是复制副本（如代理后的只读节点）时视为无延迟
+     */
+    private static Long replicationLag(HikariDataSource dataSource) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            ResultSet resultSet;
+            String column;
+            try {
+                resultSet = statement.executeQuery("SHOW REPLICA STATUS");
+                column = "Seconds_Behind_Source";
+            } catch (SQLException e) {
+                // MySQL 8.0.22 之前的版本
+                resultSet = statement.executeQuery("SHOW SLAVE STATUS");
+                column = "Seconds_Behind_Master";
+            }
+            try (ResultSet rs = resultSet) {
+                if (!rs.next()) {
+                    return 0L;
+                }
+                long lag = rs.getLong(column);
+                return rs.wasNull() ? null : lag;
+            }
+        }
+    }
+
+    private void count(String target, String reason) {
+        if (meterRegistry == null) {
+            return;
+        }
+        routeCounters.computeIfAbsent(target + ":" + reason, key -> Counter.builder(METRIC_PREFIX + ".routes")
+                .description("按目标与原因统计的取连接次数")
+                .tag("target", target)
+                .tag("reason", reason)
+                .register(meterRegistry)).increment();
+    }
+
+    /**
+     * 只读副本
+     */
+    private static final class Target {
+
+        private final String name;
+        private final HikariDataSource dataSource;
+
+        /**
+         * 是否接收读请求，首次延迟检测前为 false
+         */
+        private volatile boolean healthy;
+
+        /**
+         * 最近一次检测的复制延迟（秒），未知时为 -1
+         */
+        private volatile long lagSeconds = -1;
+
+        private Target(String name, HikariDataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+
+        /**
+         * 活跃连接占连接池上限的比例，连接池尚未启动时为 0
+         */
+        private double load() {
+            HikariPoolMXBean pool = dataSource.getHikariPoolMXBean();
+            if (pool == null) {
+                return 0;
+            }
+            return (double) pool.getActiveConnections() / Math.max(1, dataSource.getMaximumPoolSize());
+        }
+    }
+}
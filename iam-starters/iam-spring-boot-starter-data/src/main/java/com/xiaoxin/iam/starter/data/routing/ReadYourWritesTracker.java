@@ -0,0 +1,110 @@
+package com.xiaoxin.iam.starter.data.routing;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * 写后读主跟踪
+ * <p>
+ * 记录每个一致性键最近一次写入的时间，窗口内的读取回退到主库，覆盖副本的复制延迟。
+ * 只跟踪本实例内的写入，请求需在同一实例上读写才能保证效果。
+ * </p>
+ *
+ * @author xiaoxin
+ * @since 1.0.0
+ */
+public class ReadYourWritesTracker {
+
+    /**
+     * 超过该条目数时清理已过期的键
+     */
+    private static final int CLEANUP_THRESHOLD = 10000;
+
+    private final ObjectProvider<ReadConsistencyKeyProvider> keyProvider;
+
+    private final long windowNanos;
+
+    /**
+     * 一致性键 -> 读主截止时间（System.nanoTime）
+     */
+    private final Map<String, Long> deadlines = new ConcurrentHashMap<>();
+
+    public ReadYourWritesTracker(ObjectProvider<ReadConsistencyKeyProvider> keyProvider, Duration window) {
+        this.keyProvider = keyProvider;
+        this.windowNanos = window.toNanos();
+    }
+
+    /**
+     * 当前请求的一致性键，未配置提供者或无法确定时返回 null
+     */
+    public String currentKey() {
+        ReadConsistencyKeyProvider provider = keyProvider.getIfAvailable();
+        return provider == null ? null : provider.currentKey();
+    }
+
+    /**
+     * 记录当前请求的一次写入，事务内的写入在提交后才开启窗口，同一事务只登记一次
+     */
+    public void recordCurrentWrite() {
+        String key = currentKey();
+        if (key == null) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            recordWrite(key);
+            return;
+        }
+        if (TransactionSynchronizationManager.hasResource(this)) {
+            return;
+        }
+        TransactionSynchronizationManager.bindResource(this, key);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                recordWrite(key);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(ReadYourWritesTracker.this);
+            }
+        });
+    }
+
+    /**
+     * 记录一次写入
+     */
+    public void recordWrite(String key) {
+        if (key == null || windowNanos <= 0) {
+            return;
+        }
+        long now = System.nanoTime();
+        deadlines.put(key, now + windowNanos);
+        if (deadlines.size() > CLEANUP_THRESHOLD) {
+            deadlines.values().removeIf(deadline -> deadline - now <= 0);
+        }
+    }
+
+    /**
+     * 是否仍在写后读主窗口内
+     */
+    public boolean recentlyWrote(String key) {
+        if (key == null) {
+            return false;
+        }
+        Long deadline = deadlines.get(key);
+        if (deadline == null) {
+            return false;
+        }
+        if (deadline - System.nanoTime() > 0) {
+            return true;
+        }
+        deadlines.remove(key, deadline);
+        return false;
+    }
+}
@@ -0,0 +1,67 @@
+package com.xiaoxin.iam.starter.data.scope;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 数据权限标记
+ * <p>
+ * 标注在 Mapper 方法上时，该方法的查询按当前用户的数据权限追加行过滤条件；
+ * 标注在 Mapper 接口上时作用于 {@link #statements()} 列出的方法（为空表示全部查询方法），
+ * 可用于 BaseMapper 继承的 selectList、selectPage 等方法。
+ * </p>
+ * <p>
+ * 列名均为资源表中的原始列名，查询使用表别名时通过 {@link #alias()} 指定。
+ * </p>
+ *
+ * @author xiaoxin
+ * @since 1.0.0
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.TYPE, ElementType.METHOD})
+public @interface DataScope {
+
+    /**
+     * 资源类型，对应 sys_data_permission.resource_type
+     */
+    String resource();
+
+    /**
+     * 资源表别名，为空表示不加前缀
+     */
+    String alias() default "";
+
+    /**
+     * 部门列；设置了 {@link #deptLinkTable()} 时为关联表中的部门列
+     */
+    String deptColumn() default "dept_id";
+
+    /**
+     * 用户列，用于“仅本人数据”与按用户授权
+     */
+    String userColumn() default "user_id";
+
+    /**
+     * 部门关联表，资源表本身没有部门列时通过关联表过滤，如 sys_user_dept
+     */
+    String deptLinkTable() default "";
+
+    /**
+     * 关联表中指向资源主键的列
+     */
+    String deptLinkColumn() default "";
+
+    /**
+     * 资源表主键列，与 {@link #deptLinkColumn()} 对应
+     */
+    String keyColumn() default "id";
+
+    /**
+     * 标注在接口上时参与过滤的方法名，为空表示全部查询方法
+     */
+    String[] statements() default {};
+}
@@ -0,0 +1,198 @@
+package com.xiaoxin.iam.starter.data.scope;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.RowBounds;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.util.ClassUtils;
+
+import com.baomidou.mybatisplus.core.toolkit.PluginUtils;
+import com.baomidou.mybatisplus.extension.parser.JsqlParserGlobal;
+import com.baomidou.mybatisplus.extension.plugins.inner.InnerInterceptor;
+import com.xiaoxin.iam.starter.data.DataScopeProperties;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import net.sf.jsqlparser.JSQLParserException;
+import net.sf.jsqlparser.expression.Expression;
+import net.sf.jsqlparser.parser.CCJSqlParserUtil;
+import net.sf.jsqlparser.statement.Statement;
+import net.sf.jsqlparser.statement.select.ParenthesedSelect;
+import net.sf.jsqlparser.statement.select.PlainSelect;
+import net.sf.jsqlparser.statement.select.Select;
+import net.sf.jsqlparser.statement.select.SetOperationList;
+
+/**
+ * 数据权限拦截器
+ * <p>
+ * 对标注了 {@link DataScope} 的查询追加当前用户的行过滤条件，避免每次调用都解析SQL：
+ * </p>
+ * <ul>
+ *     <li>语句缓存：按 MappedStatement ID 缓存是否标记及标记内容，只反射一次</li>
+ *     <li>解析缓存：按原始SQL文本缓存改写模板，模板在 WHERE 中预留占位并在占位处切分，
+ *     命中后只需把条件拼进切分点，不再经过 JSqlParser</li>
+ *     <li>条件缓存：规则由 {@link DataScopeProvider} 编译并缓存，渲染出的SQL片段缓存在规则上</li>
+ * </ul>
+ * <p>
+ * 条件只含数值ID，不新增参数占位符，原有参数映射保持不变。
+ * 需注册在分页拦截器之前，使分页的计数查询基于改写后的SQL。
+ * </p>
+ *
+ * @author xiaoxin
+ * @since 1.0.0
+ */
+@Slf4j
+public class DataScopeInnerInterceptor implements InnerInterceptor {
+
+    private static final String METRIC_PREFIX = "iam.data.scope";
+
+    private static final String PLACEHOLDER = "__iam_data_scope__";
+
+    private static final Pattern PLACEHOLDER_PATTERN = Pattern.compile(Pattern.quote(PLACEHOLDER));
+
+    /**
+     * 延迟获取：提供者通常依赖 Mapper，而 Mapper 的创建又依赖本拦截器
+     */
+    private final ObjectProvider<DataScopeProvider> provider;
+
+    private final DataScopeProperties properties;
+
+    private final Map<String, Optional<DataScope>> statements = new ConcurrentHashMap<>();
+
+    private final Map<String, String[]> templates;
+
+    private final LongAdder parseHits = new LongAdder();
+
+    private final LongAdder parseMisses = new LongAdder();
+
+    private final LongAdder rewrites = new LongAdder();
+
+    public DataScopeInnerInterceptor(ObjectProvider<DataScopeProvider> provider, DataScopeProperties properties,
+                                     MeterRegistry meterRegistry) {
+        this.provider = provider;
+        this.properties = properties;
+        int maxTemplates = properties.getParseCacheSize();
+        this.templates = Collections.synchronizedMap(new LinkedHashMap<>(64, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, String[]> eldest) {
+                return size() > maxTemplates;
+            }
+        });
+        if (meterRegistry != null) {
+            FunctionCounter.builder(METRIC_PREFIX + ".parse.cache", parseHits, LongAdder::sum)
+                    .tag("result", "hit")
+                    .description("数据权限改写模板缓存命中次数")
+                    .register(meterRegistry);
+            FunctionCounter.builder(METRIC_PREFIX + ".parse.cache", parseMisses, LongAdder::sum)
+                    .tag("result", "miss")
+                    .description("数据权限改写模板缓存未命中（解析SQL）次数")
+                    .register(meterRegistry);
+            Gauge.builder(METRIC_PREFIX + ".parse.cache.size", templates, Map::size)
+                    .description("数据权限改写模板缓存条目数")
+                    .register(meterRegistry);
+            FunctionCounter.builder(METRIC_PREFIX + ".rewrites", rewrites, LongAdder::sum)
+                    .description("追加了数据权限条件的查询次数")
+                    .register(meterRegistry);
+        }
+    }
+
+    @Override
+    public void beforeQuery(Executor executor, MappedStatement ms, Object parameter, RowBounds rowBounds,
+                            ResultHandler resultHandler, BoundSql boundSql) {
+        DataScope scope = statements.computeIfAbsent(ms.getId(), id -> Optional.ofNullable(lookup(id))).orElse(null);
+        if (scope == null) {
+            return;
+        }
+        DataScopeRule rule = provider.getObject().resolve(scope.resource());
+        if (rule == null || rule.isAll()) {
+            return;
+        }
+        String predicate = rule.toSql(scope, properties.getClosureTable());
+        PluginUtils.mpBoundSql(boundSql).sql(String.join(predicate, template(boundSql.getSql())));
+        rewrites.increment();
+    }
+
+    /**
+     * 方法上的标记优先，其次为接口上的标记
+     */
+    private DataScope lookup(String statementId) {
+        int dot = statementId.lastIndexOf('.');
+        if (dot < 0) {
+            return null;
+        }
+        String methodName = statementId.substring(dot + 1);
+        Class<?> mapper;
+        try {
+            mapper = ClassUtils.forName(statementId.substring(0, dot), ClassUtils.getDefaultClassLoader());
+        } catch (ClassNotFoundException | LinkageError e) {
+            // 非 Mapper 接口的语句（如分页生成的计数语句）
+            return null;
+        }
+        for (Method method : mapper.getMethods()) {
+            DataScope scope = method.getAnnotation(DataScope.class);
+            if (scope != null && method.getName().equals(methodName)) {
+                return scope;
+            }
+        }
+        DataScope scope = mapper.getAnnotation(DataScope.class);
+        if (scope != null && (scope.statements().length == 0
+                || Arrays.asList(scope.statements()).contains(methodName))) {
+            return scope;
+        }
+        return null;
+    }
+
+    /**
+     * 获取改写模板：在每个查询块的 WHERE 中以 AND 追加占位，再按占位切分
+     */
+    private String[] template(String sql) {
+        String[] parts = templates.get(sql);
+        if (parts != null) {
+            parseHits.increment();
+            return parts;
+        }
+        parseMisses.increment();
+        try {
+            Statement statement = JsqlParserGlobal.parse(sql);
+            if (!(statement instanceof Select select)) {
+                throw new IllegalStateException("数据权限只支持查询语句: " + sql);
+            }
+            appendPlaceholder(select);
+            parts = PLACEHOLDER_PATTERN.split(select.toString(), -1);
+        } catch (JSQLParserException e) {
+            throw new IllegalStateException("数据权限无法解析SQL: " + sql, e);
+        }
+        templates.put(sql, parts);
+        return parts;
+    }
+
+    private void appendPlaceholder(Select select) throws JSQLParserException {
+        if (select instanceof PlainSelect plainSelect) {
+            Expression where = plainSelect.getWhere();
+            plainSelect.setWhere(CCJSqlParserUtil.parseCondExpression(
+                    where == null ? PLACEHOLDER : "(" + where + ") AND " + PLACEHOLDER));
+        } else if (select instanceof SetOperationList setOperationList) {
+            for (Select child : setOperationList.getSelects()) {
+                appendPlaceholder(child);
+            }
+        } else if (select instanceof ParenthesedSelect parenthesedSelect) {
+            appendPlaceholder(parenthesedSelect.getSelect());
+        } else {
+            throw new IllegalStateException("数据权限不支持的查询结构: " + select);
+        }
+    }
+}
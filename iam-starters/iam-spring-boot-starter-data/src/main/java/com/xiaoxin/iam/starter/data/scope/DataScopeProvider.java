@@ -0,0 +1,22 @@
+package com.xiaoxin.iam.starter.data.scope;
+
+/**
+ * 数据权限规则提供者
+ * <p>
+ * 由业务服务实现：根据当前请求的用户解析其在某类资源上的数据权限。
+ * 每次标记过的查询都会调用，实现方应缓存编译结果。
+ * </p>
+ *
+ * @author xiaoxin
+ * @since 1.0.0
+ */
+public interface DataScopeProvider {
+
+    /**
+     * 解析当前用户在资源上的数据权限
+     *
+     * @param resource 资源类型
+     * @return 数据权限规则，为 null 表示不限制（如服务间调用或未登录的内部任务）
+     */
+    DataScopeRule resolve(String resource);
+}
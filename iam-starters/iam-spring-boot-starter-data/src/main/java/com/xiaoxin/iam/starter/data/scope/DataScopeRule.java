@@ -0,0 +1,161 @@
+package com.xiaoxin.iam.starter.data.scope;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * 编译后的数据权限规则
+ * <p>
+ * 规则只包含部门ID与用户ID，多个条件之间为“或”关系：
+ * </p>
+ * <ul>
+ *     <li>deptIds：部门列直接落在这些部门中</li>
+ *     <li>subtreeRootIds：部门列落在这些部门的子树中，通过闭包表展开，用于后代部门过多不宜内联的场景</li>
+ *     <li>userIds：用户列为这些用户</li>
+ * </ul>
+ * <p>
+ * 规则不可变，渲染出的SQL片段按 {@link DataScope} 标记缓存，同一用户的后续查询直接复用。
+ * </p>
+ *
+ * @author xiaoxin
+ * @since 1.0.0
+ */
+public final class DataScopeRule {
+
+    /**
+     * 不限制
+     */
+    public static final DataScopeRule ALL = new DataScopeRule(true, Set.of(), Set.of(), Set.of());
+
+    /**
+     * 无任何可见数据
+     */
+    public static final DataScopeRule NONE = new DataScopeRule(false, Set.of(), Set.of(), Set.of());
+
+    private static final String NO_ROWS = "1 = 0";
+
+    private final boolean all;
+
+    private final Set<Long> deptIds;
+
+    private final Set<Long> subtreeRootIds;
+
+    private final Set<Long> userIds;
+
+    private final Map<DataScope, String> predicates = new ConcurrentHashMap<>();
+
+    private DataScopeRule(boolean all, Set<Long> deptIds, Set<Long> subtreeRootIds, Set<Long> userIds) {
+        this.all = all;
+        this.deptIds = deptIds;
+        this.subtreeRootIds = subtreeRootIds;
+        this.userIds = userIds;
+    }
+
+    /**
+     * 创建规则，ID按升序保存，相同授权渲染出相同的SQL
+     */
+    public static DataScopeRule of(Collection<Long> deptIds, Collection<Long> subtreeRootIds, Collection<Long> userIds) {
+        return new DataScopeRule(false, sorted(deptIds), sorted(subtreeRootIds), sorted(userIds));
+    }
+
+    public boolean isAll() {
+        return all;
+    }
+
+    public Set<Long> getDeptIds() {
+        return deptIds;
+    }
+
+    public Set<Long> getSubtreeRootIds() {
+        return subtreeRootIds;
+    }
+
+    public Set<Long> getUserIds() {
+        return userIds;
+    }
+
+    /**
+     * 渲染为SQL条件，外层带括号，可直接以 AND 拼接
+     *
+     * @param scope 数据权限标记
+     * @param closureTable 部门闭包表
+     * @return SQL条件；ID均为数值，列名来自标记，不含用户输入
+     */
+    public String toSql(DataScope scope, String closureTable) {
+        return predicates.computeIfAbsent(scope, key -> render(key, closureTable));
+    }
+
+    private String render(DataScope scope, String closureTable) {
+        String prefix = scope.alias().isEmpty() ? "" : scope.alias() + ".";
+        List<String> terms = new ArrayList<>(3);
+
+        List<String> deptTerms = new ArrayList<>(2);
+        if (!deptIds.isEmpty()) {
+            deptTerms.add(in(scope.deptColumn(), deptIds));
+        }
+        if (!subtreeRootIds.isEmpty()) {
+            deptTerms.add(scope.deptColumn() + " IN (SELECT descendant_id FROM " + closureTable
+                    + " WHERE " + in("ancestor_id", subtreeRootIds) + ")");
+        }
+        if (!deptTerms.isEmpty()) {
+            if (scope.deptLinkTable().isEmpty()) {
+                deptTerms.forEach(term -> terms.add(prefix + term));
+            } else {
+                terms.add(prefix + scope.keyColumn() + " IN (SELECT " + scope.deptLinkColumn()
+                        + " FROM " + scope.deptLinkTable() + " WHERE " + String.join(" OR ", deptTerms) + ")");
+            }
+        }
+        if (!userIds.isEmpty()) {
+            terms.add(prefix + in(scope.userColumn(), userIds));
+        }
+        return "(" + (terms.isEmpty() ? NO_ROWS : String.join(" OR ", terms)) + ")";
+    }
+
+    private static String in(String column, Set<Long> ids) {
+        if (ids.size() == 1) {
+            return column + " = " + ids.iterator().next();
+        }
+        return column + " IN (" + ids.stream().map(String::valueOf).collect(Collectors.joining(",")) + ")";
+    }
+
+    private static Set<Long> sorted(Collection<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return Collections.emptySet();
+        }
+        Set<Long> sorted = ids.stream()
+                .filter(Objects::nonNull)
+                .collect(Collectors.toCollection(TreeSet::new));
+        return Collections.unmodifiableSet(sorted);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof DataScopeRule other)) {
+            return false;
+        }
+        return all == other.all && deptIds.equals(other.deptIds)
+                && subtreeRootIds.equals(other.subtreeRootIds) && userIds.equals(other.userIds);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(all, deptIds, subtreeRootIds, userIds);
+    }
+
+    @Override
+    public String toString() {
+        return all ? "DataScopeRule[ALL]"
+                : "DataScopeRule[deptIds=" + deptIds + ", subtreeRootIds=" + subtreeRootIds + ", userIds=" + userIds + "]";
+    }
+}
@@ -0,0 +1,293 @@
+package com.xiaoxin.iam.starter.data.concurrency;
+
+import java.io.PrintWriter;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.Logger;
+
+import javax.sql.DataSource;
+
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+
+/**
+ * 虚拟线程吞吐压测
+ * <p>
+ * 在内存中模拟以阻塞为主的请求，对比平台线程池与虚拟线程（有/无数据库许可）的吞吐、延迟和取连接超时，
+ * 不访问网络与数据库，不随单元测试执行。虚拟线程需要 Java 21：编译测试代码后以 Java 21 运行 main 方法。
+ * </p>
+ * 模拟请求各占一半：
+ * <ul>
+ *     <li>令牌签发类：Feign 调用 40ms，Redis 2ms，不取数据库连接</li>
+ *     <li>分页查询类：持有连接执行两条 4ms 的 SQL，再 Feign 调用 10ms</li>
+ * </ul>
+ * 连接池 10 个连接，取连接与等待许可的超时均为 30s（Hikari 与 iam.data.concurrency 的默认值）；
+ * 平台线程池 200 线程（Tomcat 默认），超出的请求排队。参数可通过系统属性 seconds、levels、timeoutMs 调整。
+ * 除总体延迟外分别输出两类请求的 p99，便于观察不取连接的请求是否被数据库排队拖慢。
+ *
+ * @author xiaoxin
+ * @since 1.0.0
+ */
+public class VirtualThreadThroughputBenchmark {
+
+    private static final int POOL_SIZE = 10;
+
+    private static final int PLATFORM_THREADS = 200;
+
+    private static final Duration CONNECTION_TIMEOUT = Duration.ofMillis(Long.getLong("timeoutMs", 30_000));
+
+    private static final long FEIGN_NANOS = TimeUnit.MILLISECONDS.toNanos(40);
+
+    private static final long REDIS_NANOS = TimeUnit.MILLISECONDS.toNanos(2);
+
+    private static final long QUERY_NANOS = TimeUnit.MILLISECONDS.toNanos(4);
+
+    private static final long QUERY_FEIGN_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+    public static void main(String[] args) throws Exception {
+        int seconds = Integer.getInteger("seconds", 5);
+        int[] levels = Arrays.stream(System.getProperty("levels", "50,200,800,2000").split(","))
+                .mapToInt(Integer::parseInt).toArray();
+        System.out.printf("java=%s, cpus=%d, pool=%d, platformThreads=%d, timeout=%dms, seconds=%d%n",
+                Runtime.version(), Runtime.getRuntime().availableProcessors(), POOL_SIZE, PLATFORM_THREADS,
+                CONNECTION_TIMEOUT.toMillis(), seconds);
+
+        // 预热
+        runPlatform(200, 2);
+        runVirtual(200, 2, true);
+
+        System.out.printf("%-18s %8s %12s %10s %10s %14s %12s %8s%n",
+                "mode", "clients", "throughput/s", "p50(ms)", "p99(ms)", "p99 no-db(ms)", "p99 db(ms)", "errors");
+        for (int clients : levels) {
+            runPlatform(clients, seconds).print();
+            runVirtual(clients, seconds, false).print();
+            runVirtual(clients, seconds, true).print();
+        }
+    }
+
+    /**
+     * 平台线程池直接使用连接池，对应关闭虚拟线程时的配置
+     */
+    private static Result runPlatform(int clients, int seconds) throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(PLATFORM_THREADS);
+        try {
+            return run("platform-" + PLATFORM_THREADS, clients, seconds, executor, new SimulatedPool());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * 每个请求一个虚拟线程，可选在连接池前加按连接数限流的信号量
+     */
+    private static Result runVirtual(int clients, int seconds, boolean limited) throws InterruptedException {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("bench-");
+        executor.setVirtualThreads(true);
+        DataSource pool = new SimulatedPool();
+        DataSource dataSource = limited
+                ? new ConcurrencyLimitedDataSource(pool, POOL_SIZE, CONNECTION_TIMEOUT, null)
+                : pool;
+        return run(limited ? "virtual+semaphore" : "virtual", clients, seconds, executor, dataSource);
+    }
+
+    private static Result run(String mode, int clients, int seconds, Executor executor, DataSource dataSource)
+            throws InterruptedException {
+        Recorder[] recorders = new Recorder[clients];
+        Recorder[] queryRecorders = new Recorder[clients];
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(clients);
+        AtomicLong errors = new AtomicLong();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        for (int c = 0; c < clients; c++) {
+            Recorder recorder = new Recorder();
+            Recorder queryRecorder = new Recorder();
+            recorders[c] = recorder;
+            queryRecorders[c] = queryRecorder;
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                    while (System.nanoTime() < deadline) {
+                        boolean query = ThreadLocalRandom.current().nextBoolean();
+                        long begin = System.nanoTime();
+                        try {
+                            CompletableFuture.runAsync(() -> handle(query, dataSource), executor).join();
+                            (query ? queryRecorder : recorder).add(System.nanoTime() - begin);
+                        } catch (CompletionException e) {
+                            errors.incrementAndGet();
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            }, mode + "-client-" + c);
+            thread.setDaemon(true);
+            thread.start();
+        }
+        long begin = System.nanoTime();
+        start.countDown();
+        done.await();
+        long elapsed = System.nanoTime() - begin;
+        long[] plain = Recorder.merge(recorders);
+        long[] queries = Recorder.merge(queryRecorders);
+        long[] latencies = new long[plain.length + queries.length];
+        System.arraycopy(plain, 0, latencies, 0, plain.length);
+        System.arraycopy(queries, 0, latencies, plain.length, queries.length);
+        Arrays.sort(plain);
+        Arrays.sort(queries);
+        Arrays.sort(latencies);
+        return new Result(mode, clients, latencies.length * 1_000_000_000.0 / elapsed,
+                percentile(latencies, 0.50), percentile(latencies, 0.99),
+                percentile(plain, 0.99), percentile(queries, 0.99), errors.get());
+    }
+
+    /**
+     * 模拟一次请求处理
+     */
+    private static void handle(boolean query, DataSource dataSource) {
+        if (!query) {
+            LockSupport.parkNanos(FEIGN_NANOS);
+            LockSupport.parkNanos(REDIS_NANOS);
+            return;
+        }
+        try (Connection ignored = dataSource.getConnection()) {
+            LockSupport.parkNanos(QUERY_NANOS);
+            LockSupport.parkNanos(QUERY_NANOS);
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+        LockSupport.parkNanos(QUERY_FEIGN_NANOS);
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.min(sorted.length - 1, Math.ceil(p * sorted.length) - 1);
+        return sorted[Math.max(0, index)] / 1_000_000.0;
+    }
+
+    /**
+     * 模拟连接池：固定连接数，非公平地分配给等待者，等待超时抛出 SQLTransientConnectionException
+     */
+    private static final class SimulatedPool implements DataSource {
+
+        private final Semaphore connections = new Semaphore(POOL_SIZE, false);
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            boolean acquired;
+            try {
+                acquired = connections.tryAcquire(CONNECTION_TIMEOUT.toNanos(), TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new SQLTransientConnectionException("interrupted", e);
+            }
+            if (!acquired) {
+                throw new SQLTransientConnectionException("Connection is not available, request timed out");
+            }
+            AtomicBoolean closed = new AtomicBoolean();
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                    new Class<?>[]{Connection.class}, (proxy, method, args) -> {
+                        if ("close".equals(method.getName()) && closed.compareAndSet(false, true)) {
+                            connections.release();
+                        }
+                        return null;
+                    });
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            return getConnection();
+        }
+
+        @Override
+        public PrintWriter getLogWriter() {
+            return null;
+        }
+
+        @Override
+        public void setLogWriter(PrintWriter out) {
+        }
+
+        @Override
+        public void setLoginTimeout(int seconds) {
+        }
+
+        @Override
+        public int getLoginTimeout() {
+            return 0;
+        }
+
+        @Override
+        public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+            throw new SQLFeatureNotSupportedException();
+        }
+
+        @Override
+        public <T> T unwrap(Class<T> iface) throws SQLException {
+            throw new SQLException("not a wrapper");
+        }
+
+        @Override
+        public boolean isWrapperFor(Class<?> iface) {
+            return false;
+        }
+    }
+
+    /**
+     * 单个客户端的延迟记录，只由该客户端线程写入
+     */
+    private static final class Recorder {
+
+        private long[] values = new long[1024];
+        private int size;
+
+        void add(long value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        static long[] merge(Recorder[] recorders) {
+            int total = 0;
+            for (Recorder recorder : recorders) {
+                total += recorder.size;
+            }
+            long[] merged = new long[total];
+            int offset = 0;
+            for (Recorder recorder : recorders) {
+                System.arraycopy(recorder.values, 0, merged, offset, recorder.size);
+                offset += recorder.size;
+            }
+            return merged;
+        }
+    }
+
+    private record Result(String mode, int clients, double throughput, double p50, double p99,
+                          double plainP99, double queryP99, long errors) {
+
+        void print() {
+            System.out.printf("%-18s %8d %12.0f %10.2f %10.2f %14.2f %12.2f %8d%n",
+                    mode, clients, throughput, p50, p99, plainP99, queryP99, errors);
+        }
+    }
+}
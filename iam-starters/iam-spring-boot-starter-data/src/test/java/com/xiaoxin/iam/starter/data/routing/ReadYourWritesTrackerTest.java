@@ -0,0 +1,115 @@
+package com.xiaoxin.iam.starter.data.routing;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 写后读主跟踪测试
+ *
+ * @author xiaoxin
+ * @since 1.0.0
+ */
+public class ReadYourWritesTrackerTest {
+
+    private ObjectProvider<ReadConsistencyKeyProvider> keyProvider;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        keyProvider = mock(ObjectProvider.class);
+        when(keyProvider.getIfAvailable()).thenReturn(() -> "user:1");
+    }
+
+    @AfterEach
+    public void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    public void testWriteOpensWindowForThatKeyOnly() {
+        ReadYourWritesTracker tracker = new ReadYourWritesTracker(keyProvider, Duration.ofMinutes(1));
+
+        tracker.recordCurrentWrite();
+
+        assertTrue(tracker.recentlyWrote("user:1"));
+        assertFalse(tracker.recentlyWrote("user:2"));
+        assertFalse(tracker.recentlyWrote(null));
+    }
+
+    @Test
+    public void testWindowExpires() throws InterruptedException {
+        ReadYourWritesTracker tracker = new ReadYourWritesTracker(keyProvider, Duration.ofMillis(20));
+
+        tracker.recordWrite("user:1");
+        Thread.sleep(50);
+
+        assertFalse(tracker.recentlyWrote("user:1"));
+    }
+
+    @Test
+    public void testZeroWindowDisablesTracking() {
+        ReadYourWritesTracker tracker = new ReadYourWritesTracker(keyProvider, Duration.ZERO);
+
+        tracker.recordWrite("user:1");
+
+        assertFalse(tracker.recentlyWrote("user:1"));
+    }
+
+    @Test
+    public void testTransactionalWriteOpensWindowAfterCommitOnce() {
+        ReadYourWritesTracker tracker = new ReadYourWritesTracker(keyProvider, Duration.ofMinutes(1));
+        TransactionSynchronizationManager.initSynchronization();
+
+        tracker.recordCurrentWrite();
+        tracker.recordCurrentWrite();
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        assertEquals(1, synchronizations.size());
+        assertFalse(tracker.recentlyWrote("user:1"));
+
+        synchronizations.forEach(TransactionSynchronization::afterCommit);
+        synchronizations.forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+
+        assertTrue(tracker.recentlyWrote("user:1"));
+        assertFalse(TransactionSynchronizationManager.hasResource(tracker));
+    }
+
+    @Test
+    public void testRolledBackWriteDoesNotOpenWindow() {
+        ReadYourWritesTracker tracker = new ReadYourWritesTracker(keyProvider, Duration.ofMinutes(1));
+        TransactionSynchronizationManager.initSynchronization();
+
+        tracker.recordCurrentWrite();
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        assertFalse(tracker.recentlyWrote("user:1"));
+        assertFalse(TransactionSynchronizationManager.hasResource(tracker));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testMissingKeyProviderIsNotTracked() {
+        ObjectProvider<ReadConsistencyKeyProvider> empty = mock(ObjectProvider.class);
+        ReadYourWritesTracker tracker = new ReadYourWritesTracker(empty, Duration.ofMinutes(1));
+
+        tracker.recordCurrentWrite();
+
+        assertNull(tracker.currentKey());
+    }
+}
@@ -121,6 +121,18 @@ public interface MessageSender {
      */
     SendResult sendOrderly(String topic, Object message, String hashKey);
 
+    /**
+     * 发送顺序消息（带标签与键值）
+     * 
+     * @param topic 主题
+     * @param tag 标签
+     * @param key 消息键
+     * @param message 消息内容
+     * @param hashKey 哈希键（用于选择队列）
+     * @return 发送结果
+     */
+    SendResult sendOrderly(String topic, String tag, String key, Object message, String hashKey);
+
     /**
      * 发送延时消息
      * 
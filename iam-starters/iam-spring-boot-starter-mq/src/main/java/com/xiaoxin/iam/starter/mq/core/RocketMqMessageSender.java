@@ -123,14 +123,20 @@ public class RocketMqMessageSender implements MessageSender {
 
     @Override
     public SendResult sendOrderly(String topic, Object message, String hashKey) {
+        return sendOrderly(topic, null, null, message, hashKey);
+    }
+
+    @Override
+    public SendResult sendOrderly(String topic, String tag, String key, Object message, String hashKey) {
         try {
-            Message<byte[]> mqMessage = buildMessage(message, null);
+            String destination = buildDestination(topic, tag);
+            Message<byte[]> mqMessage = buildMessage(message, key);
             
-            rocketMQTemplate.syncSendOrderly(topic, mqMessage, hashKey);
+            rocketMQTemplate.syncSendOrderly(destination, mqMessage, hashKey);
             
-            return SendResult.success(topic, "orderly-" + System.currentTimeMillis(), hashKey);
+            return SendResult.success(topic, "orderly-" + System.currentTimeMillis(), key);
         } catch (Exception e) {
-            log.error("Failed to send orderly message to topic: {}, hashKey: {}", topic, hashKey, e);
+            log.error("Failed to send orderly message to topic: {}, tag: {}, hashKey: {}", topic, tag, hashKey, e);
             return SendResult.failure(topic, e);
         }
     }
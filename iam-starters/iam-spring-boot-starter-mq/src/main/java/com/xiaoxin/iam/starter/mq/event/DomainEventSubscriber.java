@@ -0,0 +1,161 @@
+/*
+ * Copyright 2024 xiaoxin. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.xiaoxin.iam.starter.mq.event;
+
+import com.xiaoxin.iam.starter.mq.serialization.MessageSerializer;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.rocketmq.common.message.MessageExt;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * 领域事件订阅器
+ * <p>
+ * 按消息标签把消息反序列化为注册的事件类型，再依次交给该类型的处理器（通常是缓存失效逻辑）。
+ * 消费方在自己的 RocketMQ 监听器中创建订阅器并调用 {@link #dispatch(MessageExt)}：
+ * </p>
+ * <pre>
+ * subscriber = new DomainEventSubscriber(messageSerializer)
+ *         .on(UserChangedEvent.class, event -&gt; cache.invalidateUserIds(event.getUserIds()))
+ *         .on(RoleChangedEvent.class, event -&gt; cache.invalidateRoleKeys(event.getRoleKeys()))
+ *         .onFailure(message -&gt; cache.invalidateAll());
+ * </pre>
+ * <p>
+ * 未注册的标签直接忽略；无法解析、主版本高于 {@link #SUPPORTED_MAJOR_VERSION} 或处理器抛出异常时调用失败回调，
+ * 由消费方按最保守的方式处理（如清空缓存）。注册应在启动阶段完成，分发阶段只读。
+ * </p>
+ *
+ * @author xiaoxin
+ * @since 1.0.0
+ */
+@Slf4j
+public class DomainEventSubscriber {
+
+    /**
+     * 支持的事件主版本，同一主版本内的事件结构只做兼容扩展
+     */
+    public static final int SUPPORTED_MAJOR_VERSION = 1;
+
+    private final MessageSerializer messageSerializer;
+
+    /**
+     * 消息标签 -> 订阅
+     */
+    private final Map<String, Subscription<?>> subscriptions = new HashMap<>();
+
+    private Consumer<MessageExt> failureHandler = message -> { };
+
+    public DomainEventSubscriber(MessageSerializer messageSerializer) {
+        this.messageSerializer = messageSerializer;
+    }
+
+    /**
+     * 注册事件处理器，同一事件类型可注册多个，按注册顺序执行
+     *
+     * @param eventType 事件类型，其默认标签用于匹配消息
+     * @param handler 处理器
+     * @return 当前订阅器
+     */
+    @SuppressWarnings("unchecked")
+    public <E extends DomainEvent> DomainEventSubscriber on(Class<E> eventType, Consumer<? super E> handler) {
+        String tag = tagOf(eventType);
+        Subscription<?> existing = subscriptions.computeIfAbsent(tag, key -> new Subscription<>(eventType));
+        if (existing.eventType != eventType) {
+            throw new IllegalArgumentException("标签 " + tag + " 已注册为 " + existing.eventType.getName()
+                    + "，不能再注册为 " + eventType.getName());
+        }
+        ((Subscription<E>) existing).handlers.add(handler);
+        return this;
+    }
+
+    /**
+     * 注册失败回调
+     *
+     * @param failureHandler 消息无法解析或处理失败时调用
+     * @return 当前订阅器
+     */
+    public DomainEventSubscriber onFailure(Consumer<MessageExt> failureHandler) {
+        this.failureHandler = failureHandler;
+        return this;
+    }
+
+    /**
+     * 分发一条消息
+     *
+     * @param message RocketMQ 消息
+     */
+    public void dispatch(MessageExt message) {
+        Subscription<?> subscription = subscriptions.get(message.getTags());
+        if (subscription == null) {
+            return;
+        }
+        try {
+            subscription.dispatch(message.getBody());
+        } catch (Exception e) {
+            log.warn("处理领域事件失败，执行失败回调: msgId={}, tag={}", message.getMsgId(), message.getTags(), e);
+            failureHandler.accept(message);
+        }
+    }
+
+    private static String tagOf(Class<? extends DomainEvent> eventType) {
+        try {
+            return eventType.getDeclaredConstructor().newInstance().getTag();
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalArgumentException("事件类型需要提供无参构造函数: " + eventType.getName(), e);
+        }
+    }
+
+    private static boolean isSupported(String version) {
+        if (version == null || version.isEmpty()) {
+            return true;
+        }
+        int dot = version.indexOf('.');
+        try {
+            return Integer.parseInt(dot < 0 ? version : version.substring(0, dot)) <= SUPPORTED_MAJOR_VERSION;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    /**
+     * 单个事件类型的订阅
+     */
+    private final class Subscription<E extends DomainEvent> {
+
+        final Class<E> eventType;
+
+        final List<Consumer<? super E>> handlers = new ArrayList<>();
+
+        Subscription(Class<E> eventType) {
+            this.eventType = eventType;
+        }
+
+        void dispatch(byte[] body) {
+            E event = messageSerializer.deserialize(body, eventType);
+            if (!isSupported(event.getVersion())) {
+                throw new IllegalStateException("不支持的事件版本: " + eventType.getSimpleName() + " v" + event.getVersion());
+            }
+            for (Consumer<? super E> handler : handlers) {
+                handler.accept(event);
+            }
+        }
+    }
+}
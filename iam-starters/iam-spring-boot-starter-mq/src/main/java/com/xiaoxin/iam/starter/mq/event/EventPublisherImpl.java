@@ -102,7 +102,7 @@ public class EventPublisherImpl implements EventPublisher {
     @Override
     public void publishOrderly(DomainEvent event, String hashKey) {
         String topic = buildTopic(event.getTopic());
-        SendResult result = messageSender.sendOrderly(topic, event, hashKey);
+        SendResult result = messageSender.sendOrderly(topic, event.getTag(), event.getEventId(), event, hashKey);
         
         if (!result.isSuccess()) {
             handleFailure(event, result.getException());
@@ -0,0 +1,100 @@
+/*
+ * Copyright 2024 xiaoxin. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.xiaoxin.iam.starter.mq.event.identity;
+
+import com.xiaoxin.iam.starter.mq.event.DomainEvent;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 部门变更事件
+ * <p>
+ * 由核心服务在部门层级变化后发布。部门移动会改变子树内所有部门的祖先链，
+ * 依赖部门层级的缓存（数据权限范围、部门树）应据此失效。
+ * </p>
+ *
+ * @author xiaoxin
+ * @since 1.0.0
+ */
+@Data
+@EqualsAndHashCode(callSuper = true)
+public class DeptChangedEvent extends DomainEvent {
+
+    /**
+     * 聚合根类型
+     */
+    public static final String AGGREGATE_TYPE = "Dept";
+
+    /**
+     * 变更类型：移动到新的父部门下
+     */
+    public static final String CHANGE_MOVED = "MOVED";
+
+    /**
+     * 变更类型
+     */
+    private String changeType;
+
+    /**
+     * 发生变更的部门ID
+     */
+    private Long deptId;
+
+    /**
+     * 变更前的父部门ID
+     */
+    private Long oldParentId;
+
+    /**
+     * 变更后的父部门ID
+     */
+    private Long parentId;
+
+    /**
+     * 受影响的部门ID（移动时为整棵子树，含部门自身）
+     */
+    private List<Long> affectedDeptIds = new ArrayList<>();
+
+    public DeptChangedEvent() {
+        super();
+        setTopic(UserChangedEvent.TOPIC);
+        setTag(AGGREGATE_TYPE);
+    }
+
+    public DeptChangedEvent(String changeType, Long deptId, Long oldParentId, Long parentId, List<Long> affectedDeptIds) {
+        this();
+        this.changeType = changeType;
+        this.deptId = deptId;
+        this.oldParentId = oldParentId;
+        this.parentId = parentId;
+        if (affectedDeptIds != null) {
+            this.affectedDeptIds = new ArrayList<>(affectedDeptIds);
+        }
+        setAggregateId(String.valueOf(deptId));
+        setAggregateType(AGGREGATE_TYPE);
+    }
+
+    @Override
+    public DomainEvent copy() {
+        DeptChangedEvent copy = new DeptChangedEvent(changeType, deptId, oldParentId, parentId, affectedDeptIds);
+        copy.setSource(getSource());
+        return copy;
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright 2024 xiaoxin. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.xiaoxin.iam.starter.mq.event.identity;
+
+import com.xiaoxin.iam.starter.mq.event.DomainEvent;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 菜单变更事件
+ * <p>
+ * 菜单新增、修改、删除或状态变化后发布，缓存菜单树或菜单权限的消费方据此失效。
+ * 角色的菜单分配变化仍以 {@link RoleChangedEvent#CHANGE_MENUS} 发布。
+ * </p>
+ *
+ * @author xiaoxin
+ * @since 1.0.0
+ */
+@Data
+@EqualsAndHashCode(callSuper = true)
+public class MenuChangedEvent extends DomainEvent {
+
+    /**
+     * 聚合根类型
+     */
+    public static final String AGGREGATE_TYPE = "Menu";
+
+    /**
+     * 变更类型：新增
+     */
+    public static final String CHANGE_CREATED = "CREATED";
+
+    /**
+     * 变更类型：资料更新
+     */
+    public static final String CHANGE_UPDATED = "UPDATED";
+
+    /**
+     * 变更类型：状态变更
+     */
+    public static final String CHANGE_STATUS = "STATUS";
+
+    /**
+     * 变更类型：删除
+     */
+    public static final String CHANGE_DELETED = "DELETED";
+
+    /**
+     * 变更类型
+     */
+    private String changeType;
+
+    /**
+     * 受影响的菜单ID
+     */
+    private List<Long> menuIds = new ArrayList<>();
+
+    public MenuChangedEvent() {
+        super();
+        setTopic(UserChangedEvent.TOPIC);
+        setTag(AGGREGATE_TYPE);
+    }
+
+    public MenuChangedEvent(String changeType, List<Long> menuIds) {
+        this();
+        this.changeType = changeType;
+        if (menuIds != null) {
+            this.menuIds = new ArrayList<>(menuIds);
+        }
+        if (this.menuIds.size() == 1) {
+            setAggregateId(String.valueOf(this.menuIds.get(0)));
+        }
+        setAggregateType(AGGREGATE_TYPE);
+    }
+
+    @Override
+    public DomainEvent copy() {
+        MenuChangedEvent copy = new MenuChangedEvent(changeType, menuIds);
+        copy.setSource(getSource());
+        return copy;
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright 2024 xiaoxin. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.xiaoxin.iam.starter.mq.event.identity;
+
+import com.xiaoxin.iam.starter.mq.event.DomainEvent;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 角色变更事件
+ * <p>
+ * 角色状态、权限或删除等变化会影响所有持有该角色的用户，
+ * 消费方可按角色标识失效相关用户缓存，未知时整体失效。
+ * </p>
+ *
+ * @author xiaoxin
+ * @since 1.0.0
+ */
+@Data
+@EqualsAndHashCode(callSuper = true)
+public class RoleChangedEvent extends DomainEvent {
+
+    /**
+     * 聚合根类型
+     */
+    public static final String AGGREGATE_TYPE = "Role";
+
+    /**
+     * 变更类型：资料更新
+     */
+    public static final String CHANGE_UPDATED = "UPDATED";
+
+    /**
+     * 变更类型：状态变更
+     */
+    public static final String CHANGE_STATUS = "STATUS";
+
+    /**
+     * 变更类型：权限分配变更
+     */
+    public static final String CHANGE_PERMISSIONS = "PERMISSIONS";
+
+    /**
+     * 变更类型：菜单分配变更
+     */
+    public static final String CHANGE_MENUS = "MENUS";
+
+    /**
+     * 变更类型：数据权限部门分配变更
+     */
+    public static final String CHANGE_DEPTS = "DEPTS";
+
+    /**
+     * 变更类型：删除
+     */
+    public static final String CHANGE_DELETED = "DELETED";
+
+    /**
+     * 变更类型
+     */
+    private String changeType;
+
+    /**
+     * 受影响的角色ID
+     */
+    private List<Long> roleIds = new ArrayList<>();
+
+    /**
+     * 受影响的角色标识（roleKey），与 UserDTO.roles 对应
+     */
+    private List<String> roleKeys = new ArrayList<>();
+
+    /**
+     * 关联分配变更新增的权限、菜单或部门ID，仅单个聚合的关联分配事件携带
+     */
+    private List<Long> addedIds = new ArrayList<>();
+
+    /**
+     * 关联分配变更移除的权限、菜单或部门ID，仅单个聚合的关联分配事件携带
+     */
+    private List<Long> removedIds = new ArrayList<>();
+
+    public RoleChangedEvent() {
+        super();
+        setTopic(UserChangedEvent.TOPIC);
+        setTag(AGGREGATE_TYPE);
+    }
+
+    public RoleChangedEvent(String changeType, List<Long> roleIds, List<String> roleKeys) {
+        this();
+        this.changeType = changeType;
+        if (roleIds != null) {
+            this.roleIds = new ArrayList<>(roleIds);
+        }
+        if (roleKeys != null) {
+            this.roleKeys = new ArrayList<>(roleKeys);
+        }
+        if (this.roleIds.size() == 1) {
+            setAggregateId(String.valueOf(this.roleIds.get(0)));
+        }
+        setAggregateType(AGGREGATE_TYPE);
+    }
+
+    @Override
+    public DomainEvent copy() {
+        RoleChangedEvent copy = new RoleChangedEvent(changeType, roleIds, roleKeys);
+        copy.setSource(getSource());
+        copy.setAddedIds(new ArrayList<>(addedIds));
+        copy.setRemovedIds(new ArrayList<>(removedIds));
+        return copy;
+    }
+}
@@ -0,0 +1,139 @@
+/*
+ * Copyright 2024 xiaoxin. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.xiaoxin.iam.starter.mq.event.identity;
+
+import com.xiaoxin.iam.starter.mq.event.DomainEvent;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 用户变更事件
+ * <p>
+ * 由核心服务在用户新增、资料、状态、密码、角色或部门分配变化后发布，
+ * 消费方（如认证服务的用户近端缓存）据此失效本地副本。
+ * </p>
+ *
+ * @author xiaoxin
+ * @since 1.0.0
+ */
+@Data
+@EqualsAndHashCode(callSuper = true)
+public class UserChangedEvent extends DomainEvent {
+
+    /**
+     * 身份变更事件统一主题（发布时会自动加上 iam.mq.event.topic-prefix 前缀）
+     */
+    public static final String TOPIC = "identity_change";
+
+    /**
+     * 聚合根类型
+     */
+    public static final String AGGREGATE_TYPE = "User";
+
+    /**
+     * 变更类型：新增
+     */
+    public static final String CHANGE_CREATED = "CREATED";
+
+    /**
+     * 变更类型：资料更新
+     */
+    public static final String CHANGE_UPDATED = "UPDATED";
+
+    /**
+     * 变更类型：状态变更
+     */
+    public static final String CHANGE_STATUS = "STATUS";
+
+    /**
+     * 变更类型：密码变更
+     */
+    public static final String CHANGE_PASSWORD = "PASSWORD";
+
+    /**
+     * 变更类型：角色分配变更
+     */
+    public static final String CHANGE_ROLES = "ROLES";
+
+    /**
+     * 变更类型：部门分配变更
+     */
+    public static final String CHANGE_DEPTS = "DEPTS";
+
+    /**
+     * 变更类型：删除
+     */
+    public static final String CHANGE_DELETED = "DELETED";
+
+    /**
+     * 变更类型
+     */
+    private String changeType;
+
+    /**
+     * 受影响的用户ID
+     */
+    private List<Long> userIds = new ArrayList<>();
+
+    /**
+     * 受影响的用户名（已知时携带，便于按用户名索引的缓存直接失效）
+     */
+    private List<String> usernames = new ArrayList<>();
+
+    /**
+     * 关联分配变更新增的角色或部门ID，仅单个聚合的关联分配事件携带
+     */
+    private List<Long> addedIds = new ArrayList<>();
+
+    /**
+     * 关联分配变更移除的角色或部门ID，仅单个聚合的关联分配事件携带
+     */
+    private List<Long> removedIds = new ArrayList<>();
+
+    public UserChangedEvent() {
+        super();
+        setTopic(TOPIC);
+        setTag(AGGREGATE_TYPE);
+    }
+
+    public UserChangedEvent(String changeType, List<Long> userIds, List<String> usernames) {
+        this();
+        this.changeType = changeType;
+        if (userIds != null) {
+            this.userIds = new ArrayList<>(userIds);
+        }
+        if (usernames != null) {
+            this.usernames = new ArrayList<>(usernames);
+        }
+        if (this.userIds.size() == 1) {
+            setAggregateId(String.valueOf(this.userIds.get(0)));
+        }
+        setAggregateType(AGGREGATE_TYPE);
+    }
+
+    @Override
+    public DomainEvent copy() {
+        UserChangedEvent copy = new UserChangedEvent(changeType, userIds, usernames);
+        copy.setSource(getSource());
+        copy.setAddedIds(new ArrayList<>(addedIds));
+        copy.setRemovedIds(new ArrayList<>(removedIds));
+        return copy;
+    }
+}
@@ -23,6 +23,16 @@ public class OAuth2Properties {
      */
     private AuthorizationServer authorizationServer = new AuthorizationServer();
 
+    /**
+     * 令牌批量内省客户端配置
+     */
+    private Introspection introspection = new Introspection();
+
+    /**
+     * 权限判定客户端配置
+     */
+    private PermissionCheck permissionCheck = new PermissionCheck();
+
     /**
      * OAuth2客户端配置
      */
@@ -88,6 +98,92 @@ public class OAuth2Properties {
         private int maxRetries = 3;
     }
 
+    /**
+     * 令牌批量内省客户端配置
+     * 将并发的单令牌内省请求合并为批量请求发送到认证服务
+     */
+    @Data
+    public static class Introspection {
+
+        /**
+         * 是否启用批量内省客户端
+         */
+        private boolean enabled = false;
+
+        /**
+         * 批量内省端点URL
+         */
+        private String batchUri = "http://iam-auth-service/api/v1/auth/introspect/batch";
+
+        /**
+         * 单批最大令牌数，达到后立即发送
+         */
+        private int maxBatchSize = 100;
+
+        /**
+         * 最长攒批等待时间（毫秒）
+         */
+        private long maxWaitMillis = 5;
+
+        /**
+         * 同时在途的批量请求数
+         */
+        private int concurrency = 4;
+
+        /**
+         * 同步内省的等待超时（毫秒）
+         */
+        private long timeoutMillis = 3000;
+    }
+
+    /**
+     * 权限判定客户端配置
+     * 将并发的单项权限判定合并为批量请求发送到核心服务，并短暂缓存判定结果
+     */
+    @Data
+    public static class PermissionCheck {
+
+        /**
+         * 是否启用权限判定客户端
+         */
+        private boolean enabled = false;
+
+        /**
+         * 批量判定端点URL
+         */
+        private String batchUri = "http://iam-core-service/api/v1/internal/permissions/check/batch";
+
+        /**
+         * 单批最大判定项数，达到后立即发送
+         */
+        private int maxBatchSize = 200;
+
+        /**
+         * 最长攒批等待时间（毫秒）
+         */
+        private long maxWaitMillis = 2;
+
+        /**
+         * 同时在途的批量请求数
+         */
+        private int concurrency = 4;
+
+        /**
+         * 同步判定的等待超时（毫秒）
+         */
+        private long timeoutMillis = 1000;
+
+        /**
+         * 判定结果缓存时间（毫秒），0 表示不缓存
+         */
+        private long cacheTtlMillis = 1000;
+
+        /**
+         * 判定结果缓存最大条目数
+         */
+        private long cacheMaxSize = 10000;
+    }
+
     /**
      * OAuth2授权服务器配置
      */
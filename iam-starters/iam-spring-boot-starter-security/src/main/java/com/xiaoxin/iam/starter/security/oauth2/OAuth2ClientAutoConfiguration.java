@@ -2,8 +2,10 @@ package com.xiaoxin.iam.starter.security.oauth2;
 
 import com.xiaoxin.iam.starter.security.config.OAuth2Properties;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.autoconfigure.AutoConfiguration;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.cloud.client.loadbalancer.LoadBalanced;
@@ -20,6 +22,8 @@ import org.springframework.web.client.RestTemplate;
  *     <li>OAuth2配置属性</li>
  *     <li>Feign客户端认证拦截器</li>
  *     <li>RestTemplate配置</li>
+ *     <li>令牌批量内省客户端</li>
+ *     <li>权限判定客户端</li>
  * </ul>
  *
  * @author xiaoxin
@@ -80,6 +84,52 @@ public class OAuth2ClientAutoConfiguration {
         return interceptor;
     }
 
+    /**
+     * 令牌批量内省客户端
+     * 
+     * <p>合并并发的内省请求，复用客户端凭据拦截器获取的访问令牌调用认证服务</p>
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = "oauth2.introspection", name = "enabled", havingValue = "true")
+    public TokenIntrospectionClient tokenIntrospectionClient(
+            OAuth2Properties oauth2Properties,
+            RestTemplate oauth2RestTemplate,
+            ObjectProvider<OAuth2ClientCredentialsInterceptor> interceptorProvider) {
+        
+        OAuth2ClientCredentialsInterceptor interceptor = interceptorProvider.getIfAvailable();
+        OAuth2Properties.Introspection introspection = oauth2Properties.getIntrospection();
+        
+        log.info("令牌批量内省客户端已启用: batchUri={}, maxBatchSize={}, maxWaitMillis={}", 
+                introspection.getBatchUri(), introspection.getMaxBatchSize(), introspection.getMaxWaitMillis());
+        
+        return new TokenIntrospectionClient(introspection, oauth2RestTemplate,
+                interceptor != null ? interceptor::getAccessToken : null);
+    }
+
+    /**
+     * 权限判定客户端
+     * 
+     * <p>缓存并合并权限判定请求，复用客户端凭据拦截器获取的访问令牌调用核心服务</p>
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = "oauth2.permission-check", name = "enabled", havingValue = "true")
+    public PermissionCheckClient permissionCheckClient(
+            OAuth2Properties oauth2Properties,
+            RestTemplate oauth2RestTemplate,
+            ObjectProvider<OAuth2ClientCredentialsInterceptor> interceptorProvider) {
+        
+        OAuth2ClientCredentialsInterceptor interceptor = interceptorProvider.getIfAvailable();
+        OAuth2Properties.PermissionCheck permissionCheck = oauth2Properties.getPermissionCheck();
+        
+        log.info("权限判定客户端已启用: batchUri={}, maxBatchSize={}, cacheTtlMillis={}", 
+                permissionCheck.getBatchUri(), permissionCheck.getMaxBatchSize(), permissionCheck.getCacheTtlMillis());
+        
+        return new PermissionCheckClient(permissionCheck, oauth2RestTemplate,
+                interceptor != null ? interceptor::getAccessToken : null);
+    }
+
     /**
      * Feign配置类
      * 
@@ -18,6 +18,7 @@ import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * OAuth2客户端凭据Feign拦截器
@@ -50,6 +51,12 @@ public class OAuth2ClientCredentialsInterceptor implements RequestInterceptor {
      */
     private static final String INTERNAL_API_PREFIX = "/api/v1/internal";
 
+    /**
+     * 令牌刷新锁
+     * 刷新期间会阻塞在 HTTP 请求上，使用 ReentrantLock 而不是 synchronized，避免虚拟线程固定载体线程
+     */
+    private final ReentrantLock refreshLock = new ReentrantLock();
+
     @Override
     public void apply(RequestTemplate template) {
         String url = template.url();
@@ -136,8 +143,9 @@ public class OAuth2ClientCredentialsInterceptor implements RequestInterceptor {
 
     /**
      * 获取访问令牌（带缓存）
+     * 也供同一客户端的其他内部调用（如批量令牌内省）复用
      */
-    private String getAccessToken() {
+    public String getAccessToken() {
         String cacheKey = generateCacheKey();
         TokenCache cache = TOKEN_CACHE.get(cacheKey);
 
@@ -151,7 +159,8 @@ public class OAuth2ClientCredentialsInterceptor implements RequestInterceptor {
         }
 
         // 缓存无效，重新获取令牌
-        synchronized (this) {
+        refreshLock.lock();
+        try {
             // 双重检查锁定
             cache = TOKEN_CACHE.get(cacheKey);
             if (cache != null && cache.isValid()) {
@@ -171,6 +180,8 @@ public class OAuth2ClientCredentialsInterceptor implements RequestInterceptor {
             } else {
                 log.error("获取OAuth2访问令牌失败，返回null");
             }
+        } finally {
+            refreshLock.unlock();
         }
 
         return null;
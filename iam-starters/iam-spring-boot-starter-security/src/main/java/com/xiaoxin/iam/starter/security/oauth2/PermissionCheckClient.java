@@ -0,0 +1,165 @@
+package com.xiaoxin.iam.starter.security.oauth2;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.xiaoxin.iam.common.dto.PermissionCheckBatchRequest;
+import com.xiaoxin.iam.common.dto.PermissionCheckDTO;
+import com.xiaoxin.iam.common.result.Result;
+import com.xiaoxin.iam.starter.security.config.OAuth2Properties;
+import com.xiaoxin.iam.starter.thread.MicroBatcher;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.StringUtils;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * 权限判定客户端
+ *
+ * <p>供业务系统判定用户是否拥有某权限，调用核心服务的批量判定接口：</p>
+ * <ul>
+ *     <li>判定结果在本地短暂缓存，命中时不发起远程调用</li>
+ *     <li>未命中的并发判定经 {@link MicroBatcher} 合并后批量发送，相同判定项共享同一个结果</li>
+ *     <li>调用失败时按无权限处理（fail-closed），失败结果不缓存</li>
+ * </ul>
+ *
+ * @author xiaoxin
+ * @date 2024-09-26
+ */
+@Slf4j
+public class PermissionCheckClient implements DisposableBean {
+
+    private static final ParameterizedTypeReference<Result<List<PermissionCheckDTO>>> RESPONSE_TYPE =
+            new ParameterizedTypeReference<>() {
+            };
+
+    private final OAuth2Properties.PermissionCheck properties;
+    private final RestTemplate restTemplate;
+    private final Supplier<String> accessTokenSupplier;
+
+    /**
+     * 判定结果缓存，未启用缓存时为 null
+     */
+    private final Cache<CheckKey, Boolean> decisionCache;
+
+    private final MicroBatcher<CheckKey, Boolean> batcher;
+
+    public PermissionCheckClient(OAuth2Properties.PermissionCheck properties,
+                                 RestTemplate restTemplate,
+                                 Supplier<String> accessTokenSupplier) {
+        this.properties = properties;
+        this.restTemplate = restTemplate;
+        this.accessTokenSupplier = accessTokenSupplier;
+        this.decisionCache = properties.getCacheTtlMillis() > 0
+                ? Caffeine.newBuilder()
+                        .maximumSize(properties.getCacheMaxSize())
+                        .expireAfterWrite(Duration.ofMillis(properties.getCacheTtlMillis()))
+                        .build()
+                : null;
+        this.batcher = new MicroBatcher<>("permission-check", Duration.ofMillis(properties.getMaxWaitMillis()),
+                properties.getMaxBatchSize(), properties.getConcurrency(), this::send);
+    }
+
+    /**
+     * 异步判定用户是否拥有指定权限
+     *
+     * @param userId 用户ID
+     * @param permissionCode 权限编码
+     * @return 判定结果
+     */
+    public CompletableFuture<Boolean> checkAsync(Long userId, String permissionCode) {
+        if (userId == null || !StringUtils.hasText(permissionCode)) {
+            return CompletableFuture.completedFuture(false);
+        }
+        CheckKey key = new CheckKey(userId, permissionCode);
+        Boolean cached = decisionCache != null ? decisionCache.getIfPresent(key) : null;
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+        return batcher.submit(key);
+    }
+
+    /**
+     * 同步判定用户是否拥有指定权限，超时或失败时视为无权限
+     *
+     * @param userId 用户ID
+     * @param permissionCode 权限编码
+     * @return 是否拥有
+     */
+    public boolean check(Long userId, String permissionCode) {
+        try {
+            return checkAsync(userId, permissionCode).get(properties.getTimeoutMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (Exception e) {
+            log.warn("权限判定失败，按无权限处理: userId={}, permission={}, error={}",
+                    userId, permissionCode, e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * 发送一批判定请求，成功的判定结果写入缓存
+     */
+    private Map<CheckKey, Boolean> send(List<CheckKey> keys) {
+        List<PermissionCheckDTO> checks = new ArrayList<>(keys.size());
+        keys.forEach(key -> checks.add(PermissionCheckDTO.builder()
+                .userId(key.userId())
+                .permissionCode(key.permissionCode())
+                .build()));
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        String accessToken = accessTokenSupplier != null ? accessTokenSupplier.get() : null;
+        if (StringUtils.hasText(accessToken)) {
+            headers.setBearerAuth(accessToken);
+        }
+
+        ResponseEntity<Result<List<PermissionCheckDTO>>> response = restTemplate.exchange(
+                properties.getBatchUri(), HttpMethod.POST,
+                new HttpEntity<>(new PermissionCheckBatchRequest(checks), headers), RESPONSE_TYPE);
+
+        Result<List<PermissionCheckDTO>> body = response.getBody();
+        List<PermissionCheckDTO> results = body != null && body.isSuccess() ? body.getData() : null;
+        if (results == null || results.size() != checks.size()) {
+            throw new IllegalStateException("批量权限判定响应异常: " + (body != null ? body.getMessage() : "empty body"));
+        }
+
+        Map<CheckKey, Boolean> decisions = new HashMap<>(keys.size() * 2);
+        for (int i = 0; i < keys.size(); i++) {
+            boolean allowed = Boolean.TRUE.equals(results.get(i).getAllowed());
+            if (decisionCache != null) {
+                decisionCache.put(keys.get(i), allowed);
+            }
+            decisions.put(keys.get(i), allowed);
+        }
+        log.debug("批量权限判定完成: {}项", checks.size());
+        return decisions;
+    }
+
+    @Override
+    public void destroy() {
+        batcher.close();
+    }
+
+    /**
+     * 判定项
+     */
+    private record CheckKey(Long userId, String permissionCode) {
+    }
+}
@@ -0,0 +1,127 @@
+package com.xiaoxin.iam.starter.security.oauth2;
+
+import com.xiaoxin.iam.common.dto.TokenIntrospectionBatchRequest;
+import com.xiaoxin.iam.common.dto.TokenIntrospectionDTO;
+import com.xiaoxin.iam.common.result.Result;
+import com.xiaoxin.iam.starter.security.config.OAuth2Properties;
+import com.xiaoxin.iam.starter.thread.MicroBatcher;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.StringUtils;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * 令牌批量内省客户端
+ *
+ * <p>将并发的单令牌内省请求经 {@link MicroBatcher} 合并后调用认证服务的批量内省接口：</p>
+ * <ul>
+ *     <li>请求先进入待发队列，达到批量上限或等待超过 maxWaitMillis 时发送</li>
+ *     <li>同一令牌的并发请求共享同一个结果</li>
+ *     <li>调用失败时对应请求按无效令牌处理（fail-closed）</li>
+ * </ul>
+ *
+ * @author xiaoxin
+ * @date 2024-09-26
+ */
+@Slf4j
+public class TokenIntrospectionClient implements DisposableBean {
+
+    private static final ParameterizedTypeReference<Result<List<TokenIntrospectionDTO>>> RESPONSE_TYPE =
+            new ParameterizedTypeReference<>() {
+            };
+
+    private final OAuth2Properties.Introspection properties;
+    private final RestTemplate restTemplate;
+    private final Supplier<String> accessTokenSupplier;
+
+    private final MicroBatcher<String, TokenIntrospectionDTO> batcher;
+
+    public TokenIntrospectionClient(OAuth2Properties.Introspection properties,
+                                    RestTemplate restTemplate,
+                                    Supplier<String> accessTokenSupplier) {
+        this.properties = properties;
+        this.restTemplate = restTemplate;
+        this.accessTokenSupplier = accessTokenSupplier;
+        this.batcher = new MicroBatcher<>("token-introspection", Duration.ofMillis(properties.getMaxWaitMillis()),
+                properties.getMaxBatchSize(), properties.getConcurrency(), this::send);
+    }
+
+    /**
+     * 异步内省令牌
+     *
+     * @param token 访问令牌
+     * @return 内省结果
+     */
+    public CompletableFuture<TokenIntrospectionDTO> introspectAsync(String token) {
+        if (!StringUtils.hasText(token)) {
+            return CompletableFuture.completedFuture(TokenIntrospectionDTO.inactive());
+        }
+        return batcher.submit(token);
+    }
+
+    /**
+     * 同步内省令牌，超时或失败时视为无效
+     *
+     * @param token 访问令牌
+     * @return 内省结果
+     */
+    public TokenIntrospectionDTO introspect(String token) {
+        try {
+            return introspectAsync(token).get(properties.getTimeoutMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return TokenIntrospectionDTO.inactive();
+        } catch (Exception e) {
+            log.warn("令牌内省失败，按无效令牌处理: {}", e.getMessage());
+            return TokenIntrospectionDTO.inactive();
+        }
+    }
+
+    /**
+     * 发送一批内省请求，结果与令牌按顺序一一对应
+     */
+    private Map<String, TokenIntrospectionDTO> send(List<String> tokens) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        String accessToken = accessTokenSupplier != null ? accessTokenSupplier.get() : null;
+        if (StringUtils.hasText(accessToken)) {
+            headers.setBearerAuth(accessToken);
+        }
+
+        ResponseEntity<Result<List<TokenIntrospectionDTO>>> response = restTemplate.exchange(
+                properties.getBatchUri(), HttpMethod.POST,
+                new HttpEntity<>(new TokenIntrospectionBatchRequest(tokens), headers), RESPONSE_TYPE);
+
+        Result<List<TokenIntrospectionDTO>> body = response.getBody();
+        List<TokenIntrospectionDTO> results = body != null && body.isSuccess() ? body.getData() : null;
+        if (results == null || results.size() != tokens.size()) {
+            throw new IllegalStateException("批量内省响应异常: " + (body != null ? body.getMessage() : "empty body"));
+        }
+
+        Map<String, TokenIntrospectionDTO> resolved = new HashMap<>(tokens.size() * 2);
+        for (int i = 0; i < tokens.size(); i++) {
+            resolved.put(tokens.get(i), results.get(i));
+        }
+        log.debug("批量内省完成: {}个令牌", tokens.size());
+        return resolved;
+    }
+
+    @Override
+    public void destroy() {
+        batcher.close();
+    }
+}
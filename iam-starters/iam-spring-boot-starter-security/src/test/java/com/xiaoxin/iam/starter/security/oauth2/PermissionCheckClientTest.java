@@ -0,0 +1,121 @@
+package com.xiaoxin.iam.starter.security.oauth2;
+
+import com.xiaoxin.iam.common.dto.PermissionCheckBatchRequest;
+import com.xiaoxin.iam.common.dto.PermissionCheckDTO;
+import com.xiaoxin.iam.common.result.Result;
+import com.xiaoxin.iam.starter.security.config.OAuth2Properties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 权限判定客户端测试
+ *
+ * @author xiaoxin
+ * @since 1.0.0
+ */
+public class PermissionCheckClientTest {
+
+    private RestTemplate restTemplate;
+
+    private PermissionCheckClient client;
+
+    @BeforeEach
+    public void setUp() {
+        restTemplate = mock(RestTemplate.class);
+        OAuth2Properties.PermissionCheck properties = new OAuth2Properties.PermissionCheck();
+        properties.setMaxWaitMillis(20);
+        properties.setCacheTtlMillis(60_000);
+        client = new PermissionCheckClient(properties, restTemplate, () -> "service-token");
+    }
+
+    @AfterEach
+    public void tearDown() {
+        client.destroy();
+    }
+
+    @Test
+    public void testConcurrentChecksAreSentInOneBatch() throws Exception {
+        grantWhenCodeStartsWith("user:");
+
+        CompletableFuture<Boolean> read = client.checkAsync(1L, "user:read");
+        CompletableFuture<Boolean> duplicate = client.checkAsync(1L, "user:read");
+        CompletableFuture<Boolean> denied = client.checkAsync(1L, "role:delete");
+
+        assertTrue(read.get(1, TimeUnit.SECONDS));
+        assertTrue(duplicate.get(1, TimeUnit.SECONDS));
+        assertFalse(denied.get(1, TimeUnit.SECONDS));
+        verify(restTemplate, times(1)).exchange(anyString(), eq(HttpMethod.POST), any(HttpEntity.class),
+                any(ParameterizedTypeReference.class));
+    }
+
+    @Test
+    public void testCachedDecisionSkipsRemoteCall() {
+        grantWhenCodeStartsWith("user:");
+
+        assertTrue(client.check(1L, "user:read"));
+        assertTrue(client.check(1L, "user:read"));
+        verify(restTemplate, times(1)).exchange(anyString(), eq(HttpMethod.POST), any(HttpEntity.class),
+                any(ParameterizedTypeReference.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testFailureDeniesAndIsNotCached() {
+        when(restTemplate.exchange(anyString(), eq(HttpMethod.POST), any(HttpEntity.class),
+                any(ParameterizedTypeReference.class)))
+                .thenThrow(new ResourceAccessException("connection refused"));
+
+        assertFalse(client.check(1L, "user:read"));
+
+        grantWhenCodeStartsWith("user:");
+        assertTrue(client.check(1L, "user:read"));
+    }
+
+    @Test
+    public void testInvalidArgumentsAreDeniedLocally() throws Exception {
+        assertFalse(client.checkAsync(null, "user:read").get());
+        assertFalse(client.checkAsync(1L, " ").get());
+        verify(restTemplate, times(0)).exchange(anyString(), eq(HttpMethod.POST), any(HttpEntity.class),
+                any(ParameterizedTypeReference.class));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void grantWhenCodeStartsWith(String prefix) {
+        when(restTemplate.exchange(anyString(), eq(HttpMethod.POST), any(HttpEntity.class),
+                any(ParameterizedTypeReference.class)))
+                .thenAnswer(invocation -> {
+                    HttpEntity<PermissionCheckBatchRequest> entity = invocation.getArgument(2);
+                    assertEquals("Bearer service-token", entity.getHeaders().getFirst("Authorization"));
+                    List<PermissionCheckDTO> results = entity.getBody().getChecks().stream()
+                            .map(check -> PermissionCheckDTO.builder()
+                                    .userId(check.getUserId())
+                                    .permissionCode(check.getPermissionCode())
+                                    .allowed(check.getPermissionCode().startsWith(prefix))
+                                    .build())
+                            .toList();
+                    return ResponseEntity.ok(Result.success(results));
+                });
+    }
+}
@@ -21,8 +21,11 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.PropertyNamingStrategies;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.xiaoxin.iam.starter.web.field.FieldPermissionModule;
+import com.xiaoxin.iam.starter.web.field.FieldPolicyProvider;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
@@ -55,14 +58,14 @@ public class JacksonConfig {
     @Bean
     @Primary
     @ConditionalOnMissingBean
-    public ObjectMapper objectMapper() {
+    public ObjectMapper objectMapper(FieldPermissionModule fieldPermissionModule) {
         log.info("IAM平台Jackson配置已启用");
         
         WebProperties.Jackson jackson = webProperties.getJackson();
         
         Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json()
-                // 时间模块
-                .modules(new JavaTimeModule())
+                // 时间模块、字段权限模块（业务服务提供 FieldPolicyProvider 时生效）
+                .modules(new JavaTimeModule(), fieldPermissionModule)
                 // 日期格式
                 .simpleDateFormat(jackson.getDateFormat())
                 // 时区设置
@@ -130,6 +133,15 @@ public class JacksonConfig {
         return builder.build();
     }
 
+    /**
+     * 字段权限模块，同时作为 Module Bean 供 Spring Boot 默认的 ObjectMapper 注册
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public FieldPermissionModule fieldPermissionModule(ObjectProvider<FieldPolicyProvider> fieldPolicyProvider) {
+        return new FieldPermissionModule(fieldPolicyProvider);
+    }
+
     /**
      * 默认日期格式
      */
@@ -0,0 +1,28 @@
+package com.xiaoxin.iam.starter.web.field;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 字段权限标记
+ * <p>
+ * 标注在响应对象类上，序列化时按当前用户角色在该资源上的字段权限隐藏或脱敏字段。
+ * 字段名与 sys_field_permission.field_name 比对，JSON 属性名与 Java 字段名均可匹配。
+ * </p>
+ *
+ * @author xiaoxin
+ * @since 1.0.0
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface FieldPermission {
+
+    /**
+     * 资源类型，对应 sys_field_permission.resource_type
+     */
+    String resource();
+}
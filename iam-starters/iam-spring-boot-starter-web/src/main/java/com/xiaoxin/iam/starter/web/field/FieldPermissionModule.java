@@ -0,0 +1,36 @@
+package com.xiaoxin.iam.starter.web.field;
+
+import org.springframework.beans.factory.ObjectProvider;
+
+import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializationConfig;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.BeanSerializerModifier;
+
+/**
+ * 字段权限 Jackson 模块
+ * 为标注了 {@link FieldPermission} 的类包装 {@link FieldPermissionSerializer}，其余类型不受影响
+ *
+ * @author xiaoxin
+ * @since 1.0.0
+ */
+public class FieldPermissionModule extends SimpleModule {
+
+    private static final long serialVersionUID = 1L;
+
+    public FieldPermissionModule(ObjectProvider<FieldPolicyProvider> policyProvider) {
+        super("IamFieldPermissionModule");
+        setSerializerModifier(new BeanSerializerModifier() {
+            @Override
+            public JsonSerializer<?> modifySerializer(SerializationConfig config, BeanDescription beanDesc,
+                                                      JsonSerializer<?> serializer) {
+                FieldPermission annotation = beanDesc.getBeanClass().getAnnotation(FieldPermission.class);
+                if (annotation == null) {
+                    return serializer;
+                }
+                return new FieldPermissionSerializer(annotation.resource(), serializer, policyProvider);
+            }
+        });
+    }
+}
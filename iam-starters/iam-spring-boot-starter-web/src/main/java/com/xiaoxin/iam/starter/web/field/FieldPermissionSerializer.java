@@ -0,0 +1,155 @@
+package com.xiaoxin.iam.starter.web.field;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import org.springframework.beans.factory.ObjectProvider;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.BeanProperty;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
+import com.fasterxml.jackson.databind.ser.BeanPropertyWriter;
+import com.fasterxml.jackson.databind.ser.BeanSerializer;
+import com.fasterxml.jackson.databind.ser.ContextualSerializer;
+import com.fasterxml.jackson.databind.ser.PropertyWriter;
+import com.fasterxml.jackson.databind.ser.ResolvableSerializer;
+import com.fasterxml.jackson.databind.ser.std.BeanSerializerBase;
+
+/**
+ * 字段权限序列化器
+ * <p>
+ * 包装 Jackson 生成的默认 Bean 序列化器。序列化时取当前用户的字段策略：
+ * 无限制时直接委托默认序列化器；否则使用按（类, 策略）特化的序列化器，
+ * 其中隐藏字段已从属性列表移除、脱敏字段替换为内联了脱敏函数的属性写出器，
+ * 之后同一角色组合的每一行都不再逐字段判断权限。
+ * </p>
+ * <p>
+ * 策略在一次序列化内只解析一次，缓存在 SerializerProvider 的属性中，列表中的每个元素共用。
+ * </p>
+ *
+ * @author xiaoxin
+ * @since 1.0.0
+ */
+public class FieldPermissionSerializer extends JsonSerializer<Object> implements ContextualSerializer, ResolvableSerializer {
+
+    private final String resource;
+
+    private final JsonSerializer<Object> delegate;
+
+    private final ObjectProvider<FieldPolicyProvider> policyProvider;
+
+    /**
+     * 本次序列化内缓存策略的属性键，按资源区分
+     */
+    private final Object attributeKey;
+
+    @SuppressWarnings("unchecked")
+    public FieldPermissionSerializer(String resource, JsonSerializer<?> delegate,
+                                     ObjectProvider<FieldPolicyProvider> policyProvider) {
+        this.resource = resource;
+        this.delegate = (JsonSerializer<Object>) delegate;
+        this.policyProvider = policyProvider;
+        this.attributeKey = FieldPermissionSerializer.class.getName() + ":" + resource;
+    }
+
+    @Override
+    public void serialize(Object value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        serializerFor(provider).serialize(value, gen, provider);
+    }
+
+    @Override
+    public void serializeWithType(Object value, JsonGenerator gen, SerializerProvider provider,
+                                  TypeSerializer typeSer) throws IOException {
+        serializerFor(provider).serializeWithType(value, gen, provider, typeSer);
+    }
+
+    @Override
+    public boolean isEmpty(SerializerProvider provider, Object value) {
+        return delegate.isEmpty(provider, value);
+    }
+
+    @Override
+    public boolean usesObjectId() {
+        return delegate.usesObjectId();
+    }
+
+    @Override
+    public void resolve(SerializerProvider provider) throws JsonMappingException {
+        if (delegate instanceof ResolvableSerializer resolvable) {
+            resolvable.resolve(provider);
+        }
+    }
+
+    @Override
+    public JsonSerializer<?> createContextual(SerializerProvider provider, BeanProperty property)
+            throws JsonMappingException {
+        if (!(delegate instanceof ContextualSerializer contextual)) {
+            return this;
+        }
+        JsonSerializer<?> contextualized = contextual.createContextual(provider, property);
+        return contextualized == delegate ? this
+                : new FieldPermissionSerializer(resource, contextualized, policyProvider);
+    }
+
+    private JsonSerializer<Object> serializerFor(SerializerProvider provider) {
+        FieldPolicy policy = currentPolicy(provider);
+        if (policy.isEmpty() || !(delegate instanceof BeanSerializerBase)) {
+            return delegate;
+        }
+        return policy.serializerFor(delegate, base -> specialize((BeanSerializerBase) base, policy));
+    }
+
+    private FieldPolicy currentPolicy(SerializerProvider provider) {
+        Object cached = provider.getAttribute(attributeKey);
+        if (cached instanceof FieldPolicy policy) {
+            return policy;
+        }
+        FieldPolicyProvider policies = policyProvider.getIfAvailable();
+        FieldPolicy policy = policies != null ? policies.currentPolicy(resource) : null;
+        if (policy == null) {
+            policy = FieldPolicy.NONE;
+        }
+        provider.setAttribute(attributeKey, policy);
+        return policy;
+    }
+
+    /**
+     * 按策略裁剪默认序列化器的属性列表
+     */
+    private static JsonSerializer<Object> specialize(BeanSerializerBase base, FieldPolicy policy) {
+        List<BeanPropertyWriter> writers = new ArrayList<>();
+        for (Iterator<PropertyWriter> it = base.properties(); it.hasNext(); ) {
+            PropertyWriter property = it.next();
+            if (!(property instanceof BeanPropertyWriter writer)) {
+                continue;
+            }
+            FieldPolicy.Rule rule = policy.rule(writer.getName());
+            if (rule == null && writer.getMember() != null) {
+                rule = policy.rule(writer.getMember().getName());
+            }
+            if (rule == null) {
+                writers.add(writer);
+            } else if (!rule.isHidden()) {
+                writers.add(new MaskedPropertyWriter(writer, rule.masker()));
+            }
+        }
+        return new PolicyBeanSerializer(base, writers.toArray(new BeanPropertyWriter[0]));
+    }
+
+    /**
+     * 特化的 Bean 序列化器，沿用默认序列化器已解析的属性写出器
+     */
+    private static final class PolicyBeanSerializer extends BeanSerializer {
+
+        private static final long serialVersionUID = 1L;
+
+        PolicyBeanSerializer(BeanSerializerBase base, BeanPropertyWriter[] writers) {
+            super(base, writers, null);
+        }
+    }
+}
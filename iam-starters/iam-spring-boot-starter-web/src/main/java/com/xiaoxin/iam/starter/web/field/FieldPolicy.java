@@ -0,0 +1,82 @@
+package com.xiaoxin.iam.starter.web.field;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+
+import com.fasterxml.jackson.databind.JsonSerializer;
+
+/**
+ * 字段策略：一个角色组合在某类资源上需要隐藏或脱敏的字段
+ * <p>
+ * 策略不可变；按本策略特化的序列化器缓存在实例上，随策略一同淘汰。
+ * </p>
+ *
+ * @author xiaoxin
+ * @since 1.0.0
+ */
+public final class FieldPolicy {
+
+    /**
+     * 不限制任何字段
+     */
+    public static final FieldPolicy NONE = new FieldPolicy(Map.of());
+
+    /**
+     * 字段名 -> 处理方式，未列出的字段原样输出
+     */
+    private final Map<String, Rule> rules;
+
+    private final Map<JsonSerializer<?>, JsonSerializer<Object>> serializers = new ConcurrentHashMap<>();
+
+    private FieldPolicy(Map<String, Rule> rules) {
+        this.rules = rules;
+    }
+
+    public static FieldPolicy of(Map<String, Rule> rules) {
+        return rules == null || rules.isEmpty() ? NONE : new FieldPolicy(Map.copyOf(rules));
+    }
+
+    public boolean isEmpty() {
+        return rules.isEmpty();
+    }
+
+    public Rule rule(String fieldName) {
+        return rules.get(fieldName);
+    }
+
+    public Map<String, Rule> getRules() {
+        return rules;
+    }
+
+    /**
+     * 获取按本策略特化的序列化器，同一默认序列化器只构建一次
+     */
+    JsonSerializer<Object> serializerFor(JsonSerializer<?> base, Function<JsonSerializer<?>, JsonSerializer<Object>> builder) {
+        return serializers.computeIfAbsent(base, builder);
+    }
+
+    /**
+     * 字段处理方式：masker 为 null 表示隐藏，否则按 masker 脱敏输出
+     *
+     * @param masker 脱敏函数
+     */
+    public record Rule(UnaryOperator<String> masker) {
+
+        public static final Rule HIDDEN = new Rule(null);
+
+        public static Rule masked(UnaryOperator<String> masker) {
+            return new Rule(masker);
+        }
+
+        public boolean isHidden() {
+            return masker == null;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "FieldPolicy" + rules.keySet();
+    }
+}
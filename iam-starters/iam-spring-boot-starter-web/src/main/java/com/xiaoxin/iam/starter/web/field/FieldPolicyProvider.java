@@ -0,0 +1,23 @@
+package com.xiaoxin.iam.starter.web.field;
+
+/**
+ * 字段权限策略提供者
+ * <p>
+ * 由业务服务实现：根据当前请求的用户返回其在资源上的字段策略。
+ * 同一次序列化内只调用一次；返回的策略实例应按角色组合复用，
+ * 特化的序列化器缓存在策略实例上，字段权限变更时丢弃旧策略即可使其失效。
+ * </p>
+ *
+ * @author xiaoxin
+ * @since 1.0.0
+ */
+public interface FieldPolicyProvider {
+
+    /**
+     * 获取当前用户在资源上的字段策略
+     *
+     * @param resource 资源类型
+     * @return 字段策略，为 null 表示不限制
+     */
+    FieldPolicy currentPolicy(String resource);
+}
@@ -0,0 +1,37 @@
+package com.xiaoxin.iam.starter.web.field;
+
+import java.util.function.UnaryOperator;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.BeanPropertyWriter;
+
+/**
+ * 脱敏属性写出器
+ * 非空值转为字符串后经脱敏函数输出，空值沿用原写出器的处理（含 NON_NULL 等包含规则）
+ *
+ * @author xiaoxin
+ * @since 1.0.0
+ */
+public class MaskedPropertyWriter extends BeanPropertyWriter {
+
+    private static final long serialVersionUID = 1L;
+
+    private final transient UnaryOperator<String> masker;
+
+    public MaskedPropertyWriter(BeanPropertyWriter base, UnaryOperator<String> masker) {
+        super(base);
+        this.masker = masker;
+    }
+
+    @Override
+    public void serializeAsField(Object bean, JsonGenerator gen, SerializerProvider provider) throws Exception {
+        Object value = get(bean);
+        if (value == null) {
+            super.serializeAsField(bean, gen, provider);
+            return;
+        }
+        gen.writeFieldName(_name);
+        gen.writeString(masker.apply(value.toString()));
+    }
+}
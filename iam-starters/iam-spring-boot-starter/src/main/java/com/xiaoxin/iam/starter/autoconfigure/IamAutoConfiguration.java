@@ -16,10 +16,13 @@
 
 package com.xiaoxin.iam.starter.autoconfigure;
 
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.thread.Threading;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -30,8 +33,11 @@ import com.xiaoxin.iam.starter.aspect.PerformanceMonitorAspect;
 import com.xiaoxin.iam.starter.config.IamCoreProperties;
 import com.xiaoxin.iam.starter.config.IamProperties;
 import com.xiaoxin.iam.starter.config.TaskExecutorConfig;
+import com.xiaoxin.iam.starter.thread.VirtualThreadPinningMonitor;
 import com.xiaoxin.iam.starter.web.IamResponseBodyAdvice;
 
+import io.micrometer.core.instrument.MeterRegistry;
+
 /**
  * IAM平台自动配置
  * 
@@ -74,4 +80,17 @@ public class IamAutoConfiguration {
         return new PerformanceMonitorAspect();
     }
 
+    /**
+     * 虚拟线程固定监测，仅在虚拟线程实际生效时启用
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    @ConditionalOnProperty(prefix = "iam.core.virtual-threads", name = "pinning-report", havingValue = "true", matchIfMissing = true)
+    public VirtualThreadPinningMonitor virtualThreadPinningMonitor(IamCoreProperties iamCoreProperties,
+                                                                   ObjectProvider<MeterRegistry> meterRegistryProvider) {
+        return new VirtualThreadPinningMonitor(iamCoreProperties.getVirtualThreads().getPinningThreshold(),
+                meterRegistryProvider.getIfAvailable());
+    }
+
 }
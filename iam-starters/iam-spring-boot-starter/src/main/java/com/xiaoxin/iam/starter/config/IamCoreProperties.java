@@ -56,6 +56,11 @@ public class IamCoreProperties {
      */
     private Task task = new Task();
 
+    /**
+     * 虚拟线程配置
+     */
+    private VirtualThreads virtualThreads = new VirtualThreads();
+
     /**
      * 线程池配置类
      */
@@ -112,4 +117,36 @@ public class IamCoreProperties {
          */
         private boolean enableScheduling = true;
     }
+
+    /**
+     * 虚拟线程配置类
+     * 需要 Java 21 及以上运行时，低版本运行时忽略并继续使用平台线程池
+     */
+    @Data
+    public static class VirtualThreads {
+        /**
+         * 是否在虚拟线程上处理请求与执行异步任务
+         */
+        private boolean enabled = false;
+
+        /**
+         * 异步任务线程名称前缀
+         */
+        private String threadNamePrefix = "iam-vt-";
+
+        /**
+         * 异步任务并发上限，超出时提交方等待；-1 表示不限制
+         */
+        private int asyncConcurrencyLimit = -1;
+
+        /**
+         * 是否监测虚拟线程固定（pinning）
+         */
+        private boolean pinningReport = true;
+
+        /**
+         * 固定时长超过该值才上报
+         */
+        private Duration pinningThreshold = Duration.ofMillis(20);
+    }
 }
@@ -20,9 +20,12 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.thread.Threading;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.scheduling.annotation.EnableAsync;
 import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
@@ -32,6 +35,7 @@ import java.util.concurrent.ThreadPoolExecutor;
 
 /**
  * 任务执行器配置
+ * 启用虚拟线程时异步任务每个任务一个虚拟线程，否则使用固定大小的平台线程池
  * 
  * @author xiaoxin
  * @since 1.0.0
@@ -47,12 +51,17 @@ public class TaskExecutorConfig {
 
     private final IamCoreProperties iamCoreProperties;
 
+    private final Environment environment;
+
     /**
      * 异步任务执行器
      */
     @Bean("taskExecutor")
     @ConditionalOnMissingBean(name = "taskExecutor")
     public Executor taskExecutor() {
+        if (Threading.VIRTUAL.isActive(environment)) {
+            return virtualThreadTaskExecutor();
+        }
         IamCoreProperties.ThreadPool threadPool = iamCoreProperties.getThreadPool();
         
         ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
@@ -74,4 +83,25 @@ public class TaskExecutorConfig {
         
         return executor;
     }
+
+    /**
+     * 虚拟线程异步任务执行器
+     * 任务阻塞在 IO 上不占用平台线程，不再需要排队与调用者运行的拒绝策略；可按需设置并发上限
+     */
+    private Executor virtualThreadTaskExecutor() {
+        IamCoreProperties.VirtualThreads virtualThreads = iamCoreProperties.getVirtualThreads();
+        IamCoreProperties.ThreadPool threadPool = iamCoreProperties.getThreadPool();
+
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor(virtualThreads.getThreadNamePrefix());
+        executor.setVirtualThreads(true);
+        executor.setConcurrencyLimit(virtualThreads.getAsyncConcurrencyLimit());
+        if (threadPool.isWaitForTasksToCompleteOnShutdown()) {
+            executor.setTaskTerminationTimeout(threadPool.getAwaitTerminationSeconds().toMillis());
+        }
+
+        log.info("IAM异步任务执行器配置完成: virtualThreads=true, concurrencyLimit={}",
+                virtualThreads.getAsyncConcurrencyLimit());
+
+        return executor;
+    }
 }
@@ -0,0 +1,199 @@
+/*
+ * Copyright 2024 xiaoxin. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.xiaoxin.iam.starter.thread;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 请求合并器（micro-batching）
+ * <p>
+ * 将短时间窗口内并发到达的单键请求合并为一次批量调用：
+ * </p>
+ * <ul>
+ *     <li>窗口内第一个请求开启窗口，窗口结束或累计达到批量上限时发送</li>
+ *     <li>同一键的并发请求共享同一个结果</li>
+ *     <li>批量调用在独立线程池执行，同时进行的调用数有界</li>
+ *     <li>批量结果中缺少的键以 null 完成；调用抛出异常时本批次的所有请求以该异常完成</li>
+ * </ul>
+ * 超时与失败时的取值（fail-closed、视为不存在等）由使用方决定。
+ *
+ * @param <K> 请求键
+ * @param <V> 结果
+ * @author xiaoxin
+ * @since 1.0.0
+ */
+@Slf4j
+public class MicroBatcher<K, V> implements AutoCloseable {
+
+    private final String name;
+    private final long windowNanos;
+    private final int maxBatchSize;
+    private final BatchLoader<K, V> loader;
+    private final ScheduledExecutorService scheduler;
+    private final ExecutorService callExecutor;
+
+    /**
+     * 窗口切换与待发队列共用一把锁，虚拟线程等待时不会占住载体线程
+     */
+    private final ReentrantLock lock = new ReentrantLock();
+
+    /**
+     * 当前窗口内等待发送的请求
+     */
+    private Map<K, CompletableFuture<V>> pending = new LinkedHashMap<>();
+
+    /**
+     * 当前窗口的定时发送任务，窗口未开启时为 null
+     */
+    private ScheduledFuture<?> windowTask;
+
+    /**
+     * @param name 名称，用作线程名前缀
+     * @param window 合并窗口
+     * @param maxBatchSize 单次批量调用的最大键数
+     * @param maxConcurrentCalls 同时进行的批量调用数上限
+     * @param loader 批量调用
+     */
+    public MicroBatcher(String name, Duration window, int maxBatchSize, int maxConcurrentCalls,
+                        BatchLoader<K, V> loader) {
+        this.name = name;
+        this.windowNanos = window.toNanos();
+        this.maxBatchSize = Math.max(1, maxBatchSize);
+        this.loader = loader;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(daemon(name + "-window"));
+        this.callExecutor = Executors.newFixedThreadPool(Math.max(1, maxConcurrentCalls), daemon(name + "-call"));
+    }
+
+    /**
+     * 提交单键请求
+     *
+     * @param key 请求键
+     * @return 批量调用完成后的结果
+     */
+    public CompletableFuture<V> submit(K key) {
+        CompletableFuture<V> future;
+        Map<K, CompletableFuture<V>> full = null;
+        lock.lock();
+        try {
+            future = pending.computeIfAbsent(key, k -> new CompletableFuture<>());
+            if (pending.size() >= maxBatchSize) {
+                full = takePending();
+            } else if (windowTask == null) {
+                windowTask = scheduler.schedule(this::closeWindow, windowNanos, TimeUnit.NANOSECONDS);
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (full != null) {
+            dispatch(full);
+        }
+        return future;
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+        callExecutor.shutdownNow();
+    }
+
+    private void closeWindow() {
+        Map<K, CompletableFuture<V>> batch;
+        lock.lock();
+        try {
+            batch = takePending();
+        } finally {
+            lock.unlock();
+        }
+        if (!batch.isEmpty()) {
+            dispatch(batch);
+        }
+    }
+
+    /**
+     * 取出当前窗口的请求并关闭窗口，调用方需持有锁
+     */
+    private Map<K, CompletableFuture<V>> takePending() {
+        Map<K, CompletableFuture<V>> batch = pending;
+        pending = new LinkedHashMap<>();
+        if (windowTask != null) {
+            windowTask.cancel(false);
+            windowTask = null;
+        }
+        return batch;
+    }
+
+    private void dispatch(Map<K, CompletableFuture<V>> batch) {
+        try {
+            callExecutor.execute(() -> load(batch));
+        } catch (RuntimeException e) {
+            batch.values().forEach(future -> future.completeExceptionally(e));
+        }
+    }
+
+    private void load(Map<K, CompletableFuture<V>> batch) {
+        try {
+            Map<K, V> results = loader.load(new ArrayList<>(batch.keySet()));
+            batch.forEach((key, future) -> future.complete(results != null ? results.get(key) : null));
+        } catch (Exception e) {
+            log.warn("批量调用失败: batcher={}, size={}, error={}", name, batch.size(), e.getMessage());
+            batch.values().forEach(future -> future.completeExceptionally(e));
+        }
+    }
+
+    private static ThreadFactory daemon(String name) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * 批量调用
+     *
+     * @param <K> 请求键
+     * @param <V> 结果
+     */
+    @FunctionalInterface
+    public interface BatchLoader<K, V> {
+
+        /**
+         * 批量加载
+         *
+         * @param keys 去重后的请求键，按到达顺序排列
+         * @return 键 -> 结果，缺少的键视为 null
+         * @throws Exception 调用失败
+         */
+        Map<K, V> load(List<K> keys) throws Exception;
+    }
+}
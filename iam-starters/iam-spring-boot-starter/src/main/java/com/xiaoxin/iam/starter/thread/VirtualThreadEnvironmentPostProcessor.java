@@ -0,0 +1,79 @@
+/*
+ * Copyright 2024 xiaoxin. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.xiaoxin.iam.starter.thread;
+
+import java.util.Map;
+
+import org.apache.commons.logging.Log;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.config.ConfigDataEnvironmentPostProcessor;
+import org.springframework.boot.env.EnvironmentPostProcessor;
+import org.springframework.boot.logging.DeferredLogFactory;
+import org.springframework.boot.system.JavaVersion;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.ConfigurableEnvironment;
+import org.springframework.core.env.MapPropertySource;
+
+/**
+ * 虚拟线程开关
+ * <p>
+ * iam.core.virtual-threads.enabled 为 true 且运行时为 Java 21 及以上时，打开 Spring Boot 的
+ * spring.threads.virtual.enabled：Tomcat 请求处理、默认任务执行器与调度器改为虚拟线程。
+ * 显式配置了 spring.threads.virtual.enabled 时以显式配置为准；低版本运行时记录警告并保持平台线程。
+ * </p>
+ * 在配置中心配置加载之后执行，开关可放在共享配置中统一下发。
+ *
+ * @author xiaoxin
+ * @since 1.0.0
+ */
+public class VirtualThreadEnvironmentPostProcessor implements EnvironmentPostProcessor, Ordered {
+
+    private static final String ENABLED_PROPERTY = "iam.core.virtual-threads.enabled";
+
+    private static final String SPRING_VIRTUAL_PROPERTY = "spring.threads.virtual.enabled";
+
+    private static final String PROPERTY_SOURCE_NAME = "iamVirtualThreads";
+
+    private final Log log;
+
+    public VirtualThreadEnvironmentPostProcessor(DeferredLogFactory logFactory) {
+        this.log = logFactory.getLog(VirtualThreadEnvironmentPostProcessor.class);
+    }
+
+    @Override
+    public void postProcessEnvironment(ConfigurableEnvironment environment, SpringApplication application) {
+        if (!environment.getProperty(ENABLED_PROPERTY, Boolean.class, false)) {
+            return;
+        }
+        if (!JavaVersion.getJavaVersion().isEqualOrNewerThan(JavaVersion.TWENTY_ONE)) {
+            log.warn("已开启虚拟线程，但当前运行时为 Java " + Runtime.version().feature()
+                    + "，需要 Java 21 及以上，继续使用平台线程池");
+            return;
+        }
+        if (environment.containsProperty(SPRING_VIRTUAL_PROPERTY)) {
+            return;
+        }
+        environment.getPropertySources().addLast(
+                new MapPropertySource(PROPERTY_SOURCE_NAME, Map.of(SPRING_VIRTUAL_PROPERTY, "true")));
+        log.info("IAM平台虚拟线程已启用: 请求处理与异步任务运行在虚拟线程上");
+    }
+
+    @Override
+    public int getOrder() {
+        return ConfigDataEnvironmentPostProcessor.ORDER + 1;
+    }
+}
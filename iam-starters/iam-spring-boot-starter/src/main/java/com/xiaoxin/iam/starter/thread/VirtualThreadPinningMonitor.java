@@ -0,0 +1,163 @@
+/*
+ * Copyright 2024 xiaoxin. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.xiaoxin.iam.starter.thread;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 虚拟线程固定监测
+ * <p>
+ * 通过 JFR 事件 jdk.VirtualThreadPinned 发现虚拟线程在 synchronized 块或本地方法中阻塞、
+ * 占住载体线程的位置。位置取栈上第一个非 JDK 的帧：
+ * </p>
+ * <ul>
+ *     <li>每个位置首次出现时记录警告日志与调用栈，之后只记调试日志</li>
+ *     <li>按位置计数 iam.virtual-threads.pinned，位置数超过上限后归入 other</li>
+ * </ul>
+ *
+ * @author xiaoxin
+ * @since 1.0.0
+ */
+@Slf4j
+public class VirtualThreadPinningMonitor implements InitializingBean, DisposableBean {
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+
+    private static final String METRIC_NAME = "iam.virtual-threads.pinned";
+
+    /**
+     * 单独计数的位置上限，防止指标标签无限增长
+     */
+    private static final int MAX_LOCATIONS = 100;
+
+    /**
+     * 警告日志输出的栈帧数
+     */
+    private static final int MAX_FRAMES = 15;
+
+    private static final String OTHER_LOCATION = "other";
+
+    private static final List<String> JDK_PACKAGES = List.of("java.", "javax.", "jdk.", "sun.", "com.sun.");
+
+    private final Duration threshold;
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * 位置 -> 固定次数
+     */
+    private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+
+    /**
+     * 已输出过警告的位置
+     */
+    private final Set<String> reported = ConcurrentHashMap.newKeySet();
+
+    private RecordingStream stream;
+
+    public VirtualThreadPinningMonitor(Duration threshold, MeterRegistry meterRegistry) {
+        this.threshold = threshold;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        try {
+            stream = new RecordingStream();
+            stream.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+            stream.onEvent(PINNED_EVENT, this::onPinned);
+            stream.startAsync();
+            log.info("虚拟线程固定监测已启动: threshold={}ms", threshold.toMillis());
+        } catch (Exception | LinkageError e) {
+            // 运行时未包含 jdk.jfr 模块或禁用了 JFR
+            log.warn("虚拟线程固定监测启动失败，将不上报固定位置: {}", e.getMessage());
+            stream = null;
+        }
+    }
+
+    @Override
+    public void destroy() {
+        if (stream != null) {
+            stream.close();
+        }
+    }
+
+    private void onPinned(RecordedEvent event) {
+        RecordedStackTrace stackTrace = event.getStackTrace();
+        List<RecordedFrame> frames = stackTrace == null ? List.of() : stackTrace.getFrames();
+        String location = location(frames);
+        count(location);
+        long millis = event.getDuration().toMillis();
+        if (reported.size() < MAX_LOCATIONS && reported.add(location)) {
+            log.warn("检测到虚拟线程固定: location={}, duration={}ms, thread={}\n{}", location, millis,
+                    event.getThread() == null ? null : event.getThread().getJavaName(), format(frames));
+        } else {
+            log.debug("虚拟线程固定: location={}, duration={}ms", location, millis);
+        }
+    }
+
+    private void count(String location) {
+        if (meterRegistry == null) {
+            return;
+        }
+        String tag = counters.containsKey(location) || counters.size() < MAX_LOCATIONS ? location : OTHER_LOCATION;
+        counters.computeIfAbsent(tag, key -> Counter.builder(METRIC_NAME)
+                .description("虚拟线程阻塞时占住载体线程的次数")
+                .tag("location", key)
+                .register(meterRegistry)).increment();
+    }
+
+    /**
+     * 第一个非 JDK 的帧，全部为 JDK 帧时取栈顶
+     */
+    private static String location(List<RecordedFrame> frames) {
+        if (frames.isEmpty()) {
+            return "unknown";
+        }
+        for (RecordedFrame frame : frames) {
+            String type = frame.getMethod().getType().getName();
+            if (JDK_PACKAGES.stream().noneMatch(type::startsWith)) {
+                return type + "." + frame.getMethod().getName();
+            }
+        }
+        RecordedFrame top = frames.get(0);
+        return top.getMethod().getType().getName() + "." + top.getMethod().getName();
+    }
+
+    private static String format(List<RecordedFrame> frames) {
+        return frames.stream()
+                .limit(MAX_FRAMES)
+                .map(frame -> "\tat " + frame.getMethod().getType().getName() + "." + frame.getMethod().getName()
+                        + (frame.getLineNumber() > 0 ? ":" + frame.getLineNumber() : ""))
+                .collect(Collectors.joining("\n"));
+    }
+}
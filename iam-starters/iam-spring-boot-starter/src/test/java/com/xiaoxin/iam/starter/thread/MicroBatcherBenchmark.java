@@ -0,0 +1,132 @@
+package com.xiaoxin.iam.starter.thread;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
+
+/**
+ * 请求合并器内存压测
+ * <p>
+ * 用固定耗时的模拟后端对比逐个调用与合并调用的 p50/p99 延迟和吞吐，不访问网络，不随单元测试执行，
+ * 编译测试代码后直接运行 main 方法。
+ * </p>
+ * 模拟后端：每次调用固定 2ms 加每个键 20µs，最多 4 个调用并行（相当于下游连接池）。
+ * 参数可通过系统属性 clients、requests 调整。
+ *
+ * @author xiaoxin
+ * @since 1.0.0
+ */
+public class MicroBatcherBenchmark {
+
+    private static final long CALL_NANOS = TimeUnit.MILLISECONDS.toNanos(2);
+
+    private static final long PER_KEY_NANOS = TimeUnit.MICROSECONDS.toNanos(20);
+
+    private static final int BACKEND_CONCURRENCY = 4;
+
+    private static final int KEY_SPACE = 100_000;
+
+    public static void main(String[] args) throws Exception {
+        int clients = Integer.getInteger("clients", 64);
+        int requests = Integer.getInteger("requests", 200);
+        Backend backend = new Backend();
+
+        // 预热
+        run("warmup", clients, requests / 4, key -> backend.single(key));
+
+        Result direct = run("direct", clients, requests, key -> backend.single(key));
+        Result batched;
+        try (MicroBatcher<Integer, Integer> batcher = new MicroBatcher<>("bench", Duration.ofMillis(2), 100,
+                BACKEND_CONCURRENCY, backend::batch)) {
+            batched = run("batched", clients, requests, key -> batcher.submit(key).join());
+        }
+
+        System.out.printf("clients=%d, requests/client=%d%n", clients, requests);
+        System.out.printf("%-8s %12s %10s %10s %12s%n", "mode", "throughput/s", "p50(ms)", "p99(ms)", "backend calls");
+        direct.print();
+        batched.print();
+    }
+
+    private static Result run(String mode, int clients, int requests, Function<Integer, Integer> call)
+            throws InterruptedException {
+        long[] latencies = new long[clients * requests];
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(clients);
+        long callsBefore = Backend.CALLS.get();
+        for (int c = 0; c < clients; c++) {
+            int offset = c * requests;
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                    for (int i = 0; i < requests; i++) {
+                        int key = ThreadLocalRandom.current().nextInt(KEY_SPACE);
+                        long begin = System.nanoTime();
+                        call.apply(key);
+                        latencies[offset + i] = System.nanoTime() - begin;
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            }, mode + "-client-" + c);
+            thread.setDaemon(true);
+            thread.start();
+        }
+        long begin = System.nanoTime();
+        start.countDown();
+        done.await();
+        long elapsed = System.nanoTime() - begin;
+        Arrays.sort(latencies);
+        return new Result(mode, latencies.length * 1_000_000_000.0 / elapsed,
+                percentile(latencies, 0.50), percentile(latencies, 0.99), Backend.CALLS.get() - callsBefore);
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        int index = (int) Math.min(sorted.length - 1, Math.ceil(p * sorted.length) - 1);
+        return sorted[Math.max(0, index)] / 1_000_000.0;
+    }
+
+    /**
+     * 模拟下游：固定调用开销 + 按键数线性增长，并行调用数受限
+     */
+    private static final class Backend {
+
+        static final AtomicLong CALLS = new AtomicLong();
+
+        private final Semaphore permits = new Semaphore(BACKEND_CONCURRENCY, true);
+
+        Integer single(Integer key) {
+            return batch(List.of(key)).get(key);
+        }
+
+        Map<Integer, Integer> batch(List<Integer> keys) {
+            permits.acquireUninterruptibly();
+            try {
+                CALLS.incrementAndGet();
+                LockSupport.parkNanos(CALL_NANOS + PER_KEY_NANOS * keys.size());
+                Map<Integer, Integer> results = new HashMap<>(keys.size() * 2);
+                keys.forEach(key -> results.put(key, key));
+                return results;
+            } finally {
+                permits.release();
+            }
+        }
+    }
+
+    private record Result(String mode, double throughput, double p50, double p99, long calls) {
+
+        void print() {
+            System.out.printf("%-8s %12.0f %10.2f %10.2f %12d%n", mode, throughput, p50, p99, calls);
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.xiaoxin.iam.starter.thread;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * 请求合并器测试
+ *
+ * @author xiaoxin
+ * @since 1.0.0
+ */
+public class MicroBatcherTest {
+
+    private final List<List<String>> calls = new CopyOnWriteArrayList<>();
+
+    private MicroBatcher<String, String> batcher;
+
+    @AfterEach
+    public void tearDown() {
+        if (batcher != null) {
+            batcher.close();
+        }
+    }
+
+    @Test
+    public void testRequestsInWindowAreMergedAndDeduplicated() throws Exception {
+        batcher = new MicroBatcher<>("test", Duration.ofMillis(50), 100, 1, this::echo);
+
+        CompletableFuture<String> first = batcher.submit("a");
+        CompletableFuture<String> duplicate = batcher.submit("a");
+        CompletableFuture<String> second = batcher.submit("b");
+
+        assertSame(first, duplicate);
+        assertEquals("A", first.get(1, TimeUnit.SECONDS));
+        assertEquals("B", second.get(1, TimeUnit.SECONDS));
+        assertEquals(List.of(List.of("a", "b")), calls);
+    }
+
+    @Test
+    public void testFullBatchIsSentWithoutWaitingForWindow() throws Exception {
+        batcher = new MicroBatcher<>("test", Duration.ofMinutes(1), 2, 1, this::echo);
+
+        CompletableFuture<String> first = batcher.submit("a");
+        CompletableFuture<String> second = batcher.submit("b");
+
+        assertEquals("A", first.get(1, TimeUnit.SECONDS));
+        assertEquals("B", second.get(1, TimeUnit.SECONDS));
+        assertEquals(1, calls.size());
+    }
+
+    @Test
+    public void testMissingKeyCompletesWithNull() throws Exception {
+        batcher = new MicroBatcher<>("test", Duration.ofMillis(1), 10, 1, keys -> Map.of());
+
+        assertNull(batcher.submit("a").get(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testLoaderFailureIsPropagatedToWholeBatch() {
+        IllegalStateException failure = new IllegalStateException("down");
+        batcher = new MicroBatcher<>("test", Duration.ofMillis(20), 10, 1, keys -> {
+            throw failure;
+        });
+
+        CompletableFuture<String> first = batcher.submit("a");
+        CompletableFuture<String> second = batcher.submit("b");
+
+        ExecutionException error = assertThrows(ExecutionException.class, () -> first.get(1, TimeUnit.SECONDS));
+        assertSame(failure, error.getCause());
+        assertThrows(ExecutionException.class, () -> second.get(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testNextWindowStartsAfterFlush() throws Exception {
+        batcher = new MicroBatcher<>("test", Duration.ofMillis(5), 100, 1, this::echo);
+
+        assertEquals("A", batcher.submit("a").get(1, TimeUnit.SECONDS));
+        assertEquals("B", batcher.submit("b").get(1, TimeUnit.SECONDS));
+        assertEquals(2, calls.size());
+    }
+
+    private Map<String, String> echo(List<String> keys) {
+        calls.add(new ArrayList<>(keys));
+        Map<String, String> results = new HashMap<>();
+        keys.forEach(key -> results.put(key, key.toUpperCase()));
+        return results;
+    }
+}
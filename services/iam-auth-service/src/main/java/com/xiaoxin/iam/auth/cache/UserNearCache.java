@@ -0,0 +1,167 @@
+package com.xiaoxin.iam.auth.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.xiaoxin.iam.auth.client.CoreUserBatchLoader;
+import com.xiaoxin.iam.auth.config.UserCacheProperties;
+import com.xiaoxin.iam.common.dto.UserDTO;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * 用户近端缓存
+ * <p>
+ * 以用户名为键缓存核心服务返回的 UserDTO，减少登录与 UserDetailsService 的远程调用：
+ * </p>
+ * <ul>
+ *     <li>容量有界，写入后过期，过期前命中会触发后台异步刷新（refresh-ahead）</li>
+ *     <li>核心服务发布的用户/角色变更事件会立即失效对应条目</li>
+ *     <li>通过 Micrometer 暴露命中率、条目年龄（陈旧度）与失效次数</li>
+ * </ul>
+ * 不存在的用户不做缓存，避免新建用户后出现登录失败窗口。
+ *
+ * @author xiaoxin
+ * @since 1.0.0
+ */
+@Slf4j
+@Component
+public class UserNearCache {
+
+    private static final String METRIC_PREFIX = "iam.auth.user.near-cache";
+
+    private final CoreUserBatchLoader userBatchLoader;
+    private final UserCacheProperties properties;
+    private final LoadingCache<String, CachedUser> cache;
+    private final DistributionSummary stalenessSummary;
+    private final MeterRegistry meterRegistry;
+
+    public UserNearCache(CoreUserBatchLoader userBatchLoader,
+                         UserCacheProperties properties,
+                         ObjectProvider<MeterRegistry> meterRegistryProvider) {
+        this.userBatchLoader = userBatchLoader;
+        this.properties = properties;
+        this.meterRegistry = meterRegistryProvider.getIfAvailable();
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfterWrite(properties.getExpireAfterWrite())
+                .refreshAfterWrite(properties.getRefreshAfterWrite())
+                .recordStats()
+                .build(this::load);
+
+        if (meterRegistry != null) {
+            CaffeineCacheMetrics.monitor(meterRegistry, cache, METRIC_PREFIX);
+            this.stalenessSummary = DistributionSummary.builder(METRIC_PREFIX + ".staleness")
+                    .description("命中时缓存条目距上次回源的时长")
+                    .baseUnit("milliseconds")
+                    .publishPercentiles(0.5, 0.95, 0.99)
+                    .register(meterRegistry);
+        } else {
+            this.stalenessSummary = null;
+        }
+        log.info("用户近端缓存已初始化: enabled={}, maximumSize={}, expireAfterWrite={}, refreshAfterWrite={}",
+                properties.isEnabled(), properties.getMaximumSize(),
+                properties.getExpireAfterWrite(), properties.getRefreshAfterWrite());
+    }
+
+    /**
+     * 按用户名获取用户信息
+     *
+     * @param username 用户名
+     * @return 用户信息，不存在时返回null
+     */
+    public UserDTO getByUsername(String username) {
+        if (!properties.isEnabled()) {
+            CachedUser loaded = load(username);
+            return loaded != null ? loaded.user() : null;
+        }
+        CachedUser cached = cache.get(username);
+        if (cached == null) {
+            return null;
+        }
+        if (stalenessSummary != null) {
+            stalenessSummary.record(System.currentTimeMillis() - cached.loadedAt());
+        }
+        return cached.user();
+    }
+
+    /**
+     * 按用户名失效
+     */
+    public void invalidateUsernames(Collection<String> usernames) {
+        if (usernames == null || usernames.isEmpty()) {
+            return;
+        }
+        usernames.stream().filter(name -> name != null).forEach(cache::invalidate);
+        recordInvalidation("username", usernames.size());
+    }
+
+    /**
+     * 按用户ID失效（缓存以用户名为键，需扫描条目，容量有界故代价可控）
+     */
+    public void invalidateUserIds(Collection<Long> userIds) {
+        if (userIds == null || userIds.isEmpty()) {
+            return;
+        }
+        Set<Long> ids = new HashSet<>(userIds);
+        cache.asMap().values().removeIf(cached -> ids.contains(cached.user().getId()));
+        recordInvalidation("userId", ids.size());
+    }
+
+    /**
+     * 按角色标识失效持有该角色的用户
+     */
+    public void invalidateRoleKeys(Collection<String> roleKeys) {
+        if (roleKeys == null || roleKeys.isEmpty()) {
+            invalidateAll();
+            return;
+        }
+        Set<String> keys = new HashSet<>(roleKeys);
+        cache.asMap().values().removeIf(cached -> cached.user().getRoles() != null
+                && cached.user().getRoles().stream().anyMatch(keys::contains));
+        recordInvalidation("role", keys.size());
+    }
+
+    /**
+     * 全部失效
+     */
+    public void invalidateAll() {
+        cache.invalidateAll();
+        recordInvalidation("all", 1);
+    }
+
+    /**
+     * 回源加载用户信息，并发的回源查询由批量加载器合并为一次调用
+     */
+    private CachedUser load(String username) {
+        UserDTO user = userBatchLoader.getByUsername(username);
+        if (user == null) {
+            log.debug("核心服务未返回用户: username={}", username);
+            return null;
+        }
+        return new CachedUser(user, System.currentTimeMillis());
+    }
+
+    private void recordInvalidation(String reason, int count) {
+        if (meterRegistry != null) {
+            Counter.builder(METRIC_PREFIX + ".invalidations")
+                    .tag("reason", reason)
+                    .register(meterRegistry)
+                    .increment(count);
+        }
+    }
+
+    /**
+     * 缓存条目，记录回源时间用于陈旧度统计
+     */
+    private record CachedUser(UserDTO user, long loadedAt) {
+    }
+}
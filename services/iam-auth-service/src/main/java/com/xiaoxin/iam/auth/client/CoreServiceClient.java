@@ -9,6 +9,8 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 
+import java.util.List;
+
 /**
  * 核心服务Feign客户端
  *
@@ -27,6 +29,24 @@ public interface CoreServiceClient {
     @GetMapping("/users/username/{username}")
     Result<UserDTO> getUserByUsername(@PathVariable("username") String username);
 
+    /**
+     * 按用户名批量查询用户，按入参顺序返回，不存在的用户忽略
+     *
+     * @param usernames 用户名列表
+     * @return 用户信息列表
+     */
+    @PostMapping("/users/batch/usernames")
+    Result<List<UserDTO>> getUsersByUsernames(@RequestBody List<String> usernames);
+
+    /**
+     * 按ID批量查询用户，按入参顺序返回，不存在的用户忽略
+     *
+     * @param userIds 用户ID列表
+     * @return 用户信息列表
+     */
+    @PostMapping("/users/batch/ids")
+    Result<List<UserDTO>> getUsersByIds(@RequestBody List<Long> userIds);
+
     /**
      * 更新用户登录信息
      *
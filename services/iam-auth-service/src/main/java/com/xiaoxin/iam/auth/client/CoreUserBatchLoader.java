@@ -0,0 +1,113 @@
+package com.xiaoxin.iam.auth.client;
+
+import com.xiaoxin.iam.auth.config.UserBatchProperties;
+import com.xiaoxin.iam.common.dto.UserDTO;
+import com.xiaoxin.iam.common.result.Result;
+import com.xiaoxin.iam.starter.thread.MicroBatcher;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * 核心服务用户批量加载器
+ * <p>
+ * 将短时间窗口内并发到达的单用户查询经 {@link MicroBatcher} 合并为一次批量调用：
+ * </p>
+ * <ul>
+ *     <li>窗口内第一个查询开启窗口，窗口结束或累计达到批量上限时发送</li>
+ *     <li>同一用户名（不区分大小写）的并发查询共享同一结果</li>
+ *     <li>批量调用在独立线程池执行，并发数有界，调用方在超时时间内等待各自的结果</li>
+ * </ul>
+ * 核心服务返回失败结果时视为用户不存在，与单用户查询的处理一致；调用异常传递给本批次的所有调用方。
+ *
+ * @author xiaoxin
+ * @since 1.0.0
+ */
+@Slf4j
+@Component
+public class CoreUserBatchLoader implements DisposableBean {
+
+    private static final String METRIC_PREFIX = "iam.auth.user.batch";
+
+    private final CoreServiceClient coreServiceClient;
+    private final UserBatchProperties properties;
+    private final DistributionSummary batchSizeSummary;
+    private final MicroBatcher<String, UserDTO> batcher;
+
+    public CoreUserBatchLoader(CoreServiceClient coreServiceClient,
+                               UserBatchProperties properties,
+                               ObjectProvider<MeterRegistry> meterRegistryProvider) {
+        this.coreServiceClient = coreServiceClient;
+        this.properties = properties;
+        MeterRegistry meterRegistry = meterRegistryProvider.getIfAvailable();
+        this.batchSizeSummary = meterRegistry == null ? null
+                : DistributionSummary.builder(METRIC_PREFIX + ".size")
+                        .description("每次批量调用合并的用户数")
+                        .publishPercentiles(0.5, 0.95, 0.99)
+                        .register(meterRegistry);
+        this.batcher = new MicroBatcher<>("core-user-batch", properties.getWindow(), properties.getMaxBatchSize(),
+                properties.getMaxConcurrentCalls(), this::load);
+    }
+
+    @Override
+    public void destroy() {
+        batcher.close();
+    }
+
+    /**
+     * 按用户名查询用户
+     *
+     * @param username 用户名
+     * @return 用户信息，不存在时返回null
+     */
+    public UserDTO getByUsername(String username) {
+        if (!properties.isEnabled()) {
+            Result<UserDTO> result = coreServiceClient.getUserByUsername(username);
+            return result != null && result.isSuccess() ? result.getData() : null;
+        }
+        CompletableFuture<UserDTO> future = batcher.submit(username.toLowerCase(Locale.ROOT));
+        try {
+            return future.get(properties.getTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("等待批量查询用户被中断: username=" + username, e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException("批量查询用户失败: username=" + username, e.getCause());
+        } catch (TimeoutException e) {
+            throw new IllegalStateException("批量查询用户超时: username=" + username, e);
+        }
+    }
+
+    /**
+     * 批量查询用户，核心服务返回失败结果时本批次的用户均视为不存在
+     */
+    private Map<String, UserDTO> load(List<String> usernames) {
+        if (batchSizeSummary != null) {
+            batchSizeSummary.record(usernames.size());
+        }
+        Result<List<UserDTO>> result = coreServiceClient.getUsersByUsernames(usernames);
+        Map<String, UserDTO> users = new HashMap<>();
+        if (result != null && result.isSuccess() && result.getData() != null) {
+            result.getData().forEach(user -> users.put(user.getUsername().toLowerCase(Locale.ROOT), user));
+        } else {
+            log.debug("核心服务批量查询用户未返回数据: count={}, code={}", usernames.size(),
+                    result != null ? result.getCode() : null);
+        }
+        return users;
+    }
+}
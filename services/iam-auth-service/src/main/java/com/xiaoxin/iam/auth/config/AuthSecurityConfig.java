@@ -5,6 +5,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.annotation.Order;
+import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
@@ -24,6 +25,29 @@ import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
 @EnableWebSecurity
 public class AuthSecurityConfig {
 
+    /**
+     * 批量令牌内省接口安全过滤器链
+     * 仅匹配内省接口，以资源服务器方式校验调用方的Bearer令牌，
+     * 不影响其他接口对自定义JWT的处理
+     *
+     * @param http HTTP安全配置
+     * @return 安全过滤器链
+     * @throws Exception 配置异常
+     */
+    @Bean
+    @Order(2)
+    public SecurityFilterChain introspectionSecurityFilterChain(HttpSecurity http) throws Exception {
+        http
+            .securityMatcher(AuthConstants.INTROSPECT_BATCH_PATH)
+            .authorizeHttpRequests(authz -> authz.anyRequest().authenticated())
+            .oauth2ResourceServer(oauth2 -> oauth2.jwt(Customizer.withDefaults()))
+            .csrf(AbstractHttpConfigurer::disable)
+            .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS));
+
+        log.info("批量令牌内省接口安全配置完成，调用方需携带本授权服务器签发的访问令牌");
+        return http.build();
+    }
+
     /**
      * 认证服务安全过滤器链配置
      * 配置认证服务的安全策略，允许认证相关接口无需认证
@@ -33,7 +57,7 @@ public class AuthSecurityConfig {
      * @throws Exception 配置异常
      */
     @Bean
-    @Order(2)
+    @Order(3)
     public SecurityFilterChain authSecurityFilterChain(HttpSecurity http) throws Exception {
         log.info("认证服务安全过滤器链配置开始");
         
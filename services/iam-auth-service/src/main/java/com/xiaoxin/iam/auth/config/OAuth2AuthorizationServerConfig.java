@@ -7,29 +7,26 @@ import java.security.interfaces.RSAPublicKey;
 import java.time.Duration;
 import java.util.UUID;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.annotation.Order;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
-import org.springframework.security.crypto.password.PasswordEncoder;
-import org.springframework.security.oauth2.core.AuthorizationGrantType;
-import org.springframework.security.oauth2.core.ClientAuthenticationMethod;
-import org.springframework.security.oauth2.core.oidc.OidcScopes;
 import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtEncoder;
+import org.springframework.security.oauth2.jwt.NimbusJwtEncoder;
+import org.springframework.security.oauth2.server.authorization.JdbcOAuth2AuthorizationService;
 import org.springframework.security.oauth2.server.authorization.OAuth2AuthorizationService;
-import org.springframework.security.oauth2.server.authorization.client.InMemoryRegisteredClientRepository;
-import org.springframework.security.oauth2.server.authorization.client.RegisteredClient;
 import org.springframework.security.oauth2.server.authorization.client.RegisteredClientRepository;
 import org.springframework.security.oauth2.server.authorization.config.annotation.web.configuration.OAuth2AuthorizationServerConfiguration;
 import org.springframework.security.oauth2.server.authorization.config.annotation.web.configurers.OAuth2AuthorizationServerConfigurer;
 import org.springframework.security.oauth2.server.authorization.settings.AuthorizationServerSettings;
-import org.springframework.security.oauth2.server.authorization.settings.ClientSettings;
-import org.springframework.security.oauth2.server.authorization.settings.TokenSettings;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.HttpStatusEntryPoint;
 import org.springframework.security.web.util.matcher.MediaTypeRequestMatcher;
@@ -39,6 +36,7 @@ import com.nimbusds.jose.jwk.RSAKey;
 import com.nimbusds.jose.jwk.source.ImmutableJWKSet;
 import com.nimbusds.jose.jwk.source.JWKSource;
 import com.nimbusds.jose.proc.SecurityContext;
+import com.xiaoxin.iam.auth.repository.CachingRegisteredClientRepository;
 
 import lombok.extern.slf4j.Slf4j;
 
@@ -89,232 +87,25 @@ public class OAuth2AuthorizationServerConfig {
 
     /**
      * 注册客户端存储库
-     * 配置OAuth2客户端信息
+     * 客户端定义来自 oauth2_registered_client 表，启动时加载为内存索引并按 update_time 增量刷新，
+     * 新接入业务系统只需写入该表，无需重新部署
      */
     @Bean
-    public RegisteredClientRepository registeredClientRepository(PasswordEncoder passwordEncoder) {
-        log.info("配置OAuth2注册客户端存储库");
-        
-        // 内部服务客户端 - iam-gateway
-        RegisteredClient gatewayClient = RegisteredClient.withId(UUID.randomUUID().toString())
-                .clientId("iam-gateway")
-                .clientSecret(passwordEncoder.encode("gateway-secret"))
-                .clientAuthenticationMethod(ClientAuthenticationMethod.CLIENT_SECRET_BASIC)
-                .clientAuthenticationMethod(ClientAuthenticationMethod.CLIENT_SECRET_POST)
-                .authorizationGrantType(AuthorizationGrantType.CLIENT_CREDENTIALS)
-                .authorizationGrantType(AuthorizationGrantType.AUTHORIZATION_CODE)
-                .authorizationGrantType(AuthorizationGrantType.REFRESH_TOKEN)
-                .redirectUri("http://iam-gateway:8080/login/oauth2/code/gateway")
-                .postLogoutRedirectUri("http://iam-gateway:8080/")
-                .scopes(scopes -> {
-                    scopes.add(OidcScopes.OPENID);
-                    scopes.add(OidcScopes.PROFILE);
-                    scopes.add("internal.read");
-                    scopes.add("internal.write");
-                    scopes.add("gateway.route");
-                })
-                .clientSettings(ClientSettings.builder()
-                        .requireAuthorizationConsent(false)
-                        .build())
-                .tokenSettings(TokenSettings.builder()
-                        .accessTokenTimeToLive(Duration.ofHours(2))
-                        .refreshTokenTimeToLive(Duration.ofDays(7))
-                        .reuseRefreshTokens(false)
-                        .build())
-                .build();
-
-        // 内部服务客户端 - iam-auth-service (用于服务间调用)
-        RegisteredClient authServiceClient = RegisteredClient.withId(UUID.randomUUID().toString())
-                .clientId("iam-auth-service")
-                .clientSecret(passwordEncoder.encode("auth-service-secret"))
-                .clientAuthenticationMethod(ClientAuthenticationMethod.CLIENT_SECRET_BASIC)
-                .clientAuthenticationMethod(ClientAuthenticationMethod.CLIENT_SECRET_POST)
-                .authorizationGrantType(AuthorizationGrantType.CLIENT_CREDENTIALS)
-                .scopes(scopes -> {
-                    scopes.add("internal.read");
-                    scopes.add("internal.write");
-                    scopes.add("user.read");
-                    scopes.add("user.write");
-                })
-                .clientSettings(ClientSettings.builder()
-                        .requireAuthorizationConsent(false)
-                        .build())
-                .tokenSettings(TokenSettings.builder()
-                        .accessTokenTimeToLive(Duration.ofHours(2))
-                        .build())
-                .build();
-
-        // 内部服务客户端 - iam-core-service
-        RegisteredClient coreServiceClient = RegisteredClient.withId(UUID.randomUUID().toString())
-                .clientId("iam-core-service")
-                .clientSecret(passwordEncoder.encode("core-service-secret"))
-                .clientAuthenticationMethod(ClientAuthenticationMethod.CLIENT_SECRET_BASIC)
-                .clientAuthenticationMethod(ClientAuthenticationMethod.CLIENT_SECRET_POST)
-                .authorizationGrantType(AuthorizationGrantType.CLIENT_CREDENTIALS)
-                .scopes(scopes -> {
-                    scopes.add("internal.read");
-                    scopes.add("internal.write");
-                    scopes.add("user.read");
-                    scopes.add("user.write");
-                    scopes.add("role.read");
-                    scopes.add("role.write");
-                })
-                .clientSettings(ClientSettings.builder()
-                        .requireAuthorizationConsent(false)
-                        .build())
-                .tokenSettings(TokenSettings.builder()
-                        .accessTokenTimeToLive(Duration.ofHours(2))
-                        .build())
-                .build();
-
-        // 内部服务客户端 - iam-audit-service
-        RegisteredClient auditServiceClient = RegisteredClient.withId(UUID.randomUUID().toString())
-                .clientId("iam-audit-service")
-                .clientSecret(passwordEncoder.encode("audit-service-secret"))
-                .clientAuthenticationMethod(ClientAuthenticationMethod.CLIENT_SECRET_BASIC)
-                .clientAuthenticationMethod(ClientAuthenticationMethod.CLIENT_SECRET_POST)
-                .authorizationGrantType(AuthorizationGrantType.CLIENT_CREDENTIALS)
-                .scopes(scopes -> {
-                    scopes.add("internal.read");
-                    scopes.add("internal.write");
-                    scopes.add("audit.read");
-                    scopes.add("audit.write");
-                })
-                .clientSettings(ClientSettings.builder()
-                        .requireAuthorizationConsent(false)
-                        .build())
-                .tokenSettings(TokenSettings.builder()
-                        .accessTokenTimeToLive(Duration.ofHours(2))
-                        .build())
-                .build();
-
-        // 内部服务客户端 - iam-system-service
-        RegisteredClient systemServiceClient = RegisteredClient.withId(UUID.randomUUID().toString())
-                .clientId("iam-system-service")
-                .clientSecret(passwordEncoder.encode("system-service-secret"))
-                .clientAuthenticationMethod(ClientAuthenticationMethod.CLIENT_SECRET_BASIC)
-                .clientAuthenticationMethod(ClientAuthenticationMethod.CLIENT_SECRET_POST)
-                .authorizationGrantType(AuthorizationGrantType.CLIENT_CREDENTIALS)
-                .scopes(scopes -> {
-                    scopes.add("internal.read");
-                    scopes.add("internal.write");
-                    scopes.add("system.read");
-                    scopes.add("system.write");
-                })
-                .clientSettings(ClientSettings.builder()
-                        .requireAuthorizationConsent(false)
-                        .build())
-                .tokenSettings(TokenSettings.builder()
-                        .accessTokenTimeToLive(Duration.ofHours(2))
-                        .build())
-                .build();
-
-        // 前端应用客户端
-        RegisteredClient frontendClient = RegisteredClient.withId(UUID.randomUUID().toString())
-                .clientId("iam-frontend")
-                .clientSecret(passwordEncoder.encode("frontend-secret"))
-                .clientAuthenticationMethod(ClientAuthenticationMethod.CLIENT_SECRET_BASIC)
-                .clientAuthenticationMethod(ClientAuthenticationMethod.CLIENT_SECRET_POST)
-                .authorizationGrantType(AuthorizationGrantType.AUTHORIZATION_CODE)
-                .authorizationGrantType(AuthorizationGrantType.REFRESH_TOKEN)
-                .redirectUri("http://localhost:8088/login/oauth2/code/iam")
-                .redirectUri("http://iam-frontend:8088/login/oauth2/code/iam")
-                .postLogoutRedirectUri("http://localhost:8088/")
-                .postLogoutRedirectUri("http://iam-frontend:8088/")
-                .scopes(scopes -> {
-                    scopes.add(OidcScopes.OPENID);
-                    scopes.add(OidcScopes.PROFILE);
-                    scopes.add("user.read");
-                    scopes.add("user.write");
-                    scopes.add("role.read");
-                    scopes.add("role.write");
-                })
-                .clientSettings(ClientSettings.builder()
-                        .requireAuthorizationConsent(true)
-                        .requireProofKey(true)
-                        .build())
-                .tokenSettings(TokenSettings.builder()
-                        .accessTokenTimeToLive(Duration.ofHours(1))
-                        .refreshTokenTimeToLive(Duration.ofDays(1))
-                        .reuseRefreshTokens(false)
-                        .build())
-                .build();
-
-        // 登录前端SPA客户端
-        RegisteredClient loginFrontendClient = RegisteredClient.withId(UUID.randomUUID().toString())
-                .clientId("iam-login-client")
-                .clientSecret(passwordEncoder.encode("login-client-secret"))
-                .clientAuthenticationMethod(ClientAuthenticationMethod.CLIENT_SECRET_BASIC)
-                .clientAuthenticationMethod(ClientAuthenticationMethod.CLIENT_SECRET_POST)
-                .authorizationGrantType(AuthorizationGrantType.AUTHORIZATION_CODE)
-                .authorizationGrantType(AuthorizationGrantType.REFRESH_TOKEN)
-                .redirectUri("http://localhost:3000/callback")
-                .redirectUri("http://localhost:8082") // 添加业务系统B的redirect_uri
-                .postLogoutRedirectUri("http://localhost:3000/")
-                .scopes(scopes -> {
-                    scopes.add(OidcScopes.OPENID);
-                    scopes.add(OidcScopes.PROFILE);
-                    scopes.add(OidcScopes.EMAIL);
-                })
-                .clientSettings(ClientSettings.builder()
-                        .requireAuthorizationConsent(true)
-                        .requireProofKey(true)  // 启用PKCE
-                        .build())
-                .tokenSettings(TokenSettings.builder()
-                        .accessTokenTimeToLive(Duration.ofHours(1))
-                        .refreshTokenTimeToLive(Duration.ofDays(1))
-                        .reuseRefreshTokens(false)
-                        .build())
-                .build();
-
-        // 业务系统B客户端
-        RegisteredClient businessSystemBClient = RegisteredClient.withId(UUID.randomUUID().toString())
-                .clientId("business-system-b")
-                .clientSecret(passwordEncoder.encode("business-system-b-secret"))
-                .clientAuthenticationMethod(ClientAuthenticationMethod.CLIENT_SECRET_BASIC)
-                .clientAuthenticationMethod(ClientAuthenticationMethod.CLIENT_SECRET_POST)
-                .authorizationGrantType(AuthorizationGrantType.AUTHORIZATION_CODE)
-                .authorizationGrantType(AuthorizationGrantType.REFRESH_TOKEN)
-                .redirectUri("http://localhost:8082/callback")
-                .postLogoutRedirectUri("http://localhost:8082/")
-                .scopes(scopes -> {
-                    scopes.add(OidcScopes.OPENID);
-                    scopes.add(OidcScopes.PROFILE);
-                    scopes.add(OidcScopes.EMAIL);
-                })
-                .clientSettings(ClientSettings.builder()
-                        .requireAuthorizationConsent(true)
-                        .requireProofKey(false)  // 业务系统B不需要PKCE
-                        .build())
-                .tokenSettings(TokenSettings.builder()
-                        .accessTokenTimeToLive(Duration.ofHours(1))
-                        .refreshTokenTimeToLive(Duration.ofDays(1))
-                        .reuseRefreshTokens(false)
-                        .build())
-                .build();
-
-        log.info("OAuth2注册客户端存储库配置完成，已注册{}个客户端", 8);
-        return new InMemoryRegisteredClientRepository(
-                gatewayClient, 
-                authServiceClient,
-                coreServiceClient, 
-                auditServiceClient, 
-                systemServiceClient, 
-                frontendClient,
-                loginFrontendClient,  // 登录前端SPA客户端
-                businessSystemBClient  // 业务系统B客户端
-        );
+    public RegisteredClientRepository registeredClientRepository(JdbcTemplate jdbcTemplate,
+            @Value("${iam.auth.client-registry.refresh-interval:30s}") Duration refreshInterval) {
+        log.info("配置OAuth2注册客户端存储库 - 数据库存储，本地索引刷新间隔: {}", refreshInterval);
+        return new CachingRegisteredClientRepository(jdbcTemplate, refreshInterval);
     }
 
     /**
      * OAuth2授权服务配置
-     * 使用内存存储授权信息（生产环境建议使用数据库存储）
+     * 授权信息保存在 oauth2_authorization 表，不透明令牌可在任一认证服务实例上内省与撤销
      */
     @Bean
-    public OAuth2AuthorizationService authorizationService() {
-        log.info("配置OAuth2授权服务 - 使用内存存储");
-        // 生产环境建议使用 JdbcOAuth2AuthorizationService
-        return new org.springframework.security.oauth2.server.authorization.InMemoryOAuth2AuthorizationService();
+    public OAuth2AuthorizationService authorizationService(JdbcTemplate jdbcTemplate,
+            RegisteredClientRepository registeredClientRepository) {
+        log.info("配置OAuth2授权服务 - 数据库存储");
+        return new JdbcOAuth2AuthorizationService(jdbcTemplate, registeredClientRepository);
     }
 
     /**
@@ -348,6 +139,16 @@ public class OAuth2AuthorizationServerConfig {
         return OAuth2AuthorizationServerConfiguration.jwtDecoder(jwkSource);
     }
 
+    /**
+     * JWT编码器
+     * 与授权服务器共用同一密钥源，签发的自包含令牌可由资源服务器通过JWKS本地验签
+     */
+    @Bean
+    public JwtEncoder jwtEncoder(JWKSource<SecurityContext> jwkSource) {
+        log.info("配置JWT编码器");
+        return new NimbusJwtEncoder(jwkSource);
+    }
+
     /**
      * 授权服务器设置
      */
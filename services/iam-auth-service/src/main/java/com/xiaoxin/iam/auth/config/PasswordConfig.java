@@ -5,8 +5,13 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.NoOpPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+import java.util.HashMap;
+import java.util.Map;
+
 /**
  * 密码配置类
  * 负责密码编码器的配置
@@ -22,12 +27,21 @@ public class PasswordConfig {
      * 密码编码器
      * 使用BCrypt算法进行密码加密，每次加密自动生成随机盐值，能有效防止彩虹表攻击
      * 强度设置为12，提供良好的安全性和性能平衡
+     * 以委托方式支持 oauth2_registered_client 中带 {bcrypt}/{noop} 前缀的客户端密钥，
+     * 无前缀的存量用户密码仍按BCrypt校验
      *
-     * @return BCrypt密码编码器
+     * @return 密码编码器
      */
     @Bean
+    @SuppressWarnings("deprecation")
     public PasswordEncoder passwordEncoder() {
         log.info("认证服务密码编码器已启用，使用BCrypt算法，强度为{}", AuthConstants.BCRYPT_STRENGTH);
-        return new BCryptPasswordEncoder(AuthConstants.BCRYPT_STRENGTH);
+        BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(AuthConstants.BCRYPT_STRENGTH);
+        Map<String, PasswordEncoder> encoders = new HashMap<>();
+        encoders.put("bcrypt", bcrypt);
+        encoders.put("noop", NoOpPasswordEncoder.getInstance());
+        DelegatingPasswordEncoder delegating = new DelegatingPasswordEncoder("bcrypt", encoders);
+        delegating.setDefaultPasswordEncoderForMatches(bcrypt);
+        return delegating;
     }
 }
\ No newline at end of file
@@ -0,0 +1,15 @@
+package com.xiaoxin.iam.auth.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 用户批量回源配置类
+ *
+ * @author xiaoxin
+ * @since 1.0.0
+ */
+@Configuration
+@EnableConfigurationProperties(UserBatchProperties.class)
+public class UserBatchConfig {
+}
@@ -0,0 +1,42 @@
+package com.xiaoxin.iam.auth.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * 用户批量回源配置属性
+ *
+ * @author xiaoxin
+ * @since 1.0.0
+ */
+@Data
+@ConfigurationProperties(prefix = "iam.auth.user-batch")
+public class UserBatchProperties {
+
+    /**
+     * 是否合并并发的单用户查询，关闭后每次查询单独调用核心服务
+     */
+    private boolean enabled = true;
+
+    /**
+     * 合并窗口，窗口内到达的查询合并为一次批量调用
+     */
+    private Duration window = Duration.ofMillis(5);
+
+    /**
+     * 单次批量调用的最大用户数，达到后立即发送，不等待窗口结束
+     */
+    private int maxBatchSize = 200;
+
+    /**
+     * 同时进行的批量调用数上限
+     */
+    private int maxConcurrentCalls = 4;
+
+    /**
+     * 调用方等待批量结果的超时时间
+     */
+    private Duration timeout = Duration.ofSeconds(5);
+}
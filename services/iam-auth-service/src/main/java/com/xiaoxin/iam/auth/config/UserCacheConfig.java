@@ -0,0 +1,15 @@
+package com.xiaoxin.iam.auth.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 用户近端缓存配置类
+ *
+ * @author xiaoxin
+ * @since 1.0.0
+ */
+@Configuration
+@EnableConfigurationProperties(UserCacheProperties.class)
+public class UserCacheConfig {
+}
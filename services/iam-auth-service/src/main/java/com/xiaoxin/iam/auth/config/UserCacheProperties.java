@@ -0,0 +1,47 @@
+package com.xiaoxin.iam.auth.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * 用户近端缓存配置属性
+ *
+ * @author xiaoxin
+ * @since 1.0.0
+ */
+@Data
+@ConfigurationProperties(prefix = "iam.auth.user-cache")
+public class UserCacheProperties {
+
+    /**
+     * 是否启用用户近端缓存
+     */
+    private boolean enabled = true;
+
+    /**
+     * 最大缓存条目数
+     */
+    private long maximumSize = 10000;
+
+    /**
+     * 写入后过期时间，超过后必须同步回源
+     */
+    private Duration expireAfterWrite = Duration.ofMinutes(10);
+
+    /**
+     * 写入后提前刷新时间，命中时后台异步回源，不阻塞登录
+     */
+    private Duration refreshAfterWrite = Duration.ofMinutes(2);
+
+    /**
+     * 身份变更事件主题（含 iam.mq.event.topic-prefix 前缀）
+     */
+    private String eventTopic = "iam_event_identity_change";
+
+    /**
+     * 失效事件消费组，以广播模式消费，保证每个实例都能清理本地缓存
+     */
+    private String consumerGroup = "iam-auth-user-cache";
+}
@@ -49,6 +49,11 @@ public final class AuthConstants {
      * OAuth2回调接口路径前缀
      */
     public static final String OAUTH2_CALLBACK_PATH_PREFIX = "/api/v1/auth/callback/**";
+    
+    /**
+     * 批量令牌内省接口路径
+     */
+    public static final String INTROSPECT_BATCH_PATH = "/api/v1/auth/introspect/batch";
 
     // ==================== 系统接口路径常量 ====================
     
@@ -119,4 +124,68 @@ public final class AuthConstants {
      * 账户锁定时间（分钟）
      */
     public static final int ACCOUNT_LOCK_TIME_MINUTES = 30;
+
+    // ==================== 客户端凭据令牌常量 ====================
+    
+    /**
+     * 客户端ID声明名称
+     */
+    public static final String CLAIM_CLIENT_ID = "client_id";
+    
+    /**
+     * 作用域声明名称
+     */
+    public static final String CLAIM_SCOPE = "scope";
+    
+    /**
+     * 不透明令牌内省结果缓存时间（秒），也是其他实例上撤销生效的最长延迟
+     */
+    public static final int OPAQUE_TOKEN_INTROSPECTION_CACHE_SECONDS = 10;
+    
+    /**
+     * 不透明令牌内省结果缓存最大条目数
+     */
+    public static final int OPAQUE_TOKEN_INTROSPECTION_CACHE_SIZE = 10000;
+    
+    /**
+     * 批量内省无效令牌负缓存时间（秒）
+     */
+    public static final int INTROSPECTION_NEGATIVE_CACHE_SECONDS = 5;
+    
+    /**
+     * 批量内省无效令牌负缓存最大条目数
+     */
+    public static final int INTROSPECTION_NEGATIVE_CACHE_SIZE = 50000;
+
+    // ==================== 刷新会话常量 ====================
+    
+    /**
+     * 刷新会话Redis键前缀，值为会话快照Hash
+     */
+    public static final String REFRESH_SESSION_KEY_PREFIX = "iam:auth:session:";
+    
+    /**
+     * 用户刷新会话索引Redis键前缀，值为该用户的会话ID集合
+     */
+    public static final String REFRESH_SESSION_USER_KEY_PREFIX = "iam:auth:session:user:";
+    
+    /**
+     * 角色变更纪元Redis键，任一角色定义变化时递增，会话记录加载快照时的纪元
+     */
+    public static final String REFRESH_SESSION_ROLE_EPOCH_KEY = "iam:auth:session:role-epoch";
+
+    /**
+     * 角色最近变更纪元Redis键，Hash 结构，字段为角色标识（roleKey）
+     */
+    public static final String REFRESH_SESSION_ROLE_CHANGES_KEY = "iam:auth:session:role-changes";
+    
+    /**
+     * 会话ID声明名称
+     */
+    public static final String CLAIM_SESSION_ID = "sid";
+    
+    /**
+     * 令牌ID声明名称
+     */
+    public static final String CLAIM_TOKEN_ID = "jti";
 }
@@ -74,14 +74,14 @@ public class AuthController {
      * 刷新令牌
      */
     @PostMapping("/refresh")
-    @Operation(summary = "刷新令牌", description = "使用刷新令牌获取新的访问令牌")
-    public Result<String> refreshToken(@RequestParam("refreshToken") String refreshToken) {
+    @Operation(summary = "刷新令牌", description = "使用刷新令牌获取新的访问令牌，同时轮换刷新令牌")
+    public Result<LoginResponse> refreshToken(@RequestParam("refreshToken") String refreshToken) {
         log.info("刷新令牌请求");
         
-        String newAccessToken = authService.refreshToken(refreshToken);
+        LoginResponse response = authService.refreshToken(refreshToken);
         
         log.info("令牌刷新成功");
-        return Result.success(newAccessToken);
+        return Result.success(response);
     }
 
     /**
@@ -0,0 +1,48 @@
+package com.xiaoxin.iam.auth.controller;
+
+import com.xiaoxin.iam.auth.service.TokenIntrospectionService;
+import com.xiaoxin.iam.common.dto.TokenIntrospectionBatchRequest;
+import com.xiaoxin.iam.common.dto.TokenIntrospectionDTO;
+import com.xiaoxin.iam.common.result.Result;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * 令牌内省控制器
+ * 供持有不透明令牌的资源服务器批量校验令牌，调用方需携带客户端凭据访问令牌
+ *
+ * @author xiaoxin
+ * @since 1.0.0
+ */
+@RestController
+@RequestMapping("/api/v1/auth/introspect")
+@Tag(name = "令牌内省", description = "资源服务器令牌校验接口")
+public class TokenIntrospectionController {
+
+    private static final Logger log = LoggerFactory.getLogger(TokenIntrospectionController.class);
+
+    private final TokenIntrospectionService tokenIntrospectionService;
+
+    public TokenIntrospectionController(TokenIntrospectionService tokenIntrospectionService) {
+        this.tokenIntrospectionService = tokenIntrospectionService;
+    }
+
+    /**
+     * 批量内省令牌
+     */
+    @PostMapping("/batch")
+    @Operation(summary = "批量内省令牌", description = "按请求顺序返回每个令牌的有效性与声明")
+    public Result<List<TokenIntrospectionDTO>> introspectBatch(@Valid @RequestBody TokenIntrospectionBatchRequest request) {
+        log.debug("批量内省请求: {}个令牌", request.getTokens().size());
+        return Result.success(tokenIntrospectionService.introspect(request.getTokens()));
+    }
+}
@@ -0,0 +1,56 @@
+package com.xiaoxin.iam.auth.listener;
+
+import com.xiaoxin.iam.auth.cache.UserNearCache;
+import com.xiaoxin.iam.starter.mq.event.DomainEventSubscriber;
+import com.xiaoxin.iam.starter.mq.event.identity.RoleChangedEvent;
+import com.xiaoxin.iam.starter.mq.event.identity.UserChangedEvent;
+import com.xiaoxin.iam.starter.mq.serialization.MessageSerializer;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.rocketmq.common.message.MessageExt;
+import org.apache.rocketmq.spring.annotation.ConsumeMode;
+import org.apache.rocketmq.spring.annotation.MessageModel;
+import org.apache.rocketmq.spring.annotation.RocketMQMessageListener;
+import org.apache.rocketmq.spring.core.RocketMQListener;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * 身份变更事件监听器
+ * 消费核心服务发布的用户/角色变更事件，失效用户近端缓存。
+ * 采用广播模式，每个认证服务实例各自清理本地缓存；顺序消费，保证失效按变更发生的先后执行。
+ *
+ * @author xiaoxin
+ * @since 1.0.0
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "iam.auth.user-cache", name = "enabled", havingValue = "true", matchIfMissing = true)
+@RocketMQMessageListener(
+        topic = "${iam.auth.user-cache.event-topic:iam_event_identity_change}",
+        consumerGroup = "${iam.auth.user-cache.consumer-group:iam-auth-user-cache}",
+        messageModel = MessageModel.BROADCASTING,
+        consumeMode = ConsumeMode.ORDERLY)
+public class IdentityChangeListener implements RocketMQListener<MessageExt> {
+
+    private final DomainEventSubscriber subscriber;
+
+    public IdentityChangeListener(UserNearCache userNearCache, MessageSerializer messageSerializer) {
+        this.subscriber = new DomainEventSubscriber(messageSerializer)
+                .on(RoleChangedEvent.class, event -> {
+                    log.debug("收到角色变更事件: type={}, roleKeys={}", event.getChangeType(), event.getRoleKeys());
+                    userNearCache.invalidateRoleKeys(event.getRoleKeys());
+                })
+                .on(UserChangedEvent.class, event -> {
+                    log.debug("收到用户变更事件: type={}, userIds={}", event.getChangeType(), event.getUserIds());
+                    userNearCache.invalidateUsernames(event.getUsernames());
+                    userNearCache.invalidateUserIds(event.getUserIds());
+                })
+                // 无法解析的事件按最保守方式处理，避免缓存长期不一致
+                .onFailure(message -> userNearCache.invalidateAll());
+    }
+
+    @Override
+    public void onMessage(MessageExt message) {
+        subscriber.dispatch(message);
+    }
+}
@@ -0,0 +1,63 @@
+package com.xiaoxin.iam.auth.listener;
+
+import com.xiaoxin.iam.auth.session.RefreshSessionStore;
+import com.xiaoxin.iam.starter.mq.event.DomainEventSubscriber;
+import com.xiaoxin.iam.starter.mq.event.identity.RoleChangedEvent;
+import com.xiaoxin.iam.starter.mq.event.identity.UserChangedEvent;
+import com.xiaoxin.iam.starter.mq.serialization.MessageSerializer;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.rocketmq.common.message.MessageExt;
+import org.apache.rocketmq.spring.annotation.ConsumeMode;
+import org.apache.rocketmq.spring.annotation.RocketMQMessageListener;
+import org.apache.rocketmq.spring.core.RocketMQListener;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * 刷新会话失效监听器
+ * 消费核心服务发布的用户/角色变更事件，更新 Redis 中的刷新会话。
+ * 会话存储为集群共享，采用集群消费模式，每条事件只需处理一次；顺序消费，保证会话按变更发生的先后更新。
+ *
+ * @author xiaoxin
+ * @since 1.0.0
+ */
+@Slf4j
+@Component
+@RocketMQMessageListener(
+        topic = "${iam.auth.session.event-topic:iam_event_identity_change}",
+        consumerGroup = "${iam.auth.session.consumer-group:iam-auth-refresh-session}",
+        consumeMode = ConsumeMode.ORDERLY)
+public class RefreshSessionInvalidationListener implements RocketMQListener<MessageExt> {
+
+    private final DomainEventSubscriber subscriber;
+
+    public RefreshSessionInvalidationListener(RefreshSessionStore refreshSessionStore,
+                                              MessageSerializer messageSerializer) {
+        this.subscriber = new DomainEventSubscriber(messageSerializer)
+                .on(RoleChangedEvent.class, event -> {
+                    log.debug("角色变更，持有该角色的会话将重新加载: type={}, roleKeys={}",
+                            event.getChangeType(), event.getRoleKeys());
+                    refreshSessionStore.bumpRoleEpoch(event.getRoleKeys());
+                })
+                .on(UserChangedEvent.class, event -> {
+                    String changeType = event.getChangeType();
+                    if (UserChangedEvent.CHANGE_PASSWORD.equals(changeType)
+                            || UserChangedEvent.CHANGE_DELETED.equals(changeType)) {
+                        // 密码变更或删除用户后，已签发的刷新令牌全部作废
+                        log.debug("销毁用户刷新会话: type={}, userIds={}", changeType, event.getUserIds());
+                        refreshSessionStore.revokeUsers(event.getUserIds());
+                    } else {
+                        log.debug("标记用户刷新会话过期: type={}, userIds={}", changeType, event.getUserIds());
+                        refreshSessionStore.markUsersStale(event.getUserIds());
+                    }
+                })
+                // 无法解析的事件不知道影响范围，让所有会话在下次刷新时重新加载
+                .onFailure(message -> refreshSessionStore.bumpRoleEpoch(List.of()));
+    }
+
+    @Override
+    public void onMessage(MessageExt message) {
+        subscriber.dispatch(message);
+    }
+}
@@ -0,0 +1,222 @@
+package com.xiaoxin.iam.auth.repository;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.jdbc.core.JdbcOperations;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.security.oauth2.server.authorization.client.JdbcRegisteredClientRepository;
+import org.springframework.security.oauth2.server.authorization.client.RegisteredClient;
+import org.springframework.security.oauth2.server.authorization.client.RegisteredClientRepository;
+import org.springframework.util.Assert;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 带本地索引的JDBC注册客户端存储库
+ * <p>
+ * 客户端定义以 oauth2_registered_client 表为准，启动时全量加载为不可变索引（按id与client_id），
+ * 之后按 update_time 水位增量拉取变更，令牌端点的查询只读内存索引，不访问数据库。
+ * </p>
+ * <ul>
+ *     <li>新增/修改：update_time 大于等于水位的行被合并进新索引</li>
+ *     <li>删除：每次轮询拉取全部 id（客户端表很小）与索引比对，索引中多出的客户端被移除，
+ *     数据库中多出而增量未拉到的客户端触发全量重建；同一周期内先删后增也能识别</li>
+ *     <li>通过本存储库 save 的客户端立即刷新，无需等待下个轮询周期</li>
+ * </ul>
+ *
+ * @author xiaoxin
+ * @since 1.0.0
+ */
+@Slf4j
+public class CachingRegisteredClientRepository implements RegisteredClientRepository, InitializingBean, DisposableBean {
+
+    private static final String TABLE_NAME = "oauth2_registered_client";
+
+    private static final String COLUMN_NAMES = "id, client_id, client_id_issued_at, client_secret, "
+            + "client_secret_expires_at, client_name, client_authentication_methods, authorization_grant_types, "
+            + "redirect_uris, post_logout_redirect_uris, scopes, client_settings, token_settings, update_time";
+
+    private static final String LOAD_ALL_SQL = "SELECT " + COLUMN_NAMES + " FROM " + TABLE_NAME;
+
+    private static final String LOAD_CHANGED_SQL = LOAD_ALL_SQL + " WHERE update_time >= ?";
+
+    private static final String LOAD_IDS_SQL = "SELECT id FROM " + TABLE_NAME;
+
+    private final JdbcOperations jdbcOperations;
+
+    private final JdbcRegisteredClientRepository delegate;
+
+    private final RowMapper<VersionedClient> rowMapper;
+
+    private final Duration refreshInterval;
+
+    private final ScheduledExecutorService scheduler;
+
+    /**
+     * 当前索引快照，整体替换保证读取无锁且一致
+     */
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+
+    public CachingRegisteredClientRepository(JdbcOperations jdbcOperations, Duration refreshInterval) {
+        Assert.notNull(jdbcOperations, "jdbcOperations cannot be null");
+        Assert.notNull(refreshInterval, "refreshInterval cannot be null");
+        this.jdbcOperations = jdbcOperations;
+        this.delegate = new JdbcRegisteredClientRepository(jdbcOperations);
+        RowMapper<RegisteredClient> clientRowMapper = new JdbcRegisteredClientRepository.RegisteredClientRowMapper();
+        this.rowMapper = (rs, rowNum) -> new VersionedClient(clientRowMapper.mapRow(rs, rowNum),
+                rs.getTimestamp("update_time"));
+        this.refreshInterval = refreshInterval;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "registered-client-refresher");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        try {
+            reload();
+        } catch (Exception e) {
+            // 数据库暂不可用时不阻止启动，由后续轮询补齐
+            log.error("加载OAuth2注册客户端失败，将在下次轮询时重试", e);
+        }
+        long intervalMillis = refreshInterval.toMillis();
+        scheduler.scheduleWithFixedDelay(this::refreshQuietly, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void destroy() {
+        scheduler.shutdownNow();
+    }
+
+    @Override
+    public void save(RegisteredClient registeredClient) {
+        delegate.save(registeredClient);
+        refresh();
+    }
+
+    @Override
+    public RegisteredClient findById(String id) {
+        Assert.hasText(id, "id cannot be empty");
+        return snapshot.byId().get(id);
+    }
+
+    @Override
+    public RegisteredClient findByClientId(String clientId) {
+        Assert.hasText(clientId, "clientId cannot be empty");
+        return snapshot.byClientId().get(clientId);
+    }
+
+    /**
+     * 全量重建索引
+     */
+    public synchronized void reload() {
+        List<VersionedClient> rows = jdbcOperations.query(LOAD_ALL_SQL, rowMapper);
+        Map<String, RegisteredClient> byId = new HashMap<>(rows.size() * 2);
+        Timestamp watermark = null;
+        for (VersionedClient row : rows) {
+            byId.put(row.client().getId(), row.client());
+            watermark = max(watermark, row.updateTime());
+        }
+        snapshot = Snapshot.of(byId, watermark);
+        log.info("OAuth2注册客户端索引已全量加载: {}个客户端", byId.size());
+    }
+
+    /**
+     * 增量刷新索引：合并水位之后变更的行，按 id 集合移除已删除的客户端，发现遗漏时全量重建
+     */
+    public synchronized void refresh() {
+        Snapshot current = snapshot;
+        if (current.watermark() == null) {
+            reload();
+            return;
+        }
+
+        List<VersionedClient> changed = jdbcOperations.query(LOAD_CHANGED_SQL, rowMapper, current.watermark());
+        Set<String> ids = new HashSet<>(jdbcOperations.queryForList(LOAD_IDS_SQL, String.class));
+
+        Map<String, RegisteredClient> byId = new HashMap<>(current.byId());
+        Timestamp watermark = current.watermark();
+        int updated = 0;
+        for (VersionedClient row : changed) {
+            RegisteredClient previous = byId.put(row.client().getId(), row.client());
+            if (previous == null || !previous.equals(row.client())) {
+                updated++;
+            }
+            watermark = max(watermark, row.updateTime());
+        }
+
+        // 先删后增时行数不变，需按 id 比对；两次查询之间新增的行同样会落入全量重建
+        int removed = 0;
+        for (Iterator<String> iterator = byId.keySet().iterator(); iterator.hasNext(); ) {
+            if (!ids.contains(iterator.next())) {
+                iterator.remove();
+                removed++;
+            }
+        }
+        if (!byId.keySet().containsAll(ids)) {
+            log.info("OAuth2注册客户端存在未按水位拉取到的行，重建索引");
+            reload();
+            return;
+        }
+        if (removed > 0) {
+            log.info("OAuth2注册客户端索引已移除{}个已删除的客户端", removed);
+        }
+        if (updated > 0 || removed > 0 || !watermark.equals(current.watermark())) {
+            snapshot = Snapshot.of(byId, watermark);
+            if (updated > 0) {
+                log.info("OAuth2注册客户端索引已增量刷新: {}个客户端变更", updated);
+            }
+        }
+    }
+
+    private void refreshQuietly() {
+        try {
+            refresh();
+        } catch (Exception e) {
+            log.warn("刷新OAuth2注册客户端索引失败，继续使用当前索引: {}", e.getMessage());
+        }
+    }
+
+    private static Timestamp max(Timestamp current, Timestamp candidate) {
+        if (candidate == null) {
+            return current;
+        }
+        return current == null || candidate.after(current) ? candidate : current;
+    }
+
+    /**
+     * 带更新时间的客户端行
+     */
+    private record VersionedClient(RegisteredClient client, Timestamp updateTime) {
+    }
+
+    /**
+     * 不可变索引快照
+     */
+    private record Snapshot(Map<String, RegisteredClient> byId, Map<String, RegisteredClient> byClientId,
+                            Timestamp watermark) {
+
+        static final Snapshot EMPTY = new Snapshot(Collections.emptyMap(), Collections.emptyMap(), null);
+
+        static Snapshot of(Map<String, RegisteredClient> byId, Timestamp watermark) {
+            Map<String, RegisteredClient> byClientId = new HashMap<>(byId.size() * 2);
+            byId.values().forEach(client -> byClientId.put(client.getClientId(), client));
+            return new Snapshot(Map.copyOf(byId), Map.copyOf(byClientId), watermark);
+        }
+    }
+}
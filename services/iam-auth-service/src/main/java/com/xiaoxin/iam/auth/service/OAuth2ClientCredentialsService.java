@@ -2,20 +2,40 @@ package com.xiaoxin.iam.auth.service;
 
 import java.time.Duration;
 import java.time.Instant;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
+import java.util.UUID;
 import java.util.stream.Collectors;
 
+import org.springframework.security.crypto.keygen.Base64StringKeyGenerator;
+import org.springframework.security.crypto.keygen.StringKeyGenerator;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.oauth2.core.AuthorizationGrantType;
 import org.springframework.security.oauth2.core.OAuth2AccessToken;
 import org.springframework.security.oauth2.core.endpoint.OAuth2AccessTokenResponse;
+import org.springframework.security.oauth2.jose.jws.SignatureAlgorithm;
+import org.springframework.security.oauth2.jwt.JwsHeader;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtClaimsSet;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtEncoder;
+import org.springframework.security.oauth2.jwt.JwtEncoderParameters;
+import org.springframework.security.oauth2.jwt.JwtException;
 import org.springframework.security.oauth2.server.authorization.OAuth2Authorization;
 import org.springframework.security.oauth2.server.authorization.OAuth2AuthorizationService;
 import org.springframework.security.oauth2.server.authorization.OAuth2TokenType;
 import org.springframework.security.oauth2.server.authorization.client.RegisteredClient;
 import org.springframework.security.oauth2.server.authorization.client.RegisteredClientRepository;
+import org.springframework.security.oauth2.server.authorization.settings.AuthorizationServerSettings;
+import org.springframework.security.oauth2.server.authorization.settings.OAuth2TokenFormat;
 import org.springframework.stereotype.Service;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.xiaoxin.iam.auth.constant.AuthConstants;
 import com.xiaoxin.iam.common.result.Result;
 import com.xiaoxin.iam.common.utils.StringUtils;
 
@@ -25,6 +45,14 @@ import lombok.extern.slf4j.Slf4j;
 /**
  * OAuth2客户端凭据模式认证服务
  * 用于服务间调用的认证
+ * <p>
+ * 令牌格式由客户端 TokenSettings.accessTokenFormat 决定：
+ * <ul>
+ *     <li>SELF_CONTAINED（默认）：签发JWT，携带client_id、scope与过期时间，资源服务器通过JWKS本地验签，无需回查授权存储</li>
+ *     <li>REFERENCE：签发不透明令牌并保存到共享的授权存储，任一实例均可内省与撤销；内省结果在本实例短暂缓存，
+ *     撤销在发起实例上立即生效，其他实例最迟在缓存过期后生效</li>
+ * </ul>
+ * </p>
  *
  * @author xiaoxin
  * @since 1.0.0
@@ -40,6 +68,26 @@ public class OAuth2ClientCredentialsService {
 
     private final PasswordEncoder passwordEncoder;
 
+    private final JwtEncoder jwtEncoder;
+
+    private final JwtDecoder jwtDecoder;
+
+    private final AuthorizationServerSettings authorizationServerSettings;
+
+    /**
+     * 不透明令牌生成器
+     */
+    private final StringKeyGenerator opaqueTokenGenerator =
+            new Base64StringKeyGenerator(Base64.getUrlEncoder().withoutPadding(), 96);
+
+    /**
+     * 不透明令牌内省缓存
+     */
+    private final Cache<String, OAuth2Authorization> introspectionCache = Caffeine.newBuilder()
+            .maximumSize(AuthConstants.OPAQUE_TOKEN_INTROSPECTION_CACHE_SIZE)
+            .expireAfterWrite(Duration.ofSeconds(AuthConstants.OPAQUE_TOKEN_INTROSPECTION_CACHE_SECONDS))
+            .build();
+
     /**
      * 客户端凭据模式获取访问令牌
      *
@@ -83,15 +131,10 @@ public class OAuth2ClientCredentialsService {
             // 5. 生成访问令牌
             OAuth2AccessToken accessToken = generateAccessToken(registeredClient, requestedScopes);
 
-            // 6. 保存授权信息
-            OAuth2Authorization authorization = OAuth2Authorization.withRegisteredClient(registeredClient)
-                    .principalName(clientId)
-                    .authorizationGrantType(AuthorizationGrantType.CLIENT_CREDENTIALS)
-                    .authorizedScopes(requestedScopes)
-                    .accessToken(accessToken)
-                    .build();
-
-            authorizationService.save(authorization);
+            // 6. 不透明令牌需保存授权信息，自包含令牌由资源服务器本地验签
+            if (!isSelfContained(registeredClient)) {
+                authorizationService.save(buildAuthorization(registeredClient, requestedScopes, accessToken));
+            }
 
             // 7. 构建响应
             OAuth2AccessTokenResponse response = OAuth2AccessTokenResponse.withToken(accessToken.getTokenValue())
@@ -117,7 +160,7 @@ public class OAuth2ClientCredentialsService {
      */
     public Result<OAuth2Authorization> validateToken(String token) {
         try {
-            OAuth2Authorization authorization = authorizationService.findByToken(token, OAuth2TokenType.ACCESS_TOKEN);
+            OAuth2Authorization authorization = isJwt(token) ? decodeJwt(token) : introspectOpaque(token);
             if (authorization == null) {
                 return Result.failed(401, "无效的访问令牌");
             }
@@ -129,28 +172,37 @@ public class OAuth2ClientCredentialsService {
             }
 
             return Result.success(authorization);
+        } catch (JwtException e) {
+            log.debug("JWT访问令牌验证失败: {}", e.getMessage());
+            return Result.failed(401, "无效的访问令牌");
         } catch (Exception e) {
-            log.error("令牌验证失败: token={}, error={}", token, e.getMessage(), e);
+            log.error("令牌验证失败: error={}", e.getMessage(), e);
             return Result.failed(500, "令牌验证失败");
         }
     }
 
     /**
      * 撤销访问令牌
+     * 自包含令牌无服务端状态，只能等待过期；需要即时撤销的客户端应使用REFERENCE格式
      *
      * @param token 访问令牌
      * @return 撤销结果
      */
     public Result<Void> revokeToken(String token) {
+        if (isJwt(token)) {
+            return Result.failed(400, "自包含令牌不支持撤销，请等待其过期");
+        }
         try {
             OAuth2Authorization authorization = authorizationService.findByToken(token, OAuth2TokenType.ACCESS_TOKEN);
             if (authorization != null) {
                 authorizationService.remove(authorization);
                 log.info("访问令牌已撤销: clientId={}", authorization.getPrincipalName());
             }
+            // 先删除授权再失效缓存，避免并发内省把已撤销的授权重新写入缓存
+            introspectionCache.invalidate(token);
             return Result.success();
         } catch (Exception e) {
-            log.error("令牌撤销失败: token={}, error={}", token, e.getMessage(), e);
+            log.error("令牌撤销失败: error={}", e.getMessage(), e);
             return Result.failed(500, "令牌撤销失败");
         }
     }
@@ -160,11 +212,16 @@ public class OAuth2ClientCredentialsService {
      */
     private OAuth2AccessToken generateAccessToken(RegisteredClient registeredClient, Set<String> scopes) {
         Instant issuedAt = Instant.now();
-        Instant expiresAt = issuedAt.plus(Duration.ofHours(1)); // 1小时有效期
+        Duration timeToLive = registeredClient.getTokenSettings().getAccessTokenTimeToLive();
+        Instant expiresAt = issuedAt.plus(timeToLive != null ? timeToLive : Duration.ofHours(1));
+
+        String tokenValue = isSelfContained(registeredClient)
+                ? encodeJwt(registeredClient, scopes, issuedAt, expiresAt)
+                : opaqueTokenGenerator.generateKey();
 
         return new OAuth2AccessToken(
                 OAuth2AccessToken.TokenType.BEARER,
-                generateTokenValue(),
+                tokenValue,
                 issuedAt,
                 expiresAt,
                 scopes
@@ -172,12 +229,81 @@ public class OAuth2ClientCredentialsService {
     }
 
     /**
-     * 生成令牌值
+     * 签发JWT访问令牌
+     */
+    private String encodeJwt(RegisteredClient registeredClient, Set<String> scopes, Instant issuedAt, Instant expiresAt) {
+        JwtClaimsSet claims = JwtClaimsSet.builder()
+                .issuer(authorizationServerSettings.getIssuer())
+                .subject(registeredClient.getClientId())
+                .audience(Collections.singletonList(registeredClient.getClientId()))
+                .issuedAt(issuedAt)
+                .notBefore(issuedAt)
+                .expiresAt(expiresAt)
+                .id(UUID.randomUUID().toString())
+                .claim(AuthConstants.CLAIM_CLIENT_ID, registeredClient.getClientId())
+                .claim(AuthConstants.CLAIM_SCOPE, scopes)
+                .build();
+        JwsHeader header = JwsHeader.with(SignatureAlgorithm.RS256).build();
+        return jwtEncoder.encode(JwtEncoderParameters.from(header, claims)).getTokenValue();
+    }
+
+    /**
+     * 本地验签并还原授权信息
+     */
+    private OAuth2Authorization decodeJwt(String token) {
+        Jwt jwt = jwtDecoder.decode(token);
+        String clientId = jwt.getClaimAsString(AuthConstants.CLAIM_CLIENT_ID);
+        RegisteredClient registeredClient = clientId != null ? registeredClientRepository.findByClientId(clientId) : null;
+        if (registeredClient == null) {
+            return null;
+        }
+        List<String> scopeClaim = jwt.getClaimAsStringList(AuthConstants.CLAIM_SCOPE);
+        Set<String> scopes = scopeClaim != null ? new HashSet<>(scopeClaim) : Collections.emptySet();
+        OAuth2AccessToken accessToken = new OAuth2AccessToken(OAuth2AccessToken.TokenType.BEARER,
+                token, jwt.getIssuedAt(), jwt.getExpiresAt(), scopes);
+        return buildAuthorization(registeredClient, scopes, accessToken);
+    }
+
+    /**
+     * 内省不透明令牌，结果短暂缓存
+     */
+    private OAuth2Authorization introspectOpaque(String token) {
+        OAuth2Authorization cached = introspectionCache.getIfPresent(token);
+        if (cached != null) {
+            return cached;
+        }
+        OAuth2Authorization authorization = authorizationService.findByToken(token, OAuth2TokenType.ACCESS_TOKEN);
+        if (authorization != null) {
+            introspectionCache.put(token, authorization);
+        }
+        return authorization;
+    }
+
+    /**
+     * 构建客户端凭据授权信息
+     */
+    private OAuth2Authorization buildAuthorization(RegisteredClient registeredClient, Set<String> scopes,
+                                                   OAuth2AccessToken accessToken) {
+        return OAuth2Authorization.withRegisteredClient(registeredClient)
+                .principalName(registeredClient.getClientId())
+                .authorizationGrantType(AuthorizationGrantType.CLIENT_CREDENTIALS)
+                .authorizedScopes(scopes)
+                .accessToken(accessToken)
+                .build();
+    }
+
+    /**
+     * 客户端是否使用自包含（JWT）令牌
+     */
+    private boolean isSelfContained(RegisteredClient registeredClient) {
+        return OAuth2TokenFormat.SELF_CONTAINED.equals(registeredClient.getTokenSettings().getAccessTokenFormat());
+    }
+
+    /**
+     * 是否为JWT格式（header.payload.signature），不透明令牌为无点号的Base64URL串
      */
-    private String generateTokenValue() {
-        // 这里应该使用安全的令牌生成器
-        // 简化实现，实际应该集成JWT或其他安全令牌生成机制
-        return java.util.UUID.randomUUID().toString().replace("-", "");
+    private boolean isJwt(String token) {
+        return token != null && token.chars().filter(ch -> ch == '.').count() == 2;
     }
 
 /**
@@ -0,0 +1,130 @@
+package com.xiaoxin.iam.auth.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.security.oauth2.core.OAuth2AccessToken;
+import org.springframework.security.oauth2.server.authorization.OAuth2Authorization;
+import org.springframework.security.oauth2.server.authorization.OAuth2AuthorizationService;
+import org.springframework.security.oauth2.server.authorization.OAuth2TokenType;
+import org.springframework.security.oauth2.server.authorization.client.RegisteredClient;
+import org.springframework.security.oauth2.server.authorization.client.RegisteredClientRepository;
+import org.springframework.stereotype.Service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.xiaoxin.iam.auth.constant.AuthConstants;
+import com.xiaoxin.iam.common.dto.TokenIntrospectionDTO;
+import com.xiaoxin.iam.common.result.Result;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 令牌批量内省服务
+ * 一次请求内省多个访问令牌，替代资源服务器逐个调用内省端点；
+ * 无效令牌进入短期负缓存，避免重复的无效令牌反复查询授权存储
+ *
+ * @author xiaoxin
+ * @since 1.0.0
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TokenIntrospectionService {
+
+    private final OAuth2AuthorizationService authorizationService;
+
+    private final RegisteredClientRepository registeredClientRepository;
+
+    private final OAuth2ClientCredentialsService clientCredentialsService;
+
+    /**
+     * 无效令牌负缓存
+     */
+    private final Cache<String, Boolean> inactiveTokens = Caffeine.newBuilder()
+            .maximumSize(AuthConstants.INTROSPECTION_NEGATIVE_CACHE_SIZE)
+            .expireAfterWrite(Duration.ofSeconds(AuthConstants.INTROSPECTION_NEGATIVE_CACHE_SECONDS))
+            .build();
+
+    /**
+     * 批量内省令牌
+     *
+     * @param tokens 访问令牌列表
+     * @return 与入参顺序一致的内省结果
+     */
+    public List<TokenIntrospectionDTO> introspect(List<String> tokens) {
+        // 同一批次内的重复令牌只内省一次
+        Map<String, TokenIntrospectionDTO> resolved = new HashMap<>(tokens.size() * 2);
+        List<TokenIntrospectionDTO> results = new ArrayList<>(tokens.size());
+        for (String token : tokens) {
+            results.add(resolved.computeIfAbsent(token == null ? "" : token, this::introspectOne));
+        }
+        log.debug("批量内省完成: 请求{}个令牌，去重后{}个", tokens.size(), resolved.size());
+        return results;
+    }
+
+    /**
+     * 内省单个令牌
+     */
+    private TokenIntrospectionDTO introspectOne(String token) {
+        if (token.isEmpty() || inactiveTokens.getIfPresent(token) != null) {
+            return TokenIntrospectionDTO.inactive();
+        }
+
+        OAuth2Authorization authorization = authorizationService.findByToken(token, OAuth2TokenType.ACCESS_TOKEN);
+        if (authorization == null && isJwt(token)) {
+            // 自包含客户端凭据令牌不落授权存储，本地验签还原
+            Result<OAuth2Authorization> validated = clientCredentialsService.validateToken(token);
+            authorization = validated.isSuccess() ? validated.getData() : null;
+        }
+
+        TokenIntrospectionDTO result = toIntrospection(authorization);
+        if (!result.isActive()) {
+            inactiveTokens.put(token, Boolean.TRUE);
+        }
+        return result;
+    }
+
+    /**
+     * 转换授权信息为内省结果
+     */
+    private TokenIntrospectionDTO toIntrospection(OAuth2Authorization authorization) {
+        if (authorization == null) {
+            return TokenIntrospectionDTO.inactive();
+        }
+        OAuth2Authorization.Token<OAuth2AccessToken> accessToken = authorization.getAccessToken();
+        if (accessToken == null || !accessToken.isActive()) {
+            return TokenIntrospectionDTO.inactive();
+        }
+
+        OAuth2AccessToken token = accessToken.getToken();
+        RegisteredClient registeredClient = registeredClientRepository.findById(authorization.getRegisteredClientId());
+        Set<String> scopes = token.getScopes();
+        return TokenIntrospectionDTO.builder()
+                .active(true)
+                .clientId(registeredClient != null ? registeredClient.getClientId() : null)
+                .sub(authorization.getPrincipalName())
+                .scope(scopes != null ? String.join(" ", scopes) : null)
+                .tokenType(token.getTokenType().getValue())
+                .exp(epochSecond(token.getExpiresAt()))
+                .iat(epochSecond(token.getIssuedAt()))
+                .build();
+    }
+
+    private static Long epochSecond(Instant instant) {
+        return instant != null ? instant.getEpochSecond() : null;
+    }
+
+    /**
+     * 是否为JWT格式
+     */
+    private static boolean isJwt(String token) {
+        return token.chars().filter(ch -> ch == '.').count() == 2;
+    }
+}
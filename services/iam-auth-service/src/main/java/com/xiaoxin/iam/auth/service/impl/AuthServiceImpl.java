@@ -1,12 +1,19 @@
 package com.xiaoxin.iam.auth.service.impl;
 
+import com.xiaoxin.iam.auth.cache.UserNearCache;
 import com.xiaoxin.iam.auth.client.CoreServiceClient;
+import com.xiaoxin.iam.auth.constant.AuthConstants;
 import com.xiaoxin.iam.auth.dto.LoginRequest;
 import com.xiaoxin.iam.auth.dto.LoginResponse;
+import com.xiaoxin.iam.auth.session.RefreshSessionStore;
+import com.xiaoxin.iam.auth.session.RefreshSessionStore.RefreshSession;
+import com.xiaoxin.iam.auth.session.RefreshSessionStore.RotateResult;
+import com.xiaoxin.iam.auth.session.RefreshSessionStore.RotateStatus;
 import com.xiaoxin.iam.common.exception.AuthException;
 import com.xiaoxin.iam.common.result.Result;
 import com.xiaoxin.iam.common.result.ResultCode;
 import com.xiaoxin.iam.common.utils.JwtUtils;
+import io.jsonwebtoken.Claims;
 
 import lombok.RequiredArgsConstructor;
 
@@ -24,9 +31,14 @@ import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.UUID;
 import java.util.stream.Collectors;
 
 /**
@@ -45,11 +57,16 @@ public class AuthServiceImpl implements UserDetailsService {
     private final JwtUtils jwtUtils;
     private final CoreServiceClient coreServiceClient;
     private final PasswordEncoder passwordEncoder;
+    private final UserNearCache userNearCache;
+    private final RefreshSessionStore refreshSessionStore;
 
 
     @Value("${iam.security.jwt.access-token-expiration:7200000}")
     private Long tokenExpiration;
 
+    @Value("${iam.security.jwt.refresh-token-expiration:604800000}")
+    private Long refreshTokenExpiration;
+
     /**
      * 用户登录
      */
@@ -58,20 +75,13 @@ public class AuthServiceImpl implements UserDetailsService {
         log.info("用户登录请求: {}", username);
         
         try {
-            // 1. 查询用户信息
-            log.info("开始调用核心服务查询用户信息: username={}", username);
-            Result<UserDTO> userResult = coreServiceClient.getUserByUsername(username);
-            log.info("核心服务调用完成: success={}, hasData={}", 
-                    userResult.isSuccess(), userResult.getData() != null);
-            
-            if (!userResult.isSuccess() || userResult.getData() == null) {
-                log.error("查询用户失败: code={}, message={}", 
-                         userResult.getCode(), userResult.getMessage());
+            // 1. 查询用户信息（优先读取近端缓存）
+            UserDTO user = userNearCache.getByUsername(username);
+            if (user == null) {
+                log.error("查询用户失败: username={}", username);
                 throw new AuthException(ResultCode.USER_NOT_FOUND.getCode(), "用户不存在");
             }
             
-            UserDTO user = userResult.getData();
-            
             // 2. 检查用户状态
             if (user.getStatus() == null || !"0".equals(user.getStatus())) {
                 if ("1".equals(user.getStatus())) {
@@ -87,10 +97,14 @@ public class AuthServiceImpl implements UserDetailsService {
                 throw new BadCredentialsException("密码错误");
             }
             
-            // 4. 生成JWT令牌
-            String[] roles = getUserRoles(user);
-            String accessToken = jwtUtils.generateUserToken(user.getId(), user.getUsername(), roles);
-            String refreshToken = jwtUtils.generateRefreshToken(user.getId(), user.getUsername());
+            // 4. 创建刷新会话并生成JWT令牌
+            List<String> roles = nullToEmpty(user.getRoles());
+            List<String> permissions = nullToEmpty(user.getPermissions());
+            String jti = newTokenId();
+            String sid = refreshSessionStore.create(user.getId(), user.getUsername(), roles, permissions,
+                    jti, Duration.ofMillis(refreshTokenExpiration));
+            String accessToken = generateAccessToken(user.getId(), user.getUsername(), roles, permissions, sid);
+            String refreshToken = generateRefreshToken(user.getId(), user.getUsername(), sid, jti);
             
             // 5. 更新用户登录信息
             updateUserLoginInfo(user.getId(), loginRequest.getLoginIp());
@@ -121,13 +135,47 @@ public class AuthServiceImpl implements UserDetailsService {
     }
     
     /**
-     * 获取用户角色列表
+     * 生成携带完整声明的访问令牌
      */
-    private String[] getUserRoles(UserDTO user) {
-        if (user.getRoles() == null || user.getRoles().isEmpty()) {
-            return new String[0];
-        }
-        return user.getRoles().toArray(new String[0]);
+    private String generateAccessToken(Long userId, String username, Collection<String> roles,
+                                       Collection<String> permissions, String sid) {
+        Map<String, Object> claims = new HashMap<>();
+        claims.put("userId", userId);
+        claims.put("username", username);
+        claims.put("roles", roles.toArray(new String[0]));
+        claims.put("permissions", permissions.toArray(new String[0]));
+        claims.put("type", "access");
+        claims.put(AuthConstants.CLAIM_SESSION_ID, sid);
+        return jwtUtils.generateToken(claims, tokenExpiration);
+    }
+
+    /**
+     * 生成绑定刷新会话的刷新令牌
+     */
+    private String generateRefreshToken(Long userId, String username, String sid, String jti) {
+        Map<String, Object> claims = new HashMap<>();
+        claims.put("userId", userId);
+        claims.put("username", username);
+        claims.put("type", "refresh");
+        claims.put(AuthConstants.CLAIM_SESSION_ID, sid);
+        claims.put(AuthConstants.CLAIM_TOKEN_ID, jti);
+        return jwtUtils.generateToken(claims, refreshTokenExpiration);
+    }
+
+    /**
+     * 绕过近端缓存与批量合并，从核心服务读取用户
+     */
+    private UserDTO loadUserFromCore(String username) {
+        Result<UserDTO> result = coreServiceClient.getUserByUsername(username);
+        return result != null && result.isSuccess() ? result.getData() : null;
+    }
+
+    private static String newTokenId() {
+        return UUID.randomUUID().toString().replace("-", "");
+    }
+
+    private static List<String> nullToEmpty(List<String> values) {
+        return values != null ? values : Collections.emptyList();
     }
     
     /**
@@ -171,30 +219,79 @@ public class AuthServiceImpl implements UserDetailsService {
     public void logout(String token) {
         log.info("用户登出请求");
         
-        // 这里可以实现令牌黑名单机制
-        // 将令牌加入黑名单，使其失效
-        // 由于JWT是无状态的，这里可以记录到Redis中
+        // 销毁访问令牌所属的刷新会话，已签发的访问令牌在自然过期前仍然有效
+        try {
+            Claims claims = jwtUtils.getClaimsFromToken(token);
+            refreshSessionStore.revoke(claims.get(AuthConstants.CLAIM_SESSION_ID, String.class));
+        } catch (Exception e) {
+            log.debug("登出令牌无法解析，忽略会话销毁: {}", e.getMessage());
+        }
         
         log.info("用户登出成功");
     }
 
-    public String refreshToken(String refreshToken) {
+    /**
+     * 刷新令牌
+     * <p>
+     * 通过刷新会话快照重新签发完整声明的访问令牌，并轮换刷新令牌；
+     * 仅当会话被标记为过期时才重新加载用户信息。
+     * </p>
+     */
+    public LoginResponse refreshToken(String refreshToken) {
         log.info("刷新令牌请求");
         
-        // 验证刷新令牌
-        if (!jwtUtils.validateToken(refreshToken)) {
+        // 1. 校验刷新令牌
+        Claims claims;
+        try {
+            claims = jwtUtils.getClaimsFromToken(refreshToken);
+        } catch (Exception e) {
+            throw AuthException.tokenInvalid();
+        }
+        String sid = claims.get(AuthConstants.CLAIM_SESSION_ID, String.class);
+        String jti = claims.get(AuthConstants.CLAIM_TOKEN_ID, String.class);
+        if (!"refresh".equals(claims.get("type", String.class)) || sid == null || jti == null) {
             throw AuthException.tokenInvalid();
         }
 
-        // 获取用户信息
-        Long userId = jwtUtils.getUserIdFromToken(refreshToken);
-        String username = jwtUtils.getUsernameFromToken(refreshToken);
+        // 2. 比较并轮换刷新令牌ID
+        String newJti = newTokenId();
+        RotateResult result = refreshSessionStore.rotate(sid, jti, newJti, Duration.ofMillis(refreshTokenExpiration));
+        if (result.status() == RotateStatus.REUSED) {
+            log.warn("检测到刷新令牌重复使用，已销毁会话: sid={}", sid);
+            throw AuthException.tokenInvalid();
+        }
+        if (result.status() != RotateStatus.OK) {
+            throw AuthException.tokenInvalid();
+        }
+
+        // 3. 快照过期时重新加载用户信息
+        RefreshSession session = result.session();
+        List<String> roles = session.roles();
+        List<String> permissions = session.permissions();
+        if (session.stale()) {
+            // 会话失效与近端缓存驱逐由不同消费组处理，此时缓存可能仍是变更前的用户，直接从核心服务读取
+            userNearCache.invalidateUsernames(List.of(session.username()));
+            UserDTO user = loadUserFromCore(session.username());
+            if (user == null || !"0".equals(user.getStatus())) {
+                refreshSessionStore.revoke(sid);
+                throw AuthException.userDisabled();
+            }
+            roles = nullToEmpty(user.getRoles());
+            permissions = nullToEmpty(user.getPermissions());
+            refreshSessionStore.updateSnapshot(session, roles, permissions);
+        }
 
-        // 生成新的访问令牌
-        String newAccessToken = jwtUtils.generateUserToken(userId, username, new String[0]);
+        // 4. 签发新的访问令牌与刷新令牌
+        String accessToken = generateAccessToken(session.userId(), session.username(), roles, permissions, sid);
+        String newRefreshToken = generateRefreshToken(session.userId(), session.username(), sid, newJti);
         
-        log.info("令牌刷新成功: {}", username);
-        return newAccessToken;
+        log.info("令牌刷新成功: {}", session.username());
+        return LoginResponse.builder()
+                .accessToken(accessToken)
+                .refreshToken(newRefreshToken)
+                .tokenType("Bearer")
+                .expiresIn(tokenExpiration / 1000)
+                .build();
     }
 
     public boolean validateToken(String token) {
@@ -209,15 +306,12 @@ public class AuthServiceImpl implements UserDetailsService {
         log.debug("加载用户详情: {}", username);
         
         try {
-            // 调用核心服务获取用户信息
-            Result<UserDTO> userResult = coreServiceClient.getUserByUsername(username);
-            
-            if (!userResult.isSuccess() || userResult.getData() == null) {
+            // 获取用户信息（优先读取近端缓存）
+            UserDTO user = userNearCache.getByUsername(username);
+            if (user == null) {
                 throw new UsernameNotFoundException("用户不存在: " + username);
             }
             
-            UserDTO user = userResult.getData();
-            
             // 检查用户状态
             if (user.getStatus() == null || !"0".equals(user.getStatus())) {
                 throw new UsernameNotFoundException("用户状态异常: " + username);
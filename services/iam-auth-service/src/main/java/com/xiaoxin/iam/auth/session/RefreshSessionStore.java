@@ -0,0 +1,322 @@
+package com.xiaoxin.iam.auth.session;
+
+import com.xiaoxin.iam.auth.constant.AuthConstants;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.BiConsumer;
+
+/**
+ * 刷新会话存储
+ * <p>
+ * 每次登录创建一个服务端会话，保存用户角色与权限的紧凑快照以及当前有效的刷新令牌ID（jti）：
+ * </p>
+ * <ul>
+ *     <li>刷新时通过一次 Lua 脚本完成 jti 比较并轮换，同时返回快照与角色纪元，无需调用核心服务</li>
+ *     <li>旧的刷新令牌被再次使用视为泄露，直接销毁整个会话（重用检测）</li>
+ *     <li>用户变更事件将该用户的会话标记为过期，下次刷新时重新加载快照</li>
+ *     <li>角色变更递增纪元并记录到变更角色上，刷新时只有持有这些角色的会话才重新加载快照</li>
+ *     <li>用户的会话ID集合在登录、撤销与标记过期时剔除已不存在的会话，不会随登录次数无限增长</li>
+ * </ul>
+ *
+ * @author xiaoxin
+ * @since 1.0.0
+ */
+@Component
+@RequiredArgsConstructor
+public class RefreshSessionStore {
+
+    private static final String FIELD_JTI = "jti";
+    private static final String FIELD_USER_ID = "uid";
+    private static final String FIELD_USERNAME = "username";
+    private static final String FIELD_ROLES = "roles";
+    private static final String FIELD_PERMISSIONS = "perms";
+    private static final String FIELD_STALE = "stale";
+    private static final String FIELD_EPOCH = "epoch";
+
+    private static final String DELIMITER = ",";
+
+    /**
+     * 会话不确定受哪些角色影响时使用的通配角色，记录在角色变更 Hash 中，所有会话都会检查
+     */
+    private static final String ANY_ROLE = "*";
+
+    /**
+     * 比较并轮换刷新令牌ID，返回 [状态, uid, username, roles, perms, stale, 当前纪元]；
+     * 会话快照纪元之后任一所持角色（或通配角色）发生过变更时 stale 为 1。
+     * 检测到重用时返回 [REUSED, uid] 以便清理用户会话集合
+     */
+    private static final RedisScript<List> ROTATE_SCRIPT = new DefaultRedisScript<>(
+            "local cur = redis.call('HGET', KEYS[1], 'jti') "
+                    + "if not cur then return {'MISSING'} end "
+                    + "if cur ~= ARGV[1] then "
+                    + "local uid = redis.call('HGET', KEYS[1], 'uid') "
+                    + "redis.call('DEL', KEYS[1]) return {'REUSED', uid or ''} end "
+                    + "redis.call('HSET', KEYS[1], 'jti', ARGV[2]) "
+                    + "redis.call('EXPIRE', KEYS[1], ARGV[3]) "
+                    + "local v = redis.call('HMGET', KEYS[1], 'uid', 'username', 'roles', 'perms', 'stale', 'epoch') "
+                    + "local e = redis.call('GET', KEYS[2]) or '0' "
+                    + "local stale = v[5] "
+                    + "if stale ~= '1' then "
+                    + "local since = tonumber(v[6]) or 0 "
+                    + "local roles = {'" + ANY_ROLE + "'} "
+                    + "for r in string.gmatch(v[3] or '', '[^,]+') do roles[#roles + 1] = r end "
+                    + "local changed = redis.call('HMGET', KEYS[3], unpack(roles)) "
+                    + "for i = 1, #changed do "
+                    + "if changed[i] and tonumber(changed[i]) > since then stale = '1' break end end end "
+                    + "return {'OK', v[1], v[2], v[3], v[4], stale, e}",
+            List.class);
+
+    /**
+     * 递增纪元并记为各角色的最近变更纪元，返回新纪元
+     */
+    private static final RedisScript<Long> BUMP_SCRIPT = new DefaultRedisScript<>(
+            "local e = redis.call('INCR', KEYS[1]) "
+                    + "for i = 1, #ARGV do redis.call('HSET', KEYS[2], ARGV[i], e) end "
+                    + "return e",
+            Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+
+    /**
+     * 创建会话，返回会话ID
+     */
+    public String create(Long userId, String username, Collection<String> roles,
+                         Collection<String> permissions, String jti, Duration ttl) {
+        String sid = UUID.randomUUID().toString().replace("-", "");
+        String sessionKey = sessionKey(sid);
+        String userKey = userKey(userId);
+
+        Map<String, String> fields = new HashMap<>();
+        fields.put(FIELD_JTI, jti);
+        fields.put(FIELD_USER_ID, String.valueOf(userId));
+        fields.put(FIELD_USERNAME, username);
+        fields.put(FIELD_STALE, "0");
+        fields.put(FIELD_EPOCH, currentRoleEpoch());
+        fields.putAll(snapshotFields(roles, permissions));
+
+        redisTemplate.opsForHash().putAll(sessionKey, fields);
+        redisTemplate.expire(sessionKey, ttl);
+        pruneUserSessions(userKey);
+        redisTemplate.opsForSet().add(userKey, sid);
+        redisTemplate.expire(userKey, ttl);
+        return sid;
+    }
+
+    /**
+     * 校验当前刷新令牌ID并轮换为新ID
+     *
+     * @return 轮换结果，会话不存在或检测到重用时 session 为 null
+     */
+    public RotateResult rotate(String sid, String presentedJti, String newJti, Duration ttl) {
+        List<?> result = redisTemplate.execute(ROTATE_SCRIPT,
+                Arrays.asList(sessionKey(sid), AuthConstants.REFRESH_SESSION_ROLE_EPOCH_KEY,
+                        AuthConstants.REFRESH_SESSION_ROLE_CHANGES_KEY),
+                presentedJti, newJti, String.valueOf(ttl.getSeconds()));
+        if (result == null || result.isEmpty()) {
+            return new RotateResult(RotateStatus.MISSING, null);
+        }
+        RotateStatus status = RotateStatus.valueOf(String.valueOf(result.get(0)));
+        if (status == RotateStatus.REUSED && result.size() > 1 && StringUtils.hasText(String.valueOf(result.get(1)))) {
+            redisTemplate.opsForSet().remove(AuthConstants.REFRESH_SESSION_USER_KEY_PREFIX + result.get(1), sid);
+        }
+        if (status != RotateStatus.OK) {
+            return new RotateResult(status, null);
+        }
+        Long userId = Long.valueOf(String.valueOf(result.get(1)));
+        // 会话随轮换续期，用户的会话集合需至少与会话存活一样久，否则按用户撤销时找不到会话
+        redisTemplate.expire(userKey(userId), ttl);
+        RefreshSession session = new RefreshSession(
+                sid,
+                userId,
+                String.valueOf(result.get(2)),
+                split(result.get(3)),
+                split(result.get(4)),
+                String.valueOf(result.get(6)),
+                "1".equals(String.valueOf(result.get(5))));
+        return new RotateResult(status, session);
+    }
+
+    /**
+     * 用最新的角色与权限覆盖会话快照并清除过期标记
+     * <p>纪元使用轮换时读取的值，重新加载期间发生的角色变更会在下次刷新时再次触发加载</p>
+     */
+    public void updateSnapshot(RefreshSession session, Collection<String> roles, Collection<String> permissions) {
+        String sessionKey = sessionKey(session.sid());
+        if (!Boolean.TRUE.equals(redisTemplate.hasKey(sessionKey))) {
+            return;
+        }
+        Map<String, String> fields = new HashMap<>(snapshotFields(roles, permissions));
+        fields.put(FIELD_STALE, "0");
+        fields.put(FIELD_EPOCH, session.roleEpoch());
+        redisTemplate.opsForHash().putAll(sessionKey, fields);
+    }
+
+    /**
+     * 销毁单个会话，并从用户的会话集合中移除
+     */
+    public void revoke(String sid) {
+        if (!StringUtils.hasText(sid)) {
+            return;
+        }
+        String sessionKey = sessionKey(sid);
+        Object userId = redisTemplate.opsForHash().get(sessionKey, FIELD_USER_ID);
+        redisTemplate.delete(sessionKey);
+        if (userId != null) {
+            redisTemplate.opsForSet().remove(AuthConstants.REFRESH_SESSION_USER_KEY_PREFIX + userId, sid);
+        }
+    }
+
+    /**
+     * 销毁用户的全部会话
+     */
+    public void revokeUsers(Collection<Long> userIds) {
+        forEachUserSession(userIds, (userKey, sessionKeys) -> {
+            List<String> keys = new ArrayList<>(sessionKeys);
+            keys.add(userKey);
+            redisTemplate.delete(keys);
+        });
+    }
+
+    /**
+     * 将用户的全部会话标记为过期，下次刷新时重新加载快照；顺带剔除已不存在的会话
+     */
+    public void markUsersStale(Collection<Long> userIds) {
+        forEachUserSession(userIds, (userKey, sessionKeys) -> {
+            List<String> expired = new ArrayList<>();
+            for (String sessionKey : sessionKeys) {
+                // 仅更新仍存在的会话，避免为已过期的会话重建空 Hash
+                if (Boolean.TRUE.equals(redisTemplate.hasKey(sessionKey))) {
+                    redisTemplate.opsForHash().put(sessionKey, FIELD_STALE, "1");
+                } else {
+                    expired.add(sidOf(sessionKey));
+                }
+            }
+            if (!expired.isEmpty()) {
+                redisTemplate.opsForSet().remove(userKey, expired.toArray());
+            }
+        });
+    }
+
+    /**
+     * 记录角色变更，持有这些角色的会话在下次刷新时重新加载快照
+     *
+     * @param roleKeys 变更的角色标识，为空表示无法确定，所有会话都将重新加载
+     */
+    public void bumpRoleEpoch(Collection<String> roleKeys) {
+        List<String> keys = roleKeys == null ? List.of() : roleKeys.stream().filter(StringUtils::hasText).toList();
+        Object[] fields = keys.isEmpty() ? new Object[]{ANY_ROLE} : keys.toArray();
+        redisTemplate.execute(BUMP_SCRIPT,
+                Arrays.asList(AuthConstants.REFRESH_SESSION_ROLE_EPOCH_KEY, AuthConstants.REFRESH_SESSION_ROLE_CHANGES_KEY),
+                fields);
+    }
+
+    /**
+     * 从用户的会话集合中剔除已过期的会话ID
+     */
+    private void pruneUserSessions(String userKey) {
+        Set<String> sids = redisTemplate.opsForSet().members(userKey);
+        if (sids == null || sids.isEmpty()) {
+            return;
+        }
+        Object[] expired = sids.stream()
+                .filter(sid -> !Boolean.TRUE.equals(redisTemplate.hasKey(sessionKey(sid))))
+                .toArray();
+        if (expired.length > 0) {
+            redisTemplate.opsForSet().remove(userKey, expired);
+        }
+    }
+
+    private void forEachUserSession(Collection<Long> userIds,
+                                    BiConsumer<String, List<String>> action) {
+        if (userIds == null || userIds.isEmpty()) {
+            return;
+        }
+        for (Long userId : userIds) {
+            if (userId == null) {
+                continue;
+            }
+            String userKey = userKey(userId);
+            Set<String> sids = redisTemplate.opsForSet().members(userKey);
+            if (sids == null || sids.isEmpty()) {
+                continue;
+            }
+            action.accept(userKey, sids.stream().map(RefreshSessionStore::sessionKey).toList());
+        }
+    }
+
+    private String currentRoleEpoch() {
+        String epoch = redisTemplate.opsForValue().get(AuthConstants.REFRESH_SESSION_ROLE_EPOCH_KEY);
+        return epoch != null ? epoch : "0";
+    }
+
+    private static Map<String, String> snapshotFields(Collection<String> roles, Collection<String> permissions) {
+        Map<String, String> fields = new HashMap<>(2);
+        fields.put(FIELD_ROLES, join(roles));
+        fields.put(FIELD_PERMISSIONS, join(permissions));
+        return fields;
+    }
+
+    private static String join(Collection<String> values) {
+        return values == null || values.isEmpty() ? "" : String.join(DELIMITER, values);
+    }
+
+    private static List<String> split(Object value) {
+        if (value == null || !StringUtils.hasText(value.toString())) {
+            return Collections.emptyList();
+        }
+        return Arrays.asList(value.toString().split(DELIMITER));
+    }
+
+    private static String sessionKey(String sid) {
+        return AuthConstants.REFRESH_SESSION_KEY_PREFIX + sid;
+    }
+
+    private static String sidOf(String sessionKey) {
+        return sessionKey.substring(AuthConstants.REFRESH_SESSION_KEY_PREFIX.length());
+    }
+
+    private static String userKey(Long userId) {
+        return AuthConstants.REFRESH_SESSION_USER_KEY_PREFIX + userId;
+    }
+
+    /**
+     * 刷新会话快照
+     */
+    public record RefreshSession(String sid, Long userId, String username,
+                                 List<String> roles, List<String> permissions,
+                                 String roleEpoch, boolean stale) {
+    }
+
+    /**
+     * 轮换状态
+     */
+    public enum RotateStatus {
+        /** 轮换成功 */
+        OK,
+        /** 会话不存在或已过期 */
+        MISSING,
+        /** 刷新令牌被重复使用，会话已销毁 */
+        REUSED
+    }
+
+    /**
+     * 轮换结果
+     */
+    public record RotateResult(RotateStatus status, RefreshSession session) {
+    }
+}
@@ -0,0 +1,124 @@
+package com.xiaoxin.iam.auth.cache;
+
+import com.xiaoxin.iam.auth.client.CoreUserBatchLoader;
+import com.xiaoxin.iam.auth.config.UserCacheProperties;
+import com.xiaoxin.iam.common.dto.UserDTO;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 用户近端缓存测试
+ *
+ * @author xiaoxin
+ * @since 1.0.0
+ */
+public class UserNearCacheTest {
+
+    private final UserDTO alice = UserDTO.builder().id(1L).username("alice").roles(List.of("admin")).build();
+
+    private final UserDTO bob = UserDTO.builder().id(2L).username("bob").roles(List.of("user")).build();
+
+    private CoreUserBatchLoader loader;
+
+    private UserCacheProperties properties;
+
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    public void setUp() {
+        loader = mock(CoreUserBatchLoader.class);
+        when(loader.getByUsername("alice")).thenReturn(alice);
+        when(loader.getByUsername("bob")).thenReturn(bob);
+        properties = new UserCacheProperties();
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    public void testHitDoesNotReloadAndMissIsNotCached() {
+        UserNearCache cache = newCache();
+
+        assertSame(alice, cache.getByUsername("alice"));
+        assertSame(alice, cache.getByUsername("alice"));
+        assertNull(cache.getByUsername("ghost"));
+        assertNull(cache.getByUsername("ghost"));
+
+        verify(loader, times(1)).getByUsername("alice");
+        verify(loader, times(2)).getByUsername("ghost");
+    }
+
+    @Test
+    public void testInvalidateByUserIdAndUsername() {
+        UserNearCache cache = newCache();
+        cache.getByUsername("alice");
+        cache.getByUsername("bob");
+
+        cache.invalidateUserIds(List.of(1L));
+        cache.invalidateUsernames(List.of("bob"));
+        cache.getByUsername("alice");
+        cache.getByUsername("bob");
+
+        verify(loader, times(2)).getByUsername("alice");
+        verify(loader, times(2)).getByUsername("bob");
+        assertEquals(1.0, meterRegistry.get("iam.auth.user.near-cache.invalidations")
+                .tag("reason", "userId").counter().count());
+    }
+
+    @Test
+    public void testInvalidateRoleKeysOnlyDropsHolders() {
+        UserNearCache cache = newCache();
+        cache.getByUsername("alice");
+        cache.getByUsername("bob");
+
+        cache.invalidateRoleKeys(List.of("admin"));
+        cache.getByUsername("alice");
+        cache.getByUsername("bob");
+
+        verify(loader, times(2)).getByUsername("alice");
+        verify(loader, times(1)).getByUsername("bob");
+    }
+
+    @Test
+    public void testUnknownRolesInvalidateEverything() {
+        UserNearCache cache = newCache();
+        cache.getByUsername("alice");
+        cache.getByUsername("bob");
+
+        cache.invalidateRoleKeys(List.of());
+        cache.getByUsername("alice");
+        cache.getByUsername("bob");
+
+        verify(loader, times(2)).getByUsername("alice");
+        verify(loader, times(2)).getByUsername("bob");
+    }
+
+    @Test
+    public void testDisabledCacheAlwaysLoads() {
+        properties.setEnabled(false);
+        UserNearCache cache = newCache();
+
+        cache.getByUsername("alice");
+        cache.getByUsername("alice");
+
+        verify(loader, times(2)).getByUsername("alice");
+    }
+
+    @SuppressWarnings("unchecked")
+    private UserNearCache newCache() {
+        ObjectProvider<MeterRegistry> provider = mock(ObjectProvider.class);
+        when(provider.getIfAvailable()).thenReturn(meterRegistry);
+        return new UserNearCache(loader, properties, provider);
+    }
+}
@@ -0,0 +1,96 @@
+package com.xiaoxin.iam.auth.client;
+
+import com.xiaoxin.iam.auth.config.UserBatchProperties;
+import com.xiaoxin.iam.common.dto.UserDTO;
+import com.xiaoxin.iam.common.result.Result;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 核心服务用户批量加载器测试
+ *
+ * @author xiaoxin
+ * @since 1.0.0
+ */
+public class CoreUserBatchLoaderTest {
+
+    private CoreServiceClient coreServiceClient;
+
+    private UserBatchProperties properties;
+
+    private CoreUserBatchLoader loader;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        coreServiceClient = mock(CoreServiceClient.class);
+        properties = new UserBatchProperties();
+        properties.setWindow(Duration.ofMillis(30));
+        properties.setTimeout(Duration.ofSeconds(2));
+        loader = new CoreUserBatchLoader(coreServiceClient, properties, mock(ObjectProvider.class));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        loader.destroy();
+    }
+
+    @Test
+    public void testConcurrentLookupsShareOneCallIgnoringCase() throws Exception {
+        UserDTO alice = UserDTO.builder().id(1L).username("Alice").build();
+        when(coreServiceClient.getUsersByUsernames(anyList())).thenReturn(Result.success(List.of(alice)));
+
+        CompletableFuture<UserDTO> lower = CompletableFuture.supplyAsync(() -> loader.getByUsername("alice"));
+        CompletableFuture<UserDTO> upper = CompletableFuture.supplyAsync(() -> loader.getByUsername("ALICE"));
+        CompletableFuture<UserDTO> missing = CompletableFuture.supplyAsync(() -> loader.getByUsername("bob"));
+
+        assertSame(alice, lower.get(2, TimeUnit.SECONDS));
+        assertSame(alice, upper.get(2, TimeUnit.SECONDS));
+        assertNull(missing.get(2, TimeUnit.SECONDS));
+        verify(coreServiceClient, times(1)).getUsersByUsernames(anyList());
+    }
+
+    @Test
+    public void testFailedResultMeansNotFound() {
+        when(coreServiceClient.getUsersByUsernames(anyList())).thenReturn(Result.failed(500, "error"));
+
+        assertNull(loader.getByUsername("alice"));
+    }
+
+    @Test
+    public void testCallExceptionIsRethrown() {
+        IllegalStateException failure = new IllegalStateException("core unavailable");
+        when(coreServiceClient.getUsersByUsernames(anyList())).thenThrow(failure);
+
+        assertSame(failure, assertThrows(IllegalStateException.class, () -> loader.getByUsername("alice")));
+    }
+
+    @Test
+    public void testDisabledBatchingCallsSingleLookup() {
+        properties.setEnabled(false);
+        UserDTO alice = UserDTO.builder().id(1L).username("alice").build();
+        when(coreServiceClient.getUserByUsername("alice")).thenReturn(Result.success(alice));
+
+        assertEquals(alice, loader.getByUsername("alice"));
+        verify(coreServiceClient, never()).getUsersByUsernames(anyList());
+    }
+}
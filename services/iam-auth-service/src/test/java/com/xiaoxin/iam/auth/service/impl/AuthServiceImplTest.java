@@ -0,0 +1,137 @@
+package com.xiaoxin.iam.auth.service.impl;
+
+import com.xiaoxin.iam.auth.cache.UserNearCache;
+import com.xiaoxin.iam.auth.client.CoreServiceClient;
+import com.xiaoxin.iam.auth.constant.AuthConstants;
+import com.xiaoxin.iam.auth.dto.LoginResponse;
+import com.xiaoxin.iam.auth.session.RefreshSessionStore;
+import com.xiaoxin.iam.auth.session.RefreshSessionStore.RefreshSession;
+import com.xiaoxin.iam.auth.session.RefreshSessionStore.RotateResult;
+import com.xiaoxin.iam.auth.session.RefreshSessionStore.RotateStatus;
+import com.xiaoxin.iam.common.dto.UserDTO;
+import com.xiaoxin.iam.common.exception.AuthException;
+import com.xiaoxin.iam.common.result.Result;
+import com.xiaoxin.iam.common.utils.JwtUtils;
+import io.jsonwebtoken.Claims;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 认证服务刷新令牌测试
+ *
+ * @author xiaoxin
+ * @since 1.0.0
+ */
+public class AuthServiceImplTest {
+
+    private static final String REFRESH_TOKEN = "refresh-token";
+
+    private final UserDTO cachedAlice = UserDTO.builder().id(1L).username("alice").status("0")
+            .roles(List.of("admin")).permissions(List.of("user:delete")).build();
+
+    private final UserDTO currentAlice = UserDTO.builder().id(1L).username("alice").status("0")
+            .roles(List.of("user")).permissions(List.of("user:read")).build();
+
+    private JwtUtils jwtUtils;
+
+    private CoreServiceClient coreServiceClient;
+
+    private UserNearCache userNearCache;
+
+    private RefreshSessionStore refreshSessionStore;
+
+    private AuthServiceImpl authService;
+
+    @BeforeEach
+    public void setUp() {
+        jwtUtils = mock(JwtUtils.class);
+        Claims claims = mock(Claims.class);
+        when(claims.get("type", String.class)).thenReturn("refresh");
+        when(claims.get(AuthConstants.CLAIM_SESSION_ID, String.class)).thenReturn("s1");
+        when(claims.get(AuthConstants.CLAIM_TOKEN_ID, String.class)).thenReturn("j1");
+        when(jwtUtils.getClaimsFromToken(REFRESH_TOKEN)).thenReturn(claims);
+        when(jwtUtils.generateToken(anyMap(), anyLong())).thenReturn("token");
+        coreServiceClient = mock(CoreServiceClient.class);
+        userNearCache = mock(UserNearCache.class);
+        // 驱逐事件尚未到达本实例，缓存中仍是角色变更前的用户
+        when(userNearCache.getByUsername("alice")).thenReturn(cachedAlice);
+        refreshSessionStore = mock(RefreshSessionStore.class);
+        authService = new AuthServiceImpl(jwtUtils, coreServiceClient, mock(PasswordEncoder.class),
+                userNearCache, refreshSessionStore);
+        ReflectionTestUtils.setField(authService, "tokenExpiration", 7200000L);
+        ReflectionTestUtils.setField(authService, "refreshTokenExpiration", 604800000L);
+    }
+
+    @Test
+    public void testStaleSessionReloadsFromCoreWhileCacheIsWarm() {
+        RefreshSession session = session(true);
+        rotateTo(session);
+        when(coreServiceClient.getUserByUsername("alice")).thenReturn(Result.success(currentAlice));
+
+        authService.refreshToken(REFRESH_TOKEN);
+
+        verify(userNearCache).invalidateUsernames(List.of("alice"));
+        verify(userNearCache, never()).getByUsername(anyString());
+        verify(refreshSessionStore).updateSnapshot(session, List.of("user"), List.of("user:read"));
+        verify(jwtUtils).generateToken(accessClaims(List.of("user"), List.of("user:read")), anyLong());
+    }
+
+    @Test
+    public void testFreshSessionReissuesSnapshotWithoutLoadingUser() {
+        RefreshSession session = session(false);
+        rotateTo(session);
+
+        LoginResponse response = authService.refreshToken(REFRESH_TOKEN);
+
+        verify(coreServiceClient, never()).getUserByUsername(anyString());
+        verify(refreshSessionStore, never()).updateSnapshot(any(), any(), any());
+        verify(jwtUtils).generateToken(accessClaims(List.of("admin"), List.of("user:delete")), anyLong());
+        assertEquals("token", response.getAccessToken());
+    }
+
+    @Test
+    public void testStaleSessionOfDisabledUserIsRevoked() {
+        rotateTo(session(true));
+        when(coreServiceClient.getUserByUsername("alice")).thenReturn(
+                Result.success(UserDTO.builder().id(1L).username("alice").status("1").build()));
+
+        assertThrows(AuthException.class, () -> authService.refreshToken(REFRESH_TOKEN));
+        verify(refreshSessionStore).revoke("s1");
+    }
+
+    private void rotateTo(RefreshSession session) {
+        when(refreshSessionStore.rotate(eq("s1"), eq("j1"), anyString(), any()))
+                .thenReturn(new RotateResult(RotateStatus.OK, session));
+    }
+
+    private static RefreshSession session(boolean stale) {
+        return new RefreshSession("s1", 1L, "alice", List.of("admin"), List.of("user:delete"), "1", stale);
+    }
+
+    /**
+     * 访问令牌声明匹配器，数组声明按内容比较
+     */
+    private static Map<String, Object> accessClaims(List<String> roles, List<String> permissions) {
+        return argThat(claims -> "access".equals(claims.get("type"))
+                && List.of((String[]) claims.get("roles")).equals(roles)
+                && List.of((String[]) claims.get("permissions")).equals(permissions));
+    }
+}
@@ -0,0 +1,38 @@
+package com.xiaoxin.iam.core.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+/**
+ * 数据权限规则缓存配置属性
+ *
+ * @author xiaoxin
+ * @since 1.0.0
+ */
+@Data
+@ConfigurationProperties(prefix = "iam.core.data-scope")
+public class DataScopeRuleProperties {
+
+    /**
+     * 规则缓存时长，用于兜底同步在本服务之外修改的数据权限与角色
+     */
+    private Duration ttl = Duration.ofMinutes(5);
+
+    /**
+     * 最多缓存的（用户, 资源）规则数
+     */
+    private long maxEntries = 10000;
+
+    /**
+     * 子树授权内联展开的部门数上限，超出后改为通过闭包表子查询过滤
+     */
+    private int inlineLimit = 1000;
+
+    /**
+     * 角色未配置某资源的数据权限时是否拒绝访问，默认不限制以兼容未配置数据权限的角色
+     */
+    private boolean denyUnconfigured = false;
+}
@@ -0,0 +1,42 @@
+package com.xiaoxin.iam.core.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * 部门层级索引配置属性
+ *
+ * @author xiaoxin
+ * @since 1.0.0
+ */
+@Data
+@ConfigurationProperties(prefix = "iam.core.dept-hierarchy")
+public class DeptHierarchyProperties {
+
+    /**
+     * 是否启用部门层级内存索引，关闭后子树与祖先查询通过闭包表完成
+     */
+    private boolean enabled = true;
+
+    /**
+     * 全量重建间隔，用于兜底同步在本服务之外新增、删除或移动的部门
+     */
+    private Duration reloadInterval = Duration.ofMinutes(10);
+
+    /**
+     * 重建时是否校验闭包表，行数与部门层级不符时整体重写
+     */
+    private boolean syncClosure = true;
+
+    /**
+     * 身份变更事件主题（含 iam.mq.event.topic-prefix 前缀）
+     */
+    private String eventTopic = "iam_event_identity_change";
+
+    /**
+     * 部门层级同步消费组，以广播模式消费，保证每个实例都能更新本地索引
+     */
+    private String consumerGroup = "iam-core-dept-hierarchy";
+}
@@ -0,0 +1,15 @@
+package com.xiaoxin.iam.core.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 字段权限策略缓存配置类
+ *
+ * @author xiaoxin
+ * @since 1.0.0
+ */
+@Configuration
+@EnableConfigurationProperties(FieldPolicyProperties.class)
+public class FieldPolicyConfig {
+}
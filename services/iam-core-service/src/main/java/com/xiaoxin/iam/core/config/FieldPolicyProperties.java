@@ -0,0 +1,33 @@
+package com.xiaoxin.iam.core.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+/**
+ * 字段权限策略缓存配置属性
+ *
+ * @author xiaoxin
+ * @since 1.0.0
+ */
+@Data
+@ConfigurationProperties(prefix = "iam.core.field-policy")
+public class FieldPolicyProperties {
+
+    /**
+     * 是否启用字段权限，关闭后响应不做隐藏与脱敏
+     */
+    private boolean enabled = true;
+
+    /**
+     * 字段权限表变更检测间隔，检测到变化时丢弃全部策略及其特化的序列化器
+     */
+    private Duration checkInterval = Duration.ofSeconds(30);
+
+    /**
+     * 最多缓存的（角色组合, 资源）策略数
+     */
+    private long maxRoleSets = 1000;
+}
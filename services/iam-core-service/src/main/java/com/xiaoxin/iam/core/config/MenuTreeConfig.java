@@ -0,0 +1,15 @@
+package com.xiaoxin.iam.core.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 菜单树缓存配置类
+ *
+ * @author xiaoxin
+ * @since 1.0.0
+ */
+@Configuration
+@EnableConfigurationProperties(MenuTreeProperties.class)
+public class MenuTreeConfig {
+}
@@ -0,0 +1,42 @@
+package com.xiaoxin.iam.core.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * 菜单树缓存配置属性
+ *
+ * @author xiaoxin
+ * @since 1.0.0
+ */
+@Data
+@ConfigurationProperties(prefix = "iam.core.menu-tree")
+public class MenuTreeProperties {
+
+    /**
+     * 是否启用菜单树缓存，关闭后每次请求按用户菜单现场组装
+     */
+    private boolean enabled = true;
+
+    /**
+     * 全量重建间隔，用于兜底同步在本服务之外修改的菜单
+     */
+    private Duration reloadInterval = Duration.ofMinutes(10);
+
+    /**
+     * 最多缓存的角色组合数，相同角色组合的用户共享一棵菜单树
+     */
+    private long maxRoleSets = 1000;
+
+    /**
+     * 身份变更事件主题（含 iam.mq.event.topic-prefix 前缀）
+     */
+    private String eventTopic = "iam_event_identity_change";
+
+    /**
+     * 缓存同步消费组，以广播模式消费，保证每个实例都能更新本地缓存
+     */
+    private String consumerGroup = "iam-core-menu-tree";
+}
@@ -0,0 +1,15 @@
+package com.xiaoxin.iam.core.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * RBAC内存索引配置类
+ *
+ * @author xiaoxin
+ * @since 1.0.0
+ */
+@Configuration
+@EnableConfigurationProperties(RbacIndexProperties.class)
+public class RbacIndexConfig {
+}
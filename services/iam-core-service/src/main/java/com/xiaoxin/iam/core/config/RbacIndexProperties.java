@@ -0,0 +1,37 @@
+package com.xiaoxin.iam.core.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * RBAC内存索引配置属性
+ *
+ * @author xiaoxin
+ * @since 1.0.0
+ */
+@Data
+@ConfigurationProperties(prefix = "iam.core.rbac-index")
+public class RbacIndexProperties {
+
+    /**
+     * 是否启用RBAC内存索引，关闭后权限查询回退到数据库
+     */
+    private boolean enabled = true;
+
+    /**
+     * 全量重建间隔，用于兜底同步在本服务之外修改的权限与菜单
+     */
+    private Duration reloadInterval = Duration.ofMinutes(5);
+
+    /**
+     * 身份变更事件主题（含 iam.mq.event.topic-prefix 前缀）
+     */
+    private String eventTopic = "iam_event_identity_change";
+
+    /**
+     * 索引同步消费组，以广播模式消费，保证每个实例都能更新本地索引
+     */
+    private String consumerGroup = "iam-core-rbac-index";
+}
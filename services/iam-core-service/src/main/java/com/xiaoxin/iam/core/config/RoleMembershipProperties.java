@@ -0,0 +1,38 @@
+package com.xiaoxin.iam.core.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+/**
+ * 角色成员计数配置属性
+ *
+ * @author xiaoxin
+ * @since 1.0.0
+ */
+@Data
+@ConfigurationProperties(prefix = "iam.core.role-membership")
+public class RoleMembershipProperties {
+
+    /**
+     * 是否启用内存成员计数，关闭后角色用户数/部门数回退到数据库统计
+     */
+    private boolean enabled = true;
+
+    /**
+     * 与数据库对账的间隔，纠正增量维护的偏差及在本服务之外的修改
+     */
+    private Duration reconcileInterval = Duration.ofMinutes(10);
+
+    /**
+     * 身份变更事件主题（含 iam.mq.event.topic-prefix 前缀）
+     */
+    private String eventTopic = "iam_event_identity_change";
+
+    /**
+     * 计数同步消费组，以广播模式消费，保证每个实例都能更新本地计数
+     */
+    private String consumerGroup = "iam-core-role-membership";
+}
@@ -0,0 +1,47 @@
+package com.xiaoxin.iam.core.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * 用户批量导入配置属性
+ *
+ * @author xiaoxin
+ * @since 1.0.0
+ */
+@Data
+@ConfigurationProperties(prefix = "iam.core.user-import")
+public class UserImportProperties {
+
+    /**
+     * 每个事务写入的用户数
+     */
+    private int chunkSize = 500;
+
+    /**
+     * 密码哈希并行度，BCrypt 为 CPU 密集型，默认与处理器数相同
+     */
+    private int hashConcurrency = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * 同时执行的导入任务数
+     */
+    private int maxConcurrentTasks = 2;
+
+    /**
+     * 单个文件允许的最大行数
+     */
+    private int maxRows = 100000;
+
+    /**
+     * 错误报告保留的最大行数，超出部分只计数
+     */
+    private int maxErrors = 1000;
+
+    /**
+     * 已结束任务的保留时长，过期后无法再查询进度
+     */
+    private Duration taskRetention = Duration.ofHours(1);
+}
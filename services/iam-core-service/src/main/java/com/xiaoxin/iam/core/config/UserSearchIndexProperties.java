@@ -0,0 +1,42 @@
+package com.xiaoxin.iam.core.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * 用户搜索索引配置属性
+ *
+ * @author xiaoxin
+ * @since 1.0.0
+ */
+@Data
+@ConfigurationProperties(prefix = "iam.core.user-search")
+public class UserSearchIndexProperties {
+
+    /**
+     * 是否启用用户搜索索引，关闭后用户列表模糊查询回退到数据库 LIKE
+     */
+    private boolean enabled = true;
+
+    /**
+     * 全量重建间隔，用于兜底同步在本服务之外修改的用户数据
+     */
+    private Duration reloadInterval = Duration.ofMinutes(30);
+
+    /**
+     * 单次查询返回的最大匹配数，超出部分按相关度截断
+     */
+    private int maxResults = 10000;
+
+    /**
+     * 身份变更事件主题（含 iam.mq.event.topic-prefix 前缀）
+     */
+    private String eventTopic = "iam_event_identity_change";
+
+    /**
+     * 索引同步消费组，以广播模式消费，保证每个实例都能更新本地索引
+     */
+    private String consumerGroup = "iam-core-user-search";
+}
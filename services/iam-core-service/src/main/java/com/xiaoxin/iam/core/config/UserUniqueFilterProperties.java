@@ -0,0 +1,52 @@
+package com.xiaoxin.iam.core.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * 用户唯一性预检配置属性
+ *
+ * @author xiaoxin
+ * @since 1.0.0
+ */
+@Data
+@ConfigurationProperties(prefix = "iam.core.unique-filter")
+public class UserUniqueFilterProperties {
+
+    /**
+     * 是否启用布隆过滤器预检，关闭后用户名/邮箱/手机号校验全部访问数据库
+     */
+    private boolean enabled = true;
+
+    /**
+     * 全量重建间隔，用于清除已删除或已修改的旧值并按当前用户量重新分配容量
+     */
+    private Duration reloadInterval = Duration.ofHours(1);
+
+    /**
+     * 每个字段的最小预期容量
+     */
+    private long expectedInsertions = 100000;
+
+    /**
+     * 容量相对加载时用户数的倍数，为重建前的新增用户预留空间
+     */
+    private double growthFactor = 2.0;
+
+    /**
+     * 目标误判率，误判只会让校验回退到数据库
+     */
+    private double falsePositiveRate = 0.001;
+
+    /**
+     * 身份变更事件主题（含 iam.mq.event.topic-prefix 前缀）
+     */
+    private String eventTopic = "iam_event_identity_change";
+
+    /**
+     * 过滤器同步消费组，以广播模式消费，保证每个实例都能更新本地过滤器
+     */
+    private String consumerGroup = "iam-core-unique-filter";
+}
@@ -20,6 +20,11 @@ public class CoreConstants {
     public static final String INTERNAL_USERS_PATH = INTERNAL_API_PREFIX + "/users";
     public static final String INTERNAL_USER_BY_USERNAME_PATH = INTERNAL_USERS_PATH + "/username";
     public static final String INTERNAL_USER_LOGIN_INFO_PATH = INTERNAL_USERS_PATH + "/login-info";
+
+    /**
+     * 内部批量查询单次最多接受的键数
+     */
+    public static final int INTERNAL_BATCH_MAX_KEYS = 5000;
     
     /**
      * 角色相关内部API路径
@@ -159,4 +164,9 @@ public class CoreConstants {
     public static final int CACHE_EXPIRE_TIME_1_HOUR = 60 * 60;
     public static final int CACHE_EXPIRE_TIME_2_HOUR = 2 * 60 * 60;
     public static final int CACHE_EXPIRE_TIME_1_DAY = 24 * 60 * 60;
+
+    /**
+     * 资源类型（sys_data_permission / sys_field_permission 的 resource_type）
+     */
+    public static final String RESOURCE_USER = "sys_user";
 }
@@ -0,0 +1,71 @@
+package com.xiaoxin.iam.core.controller;
+
+import java.util.List;
+
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.xiaoxin.iam.common.result.Result;
+import com.xiaoxin.iam.core.service.DeptService;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.constraints.NotNull;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 部门控制器
+ *
+ * @author xiaoxin
+ * @since 1.0.0
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/v1/depts")
+@RequiredArgsConstructor
+@Validated
+@Tag(name = "部门管理", description = "部门相关接口")
+public class DeptController {
+
+    private final DeptService deptService;
+
+    @PutMapping("/{deptId}/parent")
+    @Operation(summary = "移动部门", description = "将部门连同其下级部门移动到新的父部门下")
+    @PreAuthorize("hasAuthority('dept.update')")
+    public Result<Boolean> moveDept(
+            @Parameter(description = "部门ID", required = true)
+            @PathVariable @NotNull(message = "部门ID不能为空") Long deptId,
+            @Parameter(description = "新的父部门ID，0 表示顶级部门", required = true)
+            @RequestParam @NotNull(message = "父部门ID不能为空") Long parentId) {
+        boolean result = deptService.moveDept(deptId, parentId);
+        return Result.success(result);
+    }
+
+    @GetMapping("/{deptId}/descendants")
+    @Operation(summary = "查询下级部门", description = "查询部门及其全部下级部门ID")
+    @PreAuthorize("hasAuthority('dept.read')")
+    public Result<List<Long>> getDescendantIds(
+            @Parameter(description = "部门ID", required = true)
+            @PathVariable @NotNull(message = "部门ID不能为空") Long deptId) {
+        List<Long> deptIds = deptService.getDescendantIds(deptId);
+        return Result.success(deptIds);
+    }
+
+    @GetMapping("/{deptId}/ancestors")
+    @Operation(summary = "查询上级部门", description = "查询部门的全部上级部门ID，由顶级部门到直接上级排列")
+    @PreAuthorize("hasAuthority('dept.read')")
+    public Result<List<Long>> getAncestorIds(
+            @Parameter(description = "部门ID", required = true)
+            @PathVariable @NotNull(message = "部门ID不能为空") Long deptId) {
+        List<Long> deptIds = deptService.getAncestorIds(deptId);
+        return Result.success(deptIds);
+    }
+}
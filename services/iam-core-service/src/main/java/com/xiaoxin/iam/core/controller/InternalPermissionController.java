@@ -0,0 +1,54 @@
+package com.xiaoxin.iam.core.controller;
+
+import com.xiaoxin.iam.common.dto.PermissionCheckBatchRequest;
+import com.xiaoxin.iam.common.dto.PermissionCheckDTO;
+import com.xiaoxin.iam.common.result.Result;
+import com.xiaoxin.iam.core.constant.CoreConstants;
+import com.xiaoxin.iam.core.service.UserService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * 内部权限判定控制器
+ * 供业务系统直接判定用户是否拥有某权限，由核心服务的RBAC内存索引应答
+ *
+ * @author xiaoxin
+ * @since 1.0.0
+ */
+@Slf4j
+@RestController
+@RequestMapping(CoreConstants.INTERNAL_PERMISSIONS_PATH)
+@RequiredArgsConstructor
+@Validated
+@Tag(name = "内部权限API", description = "服务间调用的权限判定接口")
+public class InternalPermissionController {
+
+    private final UserService userService;
+
+    @GetMapping("/check")
+    @Operation(summary = "权限判定", description = "判定用户是否拥有指定权限（内部API）")
+    public Result<Boolean> check(
+            @Parameter(description = "用户ID", required = true)
+            @RequestParam @NotNull(message = "用户ID不能为空") Long userId,
+            @Parameter(description = "权限编码", required = true)
+            @RequestParam @NotEmpty(message = "权限编码不能为空") String permissionCode) {
+        return Result.success(userService.hasPermission(userId, permissionCode));
+    }
+
+    @PostMapping("/check/batch")
+    @Operation(summary = "批量权限判定", description = "批量判定（用户, 权限）对，结果顺序与请求一致（内部API）")
+    public Result<List<PermissionCheckDTO>> checkBatch(@Valid @RequestBody PermissionCheckBatchRequest request) {
+        log.debug("内部API调用：批量权限判定，size={}", request.getChecks().size());
+        return Result.success(userService.checkPermissions(request.getChecks()));
+    }
+}
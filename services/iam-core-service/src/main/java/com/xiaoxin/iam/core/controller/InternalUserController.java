@@ -11,11 +11,14 @@ import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+
 /**
  * 内部用户控制器
  * 用于服务间调用的内部API
@@ -43,6 +46,26 @@ public class InternalUserController {
         return Result.success(user);
     }
 
+    @PostMapping("/batch/ids")
+    @Operation(summary = "按ID批量查询用户", description = "按ID批量查询用户及其角色、权限，按入参顺序返回，不存在的用户忽略（内部API）")
+    public Result<List<UserDTO>> getUsersByIds(
+            @Parameter(description = "用户ID列表", required = true)
+            @RequestBody @NotEmpty(message = "用户ID列表不能为空")
+            @Size(max = CoreConstants.INTERNAL_BATCH_MAX_KEYS, message = "单次查询的用户过多") List<Long> userIds) {
+        log.debug("内部API调用：按ID批量查询用户，count={}", userIds.size());
+        return Result.success(userService.getUsersByIds(userIds));
+    }
+
+    @PostMapping("/batch/usernames")
+    @Operation(summary = "按用户名批量查询用户", description = "按用户名批量查询用户及其角色、权限，按入参顺序返回，不存在的用户忽略（内部API）")
+    public Result<List<UserDTO>> getUsersByUsernames(
+            @Parameter(description = "用户名列表", required = true)
+            @RequestBody @NotEmpty(message = "用户名列表不能为空")
+            @Size(max = CoreConstants.INTERNAL_BATCH_MAX_KEYS, message = "单次查询的用户过多") List<String> usernames) {
+        log.debug("内部API调用：按用户名批量查询用户，count={}", usernames.size());
+        return Result.success(userService.getUsersByUsernames(usernames));
+    }
+
     @PostMapping("/{userId}/login-info")
     @Operation(summary = "更新用户登录信息", description = "更新用户登录信息（内部API）")
     public Result<Boolean> updateLoginInfo(
@@ -1,5 +1,6 @@
 package com.xiaoxin.iam.core.controller;
 
+import java.io.IOException;
 import java.util.List;
 
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -17,16 +18,21 @@ import org.springframework.web.bind.annotation.RestController;
 import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.xiaoxin.iam.common.result.Result;
+import com.xiaoxin.iam.core.dto.BatchStatusDTO;
 import com.xiaoxin.iam.core.dto.RoleCreateDTO;
 import com.xiaoxin.iam.core.dto.RoleUpdateDTO;
 import com.xiaoxin.iam.core.entity.Role;
 import com.xiaoxin.iam.core.service.RoleService;
+import com.xiaoxin.iam.core.support.CountMode;
+import com.xiaoxin.iam.core.support.ExportResponses;
+import com.xiaoxin.iam.core.support.RowExportWriter;
 import com.xiaoxin.iam.core.vo.PageResult;
 import com.xiaoxin.iam.core.vo.RoleVO;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.NotNull;
@@ -93,17 +99,69 @@ public class RoleController {
             @Parameter(description = "角色权限字符串")
             @RequestParam(required = false) String roleKey,
             @Parameter(description = "状态")
-            @RequestParam(required = false) String status) {
+            @RequestParam(required = false) String status,
+            @Parameter(description = "总数统计方式：EXACT-精确，ESTIMATE-估算，NONE-不统计")
+            @RequestParam(required = false) String count) {
         
         Page<Role> page = new Page<>(current, size);
-        Role role = new Role();
-        role.setRoleName(roleName);
-        role.setRoleKey(roleKey);
-        role.setStatus(status);
+        Role role = buildRoleQuery(roleName, roleKey, status);
         
-        IPage<Role> result = roleService.getRolePage(page, role);
-        PageResult<RoleVO> pageResult = convertToPageResult(result);
-        return Result.success(pageResult);
+        CountMode countMode = CountMode.of(count, CountMode.EXACT);
+        if (countMode == CountMode.EXACT) {
+            IPage<Role> result = roleService.getRolePage(page, role);
+            PageResult<RoleVO> pageResult = convertToPageResult(result);
+            return Result.success(pageResult);
+        }
+        PageResult<Role> result = roleService.getRolePage(page, role, countMode);
+        return Result.success(result.map(this::convertToRoleVO));
+    }
+
+    @GetMapping("/page/cursor")
+    @Operation(summary = "游标分页查询角色列表", description = "按创建时间倒序的游标分页，翻页耗时与页码无关，默认不统计总数")
+    @PreAuthorize("hasAuthority('role.read')")
+    public Result<PageResult<RoleVO>> getRoleCursorPage(
+            @Parameter(description = "上一页返回的游标，为空时查询第一页")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "每页大小")
+            @RequestParam(defaultValue = "10") Integer size,
+            @Parameter(description = "角色名称")
+            @RequestParam(required = false) String roleName,
+            @Parameter(description = "角色权限字符串")
+            @RequestParam(required = false) String roleKey,
+            @Parameter(description = "状态")
+            @RequestParam(required = false) String status,
+            @Parameter(description = "总数统计方式：EXACT-精确，ESTIMATE-估算，NONE-不统计")
+            @RequestParam(required = false) String count) {
+        
+        Role role = buildRoleQuery(roleName, roleKey, status);
+        PageResult<Role> result = roleService.getRoleCursorPage(role, cursor, size,
+                CountMode.of(count, CountMode.NONE));
+        return Result.success(result.map(this::convertToRoleVO));
+    }
+
+    @GetMapping("/export")
+    @Operation(summary = "导出角色", description = "流式导出角色（含用户数与权限编码），支持CSV与NDJSON，可选gzip压缩")
+    @PreAuthorize("hasAuthority('role.read')")
+    public void exportRoles(
+            @Parameter(description = "导出格式：csv（默认）、ndjson")
+            @RequestParam(required = false) String format,
+            @Parameter(description = "是否以gzip内容编码压缩")
+            @RequestParam(defaultValue = "false") boolean gzip,
+            @Parameter(description = "角色名称")
+            @RequestParam(required = false) String roleName,
+            @Parameter(description = "角色权限字符串")
+            @RequestParam(required = false) String roleKey,
+            @Parameter(description = "状态")
+            @RequestParam(required = false) String status,
+            HttpServletResponse response) throws IOException {
+        
+        String exportFormat = RowExportWriter.format(format);
+        Role role = buildRoleQuery(roleName, roleKey, status);
+        long start = System.currentTimeMillis();
+        long rows = roleService.exportRoles(role, exportFormat,
+                ExportResponses.open(response, "roles", exportFormat, gzip));
+        log.info("导出角色完成: format={}, gzip={}, rows={}, cost={}ms", exportFormat, gzip, rows,
+                System.currentTimeMillis() - start);
     }
 
     @PostMapping
@@ -151,6 +209,16 @@ public class RoleController {
         return Result.success(success);
     }
 
+    @PutMapping("/batch/status")
+    @Operation(summary = "批量更新角色状态", description = "批量启用或停用角色")
+    @PreAuthorize("hasAuthority('role.update')")
+    public Result<Boolean> updateRolesStatus(
+            @Parameter(description = "角色ID列表与目标状态", required = true)
+            @RequestBody @Valid BatchStatusDTO batchStatusDTO) {
+        boolean success = roleService.updateRolesStatus(batchStatusDTO.getIds(), batchStatusDTO.getStatus());
+        return Result.success(success);
+    }
+
     @PutMapping("/{roleId}/status")
     @Operation(summary = "更新角色状态", description = "更新角色状态")
     @PreAuthorize("hasAuthority('role.update')")
@@ -292,6 +360,8 @@ public class RoleController {
         roleVO.setUpdateTime(role.getUpdateTime());
         roleVO.setCreateBy(role.getCreateBy());
         roleVO.setUpdateBy(role.getUpdateBy());
+        roleVO.setUserCount(role.getUserCount());
+        roleVO.setDeptCount(role.getDeptCount());
         return roleVO;
     }
 
@@ -334,6 +404,17 @@ public class RoleController {
         return role;
     }
 
+    /**
+     * 构建角色列表查询条件
+     */
+    private Role buildRoleQuery(String roleName, String roleKey, String status) {
+        Role role = new Role();
+        role.setRoleName(roleName);
+        role.setRoleKey(roleKey);
+        role.setStatus(status);
+        return role;
+    }
+
     /**
      * 将IPage<Role>转换为PageResult<RoleVO>
      */
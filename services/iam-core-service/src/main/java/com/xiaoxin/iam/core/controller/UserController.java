@@ -1,9 +1,11 @@
 package com.xiaoxin.iam.core.controller;
 
+import java.io.IOException;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 
+import org.springframework.http.MediaType;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -14,23 +16,35 @@ import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RequestPart;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.multipart.MultipartFile;
 
 import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.xiaoxin.iam.common.result.Result;
+import com.xiaoxin.iam.core.dto.BatchStatusDTO;
 import com.xiaoxin.iam.core.dto.UserCreateDTO;
 import com.xiaoxin.iam.core.dto.UserUpdateDTO;
 import com.xiaoxin.iam.common.dto.UserDTO;
 import com.xiaoxin.iam.common.dto.LoginInfoUpdateDTO;
 import com.xiaoxin.iam.core.entity.User;
+import com.xiaoxin.iam.core.menu.MenuTree;
+import com.xiaoxin.iam.core.service.UserImportService;
 import com.xiaoxin.iam.core.service.UserService;
+import com.xiaoxin.iam.core.support.CountMode;
+import com.xiaoxin.iam.core.support.ExportResponses;
+import com.xiaoxin.iam.core.support.RowExportWriter;
+import com.xiaoxin.iam.core.vo.MenuVO;
 import com.xiaoxin.iam.core.vo.PageResult;
+import com.xiaoxin.iam.core.vo.UserImportResultVO;
 import com.xiaoxin.iam.core.vo.UserVO;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.NotNull;
@@ -53,6 +67,8 @@ public class UserController {
 
     private final UserService userService;
 
+    private final UserImportService userImportService;
+
     @GetMapping("/{userId}")
     @Operation(summary = "根据ID查询用户", description = "根据用户ID查询用户详细信息")
     @PreAuthorize("hasAuthority('user.read')")
@@ -91,19 +107,77 @@ public class UserController {
             @Parameter(description = "手机号")
             @RequestParam(required = false) String phone,
             @Parameter(description = "状态")
-            @RequestParam(required = false) String status) {
+            @RequestParam(required = false) String status,
+            @Parameter(description = "总数统计方式：EXACT-精确，ESTIMATE-估算，NONE-不统计")
+            @RequestParam(required = false) String count) {
         
         Page<User> page = new Page<>(current, size);
-        User user = new User();
-        user.setUsername(username);
-        user.setNickname(nickname);
-        user.setEmail(email);
-        user.setPhone(phone);
-        user.setStatus(status);
+        User user = buildUserQuery(username, nickname, email, phone, status);
+        
+        CountMode countMode = CountMode.of(count, CountMode.EXACT);
+        if (countMode == CountMode.EXACT) {
+            IPage<User> result = userService.getUserPage(page, user);
+            PageResult<UserVO> pageResult = convertToPageResult(result);
+            return Result.success(pageResult);
+        }
+        PageResult<User> result = userService.getUserPage(page, user, countMode);
+        return Result.success(result.map(this::convertToUserVO));
+    }
+
+    @GetMapping("/page/cursor")
+    @Operation(summary = "游标分页查询用户列表", description = "按创建时间倒序的游标分页，翻页耗时与页码无关，默认不统计总数")
+    @PreAuthorize("hasAuthority('user.read')")
+    public Result<PageResult<UserVO>> getUserCursorPage(
+            @Parameter(description = "上一页返回的游标，为空时查询第一页")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "每页大小")
+            @RequestParam(defaultValue = "10") Integer size,
+            @Parameter(description = "用户名")
+            @RequestParam(required = false) String username,
+            @Parameter(description = "昵称")
+            @RequestParam(required = false) String nickname,
+            @Parameter(description = "邮箱")
+            @RequestParam(required = false) String email,
+            @Parameter(description = "手机号")
+            @RequestParam(required = false) String phone,
+            @Parameter(description = "状态")
+            @RequestParam(required = false) String status,
+            @Parameter(description = "总数统计方式：EXACT-精确，ESTIMATE-估算，NONE-不统计")
+            @RequestParam(required = false) String count) {
         
-        IPage<User> result = userService.getUserPage(page, user);
-        PageResult<UserVO> pageResult = convertToPageResult(result);
-        return Result.success(pageResult);
+        User user = buildUserQuery(username, nickname, email, phone, status);
+        PageResult<User> result = userService.getUserCursorPage(user, cursor, size,
+                CountMode.of(count, CountMode.NONE));
+        return Result.success(result.map(this::convertToUserVO));
+    }
+
+    @GetMapping("/export")
+    @Operation(summary = "导出用户", description = "流式导出用户（含角色标识与部门名称），支持CSV与NDJSON，可选gzip压缩")
+    @PreAuthorize("hasAuthority('user.read')")
+    public void exportUsers(
+            @Parameter(description = "导出格式：csv（默认）、ndjson")
+            @RequestParam(required = false) String format,
+            @Parameter(description = "是否以gzip内容编码压缩")
+            @RequestParam(defaultValue = "false") boolean gzip,
+            @Parameter(description = "用户名")
+            @RequestParam(required = false) String username,
+            @Parameter(description = "昵称")
+            @RequestParam(required = false) String nickname,
+            @Parameter(description = "邮箱")
+            @RequestParam(required = false) String email,
+            @Parameter(description = "手机号")
+            @RequestParam(required = false) String phone,
+            @Parameter(description = "状态")
+            @RequestParam(required = false) String status,
+            HttpServletResponse response) throws IOException {
+        
+        String exportFormat = RowExportWriter.format(format);
+        User user = buildUserQuery(username, nickname, email, phone, status);
+        long start = System.currentTimeMillis();
+        long rows = userService.exportUsers(user, exportFormat,
+                ExportResponses.open(response, "users", exportFormat, gzip));
+        log.info("导出用户完成: format={}, gzip={}, rows={}, cost={}ms", exportFormat, gzip, rows,
+                System.currentTimeMillis() - start);
     }
 
     @PostMapping
@@ -117,6 +191,28 @@ public class UserController {
         return Result.success(success);
     }
 
+    @PostMapping(value = "/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @Operation(summary = "批量导入用户", description = "上传CSV或JSON文件，后台分批导入，返回任务ID用于查询进度")
+    @PreAuthorize("hasAuthority('user.create')")
+    public Result<UserImportResultVO> importUsers(
+            @Parameter(description = "导入文件", required = true)
+            @RequestPart("file") MultipartFile file,
+            @Parameter(description = "文件格式：csv、json，为空时按扩展名判断")
+            @RequestParam(required = false) String format) {
+        UserImportResultVO result = userImportService.submitImport(file, format);
+        return Result.success(result);
+    }
+
+    @GetMapping("/import/{taskId}")
+    @Operation(summary = "查询用户导入进度", description = "查询导入任务进度与失败行明细")
+    @PreAuthorize("hasAuthority('user.create')")
+    public Result<UserImportResultVO> getImportTask(
+            @Parameter(description = "任务ID", required = true)
+            @PathVariable String taskId) {
+        UserImportResultVO result = userImportService.getImportTask(taskId);
+        return Result.success(result);
+    }
+
     @PutMapping("/{userId}")
     @Operation(summary = "更新用户", description = "更新用户信息")
     @PreAuthorize("hasAuthority('user.update')")
@@ -176,6 +272,16 @@ public class UserController {
         return Result.success(success);
     }
 
+    @PutMapping("/batch/status")
+    @Operation(summary = "批量更新用户状态", description = "批量启用或停用用户")
+    @PreAuthorize("hasAuthority('user.update')")
+    public Result<Boolean> updateUsersStatus(
+            @Parameter(description = "用户ID列表与目标状态", required = true)
+            @RequestBody @Valid BatchStatusDTO batchStatusDTO) {
+        boolean success = userService.updateUsersStatus(batchStatusDTO.getIds(), batchStatusDTO.getStatus());
+        return Result.success(success);
+    }
+
     @PutMapping("/{userId}/status")
     @Operation(summary = "更新用户状态", description = "更新用户状态")
     @PreAuthorize("hasAuthority('user.update')")
@@ -252,6 +358,20 @@ public class UserController {
         return Result.success(menus);
     }
 
+    @GetMapping("/{userId}/menu-tree")
+    @Operation(summary = "查询用户菜单树", description = "查询用户菜单树，支持 If-None-Match 条件请求，内容未变化时返回304")
+    @PreAuthorize("hasAuthority('user.read')")
+    public Result<List<MenuVO>> getUserMenuTree(
+            @Parameter(description = "用户ID", required = true)
+            @PathVariable @NotNull(message = "用户ID不能为空") Long userId,
+            WebRequest request) {
+        MenuTree tree = userService.getUserMenuTree(userId);
+        if (request.checkNotModified(tree.etag())) {
+            return null;
+        }
+        return Result.success(tree.menus());
+    }
+
     @PostMapping("/{userId}/login-info")
     @Operation(summary = "更新用户登录信息", description = "更新用户登录信息")
     public Result<Boolean> updateLoginInfo(
@@ -361,6 +481,19 @@ public class UserController {
         return user;
     }
 
+    /**
+     * 构建用户列表查询条件
+     */
+    private User buildUserQuery(String username, String nickname, String email, String phone, String status) {
+        User user = new User();
+        user.setUsername(username);
+        user.setNickname(nickname);
+        user.setEmail(email);
+        user.setPhone(phone);
+        user.setStatus(status);
+        return user;
+    }
+
     /**
      * 将IPage<User>转换为PageResult<UserVO>
      */
@@ -0,0 +1,32 @@
+package com.xiaoxin.iam.core.dept;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 部门闭包关系，对应 sys_dept_closure 的一行
+ *
+ * @author xiaoxin
+ * @since 1.0.0
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DeptClosure {
+
+    /**
+     * 祖先部门ID
+     */
+    private Long ancestorId;
+
+    /**
+     * 后代部门ID
+     */
+    private Long descendantId;
+
+    /**
+     * 层级距离，自身为0
+     */
+    private Integer depth;
+}
@@ -0,0 +1,413 @@
+package com.xiaoxin.iam.core.dept;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.xiaoxin.iam.core.config.DeptHierarchyProperties;
+import com.xiaoxin.iam.core.entity.Dept;
+import com.xiaoxin.iam.core.mapper.DeptMapper;
+import com.xiaoxin.iam.core.support.Batches;
+import com.xiaoxin.iam.core.support.ReloadableIndex;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 部门层级索引
+ * <p>
+ * 按显示顺序对部门树做一次先序遍历（Euler tour），每个部门得到先序位置与子树大小，
+ * 一个部门的子树恰好占据先序序列中连续的区间 [pos, pos + size)：
+ * </p>
+ * <ul>
+ *     <li>X 是否在 Y 之下：比较两个区间端点，O(1)</li>
+ *     <li>Y 的全部后代：截取先序序列的一段，O(k)</li>
+ *     <li>X 的全部祖先：沿父指针上溯，O(深度)</li>
+ * </ul>
+ * <p>
+ * 部门移动提交后在内存中整体搬移子树区间，不重新加载数据库；sys_dept_closure
+ * 由移动操作在同一事务内改写，重建时校验行数，不符则按当前层级整体重写。
+ * 快照发布后不再修改，读取无需加锁。
+ * </p>
+ *
+ * @author xiaoxin
+ * @since 1.0.0
+ */
+@Slf4j
+@Component
+public class DeptHierarchy extends ReloadableIndex {
+
+    /**
+     * 顶级部门的父部门ID
+     */
+    public static final long ROOT_ID = 0L;
+
+    private final DeptMapper deptMapper;
+
+    private final DeptHierarchyProperties properties;
+
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * 当前快照，为 null 表示尚未加载完成
+     */
+    private volatile Snapshot snapshot;
+
+    public DeptHierarchy(DeptMapper deptMapper, DeptHierarchyProperties properties,
+                         TransactionTemplate transactionTemplate) {
+        super("部门层级索引", "dept-hierarchy-reloader");
+        this.deptMapper = deptMapper;
+        this.properties = properties;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    @Override
+    protected boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    @Override
+    protected Duration reloadInterval() {
+        return properties.getReloadInterval();
+    }
+
+    @Override
+    protected String fallbackDescription() {
+        return "部门子树查询将通过闭包表完成";
+    }
+
+    /**
+     * 索引是否可用，不可用时调用方应回退到闭包表查询
+     */
+    public boolean isReady() {
+        return snapshot != null;
+    }
+
+    // ==================== 查询 ====================
+
+    /**
+     * 部门是否在索引中（未删除且能从顶级部门到达）
+     */
+    public boolean contains(Long deptId) {
+        return deptId != null && requireSnapshot().positions.containsKey(deptId);
+    }
+
+    /**
+     * 判断部门是否为另一部门本身或其后代
+     *
+     * @param deptId 待判断的部门
+     * @param ancestorId 祖先部门
+     */
+    public boolean isDescendantOrSelf(Long deptId, Long ancestorId) {
+        if (deptId == null || ancestorId == null) {
+            return false;
+        }
+        if (ancestorId == ROOT_ID) {
+            return true;
+        }
+        Snapshot current = requireSnapshot();
+        Integer position = current.positions.get(deptId);
+        Integer ancestor = current.positions.get(ancestorId);
+        return position != null && ancestor != null
+                && ancestor <= position && position < ancestor + current.sizes[ancestor];
+    }
+
+    /**
+     * 查询部门的全部后代，按先序（父部门在前、同级按显示顺序）排列
+     *
+     * @param deptId 部门ID
+     * @param includeSelf 是否包含自身
+     * @return 部门ID列表，部门不存在时为空
+     */
+    public List<Long> getDescendantIds(Long deptId, boolean includeSelf) {
+        Snapshot current = requireSnapshot();
+        Integer position = deptId != null ? current.positions.get(deptId) : null;
+        if (position == null) {
+            return Collections.emptyList();
+        }
+        int end = position + current.sizes[position];
+        List<Long> ids = new ArrayList<>(end - position);
+        for (int i = includeSelf ? position : position + 1; i < end; i++) {
+            ids.add(current.ids[i]);
+        }
+        return ids;
+    }
+
+    /**
+     * 查询部门的全部祖先，由顶级部门到直接上级排列
+     *
+     * @param deptId 部门ID
+     * @return 部门ID列表（不含自身），部门不存在时为空
+     */
+    public List<Long> getAncestorIds(Long deptId) {
+        Snapshot current = requireSnapshot();
+        Integer position = deptId != null ? current.positions.get(deptId) : null;
+        if (position == null) {
+            return Collections.emptyList();
+        }
+        List<Long> ancestors = new ArrayList<>(current.depths[position]);
+        for (long parentId = current.parents[position]; parentId != ROOT_ID;
+                parentId = current.parents[current.positions.get(parentId)]) {
+            ancestors.add(parentId);
+        }
+        Collections.reverse(ancestors);
+        return ancestors;
+    }
+
+    // ==================== 增量更新 ====================
+
+    /**
+     * 部门已移动到新的父部门下
+     */
+    public void onDeptMoved(Long deptId, Long parentId) {
+        afterCommit(() -> {
+            Snapshot current = snapshot;
+            if (current == null) {
+                return;
+            }
+            long target = parentId != null ? parentId : ROOT_ID;
+            if (!current.positions.containsKey(deptId)
+                    || (target != ROOT_ID && !current.positions.containsKey(target))
+                    || isDescendantOrSelf(target, deptId)) {
+                // 索引与数据库不一致（如部门在本服务之外新增），整体重建
+                requestReload();
+                return;
+            }
+            snapshot = current.moved(deptId, target);
+        });
+    }
+
+    /**
+     * 全量重建索引，并按需校验闭包表
+     */
+    @Override
+    public synchronized void reload() {
+        Snapshot next = Snapshot.build(deptMapper.selectHierarchyNodes());
+        snapshot = next;
+        log.info("部门层级索引已全量加载: {}个部门", next.ids.length);
+        if (properties.isSyncClosure() && deptMapper.countClosureRows() != next.closureRows()) {
+            rebuildClosure();
+        }
+    }
+
+    /**
+     * 按当前部门层级整体重写闭包表
+     * 先清空再读取部门，清空时的行锁使并发的部门移动先行提交，保证读到的是最新层级
+     */
+    private void rebuildClosure() {
+        Integer rows = transactionTemplate.execute(status -> {
+            deptMapper.deleteAllClosureRows();
+            Snapshot fresh = Snapshot.build(deptMapper.selectHierarchyNodes());
+            List<DeptClosure> closure = new ArrayList<>(Math.toIntExact(fresh.closureRows()));
+            for (int i = 0; i < fresh.ids.length; i++) {
+                long deptId = fresh.ids[i];
+                closure.add(new DeptClosure(deptId, deptId, 0));
+                int depth = 0;
+                for (long ancestorId = fresh.parents[i]; ancestorId != ROOT_ID;
+                        ancestorId = fresh.parents[fresh.positions.get(ancestorId)]) {
+                    closure.add(new DeptClosure(ancestorId, deptId, ++depth));
+                }
+            }
+            Batches.partition(closure, Batches.DEFAULT_CHUNK_SIZE).forEach(deptMapper::insertClosureRows);
+            return closure.size();
+        });
+        log.info("部门闭包表已重写: {}行", rows);
+    }
+
+    private Snapshot requireSnapshot() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            throw new IllegalStateException("部门层级索引尚未加载");
+        }
+        return current;
+    }
+
+    /**
+     * 索引快照，各数组按先序位置存储
+     */
+    private static final class Snapshot {
+
+        private static final Comparator<Dept> DISPLAY_ORDER = Comparator
+                .comparing(Dept::getOrderNum, Comparator.nullsLast(Comparator.naturalOrder()))
+                .thenComparing(Dept::getId);
+
+        private final long[] ids;
+        private final long[] parents;
+        private final int[] orders;
+        private final int[] depths;
+        private final int[] sizes;
+        private final Map<Long, Integer> positions;
+
+        private Snapshot(long[] ids, long[] parents, int[] orders, int[] depths, int[] sizes,
+                         Map<Long, Integer> positions) {
+            this.ids = ids;
+            this.parents = parents;
+            this.orders = orders;
+            this.depths = depths;
+            this.sizes = sizes;
+            this.positions = positions;
+        }
+
+        /**
+         * 由部门列表构建，父部门不存在（已删除）的部门视为顶级部门
+         */
+        static Snapshot build(List<Dept> depts) {
+            Set<Long> known = new HashSet<>(depts.size() * 2);
+            depts.forEach(dept -> known.add(dept.getId()));
+            Map<Long, List<Dept>> children = new HashMap<>();
+            for (Dept dept : depts) {
+                Long parentId = dept.getParentId();
+                long key = parentId != null && known.contains(parentId) ? parentId : ROOT_ID;
+                children.computeIfAbsent(key, k -> new ArrayList<>()).add(dept);
+            }
+            children.values().forEach(siblings -> siblings.sort(DISPLAY_ORDER));
+
+            int total = depts.size();
+            long[] ids = new long[total];
+            long[] parents = new long[total];
+            int[] orders = new int[total];
+            int[] depths = new int[total];
+            int[] sizes = new int[total];
+            Map<Long, Integer> positions = new HashMap<>(total * 2);
+
+            // 迭代式先序遍历，子部门逆序入栈以保证按显示顺序出栈
+            Deque<Dept> stack = new ArrayDeque<>();
+            pushChildren(stack, children.get(ROOT_ID));
+            int count = 0;
+            while (!stack.isEmpty()) {
+                Dept dept = stack.pop();
+                Long parentId = dept.getParentId();
+                long parent = parentId != null && known.contains(parentId) ? parentId : ROOT_ID;
+                ids[count] = dept.getId();
+                parents[count] = parent;
+                orders[count] = dept.getOrderNum() != null ? dept.getOrderNum() : Integer.MAX_VALUE;
+                depths[count] = parent == ROOT_ID ? 0 : depths[positions.get(parent)] + 1;
+                positions.put(dept.getId(), count++);
+                pushChildren(stack, children.get(dept.getId()));
+            }
+            if (count < total) {
+                log.warn("部门层级存在环，{}个部门无法从顶级部门到达，已忽略", total - count);
+            }
+
+            // 逆先序累加子树大小，子部门总在父部门之后
+            for (int i = count - 1; i >= 0; i--) {
+                sizes[i] += 1;
+                if (parents[i] != ROOT_ID) {
+                    sizes[positions.get(parents[i])] += sizes[i];
+                }
+            }
+            return new Snapshot(Arrays.copyOf(ids, count), Arrays.copyOf(parents, count),
+                    Arrays.copyOf(orders, count), Arrays.copyOf(depths, count),
+                    Arrays.copyOf(sizes, count), positions);
+        }
+
+        private static void pushChildren(Deque<Dept> stack, List<Dept> children) {
+            if (children != null) {
+                for (int i = children.size() - 1; i >= 0; i--) {
+                    stack.push(children.get(i));
+                }
+            }
+        }
+
+        /**
+         * 闭包表应有的行数：每个部门与自身及每个祖先各一行
+         */
+        long closureRows() {
+            long rows = 0;
+            for (int depth : depths) {
+                rows += depth + 1;
+            }
+            return rows;
+        }
+
+        /**
+         * 将子树区间整体搬移到新父部门的子区间内（按显示顺序插入），返回新快照
+         * 调用方保证新父部门不在被移动的子树中
+         */
+        Snapshot moved(long deptId, long parentId) {
+            int total = ids.length;
+            int start = positions.get(deptId);
+            int size = sizes[start];
+
+            // 原祖先子树缩小、新祖先子树扩大，按原位置记录
+            int[] adjusted = sizes.clone();
+            for (long a = parents[start]; a != ROOT_ID; a = parents[positions.get(a)]) {
+                adjusted[positions.get(a)] -= size;
+            }
+            for (long a = parentId; a != ROOT_ID; a = parents[positions.get(a)]) {
+                adjusted[positions.get(a)] += size;
+            }
+
+            // 在去掉子树后的序列中定位插入点：新父部门的子部门间按显示顺序
+            int restTotal = total - size;
+            int from;
+            int to;
+            if (parentId == ROOT_ID) {
+                from = 0;
+                to = restTotal;
+            } else {
+                int parent = positions.get(parentId);
+                int restParent = parent < start ? parent : parent - size;
+                from = restParent + 1;
+                to = restParent + adjusted[parent] - size;
+            }
+            int insert = to;
+            for (int c = from; c < to; c += adjusted[original(c, start, size)]) {
+                if (orders[original(c, start, size)] > orders[start]) {
+                    insert = c;
+                    break;
+                }
+            }
+
+            // 新序列中每个位置对应的原位置
+            int[] source = new int[total];
+            int k = 0;
+            for (int r = 0; r < insert; r++) {
+                source[k++] = original(r, start, size);
+            }
+            for (int b = start; b < start + size; b++) {
+                source[k++] = b;
+            }
+            for (int r = insert; r < restTotal; r++) {
+                source[k++] = original(r, start, size);
+            }
+
+            int depthDelta = (parentId == ROOT_ID ? 0 : depths[positions.get(parentId)] + 1) - depths[start];
+            long[] nextIds = new long[total];
+            long[] nextParents = new long[total];
+            int[] nextOrders = new int[total];
+            int[] nextDepths = new int[total];
+            int[] nextSizes = new int[total];
+            Map<Long, Integer> nextPositions = new HashMap<>(total * 2);
+            for (int i = 0; i < total; i++) {
+                int o = source[i];
+                boolean inSubtree = o >= start && o < start + size;
+                nextIds[i] = ids[o];
+                nextParents[i] = o == start ? parentId : parents[o];
+                nextOrders[i] = orders[o];
+                nextDepths[i] = depths[o] + (inSubtree ? depthDelta : 0);
+                nextSizes[i] = adjusted[o];
+                nextPositions.put(ids[o], i);
+            }
+            return new Snapshot(nextIds, nextParents, nextOrders, nextDepths, nextSizes, nextPositions);
+        }
+
+        /**
+         * 去掉 [start, start + size) 后的序列位置换算回原位置
+         */
+        private static int original(int restPosition, int start, int size) {
+            return restPosition < start ? restPosition : restPosition + size;
+        }
+    }
+}
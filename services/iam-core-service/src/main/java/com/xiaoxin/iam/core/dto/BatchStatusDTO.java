@@ -0,0 +1,39 @@
+package com.xiaoxin.iam.core.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * 批量更新状态DTO
+ *
+ * @author xiaoxin
+ * @since 1.0.0
+ */
+@Data
+@Schema(description = "批量更新状态DTO")
+public class BatchStatusDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 单次请求允许的最大ID数
+     */
+    public static final int MAX_BATCH_SIZE = 10000;
+
+    @Schema(description = "ID列表", required = true)
+    @NotEmpty(message = "ID列表不能为空")
+    @Size(max = MAX_BATCH_SIZE, message = "单次最多更新" + MAX_BATCH_SIZE + "条")
+    private List<Long> ids;
+
+    @Schema(description = "状态（0正常 1停用）", required = true, example = "1")
+    @NotBlank(message = "状态不能为空")
+    @Pattern(regexp = "^[01]$", message = "状态只能是0或1")
+    private String status;
+}
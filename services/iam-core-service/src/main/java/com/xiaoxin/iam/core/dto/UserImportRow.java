@@ -0,0 +1,33 @@
+package com.xiaoxin.iam.core.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.Pattern;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+import java.util.List;
+
+/**
+ * 用户导入行
+ * 字段校验规则与创建用户一致，额外支持状态与角色/部门分配
+ *
+ * @author xiaoxin
+ * @since 1.0.0
+ */
+@Data
+@EqualsAndHashCode(callSuper = true)
+@Schema(description = "用户导入行")
+public class UserImportRow extends UserCreateDTO {
+
+    private static final long serialVersionUID = 1L;
+
+    @Schema(description = "帐号状态（0正常 1停用）", example = "0")
+    @Pattern(regexp = "^[01]$", message = "状态只能是0或1")
+    private String status;
+
+    @Schema(description = "角色ID列表，CSV中以分号分隔")
+    private List<Long> roleIds;
+
+    @Schema(description = "部门ID列表，CSV中以分号分隔")
+    private List<Long> deptIds;
+}
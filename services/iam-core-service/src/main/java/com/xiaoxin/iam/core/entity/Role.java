@@ -78,6 +78,14 @@ public class Role extends BaseEntity {
     @TableField(exist = false)
     private List<Dept> depts;
 
+    @Schema(description = "未删除用户数")
+    @TableField(exist = false)
+    private Integer userCount;
+
+    @Schema(description = "未删除部门数")
+    @TableField(exist = false)
+    private Integer deptCount;
+
     /**
      * 判断角色是否正常状态
      */
@@ -0,0 +1,165 @@
+package com.xiaoxin.iam.core.event;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+import com.xiaoxin.iam.core.support.AfterCommit;
+import com.xiaoxin.iam.core.support.LinkDiff;
+import com.xiaoxin.iam.starter.mq.event.DomainEvent;
+import com.xiaoxin.iam.starter.mq.event.EventPublisher;
+import com.xiaoxin.iam.starter.mq.event.identity.DeptChangedEvent;
+import com.xiaoxin.iam.starter.mq.event.identity.RoleChangedEvent;
+import com.xiaoxin.iam.starter.mq.event.identity.UserChangedEvent;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 身份变更事件发布器
+ * 在事务提交后通过MQ发布用户/角色/部门变更事件，供下游服务失效本地缓存；
+ * 未启用MQ时静默跳过。
+ * <p>
+ * 所有身份变更事件使用同一个顺序键进入同一队列，配合消费端的顺序消费按提交顺序到达：
+ * 单个与批量事件、用户与角色事件之间互有依赖（如先改角色再分配给用户），按聚合分队列无法保证它们的先后。
+ * 身份变更属于低频管理操作，单队列吞吐足够。发送在单线程中依次执行，不阻塞提交事务的请求线程。
+ * </p>
+ *
+ * @author xiaoxin
+ * @since 1.0.0
+ */
+@Slf4j
+@Component
+public class IdentityEventPublisher implements DisposableBean {
+
+    private static final String SOURCE = "iam-core-service";
+
+    /**
+     * 顺序消息的选择键，所有身份变更事件共用
+     */
+    private static final String ORDERING_KEY = "identity";
+
+    private final ObjectProvider<EventPublisher> eventPublisherProvider;
+
+    private final ExecutorService sender = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "identity-event-sender");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public IdentityEventPublisher(ObjectProvider<EventPublisher> eventPublisherProvider) {
+        this.eventPublisherProvider = eventPublisherProvider;
+    }
+
+    @Override
+    public void destroy() {
+        sender.shutdown();
+    }
+
+    /**
+     * 发布用户变更事件
+     *
+     * @param changeType 变更类型，见 UserChangedEvent.CHANGE_*
+     * @param userId 用户ID
+     * @param usernames 受影响的用户名（可含变更前后两个用户名）
+     */
+    public void userChanged(String changeType, Long userId, String... usernames) {
+        userChanged(changeType, Collections.singletonList(userId), Arrays.asList(usernames));
+    }
+
+    /**
+     * 发布用户变更事件（批量）
+     */
+    public void userChanged(String changeType, List<Long> userIds, List<String> usernames) {
+        publishAfterCommit(new UserChangedEvent(changeType, userIds, usernames));
+    }
+
+    /**
+     * 发布用户关联分配变更事件，携带本次新增与移除的关联ID
+     *
+     * @param changeType 变更类型，CHANGE_ROLES 或 CHANGE_DEPTS
+     * @param userId 用户ID
+     * @param username 用户名
+     * @param diff 关联差异
+     */
+    public void userLinksChanged(String changeType, Long userId, String username, LinkDiff diff) {
+        UserChangedEvent event = new UserChangedEvent(changeType, Collections.singletonList(userId),
+                Collections.singletonList(username));
+        event.setAddedIds(diff.added());
+        event.setRemovedIds(diff.removed());
+        publishAfterCommit(event);
+    }
+
+    /**
+     * 发布角色变更事件
+     *
+     * @param changeType 变更类型，见 RoleChangedEvent.CHANGE_*
+     * @param roleId 角色ID
+     * @param roleKeys 受影响的角色标识
+     */
+    public void roleChanged(String changeType, Long roleId, String... roleKeys) {
+        publishAfterCommit(new RoleChangedEvent(changeType, Collections.singletonList(roleId), Arrays.asList(roleKeys)));
+    }
+
+    /**
+     * 发布角色变更事件（批量）
+     */
+    public void roleChanged(String changeType, List<Long> roleIds, List<String> roleKeys) {
+        publishAfterCommit(new RoleChangedEvent(changeType, roleIds, roleKeys));
+    }
+
+    /**
+     * 发布角色关联分配变更事件，携带本次新增与移除的关联ID
+     *
+     * @param changeType 变更类型，CHANGE_PERMISSIONS、CHANGE_MENUS 或 CHANGE_DEPTS
+     * @param roleId 角色ID
+     * @param roleKey 角色标识
+     * @param diff 关联差异
+     */
+    public void roleLinksChanged(String changeType, Long roleId, String roleKey, LinkDiff diff) {
+        RoleChangedEvent event = new RoleChangedEvent(changeType, Collections.singletonList(roleId),
+                Collections.singletonList(roleKey));
+        event.setAddedIds(diff.added());
+        event.setRemovedIds(diff.removed());
+        publishAfterCommit(event);
+    }
+
+    /**
+     * 发布部门移动事件
+     *
+     * @param deptId 部门ID
+     * @param oldParentId 原父部门ID
+     * @param parentId 新父部门ID
+     * @param subtreeIds 子树内的部门ID（含部门自身）
+     */
+    public void deptMoved(Long deptId, Long oldParentId, Long parentId, List<Long> subtreeIds) {
+        publishAfterCommit(new DeptChangedEvent(DeptChangedEvent.CHANGE_MOVED, deptId, oldParentId, parentId, subtreeIds));
+    }
+
+    /**
+     * 事务内延迟到提交后发布，回滚则不发布；无事务时立即发布
+     */
+    private void publishAfterCommit(DomainEvent event) {
+        EventPublisher publisher = eventPublisherProvider.getIfAvailable();
+        if (publisher == null) {
+            log.debug("未配置事件发布器，跳过身份变更事件: {}", event.getEventType());
+            return;
+        }
+        event.setSource(SOURCE);
+        AfterCommit.run(() -> publishOrderly(publisher, event));
+    }
+
+    private void publishOrderly(EventPublisher publisher, DomainEvent event) {
+        try {
+            sender.execute(() -> publisher.publishOrderly(event, ORDERING_KEY));
+        } catch (RuntimeException e) {
+            log.warn("身份变更事件发送队列已关闭，丢弃事件: type={}, aggregateId={}",
+                    event.getEventType(), event.getAggregateId(), e);
+        }
+    }
+}
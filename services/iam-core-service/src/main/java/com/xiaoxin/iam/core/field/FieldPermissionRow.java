@@ -0,0 +1,33 @@
+package com.xiaoxin.iam.core.field;
+
+import lombok.Data;
+
+/**
+ * 字段权限配置行（sys_field_permission）
+ *
+ * @author xiaoxin
+ * @since 1.0.0
+ */
+@Data
+public class FieldPermissionRow {
+
+    /**
+     * 字段名称
+     */
+    private String fieldName;
+
+    /**
+     * 权限类型（1可见 2可编辑 3脱敏显示 4不可见）
+     */
+    private String permissionType;
+
+    /**
+     * 脱敏类型（phone手机号 email邮箱 idcard身份证 custom自定义）
+     */
+    private String maskType;
+
+    /**
+     * 脱敏规则，自定义脱敏时为“保留前缀长度,保留后缀长度”，如 1,1
+     */
+    private String maskRule;
+}
@@ -0,0 +1,225 @@
+package com.xiaoxin.iam.core.field;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.UnaryOperator;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.xiaoxin.iam.common.utils.MaskUtils;
+import com.xiaoxin.iam.core.config.FieldPolicyProperties;
+import com.xiaoxin.iam.core.entity.Role;
+import com.xiaoxin.iam.core.mapper.FieldPermissionMapper;
+import com.xiaoxin.iam.core.mapper.UserMapper;
+import com.xiaoxin.iam.core.rbac.RbacIndex;
+import com.xiaoxin.iam.core.support.CurrentUser;
+import com.xiaoxin.iam.starter.web.field.FieldPolicy;
+import com.xiaoxin.iam.starter.web.field.FieldPolicyProvider;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 字段权限策略缓存
+ * <p>
+ * 按（角色组合, 资源）将 sys_field_permission 编译为 {@link FieldPolicy}，相同角色组合的用户共享同一实例，
+ * 响应序列化器据此特化并缓存在策略上。多个角色对同一字段的配置取最宽松者：
+ * 可见/可编辑 &gt; 脱敏 &gt; 不可见；角色未配置的字段不受限制。
+ * </p>
+ * <p>
+ * 定期查询字段权限表的内容摘要，发生变化（含在本服务之外修改）时丢弃全部策略，
+ * 特化的序列化器随之失效。
+ * </p>
+ *
+ * @author xiaoxin
+ * @since 1.0.0
+ */
+@Slf4j
+@Component
+public class FieldPolicyCache implements FieldPolicyProvider, InitializingBean, DisposableBean {
+
+    private static final String METRIC_NAME = "iam.core.field-policy";
+
+    private static final String TYPE_VISIBLE = "1";
+    private static final String TYPE_EDITABLE = "2";
+    private static final String TYPE_MASKED = "3";
+    private static final String TYPE_HIDDEN = "4";
+
+    private static final String MASK_PHONE = "phone";
+    private static final String MASK_EMAIL = "email";
+    private static final String MASK_ID_CARD = "idcard";
+    private static final String MASK_CUSTOM = "custom";
+
+    private static final UnaryOperator<String> MASK_ALL = value -> MaskUtils.mask(value, 0, 0);
+
+    private final RbacIndex rbacIndex;
+
+    private final UserMapper userMapper;
+
+    private final FieldPermissionMapper fieldPermissionMapper;
+
+    private final FieldPolicyProperties properties;
+
+    private final Cache<Key, FieldPolicy> policies;
+
+    private ScheduledExecutorService scheduler;
+
+    private volatile String version;
+
+    public FieldPolicyCache(RbacIndex rbacIndex, UserMapper userMapper, FieldPermissionMapper fieldPermissionMapper,
+                            FieldPolicyProperties properties, ObjectProvider<MeterRegistry> meterRegistryProvider) {
+        this.rbacIndex = rbacIndex;
+        this.userMapper = userMapper;
+        this.fieldPermissionMapper = fieldPermissionMapper;
+        this.properties = properties;
+        this.policies = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxRoleSets())
+                .recordStats()
+                .build();
+        MeterRegistry meterRegistry = meterRegistryProvider.getIfAvailable();
+        if (meterRegistry != null) {
+            CaffeineCacheMetrics.monitor(meterRegistry, policies, METRIC_NAME);
+        }
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        if (!properties.isEnabled()) {
+            log.info("字段权限未启用，响应不做字段隐藏与脱敏");
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "field-policy-checker");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long intervalMillis = properties.getCheckInterval().toMillis();
+        scheduler.scheduleWithFixedDelay(this::checkVersion, 0, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void destroy() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    @Override
+    public FieldPolicy currentPolicy(String resource) {
+        if (!properties.isEnabled()) {
+            return null;
+        }
+        Long userId = CurrentUser.id();
+        if (userId == null) {
+            return null;
+        }
+        List<Role> roles = rbacIndex.isReady() ? rbacIndex.getUserRoles(userId) : userMapper.selectUserRoles(userId);
+        List<Long> roleIds = roles.stream().map(Role::getId).sorted().toList();
+        if (roleIds.isEmpty()) {
+            return FieldPolicy.NONE;
+        }
+        return policies.get(new Key(roleIds, resource), key -> compile(key.roleIds(), key.resource()));
+    }
+
+    /**
+     * 丢弃全部策略，下次序列化时按最新配置重新编译
+     */
+    public void invalidateAll() {
+        policies.invalidateAll();
+    }
+
+    private FieldPolicy compile(List<Long> roleIds, String resource) {
+        Map<String, FieldPermissionRow> widest = new HashMap<>();
+        for (FieldPermissionRow row : fieldPermissionMapper.selectActiveByRoleIds(roleIds, resource)) {
+            if (row.getFieldName() == null || row.getFieldName().isBlank()) {
+                continue;
+            }
+            widest.merge(row.getFieldName().trim(), row,
+                    (current, candidate) -> rank(candidate) > rank(current) ? candidate : current);
+        }
+        Map<String, FieldPolicy.Rule> rules = new HashMap<>();
+        widest.forEach((field, row) -> {
+            switch (Objects.requireNonNullElse(row.getPermissionType(), TYPE_VISIBLE)) {
+                case TYPE_MASKED -> rules.put(field, FieldPolicy.Rule.masked(masker(row)));
+                case TYPE_HIDDEN -> rules.put(field, FieldPolicy.Rule.HIDDEN);
+                default -> {
+                    // 可见、可编辑不限制输出
+                }
+            }
+        });
+        FieldPolicy policy = FieldPolicy.of(rules);
+        log.debug("字段权限策略已编译: roleIds={}, resource={}, policy={}", roleIds, resource, policy);
+        return policy;
+    }
+
+    /**
+     * 宽松程度：可见/可编辑 > 脱敏 > 不可见
+     */
+    private static int rank(FieldPermissionRow row) {
+        String type = Objects.requireNonNullElse(row.getPermissionType(), TYPE_VISIBLE);
+        return switch (type) {
+            case TYPE_VISIBLE, TYPE_EDITABLE -> 3;
+            case TYPE_MASKED -> 2;
+            case TYPE_HIDDEN -> 1;
+            default -> 0;
+        };
+    }
+
+    /**
+     * 编译期确定脱敏函数，序列化时不再解析脱敏类型与规则
+     */
+    private static UnaryOperator<String> masker(FieldPermissionRow row) {
+        String maskType = Objects.requireNonNullElse(row.getMaskType(), "").trim().toLowerCase();
+        return switch (maskType) {
+            case MASK_PHONE -> MaskUtils::maskPhone;
+            case MASK_EMAIL -> MaskUtils::maskEmail;
+            case MASK_ID_CARD -> MaskUtils::maskIdCard;
+            case MASK_CUSTOM -> customMasker(row);
+            default -> MASK_ALL;
+        };
+    }
+
+    private static UnaryOperator<String> customMasker(FieldPermissionRow row) {
+        String rule = row.getMaskRule();
+        String[] parts = rule != null ? rule.split(",") : new String[0];
+        if (parts.length == 2) {
+            try {
+                int head = Integer.parseInt(parts[0].trim());
+                int tail = Integer.parseInt(parts[1].trim());
+                return value -> MaskUtils.mask(value, head, tail);
+            } catch (NumberFormatException e) {
+                // 落到整体遮盖
+            }
+        }
+        log.warn("无效的自定义脱敏规则，按整体遮盖处理: field={}, rule={}", row.getFieldName(), rule);
+        return MASK_ALL;
+    }
+
+    private void checkVersion() {
+        try {
+            String latest = fieldPermissionMapper.selectVersion();
+            String previous = version;
+            version = latest;
+            if (previous != null && !Objects.equals(previous, latest)) {
+                invalidateAll();
+                log.info("字段权限已变更，已丢弃全部字段策略");
+            }
+        } catch (Exception e) {
+            log.error("字段权限变更检测失败，将在下次检测时重试", e);
+        }
+    }
+
+    private record Key(List<Long> roleIds, String resource) {
+    }
+}
@@ -0,0 +1,59 @@
+package com.xiaoxin.iam.core.listener;
+
+import org.apache.rocketmq.common.message.MessageExt;
+import org.apache.rocketmq.spring.annotation.ConsumeMode;
+import org.apache.rocketmq.spring.annotation.MessageModel;
+import org.apache.rocketmq.spring.annotation.RocketMQMessageListener;
+import org.apache.rocketmq.spring.core.RocketMQListener;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import com.xiaoxin.iam.core.dept.DeptHierarchy;
+import com.xiaoxin.iam.core.scope.DataScopeRuleCache;
+import com.xiaoxin.iam.starter.mq.event.DomainEventSubscriber;
+import com.xiaoxin.iam.starter.mq.event.identity.DeptChangedEvent;
+import com.xiaoxin.iam.starter.mq.serialization.MessageSerializer;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 部门层级同步监听器
+ * 消费部门移动事件，使其他实例的移动同步到本地部门层级索引，并重新编译数据权限规则。
+ * 每个实例广播接收；移动需要按发生顺序应用到层级上，因此顺序消费。
+ *
+ * @author xiaoxin
+ * @since 1.0.0
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "iam.core.dept-hierarchy", name = "enabled", havingValue = "true", matchIfMissing = true)
+@RocketMQMessageListener(
+        topic = "${iam.core.dept-hierarchy.event-topic:iam_event_identity_change}",
+        consumerGroup = "${iam.core.dept-hierarchy.consumer-group:iam-core-dept-hierarchy}",
+        messageModel = MessageModel.BROADCASTING,
+        consumeMode = ConsumeMode.ORDERLY)
+public class DeptHierarchySyncListener implements RocketMQListener<MessageExt> {
+
+    private final DomainEventSubscriber subscriber;
+
+    public DeptHierarchySyncListener(DeptHierarchy deptHierarchy,
+                                     DataScopeRuleCache dataScopeRuleCache,
+                                     MessageSerializer messageSerializer) {
+        this.subscriber = new DomainEventSubscriber(messageSerializer)
+                .on(DeptChangedEvent.class, event -> {
+                    log.debug("同步部门移动到部门层级索引: deptId={}, parentId={}", event.getDeptId(), event.getParentId());
+                    deptHierarchy.onDeptMoved(event.getDeptId(), event.getParentId());
+                    dataScopeRuleCache.invalidateAll();
+                })
+                // 无法解析的事件按最保守方式处理，全量重建索引
+                .onFailure(message -> {
+                    deptHierarchy.reload();
+                    dataScopeRuleCache.invalidateAll();
+                });
+    }
+
+    @Override
+    public void onMessage(MessageExt message) {
+        subscriber.dispatch(message);
+    }
+}
@@ -0,0 +1,62 @@
+package com.xiaoxin.iam.core.listener;
+
+import java.util.Set;
+
+import org.apache.rocketmq.common.message.MessageExt;
+import org.apache.rocketmq.spring.annotation.ConsumeMode;
+import org.apache.rocketmq.spring.annotation.MessageModel;
+import org.apache.rocketmq.spring.annotation.RocketMQMessageListener;
+import org.apache.rocketmq.spring.core.RocketMQListener;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import com.xiaoxin.iam.core.menu.MenuTreeCache;
+import com.xiaoxin.iam.starter.mq.event.DomainEventSubscriber;
+import com.xiaoxin.iam.starter.mq.event.identity.RoleChangedEvent;
+import com.xiaoxin.iam.starter.mq.serialization.MessageSerializer;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 菜单树缓存同步监听器
+ * 消费角色变更事件，从数据库重新加载受影响角色的菜单，使其他实例的菜单分配同步到本地缓存。
+ * 缓存在每个实例各有一份，按广播方式接收，并按发布顺序处理。
+ *
+ * @author xiaoxin
+ * @since 1.0.0
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "iam.core.menu-tree", name = "enabled", havingValue = "true", matchIfMissing = true)
+@RocketMQMessageListener(
+        topic = "${iam.core.menu-tree.event-topic:iam_event_identity_change}",
+        consumerGroup = "${iam.core.menu-tree.consumer-group:iam-core-menu-tree}",
+        messageModel = MessageModel.BROADCASTING,
+        consumeMode = ConsumeMode.ORDERLY)
+public class MenuTreeSyncListener implements RocketMQListener<MessageExt> {
+
+    /**
+     * 影响角色菜单的变更类型；角色停用后不再出现在用户的有效角色中，状态变更无需同步
+     */
+    private static final Set<String> MENU_CHANGES = Set.of(
+            RoleChangedEvent.CHANGE_MENUS,
+            RoleChangedEvent.CHANGE_DELETED);
+
+    private final DomainEventSubscriber subscriber;
+
+    public MenuTreeSyncListener(MenuTreeCache menuTreeCache, MessageSerializer messageSerializer) {
+        this.subscriber = new DomainEventSubscriber(messageSerializer)
+                .on(RoleChangedEvent.class, event -> {
+                    if (MENU_CHANGES.contains(event.getChangeType())) {
+                        log.debug("同步角色变更到菜单树缓存: type={}, roleIds={}", event.getChangeType(), event.getRoleIds());
+                        menuTreeCache.onRolesChanged(event.getRoleIds());
+                    }
+                })
+                .onFailure(message -> menuTreeCache.reload());
+    }
+
+    @Override
+    public void onMessage(MessageExt message) {
+        subscriber.dispatch(message);
+    }
+}
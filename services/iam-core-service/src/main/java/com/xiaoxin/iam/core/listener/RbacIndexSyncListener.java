@@ -0,0 +1,65 @@
+package com.xiaoxin.iam.core.listener;
+
+import org.apache.rocketmq.common.message.MessageExt;
+import org.apache.rocketmq.spring.annotation.ConsumeMode;
+import org.apache.rocketmq.spring.annotation.MessageModel;
+import org.apache.rocketmq.spring.annotation.RocketMQMessageListener;
+import org.apache.rocketmq.spring.core.RocketMQListener;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import com.xiaoxin.iam.core.rbac.RbacIndex;
+import com.xiaoxin.iam.starter.mq.event.DomainEventSubscriber;
+import com.xiaoxin.iam.starter.mq.event.identity.RoleChangedEvent;
+import com.xiaoxin.iam.starter.mq.event.identity.UserChangedEvent;
+import com.xiaoxin.iam.starter.mq.serialization.MessageSerializer;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * RBAC索引同步监听器
+ * 消费身份变更事件，从数据库重新加载受影响的角色/用户，使其他实例的写操作同步到本地索引。
+ * 每个核心服务实例都要更新自己的索引，因此广播消费；按发布顺序逐条处理，
+ * 先删角色再分配用户之类的相继变更不会被乱序覆盖。本实例发布的事件重复加载一次，结果相同。
+ *
+ * @author xiaoxin
+ * @since 1.0.0
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "iam.core.rbac-index", name = "enabled", havingValue = "true", matchIfMissing = true)
+@RocketMQMessageListener(
+        topic = "${iam.core.rbac-index.event-topic:iam_event_identity_change}",
+        consumerGroup = "${iam.core.rbac-index.consumer-group:iam-core-rbac-index}",
+        messageModel = MessageModel.BROADCASTING,
+        consumeMode = ConsumeMode.ORDERLY)
+public class RbacIndexSyncListener implements RocketMQListener<MessageExt> {
+
+    private final DomainEventSubscriber subscriber;
+
+    public RbacIndexSyncListener(RbacIndex rbacIndex, MessageSerializer messageSerializer) {
+        this.subscriber = new DomainEventSubscriber(messageSerializer)
+                .on(RoleChangedEvent.class, event -> {
+                    if (RoleChangedEvent.CHANGE_DEPTS.equals(event.getChangeType())) {
+                        // 数据权限部门不在索引范围内
+                        return;
+                    }
+                    log.debug("同步角色变更到RBAC索引: type={}, roleIds={}", event.getChangeType(), event.getRoleIds());
+                    rbacIndex.onRolesChanged(event.getRoleIds());
+                })
+                .on(UserChangedEvent.class, event -> {
+                    if (UserChangedEvent.CHANGE_ROLES.equals(event.getChangeType())
+                            || UserChangedEvent.CHANGE_DELETED.equals(event.getChangeType())) {
+                        log.debug("同步用户角色变更到RBAC索引: userIds={}", event.getUserIds());
+                        rbacIndex.onUsersChanged(event.getUserIds());
+                    }
+                })
+                // 无法解析的事件按最保守方式处理，全量重建索引
+                .onFailure(message -> rbacIndex.reload());
+    }
+
+    @Override
+    public void onMessage(MessageExt message) {
+        subscriber.dispatch(message);
+    }
+}
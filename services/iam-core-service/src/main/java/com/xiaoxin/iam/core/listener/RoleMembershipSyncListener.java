@@ -0,0 +1,75 @@
+package com.xiaoxin.iam.core.listener;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import org.apache.rocketmq.common.message.MessageExt;
+import org.apache.rocketmq.spring.annotation.ConsumeMode;
+import org.apache.rocketmq.spring.annotation.MessageModel;
+import org.apache.rocketmq.spring.annotation.RocketMQMessageListener;
+import org.apache.rocketmq.spring.core.RocketMQListener;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import com.xiaoxin.iam.core.rbac.RoleMembershipCounter;
+import com.xiaoxin.iam.starter.mq.event.DomainEventSubscriber;
+import com.xiaoxin.iam.starter.mq.event.identity.RoleChangedEvent;
+import com.xiaoxin.iam.starter.mq.event.identity.UserChangedEvent;
+import com.xiaoxin.iam.starter.mq.serialization.MessageSerializer;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 角色成员计数同步监听器
+ * 消费身份变更事件，从数据库重新统计受影响角色的成员数，使其他实例的写操作同步到本地计数。
+ * 计数存在于每个实例的内存中，所以事件广播给所有实例并顺序消费；统计结果是数据库的当前值，
+ * 收到本实例自己发布的事件时再统计一遍也不会改变计数。
+ *
+ * @author xiaoxin
+ * @since 1.0.0
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "iam.core.role-membership", name = "enabled", havingValue = "true", matchIfMissing = true)
+@RocketMQMessageListener(
+        topic = "${iam.core.role-membership.event-topic:iam_event_identity_change}",
+        consumerGroup = "${iam.core.role-membership.consumer-group:iam-core-role-membership}",
+        messageModel = MessageModel.BROADCASTING,
+        consumeMode = ConsumeMode.ORDERLY)
+public class RoleMembershipSyncListener implements RocketMQListener<MessageExt> {
+
+    private final DomainEventSubscriber subscriber;
+
+    public RoleMembershipSyncListener(RoleMembershipCounter roleMembershipCounter,
+                                      MessageSerializer messageSerializer) {
+        this.subscriber = new DomainEventSubscriber(messageSerializer)
+                .on(RoleChangedEvent.class, event -> {
+                    if (RoleChangedEvent.CHANGE_DEPTS.equals(event.getChangeType())
+                            || RoleChangedEvent.CHANGE_DELETED.equals(event.getChangeType())) {
+                        log.debug("同步角色变更到成员计数: type={}, roleIds={}", event.getChangeType(), event.getRoleIds());
+                        roleMembershipCounter.recount(event.getRoleIds());
+                    }
+                })
+                .on(UserChangedEvent.class, event -> {
+                    if (UserChangedEvent.CHANGE_ROLES.equals(event.getChangeType())) {
+                        Set<Long> roleIds = new LinkedHashSet<>(event.getAddedIds());
+                        roleIds.addAll(event.getRemovedIds());
+                        log.debug("同步用户角色变更到成员计数: userIds={}, roleIds={}", event.getUserIds(), roleIds);
+                        roleMembershipCounter.recount(roleIds);
+                    } else if (UserChangedEvent.CHANGE_CREATED.equals(event.getChangeType())) {
+                        // 批量导入的用户带有角色，按其当前持有的角色重新统计
+                        roleMembershipCounter.recountUsers(event.getUserIds());
+                    } else if (UserChangedEvent.CHANGE_DELETED.equals(event.getChangeType())) {
+                        // 删除后关联已清除，无法得知原有角色
+                        roleMembershipCounter.requestReload();
+                    }
+                })
+                // 无法解析的事件按最保守方式处理，全量对账
+                .onFailure(message -> roleMembershipCounter.requestReload());
+    }
+
+    @Override
+    public void onMessage(MessageExt message) {
+        subscriber.dispatch(message);
+    }
+}
@@ -0,0 +1,64 @@
+package com.xiaoxin.iam.core.listener;
+
+import java.util.Set;
+
+import org.apache.rocketmq.common.message.MessageExt;
+import org.apache.rocketmq.spring.annotation.ConsumeMode;
+import org.apache.rocketmq.spring.annotation.MessageModel;
+import org.apache.rocketmq.spring.annotation.RocketMQMessageListener;
+import org.apache.rocketmq.spring.core.RocketMQListener;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import com.xiaoxin.iam.core.search.UserSearchIndex;
+import com.xiaoxin.iam.starter.mq.event.DomainEventSubscriber;
+import com.xiaoxin.iam.starter.mq.event.identity.UserChangedEvent;
+import com.xiaoxin.iam.starter.mq.serialization.MessageSerializer;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 用户搜索索引同步监听器
+ * 消费用户变更事件，从数据库重新加载受影响的用户，使其他实例的写操作同步到本地索引。
+ * 广播且顺序消费：每个实例都收到全部事件，并按发布顺序重新加载。
+ *
+ * @author xiaoxin
+ * @since 1.0.0
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "iam.core.user-search", name = "enabled", havingValue = "true", matchIfMissing = true)
+@RocketMQMessageListener(
+        topic = "${iam.core.user-search.event-topic:iam_event_identity_change}",
+        consumerGroup = "${iam.core.user-search.consumer-group:iam-core-user-search}",
+        messageModel = MessageModel.BROADCASTING,
+        consumeMode = ConsumeMode.ORDERLY)
+public class UserSearchIndexSyncListener implements RocketMQListener<MessageExt> {
+
+    /**
+     * 影响搜索字段或状态的变更类型，密码与角色变更不需要同步
+     */
+    private static final Set<String> INDEXED_CHANGES = Set.of(
+            UserChangedEvent.CHANGE_CREATED,
+            UserChangedEvent.CHANGE_UPDATED,
+            UserChangedEvent.CHANGE_STATUS,
+            UserChangedEvent.CHANGE_DELETED);
+
+    private final DomainEventSubscriber subscriber;
+
+    public UserSearchIndexSyncListener(UserSearchIndex userSearchIndex, MessageSerializer messageSerializer) {
+        this.subscriber = new DomainEventSubscriber(messageSerializer)
+                .on(UserChangedEvent.class, event -> {
+                    if (INDEXED_CHANGES.contains(event.getChangeType())) {
+                        log.debug("同步用户变更到搜索索引: type={}, userIds={}", event.getChangeType(), event.getUserIds());
+                        userSearchIndex.onUsersChanged(event.getUserIds());
+                    }
+                })
+                .onFailure(message -> userSearchIndex.reload());
+    }
+
+    @Override
+    public void onMessage(MessageExt message) {
+        subscriber.dispatch(message);
+    }
+}
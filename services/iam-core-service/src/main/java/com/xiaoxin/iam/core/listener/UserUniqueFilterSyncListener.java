@@ -0,0 +1,63 @@
+package com.xiaoxin.iam.core.listener;
+
+import java.util.Set;
+
+import org.apache.rocketmq.common.message.MessageExt;
+import org.apache.rocketmq.spring.annotation.ConsumeMode;
+import org.apache.rocketmq.spring.annotation.MessageModel;
+import org.apache.rocketmq.spring.annotation.RocketMQMessageListener;
+import org.apache.rocketmq.spring.core.RocketMQListener;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import com.xiaoxin.iam.core.unique.UserUniqueFilter;
+import com.xiaoxin.iam.starter.mq.event.DomainEventSubscriber;
+import com.xiaoxin.iam.starter.mq.event.identity.UserChangedEvent;
+import com.xiaoxin.iam.starter.mq.serialization.MessageSerializer;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 用户唯一性预检过滤器同步监听器
+ * 消费用户新增与修改事件，从数据库读取受影响用户的用户名、邮箱、手机号写入本地过滤器，
+ * 使其他实例写入的值不会被误判为未占用。过滤器是实例内存结构，事件需广播到每个实例，按顺序消费。
+ *
+ * @author xiaoxin
+ * @since 1.0.0
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "iam.core.unique-filter", name = "enabled", havingValue = "true", matchIfMissing = true)
+@RocketMQMessageListener(
+        topic = "${iam.core.unique-filter.event-topic:iam_event_identity_change}",
+        consumerGroup = "${iam.core.unique-filter.consumer-group:iam-core-unique-filter}",
+        messageModel = MessageModel.BROADCASTING,
+        consumeMode = ConsumeMode.ORDERLY)
+public class UserUniqueFilterSyncListener implements RocketMQListener<MessageExt> {
+
+    /**
+     * 可能写入新唯一性字段值的变更类型；删除与停用只会留下旧值，由全量重建清除
+     */
+    private static final Set<String> WRITE_CHANGES = Set.of(
+            UserChangedEvent.CHANGE_CREATED,
+            UserChangedEvent.CHANGE_UPDATED);
+
+    private final DomainEventSubscriber subscriber;
+
+    public UserUniqueFilterSyncListener(UserUniqueFilter userUniqueFilter, MessageSerializer messageSerializer) {
+        this.subscriber = new DomainEventSubscriber(messageSerializer)
+                .on(UserChangedEvent.class, event -> {
+                    if (WRITE_CHANGES.contains(event.getChangeType())) {
+                        log.debug("同步用户变更到唯一性预检过滤器: type={}, userIds={}",
+                                event.getChangeType(), event.getUserIds());
+                        userUniqueFilter.onUsersChanged(event.getUserIds());
+                    }
+                })
+                .onFailure(message -> userUniqueFilter.reload());
+    }
+
+    @Override
+    public void onMessage(MessageExt message) {
+        subscriber.dispatch(message);
+    }
+}
@@ -0,0 +1,29 @@
+package com.xiaoxin.iam.core.mapper;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import com.xiaoxin.iam.core.scope.DataPermissionRow;
+
+/**
+ * 数据权限Mapper接口
+ *
+ * @author xiaoxin
+ * @since 1.0.0
+ */
+@Mapper
+public interface DataPermissionMapper {
+
+    /**
+     * 查询角色在资源上的有效数据权限
+     *
+     * @param roleIds 角色ID集合
+     * @param resource 资源类型
+     * @return 数据权限配置
+     */
+    List<DataPermissionRow> selectActiveByRoleIds(@Param("roleIds") Collection<Long> roleIds,
+                                                  @Param("resource") String resource);
+}
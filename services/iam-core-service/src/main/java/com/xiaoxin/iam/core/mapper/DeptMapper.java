@@ -0,0 +1,100 @@
+package com.xiaoxin.iam.core.mapper;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.xiaoxin.iam.core.dept.DeptClosure;
+import com.xiaoxin.iam.core.entity.Dept;
+
+/**
+ * 部门Mapper接口
+ *
+ * @author xiaoxin
+ * @since 1.0.0
+ */
+@Mapper
+public interface DeptMapper extends BaseMapper<Dept> {
+
+    /**
+     * 查询全部未删除部门的层级信息（ID、父部门ID、显示顺序）
+     *
+     * @return 部门列表
+     */
+    List<Dept> selectHierarchyNodes();
+
+    /**
+     * 批量更新部门祖级列表
+     *
+     * @param depts 部门ID与新的祖级列表
+     * @return 影响行数
+     */
+    int updateAncestors(@Param("depts") List<Dept> depts);
+
+    /**
+     * 统计闭包表行数
+     *
+     * @return 行数
+     */
+    long countClosureRows();
+
+    /**
+     * 清空闭包表
+     *
+     * @return 影响行数
+     */
+    int deleteAllClosureRows();
+
+    /**
+     * 批量插入闭包关系
+     *
+     * @param rows 闭包关系
+     * @return 影响行数
+     */
+    int insertClosureRows(@Param("rows") List<DeptClosure> rows);
+
+    /**
+     * 删除指定祖先与后代之间的闭包关系
+     *
+     * @param ancestorIds 祖先部门ID
+     * @param descendantIds 后代部门ID
+     * @return 影响行数
+     */
+    int deleteClosureRows(@Param("ancestorIds") Collection<Long> ancestorIds,
+                          @Param("descendantIds") Collection<Long> descendantIds);
+
+    /**
+     * 查询部门子树的闭包关系并加锁，部门移动时以此为准计算需要改写的行
+     *
+     * @param deptId 部门ID
+     * @return 子树内各部门（含自身）及其相对层级
+     */
+    List<DeptClosure> selectSubtreeForUpdate(@Param("deptId") Long deptId);
+
+    /**
+     * 查询部门的祖先部门ID并加锁，由根到近排列
+     *
+     * @param deptId 部门ID
+     * @return 部门ID列表（不含自身）
+     */
+    List<Long> selectAncestorIdsForUpdate(@Param("deptId") Long deptId);
+
+    /**
+     * 通过闭包表查询部门及其所有后代部门ID
+     *
+     * @param deptId 部门ID
+     * @return 部门ID列表（含自身）
+     */
+    List<Long> selectDescendantIds(@Param("deptId") Long deptId);
+
+    /**
+     * 通过闭包表查询部门的所有祖先部门ID，由根到近排列
+     *
+     * @param deptId 部门ID
+     * @return 部门ID列表（不含自身）
+     */
+    List<Long> selectAncestorIds(@Param("deptId") Long deptId);
+}
@@ -0,0 +1,36 @@
+package com.xiaoxin.iam.core.mapper;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import com.xiaoxin.iam.core.field.FieldPermissionRow;
+
+/**
+ * 字段权限Mapper接口
+ *
+ * @author xiaoxin
+ * @since 1.0.0
+ */
+@Mapper
+public interface FieldPermissionMapper {
+
+    /**
+     * 查询角色在资源上的有效字段权限
+     *
+     * @param roleIds 角色ID集合
+     * @param resource 资源类型
+     * @return 字段权限配置
+     */
+    List<FieldPermissionRow> selectActiveByRoleIds(@Param("roleIds") Collection<Long> roleIds,
+                                                   @Param("resource") String resource);
+
+    /**
+     * 查询字段权限表的内容摘要，任一行新增、删除或修改后结果随之变化
+     *
+     * @return 内容摘要
+     */
+    String selectVersion();
+}
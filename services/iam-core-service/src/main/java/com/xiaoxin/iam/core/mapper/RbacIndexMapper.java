@@ -0,0 +1,96 @@
+package com.xiaoxin.iam.core.mapper;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import com.xiaoxin.iam.core.entity.Menu;
+import com.xiaoxin.iam.core.entity.Permission;
+import com.xiaoxin.iam.core.entity.Role;
+import com.xiaoxin.iam.core.rbac.RbacRelation;
+import com.xiaoxin.iam.core.rbac.RoleMemberCount;
+
+/**
+ * RBAC内存索引加载Mapper
+ * 所有方法的ID集合参数为空时表示全量加载
+ *
+ * @author xiaoxin
+ * @since 1.0.0
+ */
+@Mapper
+public interface RbacIndexMapper {
+
+    /**
+     * 查询有效角色
+     *
+     * @param roleIds 角色ID集合
+     * @return 角色列表
+     */
+    List<Role> selectActiveRoles(@Param("roleIds") Collection<Long> roleIds);
+
+    /**
+     * 查询有效权限，按层级与排序号排列
+     *
+     * @param permissionIds 权限ID集合
+     * @return 权限列表
+     */
+    List<Permission> selectActivePermissions(@Param("permissionIds") Collection<Long> permissionIds);
+
+    /**
+     * 查询有效菜单，按父菜单与显示顺序排列
+     *
+     * @param menuIds 菜单ID集合
+     * @return 菜单列表
+     */
+    List<Menu> selectActiveMenus(@Param("menuIds") Collection<Long> menuIds);
+
+    /**
+     * 查询用户-角色关联
+     *
+     * @param userIds 用户ID集合
+     * @return 关联列表
+     */
+    List<RbacRelation> selectUserRoleRelations(@Param("userIds") Collection<Long> userIds);
+
+    /**
+     * 查询角色-权限关联
+     *
+     * @param roleIds 角色ID集合
+     * @return 关联列表
+     */
+    List<RbacRelation> selectRolePermissionRelations(@Param("roleIds") Collection<Long> roleIds);
+
+    /**
+     * 查询角色-菜单关联
+     *
+     * @param roleIds 角色ID集合
+     * @return 关联列表
+     */
+    List<RbacRelation> selectRoleMenuRelations(@Param("roleIds") Collection<Long> roleIds);
+
+    /**
+     * 按角色统计未删除用户数，没有用户的角色不返回
+     *
+     * @param roleIds 角色ID集合，为空时统计全部角色
+     * @return 角色成员数
+     */
+    List<RoleMemberCount> selectRoleUserCounts(@Param("roleIds") Collection<Long> roleIds);
+
+    /**
+     * 按角色统计未删除部门数，没有部门的角色不返回
+     *
+     * @param roleIds 角色ID集合，为空时统计全部角色
+     * @return 角色成员数
+     */
+    List<RoleMemberCount> selectRoleDeptCounts(@Param("roleIds") Collection<Long> roleIds);
+
+    /**
+     * 按角色统计指定用户持有的关联数，用于删除用户前计算各角色减少的成员数
+     *
+     * @param userIds 用户ID集合
+     * @return 角色成员数
+     */
+    List<RoleMemberCount> selectRoleUserCountsByUserIds(@Param("userIds") Collection<Long> userIds);
+}
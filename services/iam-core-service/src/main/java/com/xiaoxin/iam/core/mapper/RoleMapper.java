@@ -1,15 +1,19 @@
 package com.xiaoxin.iam.core.mapper;
 
+import java.util.Collection;
 import java.util.List;
 
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.session.ResultHandler;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.xiaoxin.iam.core.entity.Dept;
 import com.xiaoxin.iam.core.entity.Menu;
 import com.xiaoxin.iam.core.entity.Permission;
 import com.xiaoxin.iam.core.entity.Role;
+import com.xiaoxin.iam.core.vo.RoleExportRow;
+import com.xiaoxin.iam.starter.data.routing.ReadReplica;
 
 /**
  * 角色Mapper接口
@@ -119,6 +123,24 @@ public interface RoleMapper extends BaseMapper<Role> {
      */
     int deleteRolePermissions(@Param("roleId") Long roleId);
 
+    /**
+     * 查询角色当前关联的权限ID，并锁定这些关联行
+     * 同一角色的并发分配在此串行化，保证差异计算基于最新数据
+     *
+     * @param roleId 角色ID
+     * @return 权限ID列表
+     */
+    List<Long> selectRolePermissionIdsForUpdate(@Param("roleId") Long roleId);
+
+    /**
+     * 删除角色的指定权限关联
+     *
+     * @param roleId 角色ID
+     * @param permissionIds 权限ID列表
+     * @return 影响行数
+     */
+    int deleteRolePermissionLinks(@Param("roleId") Long roleId, @Param("permissionIds") List<Long> permissionIds);
+
     /**
      * 插入角色菜单关联
      *
@@ -136,6 +158,23 @@ public interface RoleMapper extends BaseMapper<Role> {
      */
     int deleteRoleMenus(@Param("roleId") Long roleId);
 
+    /**
+     * 查询角色当前关联的菜单ID，并锁定这些关联行
+     *
+     * @param roleId 角色ID
+     * @return 菜单ID列表
+     */
+    List<Long> selectRoleMenuIdsForUpdate(@Param("roleId") Long roleId);
+
+    /**
+     * 删除角色的指定菜单关联
+     *
+     * @param roleId 角色ID
+     * @param menuIds 菜单ID列表
+     * @return 影响行数
+     */
+    int deleteRoleMenuLinks(@Param("roleId") Long roleId, @Param("menuIds") List<Long> menuIds);
+
     /**
      * 插入角色部门关联
      *
@@ -152,4 +191,103 @@ public interface RoleMapper extends BaseMapper<Role> {
      * @return 影响行数
      */
     int deleteRoleDepts(@Param("roleId") Long roleId);
+
+    /**
+     * 查询角色当前关联的部门ID，并锁定这些关联行
+     *
+     * @param roleId 角色ID
+     * @return 部门ID列表
+     */
+    List<Long> selectRoleDeptIdsForUpdate(@Param("roleId") Long roleId);
+
+    /**
+     * 删除角色的指定部门关联
+     *
+     * @param roleId 角色ID
+     * @param deptIds 部门ID列表
+     * @return 影响行数
+     */
+    int deleteRoleDeptLinks(@Param("roleId") Long roleId, @Param("deptIds") List<Long> deptIds);
+
+    /**
+     * 估算角色表行数
+     * 读取 information_schema 中的表统计信息，不扫描数据，结果包含逻辑删除的记录
+     *
+     * @return 估算行数
+     */
+    Long selectEstimatedRowCount();
+
+    /**
+     * 流式导出未删除角色（含用户数与权限编码），按显示顺序逐行交给处理器
+     *
+     * @param query 过滤条件（角色名称、角色标识模糊匹配，状态精确匹配）
+     * @param handler 逐行处理器
+     */
+    @ReadReplica
+    void streamExportRows(@Param("query") Role query, ResultHandler<RoleExportRow> handler);
+
+    /**
+     * 按ID批量查询未删除角色的ID与角色标识
+     *
+     * @param roleIds 角色ID集合
+     * @return 角色列表
+     */
+    List<Role> selectActiveRolesByIds(@Param("roleIds") Collection<Long> roleIds);
+
+    /**
+     * 查询仍被未删除用户使用的角色ID
+     *
+     * @param roleIds 角色ID集合
+     * @return 被使用的角色ID
+     */
+    List<Long> selectRoleIdsInUse(@Param("roleIds") Collection<Long> roleIds);
+
+    /**
+     * 批量逻辑删除角色
+     *
+     * @param roleIds 角色ID集合
+     * @return 影响行数
+     */
+    int logicDeleteRoles(@Param("roleIds") Collection<Long> roleIds);
+
+    /**
+     * 批量更新角色状态
+     *
+     * @param roleIds 角色ID集合
+     * @param status 状态
+     * @return 影响行数
+     */
+    int updateRolesStatus(@Param("roleIds") Collection<Long> roleIds, @Param("status") String status);
+
+    /**
+     * 批量删除角色用户关联
+     *
+     * @param roleIds 角色ID集合
+     * @return 影响行数
+     */
+    int deleteUserRolesByRoleIds(@Param("roleIds") Collection<Long> roleIds);
+
+    /**
+     * 批量删除角色权限关联
+     *
+     * @param roleIds 角色ID集合
+     * @return 影响行数
+     */
+    int deleteRolePermissionsByRoleIds(@Param("roleIds") Collection<Long> roleIds);
+
+    /**
+     * 批量删除角色菜单关联
+     *
+     * @param roleIds 角色ID集合
+     * @return 影响行数
+     */
+    int deleteRoleMenusByRoleIds(@Param("roleIds") Collection<Long> roleIds);
+
+    /**
+     * 批量删除角色部门关联
+     *
+     * @param roleIds 角色ID集合
+     * @return 影响行数
+     */
+    int deleteRoleDeptsByRoleIds(@Param("roleIds") Collection<Long> roleIds);
 }
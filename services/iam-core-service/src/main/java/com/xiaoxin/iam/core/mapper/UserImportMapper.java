@@ -0,0 +1,65 @@
+package com.xiaoxin.iam.core.mapper;
+
+import java.util.List;
+
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.session.ResultHandler;
+
+import com.xiaoxin.iam.core.entity.User;
+import com.xiaoxin.iam.core.rbac.RbacRelation;
+
+/**
+ * 用户批量导入Mapper
+ *
+ * @author xiaoxin
+ * @since 1.0.0
+ */
+@Mapper
+public interface UserImportMapper {
+
+    /**
+     * 流式读取全部用户的唯一性字段（用户名、邮箱、手机号、删除标志）
+     *
+     * @param handler 逐行处理器
+     */
+    void streamUniqueKeys(ResultHandler<User> handler);
+
+    /**
+     * 查询未删除的角色ID
+     *
+     * @return 角色ID列表
+     */
+    List<Long> selectRoleIds();
+
+    /**
+     * 查询未删除的部门ID
+     *
+     * @return 部门ID列表
+     */
+    List<Long> selectDeptIds();
+
+    /**
+     * 多行插入用户，ID由调用方预先生成
+     *
+     * @param users 用户列表
+     * @return 影响行数
+     */
+    int insertUsers(@Param("users") List<User> users);
+
+    /**
+     * 多行插入用户角色关联
+     *
+     * @param relations 用户-角色关联
+     * @return 影响行数
+     */
+    int insertUserRoles(@Param("relations") List<RbacRelation> relations);
+
+    /**
+     * 多行插入用户部门关联
+     *
+     * @param relations 用户-部门关联
+     * @return 影响行数
+     */
+    int insertUserDepts(@Param("relations") List<RbacRelation> relations);
+}
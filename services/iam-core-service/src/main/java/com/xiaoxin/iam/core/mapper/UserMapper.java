@@ -1,24 +1,38 @@
 package com.xiaoxin.iam.core.mapper;
 
+import java.util.Collection;
 import java.util.List;
 
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.session.ResultHandler;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.xiaoxin.iam.common.dto.UserDTO;
+import com.xiaoxin.iam.core.constant.CoreConstants;
 import com.xiaoxin.iam.core.entity.Dept;
 import com.xiaoxin.iam.core.entity.Menu;
 import com.xiaoxin.iam.core.entity.Permission;
 import com.xiaoxin.iam.core.entity.Role;
 import com.xiaoxin.iam.core.entity.User;
+import com.xiaoxin.iam.core.rbac.UserAuthority;
+import com.xiaoxin.iam.core.vo.UserExportRow;
+import com.xiaoxin.iam.starter.data.routing.ReadReplica;
+import com.xiaoxin.iam.starter.data.scope.DataScope;
 
 /**
  * 用户Mapper接口
+ * 用户列表查询（条件分页、游标分页及其计数）与导出按当前用户的数据权限过滤；
+ * 分页列表、计数与导出可容忍短暂的复制延迟，启用读写分离时路由到只读副本
  *
  * @author xiaoxin
  * @since 1.0.0
  */
 @Mapper
+@DataScope(resource = CoreConstants.RESOURCE_USER, userColumn = "id",
+        deptLinkTable = "sys_user_dept", deptLinkColumn = "user_id",
+        statements = {"selectPage", "selectList", "selectCount", "streamExportRows"})
+@ReadReplica(statements = {"selectPage", "selectCount", "selectEstimatedRowCount", "streamExportRows"})
 public interface UserMapper extends BaseMapper<User> {
 
     /**
@@ -37,8 +51,17 @@ public interface UserMapper extends BaseMapper<User> {
      */
     User selectUserByUsername(@Param("username") String username);
 
+    /**
+     * 根据用户名查询认证档案（用户信息、角色标识、权限编码），单次查询完成
+     *
+     * @param username 用户名
+     * @return 认证档案
+     */
+    UserDTO selectAuthProfileByUsername(@Param("username") String username);
+
     /**
      * 查询用户角色列表
+     * 数据权限规则与字段策略据此编译，读主库，不走副本
      *
      * @param userId 用户ID
      * @return 角色列表
@@ -47,6 +70,7 @@ public interface UserMapper extends BaseMapper<User> {
 
     /**
      * 查询用户部门列表
+     * 数据权限规则按所属部门编译，读主库，角色或部门刚调整后不会读到旧数据
      *
      * @param userId 用户ID
      * @return 部门列表
@@ -55,6 +79,7 @@ public interface UserMapper extends BaseMapper<User> {
 
     /**
      * 查询用户权限列表
+     * 用于权限判定，读主库，副本延迟期间不会沿用已撤销的权限
      *
      * @param userId 用户ID
      * @return 权限列表
@@ -67,6 +92,7 @@ public interface UserMapper extends BaseMapper<User> {
      * @param userId 用户ID
      * @return 菜单列表
      */
+    @ReadReplica
     List<Menu> selectUserMenus(@Param("userId") Long userId);
 
     /**
@@ -113,6 +139,24 @@ public interface UserMapper extends BaseMapper<User> {
      */
     int deleteUserRoles(@Param("userId") Long userId);
 
+    /**
+     * 查询用户当前关联的角色ID，并锁定这些关联行
+     * 同一用户的并发分配在此串行化，保证差异计算基于最新数据
+     *
+     * @param userId 用户ID
+     * @return 角色ID列表
+     */
+    List<Long> selectUserRoleIdsForUpdate(@Param("userId") Long userId);
+
+    /**
+     * 删除用户的指定角色关联
+     *
+     * @param userId 用户ID
+     * @param roleIds 角色ID列表
+     * @return 影响行数
+     */
+    int deleteUserRoleLinks(@Param("userId") Long userId, @Param("roleIds") List<Long> roleIds);
+
     /**
      * 插入用户部门关联
      *
@@ -129,4 +173,102 @@ public interface UserMapper extends BaseMapper<User> {
      * @return 影响行数
      */
     int deleteUserDepts(@Param("userId") Long userId);
+
+    /**
+     * 查询用户当前关联的部门ID，并锁定这些关联行
+     *
+     * @param userId 用户ID
+     * @return 部门ID列表
+     */
+    List<Long> selectUserDeptIdsForUpdate(@Param("userId") Long userId);
+
+    /**
+     * 删除用户的指定部门关联
+     *
+     * @param userId 用户ID
+     * @param deptIds 部门ID列表
+     * @return 影响行数
+     */
+    int deleteUserDeptLinks(@Param("userId") Long userId, @Param("deptIds") List<Long> deptIds);
+
+    /**
+     * 按ID批量查询未删除用户的认证信息，不含角色与权限
+     *
+     * @param userIds 用户ID集合
+     * @return 用户列表，顺序不保证
+     */
+    List<UserDTO> selectAuthUsersByIds(@Param("userIds") Collection<Long> userIds);
+
+    /**
+     * 按用户名批量查询未删除用户的认证信息，不含角色与权限
+     *
+     * @param usernames 用户名集合
+     * @return 用户列表，顺序不保证
+     */
+    List<UserDTO> selectAuthUsersByUsernames(@Param("usernames") Collection<String> usernames);
+
+    /**
+     * 批量查询用户的有效角色标识与权限编码，按用户、类型、显示顺序排列
+     *
+     * @param userIds 用户ID集合
+     * @return 每行只有角色标识或权限编码之一非空
+     */
+    List<UserAuthority> selectAuthoritiesByUserIds(@Param("userIds") Collection<Long> userIds);
+
+    /**
+     * 估算用户表行数
+     * 读取 information_schema 中的表统计信息，不扫描数据，结果包含逻辑删除的记录
+     *
+     * @return 估算行数
+     */
+    Long selectEstimatedRowCount();
+
+    /**
+     * 流式导出未删除用户（含角色标识与部门名称），按主键顺序逐行交给处理器
+     *
+     * @param query 过滤条件（用户名、昵称、邮箱、手机号模糊匹配，状态精确匹配）
+     * @param handler 逐行处理器
+     */
+    void streamExportRows(@Param("query") User query, ResultHandler<UserExportRow> handler);
+
+    /**
+     * 按ID批量查询未删除用户的ID与用户名
+     *
+     * @param userIds 用户ID集合
+     * @return 用户列表
+     */
+    List<User> selectActiveUsersByIds(@Param("userIds") Collection<Long> userIds);
+
+    /**
+     * 批量逻辑删除用户
+     *
+     * @param userIds 用户ID集合
+     * @return 影响行数
+     */
+    int logicDeleteUsers(@Param("userIds") Collection<Long> userIds);
+
+    /**
+     * 批量更新用户状态
+     *
+     * @param userIds 用户ID集合
+     * @param status 状态
+     * @return 影响行数
+     */
+    int updateUsersStatus(@Param("userIds") Collection<Long> userIds, @Param("status") String status);
+
+    /**
+     * 批量删除用户角色关联
+     *
+     * @param userIds 用户ID集合
+     * @return 影响行数
+     */
+    int deleteUserRolesByUserIds(@Param("userIds") Collection<Long> userIds);
+
+    /**
+     * 批量删除用户部门关联
+     *
+     * @param userIds 用户ID集合
+     * @return 影响行数
+     */
+    int deleteUserDeptsByUserIds(@Param("userIds") Collection<Long> userIds);
 }
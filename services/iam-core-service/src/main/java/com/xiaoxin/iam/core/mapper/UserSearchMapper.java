@@ -0,0 +1,35 @@
+package com.xiaoxin.iam.core.mapper;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.session.ResultHandler;
+
+import com.xiaoxin.iam.core.search.UserSearchDocument;
+
+/**
+ * 用户搜索索引加载Mapper
+ *
+ * @author xiaoxin
+ * @since 1.0.0
+ */
+@Mapper
+public interface UserSearchMapper {
+
+    /**
+     * 流式读取全部未删除用户的搜索文档，按ID升序
+     *
+     * @param handler 逐行处理器
+     */
+    void streamSearchDocuments(ResultHandler<UserSearchDocument> handler);
+
+    /**
+     * 按ID查询未删除用户的搜索文档
+     *
+     * @param userIds 用户ID集合
+     * @return 搜索文档列表
+     */
+    List<UserSearchDocument> selectSearchDocuments(@Param("userIds") Collection<Long> userIds);
+}
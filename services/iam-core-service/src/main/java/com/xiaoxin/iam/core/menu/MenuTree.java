@@ -0,0 +1,17 @@
+package com.xiaoxin.iam.core.menu;
+
+import java.util.List;
+
+import com.xiaoxin.iam.core.vo.MenuVO;
+
+/**
+ * 组装完成的菜单树
+ * 同一角色组合的用户共享同一实例，调用方不得修改节点
+ *
+ * @param etag 内容摘要，菜单树内容不变时保持不变，可直接用作 HTTP ETag
+ * @param menus 顶层菜单，子菜单挂在 children 上
+ * @author xiaoxin
+ * @since 1.0.0
+ */
+public record MenuTree(String etag, List<MenuVO> menus) {
+}
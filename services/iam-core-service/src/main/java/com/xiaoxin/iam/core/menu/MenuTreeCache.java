@@ -0,0 +1,414 @@
+package com.xiaoxin.iam.core.menu;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.xiaoxin.iam.core.config.MenuTreeProperties;
+import com.xiaoxin.iam.core.entity.Menu;
+import com.xiaoxin.iam.core.mapper.RbacIndexMapper;
+import com.xiaoxin.iam.core.rbac.RbacRelation;
+import com.xiaoxin.iam.core.support.ReloadableIndex;
+import com.xiaoxin.iam.core.vo.MenuVO;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 菜单树缓存
+ * <p>
+ * 启动时加载全部有效菜单，按父菜单ID建立子菜单索引（每层已按显示顺序排好），
+ * 组装菜单树只需从根节点出发遍历一次，耗时与菜单数量成线性关系：
+ * </p>
+ * <ul>
+ *     <li>按角色组合缓存裁剪后的菜单树，角色相同的用户共享同一棵树及其ETag</li>
+ *     <li>缓存的树记录组装时引用的角色菜单集合，某个角色的菜单分配变化后，
+ *     只有包含该角色的组合在下次访问时重建</li>
+ *     <li>定期全量重建时逐个比较菜单内容，只丢弃授权了变化菜单的组合</li>
+ * </ul>
+ * <p>
+ * 按钮（F）属于权限点，不进入菜单树；父菜单未授权时其下的子菜单一并裁剪。
+ * </p>
+ *
+ * @author xiaoxin
+ * @since 1.0.0
+ */
+@Slf4j
+@Component
+public class MenuTreeCache extends ReloadableIndex {
+
+    private static final Long ROOT_ID = 0L;
+
+    private static final Set<Long> NO_MENUS = Collections.emptySet();
+
+    private static final Comparator<Menu> DISPLAY_ORDER = Comparator
+            .comparing(Menu::getOrderNum, Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(Menu::getId);
+
+    private final RbacIndexMapper rbacIndexMapper;
+
+    private final MenuTreeProperties properties;
+
+    private Cache<String, Entry> trees;
+
+    /**
+     * 角色ID -> 菜单ID集合，集合发布后不再修改，变化时整体替换
+     */
+    private final Map<Long, Set<Long>> roleMenus = new ConcurrentHashMap<>();
+
+    /**
+     * 当前菜单索引，为 null 表示尚未加载完成
+     */
+    private volatile MenuIndex index;
+
+    public MenuTreeCache(RbacIndexMapper rbacIndexMapper, MenuTreeProperties properties) {
+        super("菜单树缓存", "menu-tree-reloader");
+        this.rbacIndexMapper = rbacIndexMapper;
+        this.properties = properties;
+    }
+
+    @Override
+    protected boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    @Override
+    protected Duration reloadInterval() {
+        return properties.getReloadInterval();
+    }
+
+    @Override
+    protected String fallbackDescription() {
+        return "菜单树将按请求现场组装";
+    }
+
+    @Override
+    protected void initialize() {
+        trees = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxRoleSets())
+                .build();
+    }
+
+    /**
+     * 缓存是否可用，不可用时调用方应按用户菜单现场组装
+     */
+    public boolean isReady() {
+        return index != null;
+    }
+
+    // ==================== 查询 ====================
+
+    /**
+     * 查询角色组合对应的菜单树
+     *
+     * @param roleIds 用户的有效角色ID
+     * @return 菜单树
+     */
+    public MenuTree getTree(Collection<Long> roleIds) {
+        MenuIndex current = index;
+        if (current == null) {
+            throw new IllegalStateException("菜单树缓存尚未加载");
+        }
+        long[] roles = roleIds == null ? new long[0]
+                : roleIds.stream().filter(Objects::nonNull).mapToLong(Long::longValue).distinct().sorted().toArray();
+        String key = Arrays.toString(roles);
+        Entry entry = trees.getIfPresent(key);
+        if (entry != null && entry.isValid(current, roleMenus)) {
+            return entry.tree();
+        }
+
+        // 先取定各角色的菜单集合再组装，校验时按引用比较即可判断是否过期
+        List<Set<Long>> links = new ArrayList<>(roles.length);
+        Set<Long> granted = new HashSet<>();
+        for (long roleId : roles) {
+            Set<Long> menuIds = roleMenus.getOrDefault(roleId, NO_MENUS);
+            links.add(menuIds);
+            granted.addAll(menuIds);
+        }
+        MenuTree tree = assemble(current, granted::contains);
+        trees.put(key, new Entry(current, roles, links, granted, tree));
+        return tree;
+    }
+
+    /**
+     * 将一组菜单组装为树，用于缓存不可用时的现场组装
+     *
+     * @param menus 用户可见的菜单
+     * @return 菜单树
+     */
+    public static MenuTree assemble(List<Menu> menus) {
+        return assemble(MenuIndex.of(menus), menuId -> true);
+    }
+
+    private static MenuTree assemble(MenuIndex index, Predicate<Long> granted) {
+        MessageDigest digest = sha256();
+        List<MenuVO> menus = children(index, ROOT_ID, granted, digest);
+        return new MenuTree("\"" + HexFormat.of().formatHex(digest.digest(), 0, 16) + "\"", menus);
+    }
+
+    /**
+     * 组装某个节点下已授权的子树，每个菜单只有一个父节点，遍历中每个菜单至多访问一次
+     */
+    private static List<MenuVO> children(MenuIndex index, Long parentId, Predicate<Long> granted,
+                                         MessageDigest digest) {
+        List<Menu> candidates = index.children().get(parentId);
+        if (candidates == null) {
+            return Collections.emptyList();
+        }
+        List<MenuVO> nodes = new ArrayList<>(candidates.size());
+        for (Menu menu : candidates) {
+            if (Menu.MenuType.BUTTON.getCode().equals(menu.getMenuType()) || !granted.test(menu.getId())) {
+                continue;
+            }
+            MenuVO node = toVO(menu, digest);
+            digest.update((byte) '{');
+            List<MenuVO> subtree = children(index, menu.getId(), granted, digest);
+            digest.update((byte) '}');
+            if (!subtree.isEmpty()) {
+                node.setChildren(subtree);
+            }
+            nodes.add(node);
+        }
+        return Collections.unmodifiableList(nodes);
+    }
+
+    /**
+     * 转换为视图对象，同时把输出的字段计入内容摘要
+     */
+    private static MenuVO toVO(Menu menu, MessageDigest digest) {
+        MenuVO node = new MenuVO();
+        node.setId(menu.getId());
+        node.setParentId(menu.getParentId());
+        node.setMenuName(menu.getMenuName());
+        node.setOrderNum(menu.getOrderNum());
+        node.setPath(menu.getPath());
+        node.setComponent(menu.getComponent());
+        node.setQuery(menu.getQuery());
+        node.setIsFrame(menu.getIsFrame());
+        node.setIsCache(menu.getIsCache());
+        node.setMenuType(menu.getMenuType());
+        node.setVisible(menu.getVisible());
+        node.setStatus(menu.getStatus());
+        node.setPerms(menu.getPerms());
+        node.setIcon(menu.getIcon());
+        node.setRemark(menu.getRemark());
+        for (Object value : new Object[] {menu.getId(), menu.getParentId(), menu.getMenuName(), menu.getOrderNum(),
+                menu.getPath(), menu.getComponent(), menu.getQuery(), menu.getIsFrame(), menu.getIsCache(),
+                menu.getMenuType(), menu.getVisible(), menu.getStatus(), menu.getPerms(), menu.getIcon(),
+                menu.getRemark()}) {
+            digest.update(String.valueOf(value).getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+        }
+        return node;
+    }
+
+    // ==================== 增量更新 ====================
+
+    /**
+     * 角色菜单已重新分配
+     */
+    public void onRoleMenusAssigned(Long roleId, List<Long> menuIds) {
+        afterCommit(() -> {
+            if (index == null) {
+                return;
+            }
+            ensureMenus(menuIds);
+            putRoleMenus(roleId, menuIds);
+        });
+    }
+
+    /**
+     * 角色状态或菜单关联发生变化，从数据库重新加载这些角色的菜单
+     */
+    public void onRolesChanged(Collection<Long> roleIds) {
+        if (roleIds == null || roleIds.isEmpty()) {
+            return;
+        }
+        afterCommit(() -> {
+            if (index == null) {
+                return;
+            }
+            Map<Long, List<Long>> menuIds = group(rbacIndexMapper.selectRoleMenuRelations(roleIds));
+            ensureMenus(menuIds.values().stream().flatMap(List::stream).toList());
+            for (Long roleId : roleIds) {
+                putRoleMenus(roleId, menuIds.get(roleId));
+            }
+        });
+    }
+
+    /**
+     * 全量重建，菜单内容未变化的组合继续使用已缓存的树
+     */
+    @Override
+    public synchronized void reload() {
+        MenuIndex next = MenuIndex.of(rbacIndexMapper.selectActiveMenus(null));
+        Map<Long, List<Long>> relations = group(rbacIndexMapper.selectRoleMenuRelations(null));
+        MenuIndex previous = index;
+        Set<Long> changed = previous == null ? Collections.emptySet() : next.changedSince(previous);
+        roleMenus.keySet().removeIf(roleId -> !relations.containsKey(roleId));
+        relations.forEach(this::putRoleMenus);
+        replaceIndex(next, changed);
+        log.info("菜单树缓存已全量加载: {}个菜单, {}个角色, {}个菜单有变化",
+                next.menus().size(), relations.size(), changed.size());
+    }
+
+    /**
+     * 替换角色菜单集合，内容不变时保留原集合，使已缓存的树继续有效
+     */
+    private void putRoleMenus(Long roleId, List<Long> menuIds) {
+        Set<Long> next = menuIds == null ? NO_MENUS
+                : Set.copyOf(menuIds.stream().filter(Objects::nonNull).toList());
+        Set<Long> previous = roleMenus.get(roleId);
+        if (next.isEmpty()) {
+            roleMenus.remove(roleId);
+        } else if (!next.equals(previous)) {
+            roleMenus.put(roleId, next);
+        }
+    }
+
+    /**
+     * 补充索引中缺失的菜单（加载后新建的菜单），停用或删除的菜单保持缺失
+     */
+    private void ensureMenus(Collection<Long> menuIds) {
+        MenuIndex current = index;
+        if (menuIds == null || current == null) {
+            return;
+        }
+        List<Long> missing = menuIds.stream()
+                .filter(id -> id != null && !current.menus().containsKey(id))
+                .distinct()
+                .toList();
+        if (missing.isEmpty()) {
+            return;
+        }
+        List<Menu> loaded = rbacIndexMapper.selectActiveMenus(missing);
+        if (!loaded.isEmpty()) {
+            Set<Long> added = new HashSet<>();
+            loaded.forEach(menu -> added.add(menu.getId()));
+            replaceIndex(current.with(loaded), added);
+        }
+    }
+
+    /**
+     * 发布新的菜单索引：授权了变化菜单的组合直接丢弃，其余组合迁移到新索引继续使用
+     */
+    private void replaceIndex(MenuIndex next, Set<Long> changed) {
+        MenuIndex previous = index;
+        index = next;
+        if (previous == null) {
+            return;
+        }
+        Map<String, Entry> cached = trees.asMap();
+        if (!changed.isEmpty()) {
+            cached.values().removeIf(entry -> !Collections.disjoint(changed, entry.granted()));
+        }
+        cached.replaceAll((key, entry) -> entry.index() == previous ? entry.withIndex(next) : entry);
+    }
+
+    private static Map<Long, List<Long>> group(List<RbacRelation> relations) {
+        Map<Long, List<Long>> grouped = new HashMap<>();
+        for (RbacRelation relation : relations) {
+            grouped.computeIfAbsent(relation.getOwnerId(), key -> new ArrayList<>()).add(relation.getTargetId());
+        }
+        return grouped;
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 不可用", e);
+        }
+    }
+
+    /**
+     * 缓存的菜单树及组装时引用的索引与角色菜单集合
+     */
+    private record Entry(MenuIndex index, long[] roleIds, List<Set<Long>> links, Set<Long> granted,
+                         MenuTree tree) {
+
+        boolean isValid(MenuIndex currentIndex, Map<Long, Set<Long>> currentLinks) {
+            if (index != currentIndex) {
+                return false;
+            }
+            for (int i = 0; i < roleIds.length; i++) {
+                if (currentLinks.getOrDefault(roleIds[i], NO_MENUS) != links.get(i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        Entry withIndex(MenuIndex next) {
+            return new Entry(next, roleIds, links, granted, tree);
+        }
+    }
+
+    /**
+     * 菜单索引：菜单ID -> 菜单，父菜单ID -> 按显示顺序排列的子菜单，发布后不再修改
+     */
+    private record MenuIndex(Map<Long, Menu> menus, Map<Long, List<Menu>> children) {
+
+        static MenuIndex of(Collection<Menu> menus) {
+            Map<Long, Menu> byId = new HashMap<>(menus.size() * 2);
+            for (Menu menu : menus) {
+                byId.put(menu.getId(), menu);
+            }
+            return build(byId);
+        }
+
+        MenuIndex with(Collection<Menu> more) {
+            Map<Long, Menu> byId = new HashMap<>(menus);
+            for (Menu menu : more) {
+                byId.put(menu.getId(), menu);
+            }
+            return build(byId);
+        }
+
+        /**
+         * 与旧索引相比新增、删除或内容变化的菜单
+         */
+        Set<Long> changedSince(MenuIndex previous) {
+            Set<Long> changed = new HashSet<>();
+            menus.forEach((id, menu) -> {
+                if (!menu.equals(previous.menus().get(id))) {
+                    changed.add(id);
+                }
+            });
+            previous.menus().keySet().forEach(id -> {
+                if (!menus.containsKey(id)) {
+                    changed.add(id);
+                }
+            });
+            return changed;
+        }
+
+        private static MenuIndex build(Map<Long, Menu> byId) {
+            Map<Long, List<Menu>> children = new HashMap<>();
+            for (Menu menu : byId.values()) {
+                Long parentId = menu.getParentId() != null ? menu.getParentId() : ROOT_ID;
+                children.computeIfAbsent(parentId, key -> new ArrayList<>()).add(menu);
+            }
+            children.values().forEach(siblings -> siblings.sort(DISPLAY_ORDER));
+            return new MenuIndex(Collections.unmodifiableMap(byId), children);
+        }
+    }
+}
@@ -0,0 +1,421 @@
+package com.xiaoxin.iam.core.rbac;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import org.springframework.stereotype.Component;
+
+import com.xiaoxin.iam.core.config.RbacIndexProperties;
+import com.xiaoxin.iam.core.entity.Menu;
+import com.xiaoxin.iam.core.entity.Permission;
+import com.xiaoxin.iam.core.entity.Role;
+import com.xiaoxin.iam.core.mapper.RbacIndexMapper;
+import com.xiaoxin.iam.core.support.ReloadableIndex;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * RBAC内存索引
+ * <p>
+ * 启动时加载有效的角色、权限、菜单及其关联关系，权限与菜单按加载顺序编码为连续整数，
+ * 每个角色的权限集合/菜单集合以位图存储：
+ * </p>
+ * <ul>
+ *     <li>用户有效权限 = 用户所有有效角色位图的按位或，结果按用户缓存</li>
+ *     <li>角色授权、用户分配角色等写操作在事务提交后增量更新索引，读操作不访问数据库</li>
+ *     <li>其他实例的写操作通过身份变更事件同步，定期全量重建兜底库外修改</li>
+ * </ul>
+ * <p>
+ * 角色位图与用户角色数组发布后不再修改，增量更新总是整体替换，读取无需加锁。
+ * </p>
+ *
+ * @author xiaoxin
+ * @since 1.0.0
+ */
+@Slf4j
+@Component
+public class RbacIndex extends ReloadableIndex {
+
+    private static final long[] NO_ROLES = new long[0];
+
+    private final RbacIndexMapper rbacIndexMapper;
+
+    private final RbacIndexProperties properties;
+
+    /**
+     * 当前索引，为 null 表示尚未加载完成
+     */
+    private volatile State state;
+
+    public RbacIndex(RbacIndexMapper rbacIndexMapper, RbacIndexProperties properties) {
+        super("RBAC内存索引", "rbac-index-reloader");
+        this.rbacIndexMapper = rbacIndexMapper;
+        this.properties = properties;
+    }
+
+    @Override
+    protected boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    @Override
+    protected Duration reloadInterval() {
+        return properties.getReloadInterval();
+    }
+
+    @Override
+    protected String fallbackDescription() {
+        return "权限查询将直接访问数据库";
+    }
+
+    /**
+     * 索引是否可用，不可用时调用方应回退到数据库查询
+     */
+    public boolean isReady() {
+        return state != null;
+    }
+
+    // ==================== 查询 ====================
+
+    /**
+     * 查询用户的有效角色，按显示顺序排列
+     */
+    public List<Role> getUserRoles(Long userId) {
+        State current = requireState();
+        List<Role> roles = new ArrayList<>();
+        for (long roleId : current.userRoles.getOrDefault(userId, NO_ROLES)) {
+            Role role = current.roles.get(roleId);
+            if (role != null) {
+                roles.add(role);
+            }
+        }
+        roles.sort(Comparator.comparing(Role::getRoleSort, Comparator.nullsLast(Comparator.naturalOrder())));
+        return roles;
+    }
+
+    /**
+     * 查询用户的有效权限
+     */
+    public List<Permission> getUserPermissions(Long userId) {
+        State current = requireState();
+        return current.permissions.decode(effectivePermissions(current, userId));
+    }
+
+    /**
+     * 查询用户的有效菜单
+     */
+    public List<Menu> getUserMenus(Long userId) {
+        State current = requireState();
+        return current.menus.decode(effectiveMenus(current, userId));
+    }
+
+    /**
+     * 判定用户是否拥有指定权限：一次字典查找加一次位测试
+     */
+    public boolean hasPermission(Long userId, String permissionCode) {
+        State current = requireState();
+        Integer index = current.permissions.indexByKey().get(permissionCode);
+        return index != null && effectivePermissions(current, userId).get(index);
+    }
+
+    private BitSet effectivePermissions(State current, Long userId) {
+        return current.userPermissionCache.computeIfAbsent(userId,
+                id -> union(current, id, current.rolePermissions));
+    }
+
+    private BitSet effectiveMenus(State current, Long userId) {
+        return current.userMenuCache.computeIfAbsent(userId,
+                id -> union(current, id, current.roleMenus));
+    }
+
+    private static BitSet union(State current, Long userId, Map<Long, BitSet> roleBits) {
+        BitSet bits = new BitSet();
+        for (long roleId : current.userRoles.getOrDefault(userId, NO_ROLES)) {
+            if (!current.roles.containsKey(roleId)) {
+                continue;
+            }
+            BitSet roleSet = roleBits.get(roleId);
+            if (roleSet != null) {
+                bits.or(roleSet);
+            }
+        }
+        return bits;
+    }
+
+    // ==================== 增量更新 ====================
+
+    /**
+     * 角色权限已重新分配
+     */
+    public void onRolePermissionsAssigned(Long roleId, List<Long> permissionIds) {
+        afterCommit(() -> {
+            State current = state;
+            if (current == null) {
+                return;
+            }
+            current.ensurePermissions(permissionIds, rbacIndexMapper);
+            current.rolePermissions.put(roleId, current.permissions.encode(permissionIds));
+            current.userPermissionCache.clear();
+        });
+    }
+
+    /**
+     * 角色菜单已重新分配
+     */
+    public void onRoleMenusAssigned(Long roleId, List<Long> menuIds) {
+        afterCommit(() -> {
+            State current = state;
+            if (current == null) {
+                return;
+            }
+            current.ensureMenus(menuIds, rbacIndexMapper);
+            current.roleMenus.put(roleId, current.menus.encode(menuIds));
+            current.userMenuCache.clear();
+        });
+    }
+
+    /**
+     * 用户角色已重新分配
+     */
+    public void onUserRolesAssigned(Long userId, List<Long> roleIds) {
+        afterCommit(() -> {
+            State current = state;
+            if (current == null) {
+                return;
+            }
+            current.userRoles.put(userId, toArray(roleIds));
+            current.invalidateUser(userId);
+        });
+    }
+
+    /**
+     * 角色信息、状态或关联发生变化，从数据库重新加载这些角色
+     */
+    public void onRolesChanged(Collection<Long> roleIds) {
+        if (roleIds == null || roleIds.isEmpty()) {
+            return;
+        }
+        afterCommit(() -> {
+            State current = state;
+            if (current == null) {
+                return;
+            }
+            Map<Long, Role> activeRoles = index(rbacIndexMapper.selectActiveRoles(roleIds), Role::getId);
+            Map<Long, List<Long>> permissionIds = group(rbacIndexMapper.selectRolePermissionRelations(roleIds));
+            Map<Long, List<Long>> menuIds = group(rbacIndexMapper.selectRoleMenuRelations(roleIds));
+            for (Long roleId : roleIds) {
+                Role role = activeRoles.get(roleId);
+                if (role == null) {
+                    current.roles.remove(roleId);
+                    current.rolePermissions.remove(roleId);
+                    current.roleMenus.remove(roleId);
+                    continue;
+                }
+                List<Long> rolePermissionIds = permissionIds.getOrDefault(roleId, Collections.emptyList());
+                List<Long> roleMenuIds = menuIds.getOrDefault(roleId, Collections.emptyList());
+                current.ensurePermissions(rolePermissionIds, rbacIndexMapper);
+                current.ensureMenus(roleMenuIds, rbacIndexMapper);
+                current.roles.put(roleId, role);
+                current.rolePermissions.put(roleId, current.permissions.encode(rolePermissionIds));
+                current.roleMenus.put(roleId, current.menus.encode(roleMenuIds));
+            }
+            current.userPermissionCache.clear();
+            current.userMenuCache.clear();
+        });
+    }
+
+    /**
+     * 用户角色关联发生变化，从数据库重新加载这些用户
+     */
+    public void onUsersChanged(Collection<Long> userIds) {
+        if (userIds == null || userIds.isEmpty()) {
+            return;
+        }
+        afterCommit(() -> {
+            State current = state;
+            if (current == null) {
+                return;
+            }
+            Map<Long, List<Long>> roleIds = group(rbacIndexMapper.selectUserRoleRelations(userIds));
+            for (Long userId : userIds) {
+                List<Long> userRoleIds = roleIds.get(userId);
+                if (userRoleIds == null) {
+                    current.userRoles.remove(userId);
+                } else {
+                    current.userRoles.put(userId, toArray(userRoleIds));
+                }
+                current.invalidateUser(userId);
+            }
+        });
+    }
+
+    /**
+     * 全量重建索引
+     */
+    @Override
+    public synchronized void reload() {
+        Dictionary<Permission> permissions = Dictionary.of(rbacIndexMapper.selectActivePermissions(null),
+                Permission::getId, Permission::getPermissionCode);
+        Dictionary<Menu> menus = Dictionary.of(rbacIndexMapper.selectActiveMenus(null), Menu::getId, Menu::getPerms);
+        State next = new State(permissions, menus);
+        next.roles.putAll(index(rbacIndexMapper.selectActiveRoles(null), Role::getId));
+        group(rbacIndexMapper.selectRolePermissionRelations(null))
+                .forEach((roleId, ids) -> next.rolePermissions.put(roleId, permissions.encode(ids)));
+        group(rbacIndexMapper.selectRoleMenuRelations(null))
+                .forEach((roleId, ids) -> next.roleMenus.put(roleId, menus.encode(ids)));
+        group(rbacIndexMapper.selectUserRoleRelations(null))
+                .forEach((userId, ids) -> next.userRoles.put(userId, toArray(ids)));
+        state = next;
+        log.info("RBAC内存索引已全量加载: {}个角色, {}个权限, {}个菜单, {}个用户",
+                next.roles.size(), permissions.size(), menus.size(), next.userRoles.size());
+    }
+
+    private State requireState() {
+        State current = state;
+        if (current == null) {
+            throw new IllegalStateException("RBAC内存索引尚未加载");
+        }
+        return current;
+    }
+
+    private static Map<Long, List<Long>> group(List<RbacRelation> relations) {
+        Map<Long, List<Long>> grouped = new HashMap<>();
+        for (RbacRelation relation : relations) {
+            grouped.computeIfAbsent(relation.getOwnerId(), key -> new ArrayList<>()).add(relation.getTargetId());
+        }
+        return grouped;
+    }
+
+    private static <T> Map<Long, T> index(List<T> items, Function<T, Long> idOf) {
+        Map<Long, T> indexed = new HashMap<>(items.size() * 2);
+        for (T item : items) {
+            indexed.put(idOf.apply(item), item);
+        }
+        return indexed;
+    }
+
+    private static long[] toArray(List<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return NO_ROLES;
+        }
+        return ids.stream().filter(id -> id != null).mapToLong(Long::longValue).distinct().toArray();
+    }
+
+    /**
+     * 索引状态，增量更新原地修改映射，全量重建整体替换
+     */
+    private static final class State {
+
+        private volatile Dictionary<Permission> permissions;
+        private volatile Dictionary<Menu> menus;
+        private final Map<Long, Role> roles = new ConcurrentHashMap<>();
+        private final Map<Long, BitSet> rolePermissions = new ConcurrentHashMap<>();
+        private final Map<Long, BitSet> roleMenus = new ConcurrentHashMap<>();
+        private final Map<Long, long[]> userRoles = new ConcurrentHashMap<>();
+        private final Map<Long, BitSet> userPermissionCache = new ConcurrentHashMap<>();
+        private final Map<Long, BitSet> userMenuCache = new ConcurrentHashMap<>();
+
+        private State(Dictionary<Permission> permissions, Dictionary<Menu> menus) {
+            this.permissions = permissions;
+            this.menus = menus;
+        }
+
+        /**
+         * 补充字典中缺失的权限（加载后新建的权限），停用或删除的权限保持缺失
+         */
+        private void ensurePermissions(Collection<Long> ids, RbacIndexMapper mapper) {
+            List<Long> missing = permissions.missing(ids);
+            if (!missing.isEmpty()) {
+                permissions = permissions.append(mapper.selectActivePermissions(missing),
+                        Permission::getId, Permission::getPermissionCode);
+            }
+        }
+
+        private void ensureMenus(Collection<Long> ids, RbacIndexMapper mapper) {
+            List<Long> missing = menus.missing(ids);
+            if (!missing.isEmpty()) {
+                menus = menus.append(mapper.selectActiveMenus(missing), Menu::getId, Menu::getPerms);
+            }
+        }
+
+        private void invalidateUser(Long userId) {
+            userPermissionCache.remove(userId);
+            userMenuCache.remove(userId);
+        }
+    }
+
+    /**
+     * 实体字典：实体ID/业务编码与连续整数编码的映射，只追加不修改
+     */
+    private record Dictionary<T>(List<T> items, Map<Long, Integer> indexById, Map<String, Integer> indexByKey) {
+
+        static <T> Dictionary<T> of(List<T> items, Function<T, Long> idOf, Function<T, String> keyOf) {
+            return new Dictionary<T>(new ArrayList<>(0), new HashMap<>(0), new HashMap<>(0)).append(items, idOf, keyOf);
+        }
+
+        int size() {
+            return items.size();
+        }
+
+        Dictionary<T> append(List<T> more, Function<T, Long> idOf, Function<T, String> keyOf) {
+            List<T> nextItems = new ArrayList<>(items.size() + more.size());
+            nextItems.addAll(items);
+            Map<Long, Integer> nextIndex = new HashMap<>(indexById);
+            Map<String, Integer> nextKeyIndex = new HashMap<>(indexByKey);
+            for (T item : more) {
+                if (nextIndex.putIfAbsent(idOf.apply(item), nextItems.size()) == null) {
+                    String key = keyOf.apply(item);
+                    if (key != null) {
+                        nextKeyIndex.putIfAbsent(key, nextItems.size());
+                    }
+                    nextItems.add(item);
+                }
+            }
+            return new Dictionary<>(Collections.unmodifiableList(nextItems),
+                    Collections.unmodifiableMap(nextIndex), Collections.unmodifiableMap(nextKeyIndex));
+        }
+
+        List<Long> missing(Collection<Long> ids) {
+            if (ids == null || ids.isEmpty()) {
+                return Collections.emptyList();
+            }
+            List<Long> missing = new ArrayList<>();
+            for (Long id : ids) {
+                if (id != null && !indexById.containsKey(id)) {
+                    missing.add(id);
+                }
+            }
+            return missing;
+        }
+
+        BitSet encode(Collection<Long> ids) {
+            BitSet bits = new BitSet(items.size());
+            if (ids != null) {
+                for (Long id : ids) {
+                    Integer index = id != null ? indexById.get(id) : null;
+                    if (index != null) {
+                        bits.set(index);
+                    }
+                }
+            }
+            return bits;
+        }
+
+        List<T> decode(BitSet bits) {
+            List<T> decoded = new ArrayList<>(bits.cardinality());
+            for (int i = bits.nextSetBit(0); i >= 0 && i < items.size(); i = bits.nextSetBit(i + 1)) {
+                decoded.add(items.get(i));
+            }
+            return decoded;
+        }
+    }
+}
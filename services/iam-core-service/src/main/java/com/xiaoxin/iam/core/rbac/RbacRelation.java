@@ -0,0 +1,23 @@
+package com.xiaoxin.iam.core.rbac;
+
+import lombok.Data;
+
+/**
+ * RBAC关联关系（用户-角色、角色-权限、角色-菜单）
+ *
+ * @author xiaoxin
+ * @since 1.0.0
+ */
+@Data
+public class RbacRelation {
+
+    /**
+     * 关联方ID（用户ID或角色ID）
+     */
+    private Long ownerId;
+
+    /**
+     * 被关联方ID（角色ID、权限ID或菜单ID）
+     */
+    private Long targetId;
+}
@@ -0,0 +1,23 @@
+package com.xiaoxin.iam.core.rbac;
+
+import lombok.Data;
+
+/**
+ * 角色成员数（用户数或部门数）
+ *
+ * @author xiaoxin
+ * @since 1.0.0
+ */
+@Data
+public class RoleMemberCount {
+
+    /**
+     * 角色ID
+     */
+    private Long roleId;
+
+    /**
+     * 成员数
+     */
+    private Integer memberCount;
+}
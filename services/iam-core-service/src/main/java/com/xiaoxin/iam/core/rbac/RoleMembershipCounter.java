@@ -0,0 +1,324 @@
+package com.xiaoxin.iam.core.rbac;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+import com.xiaoxin.iam.core.config.RoleMembershipProperties;
+import com.xiaoxin.iam.core.entity.Role;
+import com.xiaoxin.iam.core.mapper.RbacIndexMapper;
+import com.xiaoxin.iam.core.support.LinkDiff;
+import com.xiaoxin.iam.core.support.ReloadableIndex;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 角色成员计数
+ * <p>
+ * 在内存中维护每个角色的未删除用户数与未删除部门数，角色列表随结果一并返回，不再逐行统计：
+ * </p>
+ * <ul>
+ *     <li>本实例的分配、导入、删除在事务提交后按受影响角色从数据库重新统计，回滚则不变</li>
+ *     <li>其他实例的写操作通过身份变更事件同步，同样按角色重新统计，重复消费结果相同</li>
+ *     <li>定期全量对账，纠正库外修改等造成的偏差，偏差量计入监控</li>
+ * </ul>
+ * 未启用或首次加载完成前，调用方回退到数据库统计。
+ *
+ * @author xiaoxin
+ * @since 1.0.0
+ */
+@Slf4j
+@Component
+public class RoleMembershipCounter extends ReloadableIndex {
+
+    private static final String METRIC_PREFIX = "iam.core.role-membership";
+
+    private final RbacIndexMapper rbacIndexMapper;
+    private final RoleMembershipProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * 对账发现的计数偏差总量
+     */
+    private final LongAdder drift = new LongAdder();
+
+    /**
+     * 当前计数，为 null 表示尚未加载完成
+     */
+    private volatile State state;
+
+    public RoleMembershipCounter(RbacIndexMapper rbacIndexMapper,
+                                 RoleMembershipProperties properties,
+                                 ObjectProvider<MeterRegistry> meterRegistryProvider) {
+        super("角色成员计数", "role-membership-reconciler");
+        this.rbacIndexMapper = rbacIndexMapper;
+        this.properties = properties;
+        this.meterRegistry = meterRegistryProvider.getIfAvailable();
+    }
+
+    @Override
+    protected boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    /**
+     * 定期全量对账的间隔
+     */
+    @Override
+    protected Duration reloadInterval() {
+        return properties.getReconcileInterval();
+    }
+
+    @Override
+    protected String fallbackDescription() {
+        return "角色用户数/部门数将直接统计数据库";
+    }
+
+    @Override
+    protected void initialize() {
+        if (meterRegistry != null) {
+            Gauge.builder(METRIC_PREFIX + ".roles", this, counter -> {
+                        State current = counter.state;
+                        return current == null ? 0 : current.users.size();
+                    })
+                    .description("有用户的角色数")
+                    .register(meterRegistry);
+            FunctionCounter.builder(METRIC_PREFIX + ".drift", drift, LongAdder::sum)
+                    .description("全量对账纠正的计数偏差总量")
+                    .register(meterRegistry);
+        }
+    }
+
+    /**
+     * 计数是否可用，不可用时调用方应回退到数据库统计
+     */
+    public boolean isReady() {
+        return state != null;
+    }
+
+    // ==================== 查询 ====================
+
+    /**
+     * 角色的未删除用户数
+     */
+    public int userCount(Long roleId) {
+        return requireState().users.getOrDefault(roleId, 0);
+    }
+
+    /**
+     * 角色的未删除部门数
+     */
+    public int deptCount(Long roleId) {
+        return requireState().depts.getOrDefault(roleId, 0);
+    }
+
+    /**
+     * 为角色列表填充用户数与部门数；计数不可用时按本页角色一次分组统计
+     */
+    public void fill(List<Role> roles) {
+        if (roles == null || roles.isEmpty()) {
+            return;
+        }
+        State current = state;
+        if (current != null) {
+            for (Role role : roles) {
+                role.setUserCount(current.users.getOrDefault(role.getId(), 0));
+                role.setDeptCount(current.depts.getOrDefault(role.getId(), 0));
+            }
+            return;
+        }
+        List<Long> roleIds = roles.stream().map(Role::getId).filter(Objects::nonNull).distinct().toList();
+        if (roleIds.isEmpty()) {
+            return;
+        }
+        Map<Long, Integer> users = toMap(rbacIndexMapper.selectRoleUserCounts(roleIds));
+        Map<Long, Integer> depts = toMap(rbacIndexMapper.selectRoleDeptCounts(roleIds));
+        for (Role role : roles) {
+            role.setUserCount(users.getOrDefault(role.getId(), 0));
+            role.setDeptCount(depts.getOrDefault(role.getId(), 0));
+        }
+    }
+
+    // ==================== 本实例写操作 ====================
+
+    /**
+     * 用户的角色关联按差异调整，提交后重新统计增删的角色
+     */
+    public void onUserRolesChanged(LinkDiff diff) {
+        if (diff == null || diff.isEmpty()) {
+            return;
+        }
+        Set<Long> roleIds = new HashSet<>(diff.added());
+        roleIds.addAll(diff.removed());
+        recountAfterCommit(roleIds);
+    }
+
+    /**
+     * 新用户写入了角色关联（批量导入）
+     */
+    public void onUserRolesInserted(Collection<Long> roleIds) {
+        if (roleIds == null || roleIds.isEmpty()) {
+            return;
+        }
+        recountAfterCommit(new HashSet<>(roleIds));
+    }
+
+    /**
+     * 即将删除用户及其角色关联，须在同一事务内、删除语句之前调用，删除后关联无从查起
+     */
+    public void onUsersDeleting(Collection<Long> userIds) {
+        if (state == null || userIds == null || userIds.isEmpty()) {
+            return;
+        }
+        recountAfterCommit(rolesOf(userIds));
+    }
+
+    /**
+     * 角色的部门关联已调整
+     */
+    public void onRoleDeptsChanged(Long roleId, LinkDiff diff) {
+        if (roleId == null || diff == null || diff.isEmpty()) {
+            return;
+        }
+        recountAfterCommit(Set.of(roleId));
+    }
+
+    /**
+     * 角色已删除，其关联随之清除
+     */
+    public void onRolesDeleted(Collection<Long> roleIds) {
+        if (roleIds == null || roleIds.isEmpty()) {
+            return;
+        }
+        recountAfterCommit(new HashSet<>(roleIds));
+    }
+
+    // ==================== 同步与对账 ====================
+
+    /**
+     * 从数据库重新统计指定角色，用于同步其他实例的写操作
+     * <p>
+     * 统计与写入在同一把锁内完成，后读到的结果总是后写入，不会被更早的统计覆盖；
+     * 本实例的写操作同样走这里，自身事件再统计一次只是得到相同的值，不会重复计数。
+     * </p>
+     */
+    public synchronized void recount(Collection<Long> roleIds) {
+        State current = state;
+        if (current == null || roleIds == null || roleIds.isEmpty()) {
+            return;
+        }
+        Set<Long> ids = new HashSet<>(roleIds);
+        Map<Long, Integer> users = toMap(rbacIndexMapper.selectRoleUserCounts(ids));
+        Map<Long, Integer> depts = toMap(rbacIndexMapper.selectRoleDeptCounts(ids));
+        for (Long roleId : ids) {
+            put(current.users, roleId, users.get(roleId));
+            put(current.depts, roleId, depts.get(roleId));
+        }
+    }
+
+    /**
+     * 从数据库重新统计指定用户当前持有的角色
+     */
+    public void recountUsers(Collection<Long> userIds) {
+        if (state == null || userIds == null || userIds.isEmpty()) {
+            return;
+        }
+        recount(rolesOf(userIds));
+    }
+
+    /**
+     * 全量对账：按数据库统计结果整体替换，并记录与当前计数的偏差
+     */
+    @Override
+    public synchronized void reload() {
+        State next = new State();
+        next.users.putAll(toMap(rbacIndexMapper.selectRoleUserCounts(null)));
+        next.depts.putAll(toMap(rbacIndexMapper.selectRoleDeptCounts(null)));
+        State previous = state;
+        if (previous != null) {
+            long difference = difference(previous.users, next.users) + difference(previous.depts, next.depts);
+            if (difference > 0) {
+                drift.add(difference);
+                log.info("角色成员计数对账纠正偏差: {}", difference);
+            }
+        }
+        state = next;
+        log.debug("角色成员计数已对账: {}个角色有用户, {}个角色有部门", next.users.size(), next.depts.size());
+    }
+
+    /**
+     * 提交后重新统计，回滚则不变
+     */
+    private void recountAfterCommit(Set<Long> roleIds) {
+        afterCommit(() -> recount(roleIds));
+    }
+
+    private Set<Long> rolesOf(Collection<Long> userIds) {
+        Set<Long> roleIds = new HashSet<>();
+        for (RoleMemberCount count : rbacIndexMapper.selectRoleUserCountsByUserIds(userIds)) {
+            roleIds.add(count.getRoleId());
+        }
+        return roleIds;
+    }
+
+    private State requireState() {
+        State current = state;
+        if (current == null) {
+            throw new IllegalStateException("角色成员计数尚未加载");
+        }
+        return current;
+    }
+
+    private static void put(Map<Long, Integer> counts, Long roleId, Integer count) {
+        if (count == null || count <= 0) {
+            counts.remove(roleId);
+        } else {
+            counts.put(roleId, count);
+        }
+    }
+
+    private static long difference(Map<Long, Integer> previous, Map<Long, Integer> next) {
+        long difference = 0;
+        for (Map.Entry<Long, Integer> entry : next.entrySet()) {
+            difference += Math.abs(entry.getValue() - previous.getOrDefault(entry.getKey(), 0));
+        }
+        for (Map.Entry<Long, Integer> entry : previous.entrySet()) {
+            if (!next.containsKey(entry.getKey())) {
+                difference += entry.getValue();
+            }
+        }
+        return difference;
+    }
+
+    private static Map<Long, Integer> toMap(List<RoleMemberCount> counts) {
+        Map<Long, Integer> map = new HashMap<>(counts.size() * 2);
+        for (RoleMemberCount count : counts) {
+            if (count.getRoleId() != null && count.getMemberCount() != null && count.getMemberCount() > 0) {
+                map.put(count.getRoleId(), count.getMemberCount());
+            }
+        }
+        return map;
+    }
+
+    /**
+     * 计数状态，按角色重新统计时原地修改映射，全量对账整体替换
+     */
+    private static final class State {
+
+        private final Map<Long, Integer> users = new ConcurrentHashMap<>();
+        private final Map<Long, Integer> depts = new ConcurrentHashMap<>();
+    }
+}
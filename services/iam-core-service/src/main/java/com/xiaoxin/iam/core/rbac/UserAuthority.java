@@ -0,0 +1,29 @@
+package com.xiaoxin.iam.core.rbac;
+
+import lombok.Data;
+
+/**
+ * 用户权限标识行
+ * 批量查询用户角色与权限时逐行返回，角色标识与权限编码只有一个非空
+ *
+ * @author xiaoxin
+ * @since 1.0.0
+ */
+@Data
+public class UserAuthority {
+
+    /**
+     * 用户ID
+     */
+    private Long userId;
+
+    /**
+     * 角色标识
+     */
+    private String roleKey;
+
+    /**
+     * 权限编码
+     */
+    private String permissionCode;
+}
@@ -0,0 +1,33 @@
+package com.xiaoxin.iam.core.scope;
+
+import lombok.Data;
+
+/**
+ * 数据权限配置行（sys_data_permission）
+ *
+ * @author xiaoxin
+ * @since 1.0.0
+ */
+@Data
+public class DataPermissionRow {
+
+    /**
+     * 角色ID
+     */
+    private Long roleId;
+
+    /**
+     * 权限类型（1全部数据 2本部门数据 3本部门及子部门 4仅本人数据 5自定义数据）
+     */
+    private String permissionType;
+
+    /**
+     * 自定义部门ID列表（逗号分隔）
+     */
+    private String deptIds;
+
+    /**
+     * 自定义用户ID列表（逗号分隔）
+     */
+    private String userIds;
+}
@@ -0,0 +1,206 @@
+package com.xiaoxin.iam.core.scope;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.xiaoxin.iam.core.config.DataScopeRuleProperties;
+import com.xiaoxin.iam.core.dept.DeptHierarchy;
+import com.xiaoxin.iam.core.entity.Dept;
+import com.xiaoxin.iam.core.entity.Role;
+import com.xiaoxin.iam.core.mapper.DataPermissionMapper;
+import com.xiaoxin.iam.core.mapper.UserMapper;
+import com.xiaoxin.iam.core.rbac.RbacIndex;
+import com.xiaoxin.iam.core.support.AfterCommit;
+import com.xiaoxin.iam.core.support.CurrentUser;
+import com.xiaoxin.iam.starter.data.scope.DataScopeProvider;
+import com.xiaoxin.iam.starter.data.scope.DataScopeRule;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 数据权限规则缓存
+ * <p>
+ * 将用户各角色在某类资源上的数据权限合并编译为一条 {@link DataScopeRule}，按（用户, 资源）缓存：
+ * </p>
+ * <ul>
+ *     <li>全部数据：不限制，任一角色拥有即短路</li>
+ *     <li>本部门 / 自定义部门：内联为部门ID集合</li>
+ *     <li>本部门及子部门：由部门层级索引展开后代部门；后代过多或索引未就绪时保留子树根，
+ *     由闭包表子查询过滤</li>
+ *     <li>仅本人 / 自定义用户：内联为用户ID集合</li>
+ * </ul>
+ * <p>
+ * 当前用户取自 JWT 的 userId 声明，服务间调用的令牌不含该声明，不受数据权限限制。
+ * custom_condition 为任意SQL，不参与拼接。
+ * </p>
+ *
+ * @author xiaoxin
+ * @since 1.0.0
+ */
+@Slf4j
+@Component
+public class DataScopeRuleCache implements DataScopeProvider {
+
+    private static final String METRIC_NAME = "iam.core.data-scope.rules";
+
+    private static final String TYPE_ALL = "1";
+    private static final String TYPE_DEPT = "2";
+    private static final String TYPE_DEPT_AND_CHILDREN = "3";
+    private static final String TYPE_SELF = "4";
+    private static final String TYPE_CUSTOM = "5";
+
+    private final RbacIndex rbacIndex;
+
+    private final UserMapper userMapper;
+
+    private final DataPermissionMapper dataPermissionMapper;
+
+    private final DeptHierarchy deptHierarchy;
+
+    private final DataScopeRuleProperties properties;
+
+    private final Cache<Key, DataScopeRule> rules;
+
+    public DataScopeRuleCache(RbacIndex rbacIndex, UserMapper userMapper, DataPermissionMapper dataPermissionMapper,
+                              DeptHierarchy deptHierarchy, DataScopeRuleProperties properties,
+                              ObjectProvider<MeterRegistry> meterRegistryProvider) {
+        this.rbacIndex = rbacIndex;
+        this.userMapper = userMapper;
+        this.dataPermissionMapper = dataPermissionMapper;
+        this.deptHierarchy = deptHierarchy;
+        this.properties = properties;
+        this.rules = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxEntries())
+                .expireAfterWrite(properties.getTtl())
+                .recordStats()
+                .build();
+        MeterRegistry meterRegistry = meterRegistryProvider.getIfAvailable();
+        if (meterRegistry != null) {
+            CaffeineCacheMetrics.monitor(meterRegistry, rules, METRIC_NAME);
+        }
+    }
+
+    @Override
+    public DataScopeRule resolve(String resource) {
+        Long userId = CurrentUser.id();
+        if (userId == null) {
+            return null;
+        }
+        return rules.get(new Key(userId, resource), key -> compile(key.userId(), key.resource()));
+    }
+
+    /**
+     * 当前用户在资源上是否受数据权限限制
+     */
+    public boolean isRestricted(String resource) {
+        DataScopeRule rule = resolve(resource);
+        return rule != null && !rule.isAll();
+    }
+
+    /**
+     * 用户的角色或部门已变更
+     * 提交后再失效，避免并发查询在提交前按旧数据重新编译
+     */
+    public void invalidateUser(Long userId) {
+        AfterCommit.run(() -> rules.asMap().keySet().removeIf(key -> key.userId().equals(userId)));
+    }
+
+    /**
+     * 角色或部门层级已变更，涉及的用户无法直接确定，全部重新编译
+     */
+    public void invalidateAll() {
+        AfterCommit.run(rules::invalidateAll);
+    }
+
+    private DataScopeRule compile(Long userId, String resource) {
+        List<Role> roles = rbacIndex.isReady() ? rbacIndex.getUserRoles(userId) : userMapper.selectUserRoles(userId);
+        List<Long> roleIds = roles.stream().map(Role::getId).toList();
+        List<DataPermissionRow> rows = roleIds.isEmpty()
+                ? List.of() : dataPermissionMapper.selectActiveByRoleIds(roleIds, resource);
+        if (rows.isEmpty()) {
+            return properties.isDenyUnconfigured() ? DataScopeRule.NONE : DataScopeRule.ALL;
+        }
+
+        Set<Long> deptIds = new HashSet<>();
+        Set<Long> subtreeRootIds = new HashSet<>();
+        Set<Long> userIds = new HashSet<>();
+        List<Long> ownDeptIds = null;
+        for (DataPermissionRow row : rows) {
+            String type = row.getPermissionType() != null ? row.getPermissionType() : "";
+            switch (type) {
+                case TYPE_ALL -> {
+                    return DataScopeRule.ALL;
+                }
+                case TYPE_DEPT -> {
+                    ownDeptIds = ownDeptIds != null ? ownDeptIds : ownDeptIds(userId);
+                    deptIds.addAll(ownDeptIds);
+                }
+                case TYPE_DEPT_AND_CHILDREN -> {
+                    ownDeptIds = ownDeptIds != null ? ownDeptIds : ownDeptIds(userId);
+                    for (Long deptId : ownDeptIds) {
+                        expandSubtree(deptId, deptIds, subtreeRootIds);
+                    }
+                }
+                case TYPE_SELF -> userIds.add(userId);
+                case TYPE_CUSTOM -> {
+                    deptIds.addAll(parseIds(row.getDeptIds(), row));
+                    userIds.addAll(parseIds(row.getUserIds(), row));
+                }
+                default -> log.warn("忽略未知的数据权限类型: roleId={}, resource={}, type={}",
+                        row.getRoleId(), resource, type);
+            }
+        }
+        DataScopeRule rule = DataScopeRule.of(deptIds, subtreeRootIds, userIds);
+        log.debug("数据权限规则已编译: userId={}, resource={}, rule={}", userId, resource, rule);
+        return rule;
+    }
+
+    private List<Long> ownDeptIds(Long userId) {
+        return userMapper.selectUserDepts(userId).stream().map(Dept::getId).toList();
+    }
+
+    /**
+     * 后代部门不多时内联，否则保留子树根交由闭包表展开
+     */
+    private void expandSubtree(Long deptId, Set<Long> deptIds, Set<Long> subtreeRootIds) {
+        if (deptHierarchy.isReady() && deptHierarchy.contains(deptId)) {
+            List<Long> descendantIds = deptHierarchy.getDescendantIds(deptId, true);
+            if (deptIds.size() + descendantIds.size() <= properties.getInlineLimit()) {
+                deptIds.addAll(descendantIds);
+                return;
+            }
+        }
+        subtreeRootIds.add(deptId);
+    }
+
+    private static List<Long> parseIds(String value, DataPermissionRow row) {
+        if (value == null || value.isBlank()) {
+            return List.of();
+        }
+        List<Long> ids = new ArrayList<>();
+        for (String part : value.split(",")) {
+            String text = part.trim();
+            if (text.isEmpty()) {
+                continue;
+            }
+            try {
+                ids.add(Long.valueOf(text));
+            } catch (NumberFormatException e) {
+                log.warn("忽略无效的数据权限ID: roleId={}, value={}", row.getRoleId(), text);
+            }
+        }
+        return ids;
+    }
+
+    private record Key(Long userId, String resource) {
+    }
+}
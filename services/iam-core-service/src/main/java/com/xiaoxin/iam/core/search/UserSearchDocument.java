@@ -0,0 +1,44 @@
+package com.xiaoxin.iam.core.search;
+
+import lombok.Data;
+
+/**
+ * 用户搜索文档
+ * 只包含参与模糊查询与过滤的列
+ *
+ * @author xiaoxin
+ * @since 1.0.0
+ */
+@Data
+public class UserSearchDocument {
+
+    /**
+     * 用户ID
+     */
+    private Long id;
+
+    /**
+     * 用户名
+     */
+    private String username;
+
+    /**
+     * 昵称
+     */
+    private String nickname;
+
+    /**
+     * 邮箱
+     */
+    private String email;
+
+    /**
+     * 手机号
+     */
+    private String phone;
+
+    /**
+     * 状态
+     */
+    private String status;
+}
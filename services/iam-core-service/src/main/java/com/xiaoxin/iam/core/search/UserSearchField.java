@@ -0,0 +1,30 @@
+package com.xiaoxin.iam.core.search;
+
+import java.util.function.Function;
+
+/**
+ * 用户搜索字段
+ *
+ * @author xiaoxin
+ * @since 1.0.0
+ */
+public enum UserSearchField {
+
+    USERNAME(UserSearchDocument::getUsername),
+    NICKNAME(UserSearchDocument::getNickname),
+    EMAIL(UserSearchDocument::getEmail),
+    PHONE(UserSearchDocument::getPhone);
+
+    private final Function<UserSearchDocument, String> extractor;
+
+    UserSearchField(Function<UserSearchDocument, String> extractor) {
+        this.extractor = extractor;
+    }
+
+    /**
+     * 读取文档中的字段值
+     */
+    public String valueOf(UserSearchDocument document) {
+        return extractor.apply(document);
+    }
+}
@@ -0,0 +1,513 @@
+package com.xiaoxin.iam.core.search;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongConsumer;
+import java.util.function.ToLongFunction;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+import com.xiaoxin.iam.core.config.UserSearchIndexProperties;
+import com.xiaoxin.iam.core.mapper.UserSearchMapper;
+import com.xiaoxin.iam.core.support.ReloadableIndex;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 用户搜索索引
+ * <p>
+ * 对用户名、昵称、邮箱、手机号建立三元组（trigram）倒排索引，替代无法使用索引的 {@code LIKE '%term%'}：
+ * </p>
+ * <ul>
+ *     <li>启动时流式读取用户表构建索引，用户以连续整数序号编码，倒排表为有序 int 数组</li>
+ *     <li>查询取各条件三元组倒排表的交集，再用原文校验子串匹配消除误命中，按相关度排序后返回用户ID</li>
+ *     <li>用户新增、修改、删除在事务提交后增量更新，其他实例的写操作通过身份变更事件同步，定期全量重建兜底</li>
+ *     <li>通过 Micrometer 暴露文档数、三元组数、估算内存占用与查询耗时</li>
+ * </ul>
+ * <p>
+ * 短于三个字符的条件无法使用倒排表，仅参与原文校验；所有条件都过短时返回 null，由调用方回退到数据库查询。
+ * </p>
+ *
+ * @author xiaoxin
+ * @since 1.0.0
+ */
+@Slf4j
+@Component
+public class UserSearchIndex extends ReloadableIndex {
+
+    private static final String METRIC_PREFIX = "iam.core.user-search";
+
+    private static final int GRAM_LENGTH = 3;
+
+    private static final int FIELD_SHIFT = 48;
+
+    private static final UserSearchField[] FIELDS = UserSearchField.values();
+
+    private final UserSearchMapper userSearchMapper;
+
+    private final UserSearchIndexProperties properties;
+
+    private final Timer queryTimer;
+
+    /**
+     * 当前索引，为 null 表示尚未加载完成
+     */
+    private volatile State state;
+
+    public UserSearchIndex(UserSearchMapper userSearchMapper,
+                           UserSearchIndexProperties properties,
+                           ObjectProvider<MeterRegistry> meterRegistryProvider) {
+        super("用户搜索索引", "user-search-index-reloader");
+        this.userSearchMapper = userSearchMapper;
+        this.properties = properties;
+        MeterRegistry meterRegistry = meterRegistryProvider.getIfAvailable();
+        if (meterRegistry != null) {
+            this.queryTimer = Timer.builder(METRIC_PREFIX + ".query")
+                    .description("用户搜索索引查询耗时")
+                    .publishPercentiles(0.5, 0.95, 0.99)
+                    .register(meterRegistry);
+            Gauge.builder(METRIC_PREFIX + ".documents", this, index -> index.stat(State::documentCount))
+                    .description("已索引的用户数")
+                    .register(meterRegistry);
+            Gauge.builder(METRIC_PREFIX + ".grams", this, index -> index.stat(State::gramCount))
+                    .description("三元组（倒排表）数量")
+                    .register(meterRegistry);
+            Gauge.builder(METRIC_PREFIX + ".memory", this, index -> index.stat(State::estimatedBytes))
+                    .description("索引估算内存占用")
+                    .baseUnit("bytes")
+                    .register(meterRegistry);
+        } else {
+            this.queryTimer = null;
+        }
+    }
+
+    @Override
+    protected boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    @Override
+    protected Duration reloadInterval() {
+        return properties.getReloadInterval();
+    }
+
+    @Override
+    protected String fallbackDescription() {
+        return "用户列表模糊查询将直接访问数据库";
+    }
+
+    /**
+     * 构建耗时与用户量成正比，完成前查询回退数据库
+     */
+    @Override
+    protected boolean loadInBackground() {
+        return true;
+    }
+
+    /**
+     * 索引是否可用
+     */
+    public boolean isReady() {
+        return state != null;
+    }
+
+    // ==================== 查询 ====================
+
+    /**
+     * 按字段模糊匹配用户，语义与各条件 {@code LIKE '%term%'} 取与一致（不区分大小写）
+     *
+     * @param terms 字段匹配条件，空值条件忽略
+     * @param status 状态过滤，为空时不过滤
+     * @return 按相关度降序、同分时新用户在前的用户ID（最多 maxResults 个）及实际命中总数；
+     *         索引不可用或没有不短于三个字符的条件时返回 null
+     */
+    public SearchResult search(Map<UserSearchField, String> terms, String status) {
+        State current = state;
+        if (current == null) {
+            return null;
+        }
+        Map<UserSearchField, String> normalized = new EnumMap<>(UserSearchField.class);
+        boolean indexable = false;
+        for (Map.Entry<UserSearchField, String> entry : terms.entrySet()) {
+            String term = entry.getValue();
+            if (term == null || term.trim().isEmpty()) {
+                continue;
+            }
+            String value = normalize(term);
+            normalized.put(entry.getKey(), value);
+            indexable |= value.length() >= GRAM_LENGTH;
+        }
+        if (!indexable) {
+            return null;
+        }
+
+        long startNanos = System.nanoTime();
+        try {
+            return rank(current, normalized, status == null || status.trim().isEmpty() ? null : status);
+        } finally {
+            if (queryTimer != null) {
+                queryTimer.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+
+    private SearchResult rank(State current, Map<UserSearchField, String> terms, String status) {
+        List<int[]> postings = new ArrayList<>();
+        for (Map.Entry<UserSearchField, String> entry : terms.entrySet()) {
+            String term = entry.getValue();
+            if (term.length() < GRAM_LENGTH) {
+                continue;
+            }
+            for (long key : grams(entry.getKey(), term)) {
+                int[] posting = current.postings.get(key);
+                if (posting == null) {
+                    return new SearchResult(new ArrayList<>(), 0);
+                }
+                postings.add(posting);
+            }
+        }
+        postings.sort(Comparator.comparingInt(posting -> posting.length));
+        int[] candidates = postings.get(0);
+        for (int i = 1; i < postings.size() && candidates.length > 0; i++) {
+            candidates = intersect(candidates, postings.get(i));
+        }
+
+        List<Hit> hits = new ArrayList<>();
+        for (int ordinal : candidates) {
+            IndexedUser user = current.documents.get(ordinal);
+            if (user == null || (status != null && !status.equals(user.status()))) {
+                continue;
+            }
+            int score = score(user, terms);
+            if (score > 0) {
+                hits.add(new Hit(user.id(), ordinal, score));
+            }
+        }
+        hits.sort(Comparator.comparingInt(Hit::score).reversed()
+                .thenComparing(Comparator.comparingInt(Hit::ordinal).reversed()));
+        int limit = Math.min(hits.size(), properties.getMaxResults());
+        List<Long> userIds = new ArrayList<>(limit);
+        for (int i = 0; i < limit; i++) {
+            userIds.add(hits.get(i).userId());
+        }
+        return new SearchResult(userIds, hits.size());
+    }
+
+    /**
+     * 原文校验并计算相关度：完全相等3分，前缀2分，包含1分；任一条件不匹配返回0
+     */
+    private static int score(IndexedUser user, Map<UserSearchField, String> terms) {
+        int score = 0;
+        for (Map.Entry<UserSearchField, String> entry : terms.entrySet()) {
+            String value = user.values()[entry.getKey().ordinal()];
+            String term = entry.getValue();
+            int position = value == null ? -1 : value.indexOf(term);
+            if (position < 0) {
+                return 0;
+            }
+            score += value.length() == term.length() ? 3 : position == 0 ? 2 : 1;
+        }
+        return score;
+    }
+
+    // ==================== 增量更新 ====================
+
+    /**
+     * 用户已新增、修改或删除，从数据库重新加载这些用户
+     */
+    public void onUsersChanged(Collection<Long> userIds) {
+        if (userIds == null || userIds.isEmpty()) {
+            return;
+        }
+        afterCommit(() -> {
+            State current = state;
+            if (current == null) {
+                return;
+            }
+            Map<Long, UserSearchDocument> latest = new HashMap<>();
+            for (UserSearchDocument document : userSearchMapper.selectSearchDocuments(userIds)) {
+                latest.put(document.getId(), document);
+            }
+            for (Long userId : userIds) {
+                UserSearchDocument document = latest.get(userId);
+                if (document != null) {
+                    current.upsert(document);
+                } else {
+                    current.remove(userId);
+                }
+            }
+        });
+    }
+
+    /**
+     * 全量重建索引，流式读取用户表，不在内存中保留完整结果集
+     */
+    @Override
+    public synchronized void reload() {
+        long startMillis = System.currentTimeMillis();
+        State next = new State();
+        Map<Long, IntList> building = new HashMap<>();
+        userSearchMapper.streamSearchDocuments(context -> {
+            IndexedUser user = next.register(context.getResultObject());
+            int ordinal = next.ordinals.get(user.id());
+            forEachGram(user, key -> building.computeIfAbsent(key, k -> new IntList()).append(ordinal));
+        });
+        building.forEach((key, list) -> {
+            next.postings.put(key, list.toArray());
+            next.postingEntries.addAndGet(list.size);
+        });
+        state = next;
+        log.info("用户搜索索引已全量加载: {}个用户, {}个三元组, 估算内存{}KB, 耗时{}ms",
+                next.documentCount(), next.gramCount(), next.estimatedBytes() / 1024,
+                System.currentTimeMillis() - startMillis);
+    }
+
+    private double stat(ToLongFunction<State> metric) {
+        State current = state;
+        return current == null ? 0 : metric.applyAsLong(current);
+    }
+
+    // ==================== 三元组编码 ====================
+
+    private static String normalize(String value) {
+        return value == null ? null : value.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * 三元组编码为 long：高16位为字段序号，其余48位依次存放三个字符
+     */
+    private static long gramKey(UserSearchField field, String value, int offset) {
+        return ((long) field.ordinal() << FIELD_SHIFT)
+                | ((long) value.charAt(offset) << 32)
+                | ((long) value.charAt(offset + 1) << 16)
+                | value.charAt(offset + 2);
+    }
+
+    private static Set<Long> grams(UserSearchField field, String value) {
+        Set<Long> keys = new HashSet<>();
+        for (int i = 0; i + GRAM_LENGTH <= value.length(); i++) {
+            keys.add(gramKey(field, value, i));
+        }
+        return keys;
+    }
+
+    private static void forEachGram(IndexedUser user, LongConsumer consumer) {
+        for (UserSearchField field : FIELDS) {
+            String value = user.values()[field.ordinal()];
+            if (value != null && value.length() >= GRAM_LENGTH) {
+                grams(field, value).forEach(consumer::accept);
+            }
+        }
+    }
+
+    private static int[] intersect(int[] left, int[] right) {
+        int[] result = new int[Math.min(left.length, right.length)];
+        int i = 0;
+        int j = 0;
+        int size = 0;
+        while (i < left.length && j < right.length) {
+            if (left[i] == right[j]) {
+                result[size++] = left[i];
+                i++;
+                j++;
+            } else if (left[i] < right[j]) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        return Arrays.copyOf(result, size);
+    }
+
+    /**
+     * 索引快照
+     * 倒排表发布后不再修改，增量更新总是整体替换数组，读取无需加锁
+     */
+    private static final class State {
+
+        /**
+         * 倒排表：三元组 -> 有序的用户序号
+         */
+        final Map<Long, int[]> postings = new ConcurrentHashMap<>();
+
+        /**
+         * 用户序号 -> 索引文档
+         */
+        final Map<Integer, IndexedUser> documents = new ConcurrentHashMap<>();
+
+        /**
+         * 用户ID -> 用户序号，序号按加载顺序递增，修改用户时保持不变
+         */
+        final Map<Long, Integer> ordinals = new ConcurrentHashMap<>();
+
+        final AtomicInteger nextOrdinal = new AtomicInteger();
+
+        final AtomicLong postingEntries = new AtomicLong();
+
+        final AtomicLong textChars = new AtomicLong();
+
+        IndexedUser register(UserSearchDocument document) {
+            IndexedUser user = IndexedUser.of(document);
+            int ordinal = ordinals.computeIfAbsent(user.id(), id -> nextOrdinal.getAndIncrement());
+            documents.put(ordinal, user);
+            textChars.addAndGet(user.textLength());
+            return user;
+        }
+
+        void upsert(UserSearchDocument document) {
+            remove(document.getId());
+            IndexedUser user = register(document);
+            int ordinal = ordinals.get(user.id());
+            forEachGram(user, key -> postings.compute(key, (k, posting) -> insert(posting, ordinal)));
+        }
+
+        void remove(Long userId) {
+            Integer ordinal = ordinals.get(userId);
+            IndexedUser user = ordinal != null ? documents.remove(ordinal) : null;
+            if (user == null) {
+                return;
+            }
+            textChars.addAndGet(-user.textLength());
+            forEachGram(user, key -> postings.computeIfPresent(key, (k, posting) -> delete(posting, ordinal)));
+        }
+
+        private int[] insert(int[] posting, int ordinal) {
+            if (posting == null) {
+                postingEntries.incrementAndGet();
+                return new int[]{ordinal};
+            }
+            int position = Arrays.binarySearch(posting, ordinal);
+            if (position >= 0) {
+                return posting;
+            }
+            int insertAt = -position - 1;
+            int[] next = new int[posting.length + 1];
+            System.arraycopy(posting, 0, next, 0, insertAt);
+            next[insertAt] = ordinal;
+            System.arraycopy(posting, insertAt, next, insertAt + 1, posting.length - insertAt);
+            postingEntries.incrementAndGet();
+            return next;
+        }
+
+        private int[] delete(int[] posting, int ordinal) {
+            int position = Arrays.binarySearch(posting, ordinal);
+            if (position < 0) {
+                return posting;
+            }
+            postingEntries.decrementAndGet();
+            if (posting.length == 1) {
+                return null;
+            }
+            int[] next = new int[posting.length - 1];
+            System.arraycopy(posting, 0, next, 0, position);
+            System.arraycopy(posting, position + 1, next, position, posting.length - position - 1);
+            return next;
+        }
+
+        long documentCount() {
+            return documents.size();
+        }
+
+        long gramCount() {
+            return postings.size();
+        }
+
+        /**
+         * 估算内存占用：倒排表按每项4字节加数组与哈希节点开销，文档按字段原文与对象开销
+         */
+        long estimatedBytes() {
+            long postingBytes = postingEntries.get() * Integer.BYTES + gramCount() * 80L;
+            long documentBytes = textChars.get() * 2 + documentCount() * 240L;
+            return postingBytes + documentBytes;
+        }
+    }
+
+    /**
+     * 索引文档，字段值已转为小写，按 {@link UserSearchField} 序号存放
+     */
+    private record IndexedUser(Long id, String[] values, String status) {
+
+        static IndexedUser of(UserSearchDocument document) {
+            String[] values = new String[FIELDS.length];
+            for (UserSearchField field : FIELDS) {
+                values[field.ordinal()] = normalize(field.valueOf(document));
+            }
+            return new IndexedUser(document.getId(), values, document.getStatus());
+        }
+
+        int textLength() {
+            int length = 0;
+            for (String value : values) {
+                length += value == null ? 0 : value.length();
+            }
+            return length;
+        }
+    }
+
+    /**
+     * 查询结果
+     *
+     * @param userIds 排序后的用户ID，最多 maxResults 个
+     * @param total 实际命中的用户总数，不受 maxResults 限制
+     */
+    public record SearchResult(List<Long> userIds, int total) {
+
+        /**
+         * 命中数超过 maxResults，userIds 只包含排在前面的部分
+         */
+        public boolean truncated() {
+            return total > userIds.size();
+        }
+    }
+
+    /**
+     * 查询命中
+     */
+    private record Hit(Long userId, int ordinal, int score) {
+    }
+
+    /**
+     * 构建期使用的可增长 int 数组
+     */
+    private static final class IntList {
+
+        int[] values = new int[4];
+
+        int size;
+
+        /**
+         * 追加序号，构建时序号单调递增，同一用户的重复三元组只记录一次
+         */
+        void append(int value) {
+            if (size > 0 && values[size - 1] == value) {
+                return;
+            }
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size << 1);
+            }
+            values[size++] = value;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.xiaoxin.iam.core.service;
+
+import java.util.List;
+
+/**
+ * 部门服务接口
+ *
+ * @author xiaoxin
+ * @since 1.0.0
+ */
+public interface DeptService {
+
+    /**
+     * 移动部门到新的父部门下，子部门随之移动
+     *
+     * @param deptId 部门ID
+     * @param parentId 新的父部门ID，0 表示移动为顶级部门
+     * @return 是否成功
+     */
+    boolean moveDept(Long deptId, Long parentId);
+
+    /**
+     * 查询部门及其全部后代部门ID
+     *
+     * @param deptId 部门ID
+     * @return 部门ID列表（含自身）
+     */
+    List<Long> getDescendantIds(Long deptId);
+
+    /**
+     * 查询部门的全部祖先部门ID
+     *
+     * @param deptId 部门ID
+     * @return 部门ID列表（不含自身），由顶级部门到直接上级排列
+     */
+    List<Long> getAncestorIds(Long deptId);
+
+    /**
+     * 判断部门是否为另一部门本身或其后代
+     *
+     * @param deptId 部门ID
+     * @param ancestorId 祖先部门ID
+     * @return 是否在其下
+     */
+    boolean isDescendantOrSelf(Long deptId, Long ancestorId);
+}
@@ -1,5 +1,7 @@
 package com.xiaoxin.iam.core.service;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
 
 import com.baomidou.mybatisplus.core.metadata.IPage;
@@ -8,6 +10,8 @@ import com.xiaoxin.iam.core.entity.Dept;
 import com.xiaoxin.iam.core.entity.Menu;
 import com.xiaoxin.iam.core.entity.Permission;
 import com.xiaoxin.iam.core.entity.Role;
+import com.xiaoxin.iam.core.support.CountMode;
+import com.xiaoxin.iam.core.vo.PageResult;
 
 /**
  * 角色服务接口
@@ -50,6 +54,38 @@ public interface RoleService {
      */
     IPage<Role> getRolePage(Page<Role> page, Role role);
 
+    /**
+     * 分页查询角色列表，可跳过或估算总数
+     *
+     * @param page 分页参数
+     * @param role 查询条件
+     * @param countMode 总数统计方式
+     * @return 角色分页列表
+     */
+    PageResult<Role> getRolePage(Page<Role> page, Role role, CountMode countMode);
+
+    /**
+     * 游标分页查询角色列表，按创建时间倒序
+     *
+     * @param role 查询条件
+     * @param cursor 上一页返回的游标，为空时查询第一页
+     * @param size 每页大小
+     * @param countMode 总数统计方式
+     * @return 角色分页列表
+     */
+    PageResult<Role> getRoleCursorPage(Role role, String cursor, long size, CountMode countMode);
+
+    /**
+     * 流式导出角色（含用户数与权限编码）
+     *
+     * @param role 查询条件
+     * @param format 导出格式，csv 或 ndjson
+     * @param output 输出流，导出完成后关闭
+     * @return 导出行数
+     * @throws IOException 写出失败
+     */
+    long exportRoles(Role role, String format, OutputStream output) throws IOException;
+
     /**
      * 创建角色
      *
@@ -91,6 +127,15 @@ public interface RoleService {
      */
     boolean updateRoleStatus(Long roleId, String status);
 
+    /**
+     * 批量更新角色状态
+     *
+     * @param roleIds 角色ID列表
+     * @param status 状态
+     * @return 是否成功
+     */
+    boolean updateRolesStatus(List<Long> roleIds, String status);
+
     /**
      * 分配角色权限
      *
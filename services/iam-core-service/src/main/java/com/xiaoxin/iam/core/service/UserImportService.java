@@ -0,0 +1,31 @@
+package com.xiaoxin.iam.core.service;
+
+import org.springframework.web.multipart.MultipartFile;
+
+import com.xiaoxin.iam.core.vo.UserImportResultVO;
+
+/**
+ * 用户批量导入服务接口
+ *
+ * @author xiaoxin
+ * @since 1.0.0
+ */
+public interface UserImportService {
+
+    /**
+     * 提交导入任务，文件在后台流式解析并分批写入
+     *
+     * @param file 导入文件（CSV或JSON）
+     * @param format 文件格式，为空时按文件扩展名判断
+     * @return 任务初始状态
+     */
+    UserImportResultVO submitImport(MultipartFile file, String format);
+
+    /**
+     * 查询导入任务进度与错误报告
+     *
+     * @param taskId 任务ID
+     * @return 任务状态
+     */
+    UserImportResultVO getImportTask(String taskId);
+}
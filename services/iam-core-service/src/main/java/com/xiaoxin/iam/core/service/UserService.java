@@ -1,6 +1,9 @@
 package com.xiaoxin.iam.core.service;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 import com.baomidou.mybatisplus.core.metadata.IPage;
@@ -10,8 +13,12 @@ import com.xiaoxin.iam.core.entity.Menu;
 import com.xiaoxin.iam.core.entity.Permission;
 import com.xiaoxin.iam.core.entity.Role;
 import com.xiaoxin.iam.core.entity.User;
+import com.xiaoxin.iam.core.menu.MenuTree;
+import com.xiaoxin.iam.core.support.CountMode;
+import com.xiaoxin.iam.core.vo.PageResult;
 import com.xiaoxin.iam.common.dto.UserDTO;
 import com.xiaoxin.iam.common.dto.LoginInfoUpdateDTO;
+import com.xiaoxin.iam.common.dto.PermissionCheckDTO;
 
 /**
  * 用户服务接口
@@ -37,6 +44,22 @@ public interface UserService {
      */
     UserDTO getUserByUsername(String username);
 
+    /**
+     * 按ID批量查询用户，包含角色标识与权限编码
+     *
+     * @param userIds 用户ID集合，最多 {@link com.xiaoxin.iam.core.constant.CoreConstants#INTERNAL_BATCH_MAX_KEYS} 个
+     * @return 用户列表，按入参顺序排列，不存在的用户忽略
+     */
+    List<UserDTO> getUsersByIds(Collection<Long> userIds);
+
+    /**
+     * 按用户名批量查询用户，包含角色标识与权限编码
+     *
+     * @param usernames 用户名集合，最多 {@link com.xiaoxin.iam.core.constant.CoreConstants#INTERNAL_BATCH_MAX_KEYS} 个
+     * @return 用户列表，按入参顺序排列，不存在的用户忽略
+     */
+    List<UserDTO> getUsersByUsernames(Collection<String> usernames);
+
     /**
      * 分页查询用户列表
      *
@@ -46,6 +69,38 @@ public interface UserService {
      */
     IPage<User> getUserPage(Page<User> page, User user);
 
+    /**
+     * 分页查询用户列表，可跳过或估算总数
+     *
+     * @param page 分页参数
+     * @param user 查询条件
+     * @param countMode 总数统计方式
+     * @return 用户分页列表
+     */
+    PageResult<User> getUserPage(Page<User> page, User user, CountMode countMode);
+
+    /**
+     * 游标分页查询用户列表，按创建时间倒序
+     *
+     * @param user 查询条件
+     * @param cursor 上一页返回的游标，为空时查询第一页
+     * @param size 每页大小
+     * @param countMode 总数统计方式
+     * @return 用户分页列表
+     */
+    PageResult<User> getUserCursorPage(User user, String cursor, long size, CountMode countMode);
+
+    /**
+     * 流式导出用户，按数据权限过滤、按字段权限隐藏或脱敏列
+     *
+     * @param user 查询条件
+     * @param format 导出格式，csv 或 ndjson
+     * @param output 输出流，导出完成后关闭
+     * @return 导出行数
+     * @throws IOException 写出失败
+     */
+    long exportUsers(User user, String format, OutputStream output) throws IOException;
+
     /**
      * 创建用户
      *
@@ -106,6 +161,15 @@ public interface UserService {
      */
     boolean updateUserStatus(Long userId, String status);
 
+    /**
+     * 批量更新用户状态
+     *
+     * @param userIds 用户ID列表
+     * @param status 状态
+     * @return 是否成功
+     */
+    boolean updateUsersStatus(List<Long> userIds, String status);
+
     /**
      * 分配用户角色
      *
@@ -156,8 +220,36 @@ public interface UserService {
      */
     List<Menu> getUserMenus(Long userId);
 
+    /**
+     * 查询用户菜单树
+     * 相同角色组合的用户共享同一棵缓存的树
+     *
+     * @param userId 用户ID
+     * @return 菜单树及其ETag
+     */
+    MenuTree getUserMenuTree(Long userId);
+
+    /**
+     * 判定用户是否拥有指定权限
+     *
+     * @param userId 用户ID
+     * @param permissionCode 权限编码
+     * @return 是否拥有
+     */
+    boolean hasPermission(Long userId, String permissionCode);
+
+    /**
+     * 批量判定（用户, 权限）对
+     *
+     * @param checks 判定请求
+     * @return 判定结果，与请求顺序一致
+     */
+    List<PermissionCheckDTO> checkPermissions(List<PermissionCheckDTO> checks);
+
     /**
      * 检查用户名是否存在
+     * 供表单实时校验使用，先经唯一性预检过滤器，其他实例刚写入的值可能短暂判为不存在；
+     * 新增、修改用户时另行查库校验
      *
      * @param username 用户名
      * @param userId 用户ID（排除自己）
@@ -0,0 +1,197 @@
+package com.xiaoxin.iam.core.service.impl;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.xiaoxin.iam.common.exception.BusinessException;
+import com.xiaoxin.iam.common.result.ResultCode;
+import com.xiaoxin.iam.core.dept.DeptClosure;
+import com.xiaoxin.iam.core.dept.DeptHierarchy;
+import com.xiaoxin.iam.core.entity.Dept;
+import com.xiaoxin.iam.core.event.IdentityEventPublisher;
+import com.xiaoxin.iam.core.mapper.DeptMapper;
+import com.xiaoxin.iam.core.scope.DataScopeRuleCache;
+import com.xiaoxin.iam.core.service.DeptService;
+import com.xiaoxin.iam.core.support.Batches;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 部门服务实现类
+ *
+ * @author xiaoxin
+ * @since 1.0.0
+ */
+@Slf4j
+@Service
+public class DeptServiceImpl implements DeptService {
+
+    @Autowired
+    private DeptMapper deptMapper;
+
+    @Autowired
+    private DeptHierarchy deptHierarchy;
+
+    @Autowired
+    private DataScopeRuleCache dataScopeRuleCache;
+
+    @Autowired
+    private IdentityEventPublisher identityEventPublisher;
+
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public boolean moveDept(Long deptId, Long parentId) {
+        if (deptId == null) {
+            throw new BusinessException(ResultCode.PARAM_ERROR.getCode(), "部门ID不能为空");
+        }
+        Long targetId = parentId != null ? parentId : DeptHierarchy.ROOT_ID;
+        Dept dept = requireActiveDept(deptId);
+        if (targetId != DeptHierarchy.ROOT_ID) {
+            requireActiveDept(targetId);
+        }
+        if (Objects.equals(dept.getParentId(), targetId)) {
+            return true;
+        }
+
+        // 以闭包表为准计算改写范围，读取时加锁，涉及同一子树或祖先链的并发移动在此串行化
+        List<DeptClosure> subtree = deptMapper.selectSubtreeForUpdate(deptId);
+        if (subtree.isEmpty()) {
+            throw new BusinessException(ResultCode.DATA_NOT_FOUND.getCode(), "部门层级数据尚未初始化，请稍后重试");
+        }
+        List<Long> subtreeIds = subtree.stream().map(DeptClosure::getDescendantId).toList();
+        if (subtreeIds.contains(targetId)) {
+            throw new BusinessException(ResultCode.PARAM_ERROR.getCode(), "不能将部门移动到自身或其下级部门之下");
+        }
+        List<Long> oldAncestorIds = deptMapper.selectAncestorIdsForUpdate(deptId);
+        List<Long> newAncestorIds = new ArrayList<>();
+        if (targetId != DeptHierarchy.ROOT_ID) {
+            newAncestorIds.addAll(deptMapper.selectAncestorIdsForUpdate(targetId));
+            newAncestorIds.add(targetId);
+        }
+
+        // 断开子树与原祖先的闭包关系，再连接到新祖先
+        if (!oldAncestorIds.isEmpty()) {
+            for (List<Long> chunk : Batches.partition(subtreeIds, Batches.DEFAULT_CHUNK_SIZE)) {
+                deptMapper.deleteClosureRows(oldAncestorIds, chunk);
+            }
+        }
+        List<DeptClosure> rows = new ArrayList<>(subtree.size() * newAncestorIds.size());
+        for (DeptClosure node : subtree) {
+            for (int i = 0; i < newAncestorIds.size(); i++) {
+                rows.add(new DeptClosure(newAncestorIds.get(i), node.getDescendantId(),
+                        node.getDepth() + newAncestorIds.size() - i));
+            }
+        }
+        Batches.partition(rows, Batches.DEFAULT_CHUNK_SIZE).forEach(deptMapper::insertClosureRows);
+
+        Dept update = new Dept();
+        update.setId(deptId);
+        update.setParentId(targetId);
+        deptMapper.updateById(update);
+        updateAncestors(deptId, subtree, newAncestorIds);
+
+        deptHierarchy.onDeptMoved(deptId, targetId);
+        dataScopeRuleCache.invalidateAll();
+        identityEventPublisher.deptMoved(deptId, dept.getParentId(), targetId, subtreeIds);
+        log.info("部门已移动: deptId={}, parentId={} -> {}, 子树{}个部门", deptId, dept.getParentId(), targetId,
+                subtree.size());
+        return true;
+    }
+
+    @Override
+    public List<Long> getDescendantIds(Long deptId) {
+        if (deptId == null) {
+            throw new BusinessException(ResultCode.PARAM_ERROR.getCode(), "部门ID不能为空");
+        }
+        if (deptHierarchy.isReady() && deptHierarchy.contains(deptId)) {
+            return deptHierarchy.getDescendantIds(deptId, true);
+        }
+        return deptMapper.selectDescendantIds(deptId);
+    }
+
+    @Override
+    public List<Long> getAncestorIds(Long deptId) {
+        if (deptId == null) {
+            throw new BusinessException(ResultCode.PARAM_ERROR.getCode(), "部门ID不能为空");
+        }
+        if (deptHierarchy.isReady() && deptHierarchy.contains(deptId)) {
+            return deptHierarchy.getAncestorIds(deptId);
+        }
+        return deptMapper.selectAncestorIds(deptId);
+    }
+
+    @Override
+    public boolean isDescendantOrSelf(Long deptId, Long ancestorId) {
+        if (deptId == null || ancestorId == null) {
+            return false;
+        }
+        if (deptId.equals(ancestorId)) {
+            return true;
+        }
+        if (deptHierarchy.isReady() && deptHierarchy.contains(deptId)) {
+            return deptHierarchy.isDescendantOrSelf(deptId, ancestorId);
+        }
+        return deptMapper.selectAncestorIds(deptId).contains(ancestorId);
+    }
+
+    /**
+     * 按新的祖先链重写子树内各部门的祖级列表（兼容仍读取 ancestors 的调用方）
+     */
+    private void updateAncestors(Long deptId, List<DeptClosure> subtree, List<Long> newAncestorIds) {
+        Map<Long, Long> parents = new HashMap<>(subtree.size() * 2);
+        List<Long> descendantIds = subtree.stream()
+                .map(DeptClosure::getDescendantId)
+                .filter(id -> !id.equals(deptId))
+                .toList();
+        for (List<Long> chunk : Batches.partition(descendantIds, Batches.DEFAULT_CHUNK_SIZE)) {
+            deptMapper.selectList(new LambdaQueryWrapper<Dept>()
+                            .select(Dept::getId, Dept::getParentId)
+                            .in(Dept::getId, chunk))
+                    .forEach(child -> parents.put(child.getId(), child.getParentId()));
+        }
+
+        // 子树按层级距离升序排列，父部门总先于子部门得到祖级列表
+        Map<Long, String> ancestors = new HashMap<>(subtree.size() * 2);
+        List<Dept> updates = new ArrayList<>(subtree.size());
+        for (DeptClosure node : subtree) {
+            Long id = node.getDescendantId();
+            String value;
+            if (id.equals(deptId)) {
+                value = Stream.concat(Stream.of(DeptHierarchy.ROOT_ID), newAncestorIds.stream())
+                        .map(String::valueOf)
+                        .collect(Collectors.joining(","));
+            } else {
+                Long parent = parents.get(id);
+                String parentAncestors = parent != null ? ancestors.get(parent) : null;
+                if (parentAncestors == null) {
+                    continue;
+                }
+                value = parentAncestors + "," + parent;
+            }
+            ancestors.put(id, value);
+            Dept row = new Dept();
+            row.setId(id);
+            row.setAncestors(value);
+            updates.add(row);
+        }
+        Batches.partition(updates, Batches.DEFAULT_CHUNK_SIZE).forEach(deptMapper::updateAncestors);
+    }
+
+    private Dept requireActiveDept(Long deptId) {
+        Dept dept = deptMapper.selectById(deptId);
+        if (dept == null || dept.isDeleted()) {
+            throw new BusinessException(ResultCode.DEPARTMENT_NOT_FOUND);
+        }
+        return dept;
+    }
+}
@@ -1,6 +1,14 @@
 package com.xiaoxin.iam.core.service.impl;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -9,14 +17,29 @@ import org.springframework.transaction.annotation.Transactional;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.xiaoxin.iam.common.exception.BusinessException;
 import com.xiaoxin.iam.common.result.ResultCode;
 import com.xiaoxin.iam.core.entity.Dept;
 import com.xiaoxin.iam.core.entity.Menu;
 import com.xiaoxin.iam.core.entity.Permission;
 import com.xiaoxin.iam.core.entity.Role;
+import com.xiaoxin.iam.core.event.IdentityEventPublisher;
 import com.xiaoxin.iam.core.mapper.RoleMapper;
+import com.xiaoxin.iam.core.menu.MenuTreeCache;
+import com.xiaoxin.iam.core.rbac.RbacIndex;
+import com.xiaoxin.iam.core.rbac.RoleMembershipCounter;
+import com.xiaoxin.iam.core.scope.DataScopeRuleCache;
 import com.xiaoxin.iam.core.service.RoleService;
+import com.xiaoxin.iam.core.support.Batches;
+import com.xiaoxin.iam.core.support.CountMode;
+import com.xiaoxin.iam.core.support.LinkDiff;
+import com.xiaoxin.iam.core.support.PageCursor;
+import com.xiaoxin.iam.core.support.PageQuerySupport;
+import com.xiaoxin.iam.core.support.RowExportWriter;
+import com.xiaoxin.iam.core.vo.PageResult;
+import com.xiaoxin.iam.core.vo.RoleExportRow;
+import com.xiaoxin.iam.starter.mq.event.identity.RoleChangedEvent;
 
 import lombok.extern.slf4j.Slf4j;
 
@@ -30,9 +53,32 @@ import lombok.extern.slf4j.Slf4j;
 @Service
 public class RoleServiceImpl implements RoleService {
 
+    /**
+     * 导出列
+     */
+    private static final Map<String, Function<RoleExportRow, Object>> EXPORT_COLUMNS = exportColumns();
+
     @Autowired
     private RoleMapper roleMapper;
 
+    @Autowired
+    private IdentityEventPublisher identityEventPublisher;
+
+    @Autowired
+    private RbacIndex rbacIndex;
+
+    @Autowired
+    private RoleMembershipCounter roleMembershipCounter;
+
+    @Autowired
+    private MenuTreeCache menuTreeCache;
+
+    @Autowired
+    private DataScopeRuleCache dataScopeRuleCache;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
     @Override
     public Role getRoleDetailById(Long roleId) {
         if (roleId == null) {
@@ -71,6 +117,49 @@ public class RoleServiceImpl implements RoleService {
 
     @Override
     public IPage<Role> getRolePage(Page<Role> page, Role role) {
+        LambdaQueryWrapper<Role> queryWrapper = buildRoleQuery(role);
+        queryWrapper.orderByAsc(Role::getRoleSort).orderByDesc(Role::getCreateTime);
+        
+        IPage<Role> result = roleMapper.selectPage(page, queryWrapper);
+        roleMembershipCounter.fill(result.getRecords());
+        return result;
+    }
+
+    @Override
+    public PageResult<Role> getRolePage(Page<Role> page, Role role, CountMode countMode) {
+        if (countMode == CountMode.EXACT) {
+            return PageResult.of(getRolePage(page, role));
+        }
+        LambdaQueryWrapper<Role> queryWrapper = buildRoleQuery(role);
+        queryWrapper.orderByAsc(Role::getRoleSort).orderByDesc(Role::getCreateTime).orderByDesc(Role::getId);
+        PageResult<Role> result = PageQuerySupport.selectSlice(roleMapper, queryWrapper, page.getCurrent(), page.getSize(),
+                countMode, () -> estimateRoleCount(role));
+        roleMembershipCounter.fill(result.getRecords());
+        return result;
+    }
+
+    @Override
+    public PageResult<Role> getRoleCursorPage(Role role, String cursor, long size, CountMode countMode) {
+        PageResult<Role> result = PageQuerySupport.selectByCursor(roleMapper, buildRoleQuery(role),
+                Role::getCreateTime, Role::getId, r -> new PageCursor(r.getCreateTime(), r.getId()),
+                cursor, size, countMode, () -> estimateRoleCount(role));
+        roleMembershipCounter.fill(result.getRecords());
+        return result;
+    }
+
+    @Override
+    public long exportRoles(Role role, String format, OutputStream output) throws IOException {
+        try (RowExportWriter<RoleExportRow> writer =
+                     RowExportWriter.open(output, format, EXPORT_COLUMNS, null, objectMapper)) {
+            roleMapper.streamExportRows(role, writer);
+            return writer.getRowCount();
+        }
+    }
+
+    /**
+     * 构建角色列表过滤条件
+     */
+    private LambdaQueryWrapper<Role> buildRoleQuery(Role role) {
         LambdaQueryWrapper<Role> queryWrapper = new LambdaQueryWrapper<>();
         
         if (role.getRoleName() != null && !role.getRoleName().trim().isEmpty()) {
@@ -84,9 +173,16 @@ public class RoleServiceImpl implements RoleService {
         }
         
         queryWrapper.eq(Role::getDelFlag, "0"); // 只查询未删除的角色
-        queryWrapper.orderByAsc(Role::getRoleSort).orderByDesc(Role::getCreateTime);
-        
-        return roleMapper.selectPage(page, queryWrapper);
+        return queryWrapper;
+    }
+
+    /**
+     * 估算角色总数，仅在没有过滤条件时可用
+     */
+    private Long estimateRoleCount(Role role) {
+        boolean filtered = Stream.of(role.getRoleName(), role.getRoleKey(), role.getStatus())
+                .anyMatch(value -> value != null && !value.trim().isEmpty());
+        return filtered ? null : roleMapper.selectEstimatedRowCount();
     }
 
     @Override
@@ -127,6 +223,7 @@ public class RoleServiceImpl implements RoleService {
         }
         
         int result = roleMapper.insert(role);
+        rbacIndex.onRolesChanged(Collections.singletonList(role.getId()));
         return result > 0;
     }
 
@@ -154,6 +251,9 @@ public class RoleServiceImpl implements RoleService {
         }
         
         int result = roleMapper.updateById(role);
+        rbacIndex.onRolesChanged(Collections.singletonList(role.getId()));
+        identityEventPublisher.roleChanged(RoleChangedEvent.CHANGE_UPDATED, role.getId(),
+                existRole.getRoleKey(), role.getRoleKey());
         return result > 0;
     }
 
@@ -163,22 +263,7 @@ public class RoleServiceImpl implements RoleService {
         if (roleId == null) {
             throw new BusinessException(ResultCode.PARAM_ERROR.getCode(), "角色ID不能为空");
         }
-        
-        Role role = roleMapper.selectById(roleId);
-        if (role == null) {
-            throw new BusinessException(ResultCode.ROLE_NOT_FOUND);
-        }
-        
-        // 检查是否有用户使用该角色
-        int userCount = roleMapper.countUsersByRoleId(roleId);
-        if (userCount > 0) {
-            throw new BusinessException(ResultCode.ROLE_HAS_USERS);
-        }
-        
-        // 逻辑删除
-        role.setDelFlag("2");
-        int result = roleMapper.updateById(role);
-        return result > 0;
+        return deleteRoles(Collections.singletonList(roleId));
     }
 
     @Override
@@ -188,10 +273,31 @@ public class RoleServiceImpl implements RoleService {
             throw new BusinessException(ResultCode.PARAM_ERROR.getCode(), "角色ID列表不能为空");
         }
         
-        for (Long roleId : roleIds) {
-            deleteRole(roleId);
+        List<Long> ids = Batches.distinct(roleIds);
+        List<String> roleKeys = requireActiveRoleKeys(ids);
+        
+        // 检查是否有用户使用这些角色
+        for (List<Long> chunk : Batches.partition(ids, Batches.DEFAULT_CHUNK_SIZE)) {
+            if (!roleMapper.selectRoleIdsInUse(chunk).isEmpty()) {
+                throw new BusinessException(ResultCode.ROLE_HAS_USERS);
+            }
         }
-        return true;
+        
+        // 逻辑删除并清理关联（含已删除用户遗留的用户角色关联），每个分块一条 IN 语句
+        int result = 0;
+        for (List<Long> chunk : Batches.partition(ids, Batches.DEFAULT_CHUNK_SIZE)) {
+            result += roleMapper.logicDeleteRoles(chunk);
+            roleMapper.deleteUserRolesByRoleIds(chunk);
+            roleMapper.deleteRolePermissionsByRoleIds(chunk);
+            roleMapper.deleteRoleMenusByRoleIds(chunk);
+            roleMapper.deleteRoleDeptsByRoleIds(chunk);
+        }
+        rbacIndex.onRolesChanged(ids);
+        menuTreeCache.onRolesChanged(ids);
+        dataScopeRuleCache.invalidateAll();
+        roleMembershipCounter.onRolesDeleted(ids);
+        identityEventPublisher.roleChanged(RoleChangedEvent.CHANGE_DELETED, ids, roleKeys);
+        return result > 0;
     }
 
     @Override
@@ -211,9 +317,49 @@ public class RoleServiceImpl implements RoleService {
         
         role.setStatus(status);
         int result = roleMapper.updateById(role);
+        rbacIndex.onRolesChanged(Collections.singletonList(roleId));
+        dataScopeRuleCache.invalidateAll();
+        identityEventPublisher.roleChanged(RoleChangedEvent.CHANGE_STATUS, roleId, role.getRoleKey());
         return result > 0;
     }
 
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public boolean updateRolesStatus(List<Long> roleIds, String status) {
+        if (roleIds == null || roleIds.isEmpty()) {
+            throw new BusinessException(ResultCode.PARAM_ERROR.getCode(), "角色ID列表不能为空");
+        }
+        if (status == null || status.trim().isEmpty()) {
+            throw new BusinessException(ResultCode.PARAM_ERROR.getCode(), "状态不能为空");
+        }
+        
+        List<Long> ids = Batches.distinct(roleIds);
+        List<String> roleKeys = requireActiveRoleKeys(ids);
+        
+        int result = 0;
+        for (List<Long> chunk : Batches.partition(ids, Batches.DEFAULT_CHUNK_SIZE)) {
+            result += roleMapper.updateRolesStatus(chunk, status);
+        }
+        rbacIndex.onRolesChanged(ids);
+        dataScopeRuleCache.invalidateAll();
+        identityEventPublisher.roleChanged(RoleChangedEvent.CHANGE_STATUS, ids, roleKeys);
+        return result > 0;
+    }
+
+    /**
+     * 分块批量校验角色存在，返回角色标识；任一角色不存在或已删除时整体失败
+     */
+    private List<String> requireActiveRoleKeys(List<Long> ids) {
+        List<String> roleKeys = new ArrayList<>(ids.size());
+        for (List<Long> chunk : Batches.partition(ids, Batches.DEFAULT_CHUNK_SIZE)) {
+            roleMapper.selectActiveRolesByIds(chunk).forEach(role -> roleKeys.add(role.getRoleKey()));
+        }
+        if (roleKeys.size() != ids.size()) {
+            throw new BusinessException(ResultCode.ROLE_NOT_FOUND);
+        }
+        return roleKeys;
+    }
+
     @Override
     @Transactional(rollbackFor = Exception.class)
     public boolean assignRolePermissions(Long roleId, List<Long> permissionIds) {
@@ -226,14 +372,16 @@ public class RoleServiceImpl implements RoleService {
             throw new BusinessException(ResultCode.ROLE_NOT_FOUND);
         }
         
-        // 删除原有权限关联
-        roleMapper.deleteRolePermissions(roleId);
-        
-        // 添加新的权限关联
-        if (permissionIds != null && !permissionIds.isEmpty()) {
-            roleMapper.insertRolePermissions(roleId, permissionIds);
+        // 只写入与当前关联的差异
+        LinkDiff diff = LinkDiff.of(roleMapper.selectRolePermissionIdsForUpdate(roleId), permissionIds);
+        if (diff.isEmpty()) {
+            return true;
         }
+        diff.apply(ids -> roleMapper.deleteRolePermissionLinks(roleId, ids),
+                ids -> roleMapper.insertRolePermissions(roleId, ids));
         
+        rbacIndex.onRolePermissionsAssigned(roleId, permissionIds);
+        identityEventPublisher.roleLinksChanged(RoleChangedEvent.CHANGE_PERMISSIONS, roleId, role.getRoleKey(), diff);
         return true;
     }
 
@@ -249,14 +397,17 @@ public class RoleServiceImpl implements RoleService {
             throw new BusinessException(ResultCode.ROLE_NOT_FOUND);
         }
         
-        // 删除原有菜单关联
-        roleMapper.deleteRoleMenus(roleId);
-        
-        // 添加新的菜单关联
-        if (menuIds != null && !menuIds.isEmpty()) {
-            roleMapper.insertRoleMenus(roleId, menuIds);
+        // 只写入与当前关联的差异
+        LinkDiff diff = LinkDiff.of(roleMapper.selectRoleMenuIdsForUpdate(roleId), menuIds);
+        if (diff.isEmpty()) {
+            return true;
         }
+        diff.apply(ids -> roleMapper.deleteRoleMenuLinks(roleId, ids),
+                ids -> roleMapper.insertRoleMenus(roleId, ids));
         
+        rbacIndex.onRoleMenusAssigned(roleId, menuIds);
+        menuTreeCache.onRoleMenusAssigned(roleId, menuIds);
+        identityEventPublisher.roleLinksChanged(RoleChangedEvent.CHANGE_MENUS, roleId, role.getRoleKey(), diff);
         return true;
     }
 
@@ -272,14 +423,16 @@ public class RoleServiceImpl implements RoleService {
             throw new BusinessException(ResultCode.ROLE_NOT_FOUND);
         }
         
-        // 删除原有部门关联
-        roleMapper.deleteRoleDepts(roleId);
-        
-        // 添加新的部门关联
-        if (deptIds != null && !deptIds.isEmpty()) {
-            roleMapper.insertRoleDepts(roleId, deptIds);
+        // 只写入与当前关联的差异
+        LinkDiff diff = LinkDiff.of(roleMapper.selectRoleDeptIdsForUpdate(roleId), deptIds);
+        if (diff.isEmpty()) {
+            return true;
         }
+        diff.apply(ids -> roleMapper.deleteRoleDeptLinks(roleId, ids),
+                ids -> roleMapper.insertRoleDepts(roleId, ids));
         
+        roleMembershipCounter.onRoleDeptsChanged(roleId, diff);
+        identityEventPublisher.roleLinksChanged(RoleChangedEvent.CHANGE_DEPTS, roleId, role.getRoleKey(), diff);
         return true;
     }
 
@@ -312,6 +465,9 @@ public class RoleServiceImpl implements RoleService {
         if (roleId == null) {
             return 0;
         }
+        if (roleMembershipCounter.isReady()) {
+            return roleMembershipCounter.userCount(roleId);
+        }
         return roleMapper.countUsersByRoleId(roleId);
     }
 
@@ -320,6 +476,9 @@ public class RoleServiceImpl implements RoleService {
         if (roleId == null) {
             return 0;
         }
+        if (roleMembershipCounter.isReady()) {
+            return roleMembershipCounter.deptCount(roleId);
+        }
         return roleMapper.countDeptsByRoleId(roleId);
     }
 
@@ -340,4 +499,18 @@ public class RoleServiceImpl implements RoleService {
         int count = roleMapper.checkRoleKeyExists(roleKey, roleId);
         return count > 0;
     }
+
+    private static Map<String, Function<RoleExportRow, Object>> exportColumns() {
+        Map<String, Function<RoleExportRow, Object>> columns = new LinkedHashMap<>();
+        columns.put("id", RoleExportRow::getId);
+        columns.put("roleName", RoleExportRow::getRoleName);
+        columns.put("roleKey", RoleExportRow::getRoleKey);
+        columns.put("roleSort", RoleExportRow::getRoleSort);
+        columns.put("dataScope", RoleExportRow::getDataScope);
+        columns.put("status", RoleExportRow::getStatus);
+        columns.put("createTime", RoleExportRow::getCreateTime);
+        columns.put("userCount", RoleExportRow::getUserCount);
+        columns.put("permissionCodes", RoleExportRow::getPermissionCodes);
+        return Collections.unmodifiableMap(columns);
+    }
 }
@@ -0,0 +1,460 @@
+package com.xiaoxin.iam.core.service.impl;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+import org.springframework.web.multipart.MultipartFile;
+
+import com.baomidou.mybatisplus.core.toolkit.IdWorker;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.xiaoxin.iam.common.exception.BusinessException;
+import com.xiaoxin.iam.common.result.ResultCode;
+import com.xiaoxin.iam.core.config.UserImportProperties;
+import com.xiaoxin.iam.core.dto.UserImportRow;
+import com.xiaoxin.iam.core.entity.User;
+import com.xiaoxin.iam.core.event.IdentityEventPublisher;
+import com.xiaoxin.iam.core.mapper.UserImportMapper;
+import com.xiaoxin.iam.core.rbac.RbacIndex;
+import com.xiaoxin.iam.core.rbac.RbacRelation;
+import com.xiaoxin.iam.core.rbac.RoleMembershipCounter;
+import com.xiaoxin.iam.core.search.UserSearchIndex;
+import com.xiaoxin.iam.core.service.UserImportService;
+import com.xiaoxin.iam.core.support.CurrentUser;
+import com.xiaoxin.iam.core.support.UserImportReader;
+import com.xiaoxin.iam.core.unique.UserUniqueFilter;
+import com.xiaoxin.iam.core.vo.UserImportResultVO;
+import com.xiaoxin.iam.starter.mq.event.identity.UserChangedEvent;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 用户批量导入服务实现类
+ * <p>
+ * 与逐个调用 {@code createUser} 相比：
+ * </p>
+ * <ul>
+ *     <li>上传文件先落盘，后台流式解析，内存中最多保留一个分块</li>
+ *     <li>唯一性校验基于预加载的用户名/邮箱/手机号集合，文件内重复同样可检出，不再逐行查询</li>
+ *     <li>密码在有界线程池中并行哈希</li>
+ *     <li>用户及其角色/部门关联按分块以多行 INSERT 写入，每个分块一个事务，分块失败只影响本分块</li>
+ * </ul>
+ * 任务状态保存在执行导入的实例内存中，结束后保留一段时间供查询。
+ *
+ * @author xiaoxin
+ * @since 1.0.0
+ */
+@Slf4j
+@Service
+public class UserImportServiceImpl implements UserImportService, InitializingBean, DisposableBean {
+
+    private static final String STATUS_RUNNING = "RUNNING";
+    private static final String STATUS_COMPLETED = "COMPLETED";
+    private static final String STATUS_FAILED = "FAILED";
+
+    @Autowired
+    private UserImportMapper userImportMapper;
+
+    @Autowired
+    private UserImportProperties properties;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private IdentityEventPublisher identityEventPublisher;
+
+    @Autowired
+    private RbacIndex rbacIndex;
+
+    @Autowired
+    private RoleMembershipCounter roleMembershipCounter;
+
+    @Autowired
+    private UserSearchIndex userSearchIndex;
+
+    @Autowired
+    private UserUniqueFilter userUniqueFilter;
+
+    private final Map<String, ImportTask> tasks = new ConcurrentHashMap<>();
+
+    private ExecutorService importExecutor;
+
+    private ExecutorService hashExecutor;
+
+    @Override
+    public void afterPropertiesSet() {
+        importExecutor = Executors.newFixedThreadPool(Math.max(1, properties.getMaxConcurrentTasks()),
+                daemon("user-import"));
+        hashExecutor = Executors.newFixedThreadPool(Math.max(1, properties.getHashConcurrency()),
+                daemon("user-import-hash"));
+    }
+
+    @Override
+    public void destroy() {
+        importExecutor.shutdownNow();
+        hashExecutor.shutdownNow();
+    }
+
+    @Override
+    public UserImportResultVO submitImport(MultipartFile file, String format) {
+        if (file == null || file.isEmpty()) {
+            throw new BusinessException(ResultCode.PARAM_ERROR.getCode(), "导入文件不能为空");
+        }
+        String resolvedFormat = resolveFormat(file, format);
+        evictExpiredTasks();
+
+        // 请求结束后上传的临时文件会被清理，先复制一份供后台任务读取
+        Path copy;
+        try {
+            copy = Files.createTempFile("user-import-", "." + resolvedFormat);
+            file.transferTo(copy);
+        } catch (IOException e) {
+            throw new BusinessException(ResultCode.FILE_UPLOAD_FAILED, e);
+        }
+
+        // 后台线程没有请求的安全上下文，提交时记录操作人
+        ImportTask task = new ImportTask(UUID.randomUUID().toString().replace("-", ""), CurrentUser.username());
+        tasks.put(task.taskId, task);
+        importExecutor.execute(() -> runImport(task, copy, resolvedFormat));
+        log.info("用户导入任务已提交: taskId={}, file={}, size={}", task.taskId, file.getOriginalFilename(), file.getSize());
+        return task.snapshot();
+    }
+
+    @Override
+    public UserImportResultVO getImportTask(String taskId) {
+        ImportTask task = taskId != null ? tasks.get(taskId) : null;
+        if (task == null) {
+            throw new BusinessException(ResultCode.NOT_FOUND.getCode(), "导入任务不存在或已过期");
+        }
+        return task.snapshot();
+    }
+
+    private void runImport(ImportTask task, Path file, String format) {
+        try (InputStream input = Files.newInputStream(file);
+             UserImportReader reader = UserImportReader.open(input, format, objectMapper)) {
+            UniqueKeys keys = loadUniqueKeys();
+            Set<Long> roleIds = new HashSet<>(userImportMapper.selectRoleIds());
+            Set<Long> deptIds = new HashSet<>(userImportMapper.selectDeptIds());
+
+            List<UserImportReader.Row> chunk = new ArrayList<>(properties.getChunkSize());
+            UserImportReader.Row row;
+            while ((row = reader.next()) != null) {
+                if (row.number() > properties.getMaxRows()) {
+                    throw new BusinessException(ResultCode.PARAM_ERROR.getCode(),
+                            "导入文件超过最大行数" + properties.getMaxRows());
+                }
+                chunk.add(row);
+                if (chunk.size() >= properties.getChunkSize()) {
+                    importChunk(task, chunk, keys, roleIds, deptIds);
+                    chunk.clear();
+                }
+            }
+            if (!chunk.isEmpty()) {
+                importChunk(task, chunk, keys, roleIds, deptIds);
+            }
+            task.finish(STATUS_COMPLETED, null);
+            log.info("用户导入任务完成: taskId={}, processed={}, succeeded={}, failed={}",
+                    task.taskId, task.processed.get(), task.succeeded.get(), task.failed.get());
+        } catch (Exception e) {
+            log.error("用户导入任务失败: taskId={}", task.taskId, e);
+            task.finish(STATUS_FAILED, e.getMessage());
+        } finally {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                log.warn("删除导入临时文件失败: {}", file, e);
+            }
+        }
+    }
+
+    /**
+     * 校验、并行哈希并在一个事务内写入一个分块
+     */
+    private void importChunk(ImportTask task, List<UserImportReader.Row> rows, UniqueKeys keys,
+                             Set<Long> roleIds, Set<Long> deptIds) {
+        List<UserImportReader.Row> accepted = new ArrayList<>(rows.size());
+        for (UserImportReader.Row row : rows) {
+            String error = row.error() != null ? row.error() : validate(row.data(), keys, roleIds, deptIds);
+            if (error != null) {
+                task.reject(row, error, properties.getMaxErrors());
+            } else {
+                accepted.add(row);
+            }
+        }
+        task.processed.addAndGet(rows.size() - accepted.size());
+        if (accepted.isEmpty()) {
+            return;
+        }
+
+        List<CompletableFuture<String>> hashes = accepted.stream()
+                .map(row -> CompletableFuture.supplyAsync(
+                        () -> passwordEncoder.encode(row.data().getPassword()), hashExecutor))
+                .toList();
+        List<User> users = new ArrayList<>(accepted.size());
+        List<RbacRelation> userRoles = new ArrayList<>();
+        List<RbacRelation> userDepts = new ArrayList<>();
+        for (int i = 0; i < accepted.size(); i++) {
+            User user = toUser(accepted.get(i).data(), hashes.get(i).join(), task.operator);
+            users.add(user);
+            userRoles.addAll(relations(user.getId(), accepted.get(i).data().getRoleIds()));
+            userDepts.addAll(relations(user.getId(), accepted.get(i).data().getDeptIds()));
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                userImportMapper.insertUsers(users);
+                if (!userRoles.isEmpty()) {
+                    userImportMapper.insertUserRoles(userRoles);
+                    roleMembershipCounter.onUserRolesInserted(
+                            userRoles.stream().map(RbacRelation::getTargetId).toList());
+                }
+                if (!userDepts.isEmpty()) {
+                    userImportMapper.insertUserDepts(userDepts);
+                }
+                afterChunkCommitted(users, accepted);
+            });
+            task.succeeded.addAndGet(users.size());
+        } catch (Exception e) {
+            log.warn("用户导入分块写入失败: taskId={}, rows={}-{}", task.taskId,
+                    accepted.get(0).number(), accepted.get(accepted.size() - 1).number(), e);
+            accepted.forEach(row -> task.reject(row, "批量写入失败: " + e.getMessage(), properties.getMaxErrors()));
+        }
+        task.processed.addAndGet(accepted.size());
+    }
+
+    /**
+     * 注册提交后动作：同步本地索引并发布用户新增事件
+     */
+    private void afterChunkCommitted(List<User> users, List<UserImportReader.Row> rows) {
+        List<Long> userIds = users.stream().map(User::getId).toList();
+        for (int i = 0; i < users.size(); i++) {
+            List<Long> assigned = rows.get(i).data().getRoleIds();
+            if (assigned != null && !assigned.isEmpty()) {
+                rbacIndex.onUserRolesAssigned(users.get(i).getId(), assigned);
+            }
+        }
+        userSearchIndex.onUsersChanged(userIds);
+        userUniqueFilter.onUsersWritten(users);
+        identityEventPublisher.userChanged(UserChangedEvent.CHANGE_CREATED, userIds,
+                users.stream().map(User::getUsername).toList());
+    }
+
+    /**
+     * 校验单行，通过时占用其用户名/邮箱/手机号，保证文件内同样唯一
+     *
+     * @return 错误信息，通过时返回 null
+     */
+    private String validate(UserImportRow row, UniqueKeys keys, Set<Long> roleIds, Set<Long> deptIds) {
+        Set<ConstraintViolation<UserImportRow>> violations = validator.validate(row);
+        if (!violations.isEmpty()) {
+            return violations.stream().map(ConstraintViolation::getMessage).sorted()
+                    .collect(Collectors.joining("; "));
+        }
+        if (row.getRoleIds() != null && !roleIds.containsAll(row.getRoleIds())) {
+            return ResultCode.ROLE_NOT_FOUND.getMessage();
+        }
+        if (row.getDeptIds() != null && !deptIds.containsAll(row.getDeptIds())) {
+            return ResultCode.DEPARTMENT_NOT_FOUND.getMessage();
+        }
+        String username = normalize(row.getUsername());
+        String email = normalize(row.getEmail());
+        String phone = normalize(row.getPhone());
+        if (keys.usernames.contains(username)) {
+            return ResultCode.USERNAME_EXISTS.getMessage();
+        }
+        if (email != null && keys.emails.contains(email)) {
+            return ResultCode.EMAIL_EXISTS.getMessage();
+        }
+        if (phone != null && keys.phones.contains(phone)) {
+            return ResultCode.PHONE_EXISTS.getMessage();
+        }
+        keys.usernames.add(username);
+        if (email != null) {
+            keys.emails.add(email);
+        }
+        if (phone != null) {
+            keys.phones.add(phone);
+        }
+        return null;
+    }
+
+    /**
+     * 流式加载现有用户的唯一性字段；用户名唯一索引包含已删除用户，邮箱与手机号只校验未删除用户
+     */
+    private UniqueKeys loadUniqueKeys() {
+        UniqueKeys keys = new UniqueKeys();
+        userImportMapper.streamUniqueKeys(context -> {
+            User user = context.getResultObject();
+            keys.usernames.add(normalize(user.getUsername()));
+            if ("0".equals(user.getDelFlag())) {
+                String email = normalize(user.getEmail());
+                String phone = normalize(user.getPhone());
+                if (email != null) {
+                    keys.emails.add(email);
+                }
+                if (phone != null) {
+                    keys.phones.add(phone);
+                }
+            }
+        });
+        return keys;
+    }
+
+    private static User toUser(UserImportRow row, String encodedPassword, String operator) {
+        User user = new User();
+        user.setId(IdWorker.getId());
+        user.setUsername(row.getUsername());
+        user.setNickname(StringUtils.hasText(row.getNickname()) ? row.getNickname() : row.getUsername());
+        user.setEmail(row.getEmail());
+        user.setPhone(row.getPhone());
+        user.setSex(row.getSex() != null ? row.getSex() : "0");
+        user.setAvatar(row.getAvatar());
+        user.setPassword(encodedPassword);
+        user.setStatus(row.getStatus() != null ? row.getStatus() : "0");
+        user.setRemark(row.getRemark());
+        user.setCreateBy(operator);
+        user.setUpdateBy(operator);
+        return user;
+    }
+
+    private static List<RbacRelation> relations(Long userId, Collection<Long> targetIds) {
+        if (targetIds == null || targetIds.isEmpty()) {
+            return List.of();
+        }
+        return targetIds.stream().distinct().map(targetId -> {
+            RbacRelation relation = new RbacRelation();
+            relation.setOwnerId(userId);
+            relation.setTargetId(targetId);
+            return relation;
+        }).toList();
+    }
+
+    /**
+     * 唯一性比较与数据库排序规则一致，不区分大小写；空串视为未填写
+     */
+    private static String normalize(String value) {
+        return StringUtils.hasText(value) ? value.trim().toLowerCase(Locale.ROOT) : null;
+    }
+
+    private String resolveFormat(MultipartFile file, String format) {
+        String resolved = StringUtils.hasText(format) ? format : StringUtils.getFilenameExtension(file.getOriginalFilename());
+        resolved = resolved != null ? resolved.toLowerCase(Locale.ROOT) : null;
+        if (!UserImportReader.FORMAT_CSV.equals(resolved) && !UserImportReader.FORMAT_JSON.equals(resolved)) {
+            throw new BusinessException(ResultCode.FILE_TYPE_NOT_SUPPORTED.getCode(), "仅支持CSV或JSON格式的导入文件");
+        }
+        return resolved;
+    }
+
+    private void evictExpiredTasks() {
+        LocalDateTime expireBefore = LocalDateTime.now().minus(properties.getTaskRetention());
+        tasks.values().removeIf(task -> task.endTime != null && task.endTime.isBefore(expireBefore));
+    }
+
+    private static ThreadFactory daemon(String name) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * 已占用的唯一性字段（小写）
+     */
+    private static final class UniqueKeys {
+        final Set<String> usernames = new HashSet<>();
+        final Set<String> emails = new HashSet<>();
+        final Set<String> phones = new HashSet<>();
+    }
+
+    /**
+     * 导入任务进度
+     */
+    private static final class ImportTask {
+
+        final String taskId;
+        final String operator;
+        final LocalDateTime startTime = LocalDateTime.now();
+        final AtomicInteger processed = new AtomicInteger();
+        final AtomicInteger succeeded = new AtomicInteger();
+        final AtomicInteger failed = new AtomicInteger();
+        final List<UserImportResultVO.RowError> errors = new ArrayList<>();
+        volatile String status = STATUS_RUNNING;
+        volatile String message;
+        volatile LocalDateTime endTime;
+
+        ImportTask(String taskId, String operator) {
+            this.taskId = taskId;
+            this.operator = operator;
+        }
+
+        void reject(UserImportReader.Row row, String error, int maxErrors) {
+            failed.incrementAndGet();
+            synchronized (errors) {
+                if (errors.size() < maxErrors) {
+                    String username = row.data() != null ? row.data().getUsername() : null;
+                    errors.add(new UserImportResultVO.RowError(row.number(), username, error));
+                }
+            }
+        }
+
+        void finish(String finalStatus, String failureMessage) {
+            this.message = failureMessage;
+            this.endTime = LocalDateTime.now();
+            this.status = finalStatus;
+        }
+
+        UserImportResultVO snapshot() {
+            UserImportResultVO vo = new UserImportResultVO();
+            vo.setTaskId(taskId);
+            vo.setStatus(status);
+            vo.setProcessed(processed.get());
+            vo.setSucceeded(succeeded.get());
+            vo.setFailed(failed.get());
+            vo.setMessage(message);
+            synchronized (errors) {
+                vo.setErrors(new ArrayList<>(errors));
+            }
+            vo.setStartTime(startTime);
+            vo.setEndTime(endTime);
+            return vo;
+        }
+    }
+}
@@ -1,18 +1,35 @@
 package com.xiaoxin.iam.core.service.impl;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
 
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.xiaoxin.iam.common.exception.BusinessException;
 import com.xiaoxin.iam.common.result.ResultCode;
+import com.xiaoxin.iam.core.constant.CoreConstants;
 import com.xiaoxin.iam.core.entity.Dept;
 import com.xiaoxin.iam.core.entity.Menu;
 import com.xiaoxin.iam.core.entity.Permission;
@@ -20,8 +37,32 @@ import com.xiaoxin.iam.core.entity.Role;
 import com.xiaoxin.iam.core.entity.User;
 import com.xiaoxin.iam.common.dto.UserDTO;
 import com.xiaoxin.iam.common.dto.LoginInfoUpdateDTO;
+import com.xiaoxin.iam.common.dto.PermissionCheckDTO;
+import com.xiaoxin.iam.core.event.IdentityEventPublisher;
 import com.xiaoxin.iam.core.mapper.UserMapper;
+import com.xiaoxin.iam.core.menu.MenuTree;
+import com.xiaoxin.iam.core.menu.MenuTreeCache;
+import com.xiaoxin.iam.core.rbac.RbacIndex;
+import com.xiaoxin.iam.core.rbac.RoleMembershipCounter;
+import com.xiaoxin.iam.core.rbac.UserAuthority;
+import com.xiaoxin.iam.core.scope.DataScopeRuleCache;
+import com.xiaoxin.iam.core.search.UserSearchField;
+import com.xiaoxin.iam.core.search.UserSearchIndex;
 import com.xiaoxin.iam.core.service.UserService;
+import com.xiaoxin.iam.core.support.Batches;
+import com.xiaoxin.iam.core.support.CountMode;
+import com.xiaoxin.iam.core.support.CurrentUser;
+import com.xiaoxin.iam.core.support.LinkDiff;
+import com.xiaoxin.iam.core.support.PageCursor;
+import com.xiaoxin.iam.core.support.PageQuerySupport;
+import com.xiaoxin.iam.core.support.RowExportWriter;
+import com.xiaoxin.iam.core.unique.UserUniqueField;
+import com.xiaoxin.iam.core.unique.UserUniqueFilter;
+import com.xiaoxin.iam.core.vo.PageResult;
+import com.xiaoxin.iam.core.vo.UserExportRow;
+import com.xiaoxin.iam.starter.mq.event.identity.UserChangedEvent;
+import com.xiaoxin.iam.starter.web.field.FieldPolicy;
+import com.xiaoxin.iam.starter.web.field.FieldPolicyProvider;
 
 import lombok.extern.slf4j.Slf4j;
 
@@ -35,12 +76,44 @@ import lombok.extern.slf4j.Slf4j;
 @Service
 public class UserServiceImpl implements UserService {
 
+    /**
+     * 导出列，列名与字段权限的字段名一致
+     */
+    private static final Map<String, Function<UserExportRow, Object>> EXPORT_COLUMNS = exportColumns();
+
     @Autowired
     private UserMapper userMapper;
 
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private IdentityEventPublisher identityEventPublisher;
+
+    @Autowired
+    private RbacIndex rbacIndex;
+
+    @Autowired
+    private RoleMembershipCounter roleMembershipCounter;
+
+    @Autowired
+    private UserSearchIndex userSearchIndex;
+
+    @Autowired
+    private MenuTreeCache menuTreeCache;
+
+    @Autowired
+    private DataScopeRuleCache dataScopeRuleCache;
+
+    @Autowired
+    private UserUniqueFilter userUniqueFilter;
+
+    @Autowired
+    private FieldPolicyProvider fieldPolicyProvider;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
     @Override
     public User getUserDetailById(Long userId) {
         if (userId == null) {
@@ -58,15 +131,204 @@ public class UserServiceImpl implements UserService {
         if (username == null || username.trim().isEmpty()) {
             throw new BusinessException(ResultCode.PARAM_ERROR.getCode(), "用户名不能为空");
         }
-        User user = userMapper.selectUserByUsername(username);
+        // 单条语句同时取回用户行、角色标识与权限编码，直接映射为 UserDTO
+        UserDTO user = userMapper.selectAuthProfileByUsername(username);
         if (user == null) {
             return null;
         }
-        return convertToUserDTO(user);
+        if (user.getRoles() == null) {
+            user.setRoles(new ArrayList<>());
+        }
+        if (user.getPermissions() == null) {
+            user.setPermissions(new ArrayList<>());
+        }
+        return user;
+    }
+
+    @Override
+    public List<UserDTO> getUsersByIds(Collection<Long> userIds) {
+        List<Long> ids = batchKeys(userIds);
+        Map<Long, UserDTO> found = new HashMap<>();
+        for (List<Long> chunk : Batches.partition(ids, Batches.DEFAULT_CHUNK_SIZE)) {
+            userMapper.selectAuthUsersByIds(chunk).forEach(user -> found.put(user.getId(), user));
+        }
+        fillAuthorities(found);
+        return ids.stream().map(found::get).filter(Objects::nonNull).toList();
+    }
+
+    @Override
+    public List<UserDTO> getUsersByUsernames(Collection<String> usernames) {
+        List<String> names = batchKeys(usernames).stream().filter(StringUtils::hasText).toList();
+        // 用户名比较不区分大小写，与数据库排序规则一致
+        Map<String, UserDTO> byName = new HashMap<>();
+        Map<Long, UserDTO> found = new HashMap<>();
+        for (List<String> chunk : Batches.partition(names, Batches.DEFAULT_CHUNK_SIZE)) {
+            for (UserDTO user : userMapper.selectAuthUsersByUsernames(chunk)) {
+                byName.put(user.getUsername().toLowerCase(Locale.ROOT), user);
+                found.put(user.getId(), user);
+            }
+        }
+        fillAuthorities(found);
+        return names.stream()
+                .map(name -> byName.get(name.toLowerCase(Locale.ROOT)))
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList();
+    }
+
+    private static <T> List<T> batchKeys(Collection<T> keys) {
+        if (keys == null || keys.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<T> distinct = Batches.distinct(keys);
+        if (distinct.size() > CoreConstants.INTERNAL_BATCH_MAX_KEYS) {
+            throw new BusinessException(ResultCode.PARAM_ERROR.getCode(),
+                    "单次最多查询" + CoreConstants.INTERNAL_BATCH_MAX_KEYS + "个用户");
+        }
+        return distinct;
+    }
+
+    /**
+     * 填充角色标识与权限编码：RBAC 索引可用时直接读内存，否则按块查询后按用户分组
+     */
+    private void fillAuthorities(Map<Long, UserDTO> users) {
+        users.values().forEach(user -> {
+            user.setRoles(new ArrayList<>());
+            user.setPermissions(new ArrayList<>());
+        });
+        if (rbacIndex.isReady()) {
+            users.forEach((userId, user) -> {
+                rbacIndex.getUserRoles(userId).forEach(role -> user.getRoles().add(role.getRoleKey()));
+                rbacIndex.getUserPermissions(userId)
+                        .forEach(permission -> user.getPermissions().add(permission.getPermissionCode()));
+            });
+            return;
+        }
+        for (List<Long> chunk : Batches.partition(new ArrayList<>(users.keySet()), Batches.DEFAULT_CHUNK_SIZE)) {
+            for (UserAuthority authority : userMapper.selectAuthoritiesByUserIds(chunk)) {
+                UserDTO user = users.get(authority.getUserId());
+                if (authority.getRoleKey() != null) {
+                    user.getRoles().add(authority.getRoleKey());
+                } else if (authority.getPermissionCode() != null) {
+                    user.getPermissions().add(authority.getPermissionCode());
+                }
+            }
+        }
     }
 
     @Override
     public IPage<User> getUserPage(Page<User> page, User user) {
+        // 模糊条件优先走内存三元组索引，结果按相关度排序
+        UserSearchIndex.SearchResult matched = searchIndex(user, page);
+        if (matched != null) {
+            return getUserPageByIds(page, matched);
+        }
+        LambdaQueryWrapper<User> queryWrapper = buildUserQuery(user);
+        queryWrapper.orderByDesc(User::getCreateTime);
+        
+        return userMapper.selectPage(page, queryWrapper);
+    }
+
+    @Override
+    public PageResult<User> getUserPage(Page<User> page, User user, CountMode countMode) {
+        // 索引已算出实际命中数，总数无需额外统计；NONE 模式按约定不返回总数
+        UserSearchIndex.SearchResult matched = searchIndex(user, page);
+        if (matched != null) {
+            IPage<User> result = getUserPageByIds(page, matched);
+            if (countMode == CountMode.NONE) {
+                return PageResult.of(result.getCurrent(), result.getSize(), null, result.getRecords(),
+                        result.getCurrent() * result.getSize() < matched.total());
+            }
+            return PageResult.of(result);
+        }
+        if (countMode == CountMode.EXACT) {
+            return PageResult.of(getUserPage(page, user));
+        }
+        LambdaQueryWrapper<User> queryWrapper = buildUserQuery(user);
+        queryWrapper.orderByDesc(User::getCreateTime).orderByDesc(User::getId);
+        return PageQuerySupport.selectSlice(userMapper, queryWrapper, page.getCurrent(), page.getSize(),
+                countMode, () -> estimateUserCount(user));
+    }
+
+    @Override
+    public PageResult<User> getUserCursorPage(User user, String cursor, long size, CountMode countMode) {
+        return PageQuerySupport.selectByCursor(userMapper, buildUserQuery(user),
+                User::getCreateTime, User::getId, u -> new PageCursor(u.getCreateTime(), u.getId()),
+                cursor, size, countMode, () -> estimateUserCount(user));
+    }
+
+    @Override
+    public long exportUsers(User user, String format, OutputStream output) throws IOException {
+        FieldPolicy policy = fieldPolicyProvider.currentPolicy(CoreConstants.RESOURCE_USER);
+        try (RowExportWriter<UserExportRow> writer =
+                     RowExportWriter.open(output, format, EXPORT_COLUMNS, policy, objectMapper)) {
+            userMapper.streamExportRows(user, writer);
+            return writer.getRowCount();
+        }
+    }
+
+    /**
+     * 按索引返回的有序用户ID分页，只按主键读取当前页
+     */
+    private IPage<User> getUserPageByIds(Page<User> page, UserSearchIndex.SearchResult matched) {
+        List<Long> matchedIds = matched.userIds();
+        page.setTotal(matched.total());
+        long from = Math.max(0, (page.getCurrent() - 1) * page.getSize());
+        if (from >= matchedIds.size()) {
+            page.setRecords(new ArrayList<>());
+            return page;
+        }
+        List<Long> pageIds = matchedIds.subList((int) from, (int) Math.min(matchedIds.size(), from + page.getSize()));
+        Map<Long, User> users = new HashMap<>();
+        for (User user : userMapper.selectByIds(pageIds)) {
+            // 索引异步更新，以数据库中的删除标志为准
+            if ("0".equals(user.getDelFlag())) {
+                users.put(user.getId(), user);
+            }
+        }
+        List<User> records = new ArrayList<>(pageIds.size());
+        for (Long userId : pageIds) {
+            User user = users.get(userId);
+            if (user != null) {
+                records.add(user);
+            }
+        }
+        page.setRecords(records);
+        return page;
+    }
+
+    /**
+     * 模糊条件走内存索引；索引不含数据权限信息，受数据权限限制时返回 null 改走数据库查询。
+     * 命中数超过索引返回上限且请求页超出已排序部分时同样返回 null，由数据库分页读取。
+     */
+    private UserSearchIndex.SearchResult searchIndex(User user, Page<User> page) {
+        if (dataScopeRuleCache.isRestricted(CoreConstants.RESOURCE_USER)) {
+            return null;
+        }
+        UserSearchIndex.SearchResult matched = userSearchIndex.search(searchTerms(user), user.getStatus());
+        if (matched != null && matched.truncated()
+                && page.getCurrent() * page.getSize() > matched.userIds().size()) {
+            return null;
+        }
+        return matched;
+    }
+
+    /**
+     * 用户列表的模糊匹配条件
+     */
+    private Map<UserSearchField, String> searchTerms(User user) {
+        Map<UserSearchField, String> terms = new EnumMap<>(UserSearchField.class);
+        terms.put(UserSearchField.USERNAME, user.getUsername());
+        terms.put(UserSearchField.NICKNAME, user.getNickname());
+        terms.put(UserSearchField.EMAIL, user.getEmail());
+        terms.put(UserSearchField.PHONE, user.getPhone());
+        return terms;
+    }
+
+    /**
+     * 构建用户列表过滤条件
+     */
+    private LambdaQueryWrapper<User> buildUserQuery(User user) {
         LambdaQueryWrapper<User> queryWrapper = new LambdaQueryWrapper<>();
         
         if (user.getUsername() != null && !user.getUsername().trim().isEmpty()) {
@@ -86,9 +348,17 @@ public class UserServiceImpl implements UserService {
         }
         
         queryWrapper.eq(User::getDelFlag, "0"); // 只查询未删除的用户
-        queryWrapper.orderByDesc(User::getCreateTime);
-        
-        return userMapper.selectPage(page, queryWrapper);
+        return queryWrapper;
+    }
+
+    /**
+     * 估算用户总数，仅在没有过滤条件时可用
+     */
+    private Long estimateUserCount(User user) {
+        boolean filtered = Stream.of(user.getUsername(), user.getNickname(), user.getEmail(),
+                        user.getPhone(), user.getStatus())
+                .anyMatch(value -> value != null && !value.trim().isEmpty());
+        return filtered ? null : userMapper.selectEstimatedRowCount();
     }
 
     @Override
@@ -98,18 +368,19 @@ public class UserServiceImpl implements UserService {
             throw new BusinessException(ResultCode.PARAM_ERROR.getCode(), "用户信息不能为空");
         }
         
+        // 写入前直接查库校验唯一性，不经过预检过滤器：过滤器由事件异步同步，可能尚未包含其他实例刚写入的值
         // 检查用户名是否已存在
-        if (isUsernameExists(user.getUsername(), null)) {
+        if (userMapper.checkUsernameExists(user.getUsername(), null) > 0) {
             throw new BusinessException(ResultCode.USERNAME_EXISTS);
         }
         
         // 检查邮箱是否已存在
-        if (user.getEmail() != null && isEmailExists(user.getEmail(), null)) {
+        if (StringUtils.hasText(user.getEmail()) && userMapper.checkEmailExists(user.getEmail(), null) > 0) {
             throw new BusinessException(ResultCode.EMAIL_EXISTS);
         }
         
         // 检查手机号是否已存在
-        if (user.getPhone() != null && isPhoneExists(user.getPhone(), null)) {
+        if (StringUtils.hasText(user.getPhone()) && userMapper.checkPhoneExists(user.getPhone(), null) > 0) {
             throw new BusinessException(ResultCode.PHONE_EXISTS);
         }
         
@@ -125,8 +396,14 @@ public class UserServiceImpl implements UserService {
         if (user.getDelFlag() == null) {
             user.setDelFlag("0"); // 默认未删除
         }
+        String operator = CurrentUser.username();
+        user.setCreateBy(operator);
+        user.setUpdateBy(operator);
         
         int result = userMapper.insert(user);
+        userSearchIndex.onUsersChanged(Collections.singletonList(user.getId()));
+        userUniqueFilter.onUsersWritten(Collections.singletonList(user));
+        identityEventPublisher.userChanged(UserChangedEvent.CHANGE_CREATED, user.getId(), user.getUsername());
         return result > 0;
     }
 
@@ -143,18 +420,20 @@ public class UserServiceImpl implements UserService {
             throw new BusinessException(ResultCode.USER_NOT_FOUND);
         }
         
+        // 与新增相同，唯一性直接查库校验
         // 检查用户名是否已存在（排除自己）
-        if (user.getUsername() != null && isUsernameExists(user.getUsername(), user.getId())) {
+        if (StringUtils.hasText(user.getUsername())
+                && userMapper.checkUsernameExists(user.getUsername(), user.getId()) > 0) {
             throw new BusinessException(ResultCode.USERNAME_EXISTS);
         }
         
         // 检查邮箱是否已存在（排除自己）
-        if (user.getEmail() != null && isEmailExists(user.getEmail(), user.getId())) {
+        if (StringUtils.hasText(user.getEmail()) && userMapper.checkEmailExists(user.getEmail(), user.getId()) > 0) {
             throw new BusinessException(ResultCode.EMAIL_EXISTS);
         }
         
         // 检查手机号是否已存在（排除自己）
-        if (user.getPhone() != null && isPhoneExists(user.getPhone(), user.getId())) {
+        if (StringUtils.hasText(user.getPhone()) && userMapper.checkPhoneExists(user.getPhone(), user.getId()) > 0) {
             throw new BusinessException(ResultCode.PHONE_EXISTS);
         }
         
@@ -165,8 +444,14 @@ public class UserServiceImpl implements UserService {
             // 如果密码为空，则不更新密码
             user.setPassword(null);
         }
+        user.setCreateBy(null);
+        user.setUpdateBy(CurrentUser.username());
         
         int result = userMapper.updateById(user);
+        userSearchIndex.onUsersChanged(Collections.singletonList(user.getId()));
+        userUniqueFilter.onUsersWritten(Collections.singletonList(user));
+        identityEventPublisher.userChanged(UserChangedEvent.CHANGE_UPDATED, user.getId(),
+                existUser.getUsername(), user.getUsername());
         return result > 0;
     }
 
@@ -176,29 +461,67 @@ public class UserServiceImpl implements UserService {
         if (userId == null) {
             throw new BusinessException(ResultCode.PARAM_ERROR.getCode(), "用户ID不能为空");
         }
-        
-        User user = userMapper.selectById(userId);
-        if (user == null) {
-            throw new BusinessException(ResultCode.USER_NOT_FOUND);
+        return deleteUsers(Collections.singletonList(userId));
+    }
+
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public boolean deleteUsers(List<Long> userIds) {
+        if (userIds == null || userIds.isEmpty()) {
+            throw new BusinessException(ResultCode.PARAM_ERROR.getCode(), "用户ID列表不能为空");
         }
         
-        // 逻辑删除
-        user.setDelFlag("2");
-        int result = userMapper.updateById(user);
+        List<Long> ids = Batches.distinct(userIds);
+        List<String> usernames = requireActiveUsernames(ids);
+        
+        // 逻辑删除并清理角色、部门关联，每个分块一条 IN 语句
+        int result = 0;
+        for (List<Long> chunk : Batches.partition(ids, Batches.DEFAULT_CHUNK_SIZE)) {
+            roleMembershipCounter.onUsersDeleting(chunk);
+            result += userMapper.logicDeleteUsers(chunk);
+            userMapper.deleteUserRolesByUserIds(chunk);
+            userMapper.deleteUserDeptsByUserIds(chunk);
+        }
+        rbacIndex.onUsersChanged(ids);
+        userSearchIndex.onUsersChanged(ids);
+        identityEventPublisher.userChanged(UserChangedEvent.CHANGE_DELETED, ids, usernames);
         return result > 0;
     }
 
     @Override
     @Transactional(rollbackFor = Exception.class)
-    public boolean deleteUsers(List<Long> userIds) {
+    public boolean updateUsersStatus(List<Long> userIds, String status) {
         if (userIds == null || userIds.isEmpty()) {
             throw new BusinessException(ResultCode.PARAM_ERROR.getCode(), "用户ID列表不能为空");
         }
+        if (status == null || status.trim().isEmpty()) {
+            throw new BusinessException(ResultCode.PARAM_ERROR.getCode(), "状态不能为空");
+        }
+        
+        List<Long> ids = Batches.distinct(userIds);
+        List<String> usernames = requireActiveUsernames(ids);
         
-        for (Long userId : userIds) {
-            deleteUser(userId);
+        int result = 0;
+        for (List<Long> chunk : Batches.partition(ids, Batches.DEFAULT_CHUNK_SIZE)) {
+            result += userMapper.updateUsersStatus(chunk, status);
         }
-        return true;
+        userSearchIndex.onUsersChanged(ids);
+        identityEventPublisher.userChanged(UserChangedEvent.CHANGE_STATUS, ids, usernames);
+        return result > 0;
+    }
+
+    /**
+     * 分块批量校验用户存在，返回用户名；任一用户不存在或已删除时整体失败
+     */
+    private List<String> requireActiveUsernames(List<Long> ids) {
+        List<String> usernames = new ArrayList<>(ids.size());
+        for (List<Long> chunk : Batches.partition(ids, Batches.DEFAULT_CHUNK_SIZE)) {
+            userMapper.selectActiveUsersByIds(chunk).forEach(user -> usernames.add(user.getUsername()));
+        }
+        if (usernames.size() != ids.size()) {
+            throw new BusinessException(ResultCode.USER_NOT_FOUND);
+        }
+        return usernames;
     }
 
     @Override
@@ -218,6 +541,7 @@ public class UserServiceImpl implements UserService {
         
         user.setPassword(passwordEncoder.encode(newPassword));
         int result = userMapper.updateById(user);
+        identityEventPublisher.userChanged(UserChangedEvent.CHANGE_PASSWORD, userId, user.getUsername());
         return result > 0;
     }
 
@@ -246,6 +570,7 @@ public class UserServiceImpl implements UserService {
         
         user.setPassword(passwordEncoder.encode(newPassword));
         int result = userMapper.updateById(user);
+        identityEventPublisher.userChanged(UserChangedEvent.CHANGE_PASSWORD, userId, user.getUsername());
         return result > 0;
     }
 
@@ -266,6 +591,8 @@ public class UserServiceImpl implements UserService {
         
         user.setStatus(status);
         int result = userMapper.updateById(user);
+        userSearchIndex.onUsersChanged(Collections.singletonList(userId));
+        identityEventPublisher.userChanged(UserChangedEvent.CHANGE_STATUS, userId, user.getUsername());
         return result > 0;
     }
 
@@ -281,14 +608,21 @@ public class UserServiceImpl implements UserService {
             throw new BusinessException(ResultCode.USER_NOT_FOUND);
         }
         
-        // 删除原有角色关联
-        userMapper.deleteUserRoles(userId);
-        
-        // 添加新的角色关联
-        if (roleIds != null && !roleIds.isEmpty()) {
-            userMapper.insertUserRoles(userId, roleIds);
+        // 只写入与当前关联的差异
+        LinkDiff diff = LinkDiff.of(userMapper.selectUserRoleIdsForUpdate(userId), roleIds);
+        if (diff.isEmpty()) {
+            return true;
         }
+        diff.apply(ids -> userMapper.deleteUserRoleLinks(userId, ids),
+                ids -> userMapper.insertUserRoles(userId, ids));
         
+        rbacIndex.onUserRolesAssigned(userId, roleIds);
+        if (!user.isDeleted()) {
+            // 计数只包含未删除用户
+            roleMembershipCounter.onUserRolesChanged(diff);
+        }
+        dataScopeRuleCache.invalidateUser(userId);
+        identityEventPublisher.userLinksChanged(UserChangedEvent.CHANGE_ROLES, userId, user.getUsername(), diff);
         return true;
     }
 
@@ -304,14 +638,16 @@ public class UserServiceImpl implements UserService {
             throw new BusinessException(ResultCode.USER_NOT_FOUND);
         }
         
-        // 删除原有部门关联
-        userMapper.deleteUserDepts(userId);
-        
-        // 添加新的部门关联
-        if (deptIds != null && !deptIds.isEmpty()) {
-            userMapper.insertUserDepts(userId, deptIds);
+        // 只写入与当前关联的差异
+        LinkDiff diff = LinkDiff.of(userMapper.selectUserDeptIdsForUpdate(userId), deptIds);
+        if (diff.isEmpty()) {
+            return true;
         }
+        diff.apply(ids -> userMapper.deleteUserDeptLinks(userId, ids),
+                ids -> userMapper.insertUserDepts(userId, ids));
         
+        dataScopeRuleCache.invalidateUser(userId);
+        identityEventPublisher.userLinksChanged(UserChangedEvent.CHANGE_DEPTS, userId, user.getUsername(), diff);
         return true;
     }
 
@@ -320,6 +656,9 @@ public class UserServiceImpl implements UserService {
         if (userId == null) {
             throw new BusinessException(ResultCode.PARAM_ERROR.getCode(), "用户ID不能为空");
         }
+        if (rbacIndex.isReady()) {
+            return rbacIndex.getUserRoles(userId);
+        }
         return userMapper.selectUserRoles(userId);
     }
 
@@ -336,6 +675,9 @@ public class UserServiceImpl implements UserService {
         if (userId == null) {
             throw new BusinessException(ResultCode.PARAM_ERROR.getCode(), "用户ID不能为空");
         }
+        if (rbacIndex.isReady()) {
+            return rbacIndex.getUserPermissions(userId);
+        }
         return userMapper.selectUserPermissions(userId);
     }
 
@@ -344,14 +686,82 @@ public class UserServiceImpl implements UserService {
         if (userId == null) {
             throw new BusinessException(ResultCode.PARAM_ERROR.getCode(), "用户ID不能为空");
         }
+        if (rbacIndex.isReady()) {
+            return rbacIndex.getUserMenus(userId);
+        }
         return userMapper.selectUserMenus(userId);
     }
 
+    @Override
+    public MenuTree getUserMenuTree(Long userId) {
+        if (userId == null) {
+            throw new BusinessException(ResultCode.PARAM_ERROR.getCode(), "用户ID不能为空");
+        }
+        if (menuTreeCache.isReady()) {
+            return menuTreeCache.getTree(getUserRoles(userId).stream().map(Role::getId).toList());
+        }
+        return MenuTreeCache.assemble(getUserMenus(userId));
+    }
+
+    @Override
+    public boolean hasPermission(Long userId, String permissionCode) {
+        if (userId == null || permissionCode == null || permissionCode.isEmpty()) {
+            return false;
+        }
+        if (rbacIndex.isReady()) {
+            return rbacIndex.hasPermission(userId, permissionCode);
+        }
+        return getUserPermissionCodes(userId).contains(permissionCode);
+    }
+
+    @Override
+    public List<PermissionCheckDTO> checkPermissions(List<PermissionCheckDTO> checks) {
+        if (checks == null || checks.isEmpty()) {
+            return new ArrayList<>();
+        }
+        boolean indexed = rbacIndex.isReady();
+        // 索引不可用时按用户聚合，每个用户只查询一次数据库
+        Map<Long, Set<String>> codesByUser = indexed ? null : new HashMap<>();
+        List<PermissionCheckDTO> results = new ArrayList<>(checks.size());
+        for (PermissionCheckDTO check : checks) {
+            Long userId = check.getUserId();
+            String permissionCode = check.getPermissionCode();
+            boolean allowed;
+            if (userId == null || permissionCode == null || permissionCode.isEmpty()) {
+                allowed = false;
+            } else if (indexed) {
+                allowed = rbacIndex.hasPermission(userId, permissionCode);
+            } else {
+                allowed = codesByUser.computeIfAbsent(userId, this::getUserPermissionCodes).contains(permissionCode);
+            }
+            results.add(PermissionCheckDTO.builder()
+                    .userId(userId)
+                    .permissionCode(permissionCode)
+                    .allowed(allowed)
+                    .build());
+        }
+        return results;
+    }
+
+    /**
+     * 从数据库查询用户权限编码集合
+     */
+    private Set<String> getUserPermissionCodes(Long userId) {
+        Set<String> codes = new HashSet<>();
+        for (Permission permission : userMapper.selectUserPermissions(userId)) {
+            codes.add(permission.getPermissionCode());
+        }
+        return codes;
+    }
+
     @Override
     public boolean isUsernameExists(String username, Long userId) {
         if (username == null || username.trim().isEmpty()) {
             return false;
         }
+        if (!userUniqueFilter.mightBeTaken(UserUniqueField.USERNAME, username)) {
+            return false;
+        }
         int count = userMapper.checkUsernameExists(username, userId);
         return count > 0;
     }
@@ -361,6 +771,9 @@ public class UserServiceImpl implements UserService {
         if (email == null || email.trim().isEmpty()) {
             return false;
         }
+        if (!userUniqueFilter.mightBeTaken(UserUniqueField.EMAIL, email)) {
+            return false;
+        }
         int count = userMapper.checkEmailExists(email, userId);
         return count > 0;
     }
@@ -370,6 +783,9 @@ public class UserServiceImpl implements UserService {
         if (phone == null || phone.trim().isEmpty()) {
             return false;
         }
+        if (!userUniqueFilter.mightBeTaken(UserUniqueField.PHONE, phone)) {
+            return false;
+        }
         int count = userMapper.checkPhoneExists(phone, userId);
         return count > 0;
     }
@@ -391,51 +807,21 @@ public class UserServiceImpl implements UserService {
         int result = userMapper.updateById(user);
         return result > 0;
     }
-    
-    /**
-     * 转换User实体为UserDTO
-     */
-    private UserDTO convertToUserDTO(User user) {
-        if (user == null) {
-            return null;
-        }
-        
-        return UserDTO.builder()
-                .id(user.getId())
-                .username(user.getUsername())
-                .nickname(user.getNickname())
-                .email(user.getEmail())
-                .phone(user.getPhone())
-                .sex(user.getSex())
-                .avatar(user.getAvatar())
-                .password(user.getPassword())
-                .status(String.valueOf(user.getStatus()))
-                .lastLoginTime(user.getLoginDate())
-                .lastLoginIp(user.getLoginIp())
-                .createTime(user.getCreateTime())
-                .updateTime(user.getUpdateTime())
-                .roles(getUserRoleNames(user.getId()))
-                .permissions(getUserPermissionNames(user.getId()))
-                .build();
-    }
-    
-    /**
-     * 获取用户角色列表（字符串）
-     */
-    private List<String> getUserRoleNames(Long userId) {
-        List<Role> roles = getUserRoles(userId);
-        return roles.stream()
-                .map(Role::getRoleKey)
-                .collect(Collectors.toList());
-    }
-    
-    /**
-     * 获取用户权限列表（字符串）
-     */
-    private List<String> getUserPermissionNames(Long userId) {
-        List<Permission> permissions = getUserPermissions(userId);
-        return permissions.stream()
-                .map(Permission::getPermissionCode)
-                .collect(Collectors.toList());
+
+    private static Map<String, Function<UserExportRow, Object>> exportColumns() {
+        Map<String, Function<UserExportRow, Object>> columns = new LinkedHashMap<>();
+        columns.put("id", UserExportRow::getId);
+        columns.put("username", UserExportRow::getUsername);
+        columns.put("nickname", UserExportRow::getNickname);
+        columns.put("email", UserExportRow::getEmail);
+        columns.put("phone", UserExportRow::getPhone);
+        columns.put("sex", UserExportRow::getSex);
+        columns.put("status", UserExportRow::getStatus);
+        columns.put("loginIp", UserExportRow::getLoginIp);
+        columns.put("loginDate", UserExportRow::getLoginDate);
+        columns.put("createTime", UserExportRow::getCreateTime);
+        columns.put("roleKeys", UserExportRow::getRoleKeys);
+        columns.put("deptNames", UserExportRow::getDeptNames);
+        return Collections.unmodifiableMap(columns);
     }
 }
@@ -0,0 +1,38 @@
+package com.xiaoxin.iam.core.support;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * 事务提交后执行
+ * <p>
+ * 本地索引、缓存失效与事件发布都只应反映已提交的数据：事务内注册到提交之后执行，回滚则不执行；
+ * 没有活动事务时立即执行。
+ * </p>
+ *
+ * @author xiaoxin
+ * @since 1.0.0
+ */
+public final class AfterCommit {
+
+    private AfterCommit() {
+    }
+
+    /**
+     * 在当前事务提交后执行，无事务时立即执行
+     *
+     * @param action 待执行的动作
+     */
+    public static void run(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
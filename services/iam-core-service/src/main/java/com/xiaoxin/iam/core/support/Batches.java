@@ -0,0 +1,41 @@
+package com.xiaoxin.iam.core.support;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * 批量操作工具
+ *
+ * @author xiaoxin
+ * @since 1.0.0
+ */
+public final class Batches {
+
+    /**
+     * 单条 IN 语句的默认ID数量上限
+     */
+    public static final int DEFAULT_CHUNK_SIZE = 1000;
+
+    private Batches() {
+    }
+
+    /**
+     * 去除空值与重复值，保持原有顺序
+     */
+    public static <T> List<T> distinct(Collection<T> values) {
+        return values.stream().filter(Objects::nonNull).distinct().toList();
+    }
+
+    /**
+     * 按固定大小切分列表，返回的子列表为原列表的视图
+     */
+    public static <T> List<List<T>> partition(List<T> values, int size) {
+        List<List<T>> chunks = new ArrayList<>((values.size() + size - 1) / size);
+        for (int from = 0; from < values.size(); from += size) {
+            chunks.add(values.subList(from, Math.min(values.size(), from + size)));
+        }
+        return chunks;
+    }
+}
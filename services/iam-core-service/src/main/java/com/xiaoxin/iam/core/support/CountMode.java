@@ -0,0 +1,42 @@
+package com.xiaoxin.iam.core.support;
+
+import com.xiaoxin.iam.common.exception.BusinessException;
+import com.xiaoxin.iam.common.result.ResultCode;
+
+/**
+ * 分页总数统计方式
+ *
+ * @author xiaoxin
+ * @since 1.0.0
+ */
+public enum CountMode {
+
+    /**
+     * 精确统计，每页执行 COUNT(*)
+     */
+    EXACT,
+
+    /**
+     * 估算，无过滤条件时取表统计信息的行数，有过滤条件时不返回总数
+     */
+    ESTIMATE,
+
+    /**
+     * 不统计总数
+     */
+    NONE;
+
+    /**
+     * 解析请求参数，忽略大小写，为空时使用默认值
+     */
+    public static CountMode of(String value, CountMode defaultMode) {
+        if (value == null || value.trim().isEmpty()) {
+            return defaultMode;
+        }
+        try {
+            return valueOf(value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new BusinessException(ResultCode.PARAM_ERROR.getCode(), "不支持的总数统计方式: " + value);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.xiaoxin.iam.core.support;
+
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+
+/**
+ * 当前请求用户
+ *
+ * @author xiaoxin
+ * @since 1.0.0
+ */
+public final class CurrentUser {
+
+    private static final String CLAIM_USER_ID = "userId";
+
+    private static final String CLAIM_USERNAME = "username";
+
+    private CurrentUser() {
+    }
+
+    /**
+     * 当前用户ID，取自 JWT 的 userId 声明
+     *
+     * @return 用户ID；未认证或服务间调用（令牌不含该声明）时为 null
+     */
+    public static Long id() {
+        Object claim = claim(CLAIM_USER_ID);
+        if (claim instanceof Number number) {
+            return number.longValue();
+        }
+        if (claim instanceof String text && !text.isBlank()) {
+            try {
+                return Long.valueOf(text.trim());
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 当前用户名，取自 JWT 的 username 声明，用于填写创建者、更新者
+     *
+     * @return 用户名；未认证或服务间调用（令牌不含该声明）时为 null
+     */
+    public static String username() {
+        Object claim = claim(CLAIM_USERNAME);
+        return claim instanceof String text && !text.isBlank() ? text : null;
+    }
+
+    private static Object claim(String name) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (!(authentication instanceof JwtAuthenticationToken token)) {
+            return null;
+        }
+        return token.getToken().getClaim(name);
+    }
+}
@@ -0,0 +1,22 @@
+package com.xiaoxin.iam.core.support;
+
+import org.springframework.stereotype.Component;
+
+import com.xiaoxin.iam.starter.data.routing.ReadConsistencyKeyProvider;
+
+/**
+ * 以当前用户为写后读主的一致性键
+ * 用户修改数据后的短时间内，其自身的读取回退到主库；服务间调用没有用户，不参与跟踪
+ *
+ * @author xiaoxin
+ * @since 1.0.0
+ */
+@Component
+public class CurrentUserConsistencyKeyProvider implements ReadConsistencyKeyProvider {
+
+    @Override
+    public String currentKey() {
+        Long userId = CurrentUser.id();
+        return userId == null ? null : "user:" + userId;
+    }
+}
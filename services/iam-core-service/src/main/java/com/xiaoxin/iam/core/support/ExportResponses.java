@@ -0,0 +1,50 @@
+package com.xiaoxin.iam.core.support;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.zip.GZIPOutputStream;
+
+import org.springframework.http.HttpHeaders;
+
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * 导出响应
+ * 不设置内容长度，由容器以分块传输发送；可选按 gzip 内容编码压缩
+ *
+ * @author xiaoxin
+ * @since 1.0.0
+ */
+public final class ExportResponses {
+
+    private static final DateTimeFormatter FILE_TIME = DateTimeFormatter.ofPattern("yyyyMMddHHmmss");
+
+    private static final int GZIP_BUFFER_SIZE = 8192;
+
+    private ExportResponses() {
+    }
+
+    /**
+     * 设置响应头并打开输出流
+     *
+     * @param response HTTP响应
+     * @param name 文件名前缀
+     * @param format 导出格式
+     * @param gzip 是否压缩
+     * @return 输出流，由调用方关闭
+     */
+    public static OutputStream open(HttpServletResponse response, String name, String format, boolean gzip)
+            throws IOException {
+        response.setContentType(RowExportWriter.contentType(format));
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=\"" + name + "-" + FILE_TIME.format(LocalDateTime.now()) + "." + format + "\"");
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "no-store");
+        if (!gzip) {
+            return response.getOutputStream();
+        }
+        response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        return new GZIPOutputStream(response.getOutputStream(), GZIP_BUFFER_SIZE);
+    }
+}
@@ -0,0 +1,56 @@
+package com.xiaoxin.iam.core.support;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * 关联关系差异
+ * <p>
+ * 比较当前关联与目标关联，得到需要新增和删除的目标ID，
+ * 分配操作只写入变化的部分，不再整体删除后重新插入。
+ * </p>
+ *
+ * @param added 需要新增的目标ID
+ * @param removed 需要删除的目标ID
+ * @author xiaoxin
+ * @since 1.0.0
+ */
+public record LinkDiff(List<Long> added, List<Long> removed) {
+
+    /**
+     * 计算差异
+     *
+     * @param current 当前关联的目标ID
+     * @param target 期望关联的目标ID，为 null 时视为清空
+     * @return 差异，结果去除空值与重复值
+     */
+    public static LinkDiff of(Collection<Long> current, Collection<Long> target) {
+        Set<Long> currentIds = current == null ? Collections.emptySet() : new LinkedHashSet<>(current);
+        Set<Long> targetIds = target == null ? Collections.emptySet() : new LinkedHashSet<>(Batches.distinct(target));
+        List<Long> added = targetIds.stream().filter(id -> !currentIds.contains(id)).toList();
+        List<Long> removed = currentIds.stream().filter(id -> !targetIds.contains(id)).toList();
+        return new LinkDiff(added, removed);
+    }
+
+    /**
+     * 是否没有变化
+     */
+    public boolean isEmpty() {
+        return added.isEmpty() && removed.isEmpty();
+    }
+
+    /**
+     * 按批执行删除与新增，先删后增
+     *
+     * @param remover 删除一批关联
+     * @param adder 新增一批关联
+     */
+    public void apply(Consumer<List<Long>> remover, Consumer<List<Long>> adder) {
+        Batches.partition(removed, Batches.DEFAULT_CHUNK_SIZE).forEach(remover);
+        Batches.partition(added, Batches.DEFAULT_CHUNK_SIZE).forEach(adder);
+    }
+}
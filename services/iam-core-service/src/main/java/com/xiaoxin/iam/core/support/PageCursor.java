@@ -0,0 +1,46 @@
+package com.xiaoxin.iam.core.support;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import com.xiaoxin.iam.common.exception.BusinessException;
+import com.xiaoxin.iam.common.result.ResultCode;
+
+/**
+ * 键集分页游标
+ * 定位到上一页最后一条记录的 (create_time, id)，对客户端不透明
+ *
+ * @param createTime 创建时间
+ * @param id 记录ID
+ * @author xiaoxin
+ * @since 1.0.0
+ */
+public record PageCursor(LocalDateTime createTime, Long id) {
+
+    private static final String SEPARATOR = "|";
+
+    /**
+     * 编码为URL安全的游标字符串
+     */
+    public String encode() {
+        String raw = createTime + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 解析游标字符串，为空时返回 null 表示第一页
+     */
+    public static PageCursor decode(String cursor) {
+        if (cursor == null || cursor.isEmpty()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int index = raw.lastIndexOf(SEPARATOR);
+            return new PageCursor(LocalDateTime.parse(raw.substring(0, index)), Long.valueOf(raw.substring(index + 1)));
+        } catch (RuntimeException e) {
+            throw new BusinessException(ResultCode.PARAM_ERROR.getCode(), "无效的分页游标");
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.xiaoxin.iam.core.support;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.baomidou.mybatisplus.core.toolkit.support.SFunction;
+import com.xiaoxin.iam.common.exception.BusinessException;
+import com.xiaoxin.iam.common.result.ResultCode;
+import com.xiaoxin.iam.core.vo.PageResult;
+
+/**
+ * 分页查询支持
+ * <p>
+ * 提供两种避免深分页与全表计数开销的查询方式：
+ * </p>
+ * <ul>
+ *     <li>偏移分页：按需跳过 COUNT，多取一条记录判断是否有下一页</li>
+ *     <li>游标分页：按 (create_time DESC, id DESC) 键集定位，每页只扫描索引上的 size + 1 行</li>
+ * </ul>
+ *
+ * @author xiaoxin
+ * @since 1.0.0
+ */
+public final class PageQuerySupport {
+
+    /**
+     * 单页最大记录数
+     */
+    public static final long MAX_PAGE_SIZE = 500;
+
+    private PageQuerySupport() {
+    }
+
+    /**
+     * 不执行精确计数的偏移分页查询
+     *
+     * @param mapper 数据访问对象
+     * @param wrapper 查询条件，需已包含排序
+     * @param current 当前页码
+     * @param size 每页大小
+     * @param countMode 总数统计方式
+     * @param estimator 总数估算，返回 null 表示无法估算
+     * @return 分页结果
+     */
+    public static <T> PageResult<T> selectSlice(BaseMapper<T> mapper, LambdaQueryWrapper<T> wrapper,
+                                                long current, long size, CountMode countMode,
+                                                Supplier<Long> estimator) {
+        checkPage(current, size);
+        long offset = (current - 1) * size;
+        wrapper.last("LIMIT " + offset + ", " + (size + 1));
+        List<T> records = mapper.selectList(wrapper);
+        boolean hasNext = records.size() > size;
+        if (hasNext) {
+            records = records.subList(0, (int) size);
+        }
+        Long total = countMode == CountMode.ESTIMATE ? estimator.get() : null;
+        return PageResult.of(current, size, total, records, hasNext);
+    }
+
+    /**
+     * 游标分页查询，按创建时间与ID倒序
+     *
+     * @param mapper 数据访问对象
+     * @param wrapper 过滤条件，不包含排序
+     * @param createTimeColumn 创建时间列
+     * @param idColumn 主键列
+     * @param cursorOf 由记录生成游标
+     * @param cursor 上一页返回的游标，为空时查询第一页
+     * @param size 每页大小
+     * @param countMode 总数统计方式
+     * @param estimator 总数估算，返回 null 表示无法估算
+     * @return 分页结果
+     */
+    public static <T> PageResult<T> selectByCursor(BaseMapper<T> mapper, LambdaQueryWrapper<T> wrapper,
+                                                   SFunction<T, LocalDateTime> createTimeColumn,
+                                                   SFunction<T, Long> idColumn,
+                                                   Function<T, PageCursor> cursorOf,
+                                                   String cursor, long size, CountMode countMode,
+                                                   Supplier<Long> estimator) {
+        checkPage(1, size);
+        PageCursor position = PageCursor.decode(cursor);
+
+        // 总数只与过滤条件相关，在追加键集条件之前统计
+        Long total = switch (countMode) {
+            case EXACT -> mapper.selectCount(wrapper);
+            case ESTIMATE -> estimator.get();
+            case NONE -> null;
+        };
+
+        if (position != null) {
+            wrapper.and(w -> w.lt(createTimeColumn, position.createTime())
+                    .or(o -> o.eq(createTimeColumn, position.createTime()).lt(idColumn, position.id())));
+        }
+        wrapper.orderByDesc(createTimeColumn).orderByDesc(idColumn);
+        wrapper.last("LIMIT " + (size + 1));
+
+        List<T> records = mapper.selectList(wrapper);
+        String nextCursor = null;
+        if (records.size() > size) {
+            records = records.subList(0, (int) size);
+            nextCursor = cursorOf.apply(records.get(records.size() - 1)).encode();
+        }
+        return PageResult.ofCursor(size, total, records, nextCursor);
+    }
+
+    private static void checkPage(long current, long size) {
+        if (current < 1 || size < 1 || size > MAX_PAGE_SIZE) {
+            throw new BusinessException(ResultCode.PARAM_ERROR.getCode(),
+                    "分页参数错误，页码从1开始，每页大小范围为1-" + MAX_PAGE_SIZE);
+        }
+    }
+}
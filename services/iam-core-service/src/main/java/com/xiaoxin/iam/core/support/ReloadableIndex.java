@@ -0,0 +1,166 @@
+package com.xiaoxin.iam.core.support;
+
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 可重建的本地内存索引
+ * <p>
+ * 核心服务中按数据库内容在内存里维护的索引、缓存与计数共用的生命周期：
+ * </p>
+ * <ul>
+ *     <li>启动时全量加载，此后由单线程调度器按固定间隔全量重建，兜底库外修改与漏掉的同步</li>
+ *     <li>本实例的写操作通过 {@link #afterCommit(Runnable)} 在事务提交后增量更新，更新在实例锁内串行执行</li>
+ *     <li>增量更新失败或收到无法解析的同步事件时，通过 {@link #requestReload()} 安排一次后台重建</li>
+ * </ul>
+ * <p>
+ * 重建失败时保留上一份数据；首次加载尚未成功时子类的 isReady 为 false，调用方回退数据库查询。
+ * </p>
+ *
+ * @author xiaoxin
+ * @since 1.0.0
+ */
+@Slf4j
+public abstract class ReloadableIndex implements InitializingBean, DisposableBean {
+
+    /**
+     * 索引名称，用于日志
+     */
+    private final String name;
+
+    private final String threadName;
+
+    /**
+     * 是否已有待执行的重建，避免失败或事件密集时重复排队
+     */
+    private final AtomicBoolean reloadQueued = new AtomicBoolean();
+
+    private ScheduledExecutorService scheduler;
+
+    protected ReloadableIndex(String name, String threadName) {
+        this.name = name;
+        this.threadName = threadName;
+    }
+
+    /**
+     * 是否启用
+     */
+    protected abstract boolean isEnabled();
+
+    /**
+     * 定期全量重建的间隔
+     */
+    protected abstract Duration reloadInterval();
+
+    /**
+     * 未启用时调用方的回退方式，用于启动日志
+     */
+    protected abstract String fallbackDescription();
+
+    /**
+     * 从数据库全量重建
+     */
+    public abstract void reload();
+
+    /**
+     * 启用时、首次加载之前调用，用于创建缓存、注册监控等
+     */
+    protected void initialize() {
+    }
+
+    /**
+     * 首次加载是否放到后台执行；耗时与数据量成正比的索引不应阻塞启动
+     */
+    protected boolean loadInBackground() {
+        return false;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        if (!isEnabled()) {
+            log.info("{}未启用，{}", name, fallbackDescription());
+            return;
+        }
+        initialize();
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, threadName);
+            thread.setDaemon(true);
+            return thread;
+        });
+        if (loadInBackground()) {
+            scheduler.execute(this::reloadQuietly);
+        } else {
+            reloadQuietly();
+        }
+        long intervalMillis = reloadInterval().toMillis();
+        scheduler.scheduleWithFixedDelay(this::reloadQuietly, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void destroy() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    /**
+     * 在后台安排一次全量重建；已有尚未开始的重建时不重复安排，未启用时忽略
+     */
+    public void requestReload() {
+        if (scheduler == null || !reloadQueued.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            scheduler.execute(() -> {
+                // 开始前清除标记，重建期间到达的请求会再排一次，不会被本次读取遗漏
+                reloadQueued.set(false);
+                reloadQuietly();
+            });
+        } catch (RejectedExecutionException e) {
+            reloadQueued.set(false);
+            log.debug("{}正在关闭，忽略重建请求", name);
+        }
+    }
+
+    /**
+     * 增量更新：事务提交后在实例锁内执行，回滚则不执行；失败时交给 {@link #onUpdateFailure()}
+     *
+     * @param update 更新动作
+     */
+    protected void afterCommit(Runnable update) {
+        AfterCommit.run(() -> {
+            try {
+                synchronized (this) {
+                    update.run();
+                }
+            } catch (Exception e) {
+                log.error("{}增量更新失败，触发全量重建", name, e);
+                onUpdateFailure();
+            }
+        });
+    }
+
+    /**
+     * 增量更新失败后的处理，默认安排全量重建
+     */
+    protected void onUpdateFailure() {
+        requestReload();
+    }
+
+    private void reloadQuietly() {
+        try {
+            reload();
+        } catch (Exception e) {
+            log.error("{}全量重建失败，保留当前数据，将在下次重建时重试", name, e);
+        }
+    }
+}
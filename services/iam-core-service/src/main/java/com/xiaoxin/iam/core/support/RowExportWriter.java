@@ -0,0 +1,259 @@
+package com.xiaoxin.iam.core.support;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+
+import org.apache.ibatis.session.ResultContext;
+import org.apache.ibatis.session.ResultHandler;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.xiaoxin.iam.common.exception.BusinessException;
+import com.xiaoxin.iam.common.result.ResultCode;
+import com.xiaoxin.iam.starter.web.field.FieldPolicy;
+
+/**
+ * 导出行流式写入器
+ * <p>
+ * 作为 MyBatis {@link ResultHandler} 逐行接收查询结果并立即写出，内存占用与行数无关：
+ * </p>
+ * <ul>
+ *     <li>CSV：UTF-8 BOM 与表头，列名为属性名；以 = + - @ 开头的单元格加单引号前缀，防止表格软件按公式执行</li>
+ *     <li>NDJSON：每行一个 JSON 对象</li>
+ * </ul>
+ * 字段策略在打开时应用一次：隐藏的列不输出，脱敏的列逐行脱敏。
+ *
+ * @param <T> 行类型
+ * @author xiaoxin
+ * @since 1.0.0
+ */
+public abstract class RowExportWriter<T> implements ResultHandler<T>, Closeable {
+
+    public static final String FORMAT_CSV = "csv";
+
+    public static final String FORMAT_NDJSON = "ndjson";
+
+    private static final DateTimeFormatter DATE_TIME = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    /**
+     * 写出缓冲大小，缓冲写满即以分块方式发送
+     */
+    private static final int BUFFER_SIZE = 8192;
+
+    protected final List<Column<T>> columns;
+
+    protected final Writer writer;
+
+    /**
+     * 已写出的数据行数
+     */
+    private long rowCount;
+
+    protected RowExportWriter(OutputStream output, List<Column<T>> columns) {
+        this.writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8), BUFFER_SIZE);
+        this.columns = columns;
+    }
+
+    /**
+     * 按格式打开写入器
+     *
+     * @param output 输出流，由写入器负责关闭
+     * @param format 导出格式，csv 或 ndjson
+     * @param columns 列名 -> 取值函数，按顺序输出；列名与字段权限的字段名一致
+     * @param policy 字段策略，为 null 表示不限制
+     * @param objectMapper JSON映射器
+     * @return 写入器
+     */
+    public static <T> RowExportWriter<T> open(OutputStream output, String format, Map<String, Function<T, Object>> columns,
+                                              FieldPolicy policy, ObjectMapper objectMapper) throws IOException {
+        List<Column<T>> visible = new ArrayList<>(columns.size());
+        columns.forEach((name, getter) -> {
+            FieldPolicy.Rule rule = policy == null ? null : policy.rule(name);
+            if (rule == null) {
+                visible.add(new Column<>(name, getter));
+            } else if (!rule.isHidden()) {
+                visible.add(new Column<>(name, row -> {
+                    Object value = getter.apply(row);
+                    return value == null ? null : rule.masker().apply(value.toString());
+                }));
+            }
+        });
+        if (FORMAT_NDJSON.equals(format)) {
+            return new NdjsonWriter<>(output, visible, objectMapper);
+        }
+        return new CsvWriter<>(output, visible);
+    }
+
+    /**
+     * 解析导出格式，忽略大小写，为空时导出 CSV
+     */
+    public static String format(String value) {
+        if (value == null || value.isBlank()) {
+            return FORMAT_CSV;
+        }
+        String format = value.trim().toLowerCase(Locale.ROOT);
+        if (!FORMAT_CSV.equals(format) && !FORMAT_NDJSON.equals(format)) {
+            throw new BusinessException(ResultCode.PARAM_ERROR.getCode(), "不支持的导出格式: " + value);
+        }
+        return format;
+    }
+
+    /**
+     * 导出格式对应的内容类型
+     */
+    public static String contentType(String format) {
+        return FORMAT_NDJSON.equals(format) ? "application/x-ndjson;charset=UTF-8" : "text/csv;charset=UTF-8";
+    }
+
+    @Override
+    public void handleResult(ResultContext<? extends T> context) {
+        try {
+            writeRow(context.getResultObject());
+            rowCount++;
+        } catch (IOException e) {
+            // 客户端断开连接等写出失败时终止查询
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public long getRowCount() {
+        return rowCount;
+    }
+
+    protected abstract void writeRow(T row) throws IOException;
+
+    @Override
+    public void close() throws IOException {
+        writer.close();
+    }
+
+    protected static String text(Object value) {
+        if (value == null) {
+            return null;
+        }
+        if (value instanceof LocalDateTime dateTime) {
+            return DATE_TIME.format(dateTime);
+        }
+        return value.toString();
+    }
+
+    /**
+     * 导出列
+     *
+     * @param name 列名
+     * @param getter 取值函数
+     */
+    protected record Column<T>(String name, Function<T, Object> getter) {
+    }
+
+    /**
+     * CSV写入器
+     */
+    private static final class CsvWriter<T> extends RowExportWriter<T> {
+
+        CsvWriter(OutputStream output, List<Column<T>> columns) throws IOException {
+            super(output, columns);
+            // Excel 依据 BOM 识别 UTF-8
+            writer.write('\uFEFF');
+            for (int i = 0; i < columns.size(); i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                writeCell(columns.get(i).name());
+            }
+            writer.write("\r\n");
+        }
+
+        @Override
+        protected void writeRow(T row) throws IOException {
+            for (int i = 0; i < columns.size(); i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                Object value = columns.get(i).getter().apply(row);
+                String text = text(value);
+                if (text != null) {
+                    writeCell(value instanceof Number ? text : guardFormula(text));
+                }
+            }
+            writer.write("\r\n");
+        }
+
+        private void writeCell(String value) throws IOException {
+            boolean quote = false;
+            for (int i = 0; i < value.length() && !quote; i++) {
+                char c = value.charAt(i);
+                quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+            }
+            if (!quote) {
+                writer.write(value);
+                return;
+            }
+            writer.write('"');
+            writer.write(value.replace("\"", "\"\""));
+            writer.write('"');
+        }
+
+        private static String guardFormula(String value) {
+            if (!value.isEmpty() && "=+-@".indexOf(value.charAt(0)) >= 0) {
+                return "'" + value;
+            }
+            return value;
+        }
+    }
+
+    /**
+     * NDJSON写入器
+     */
+    private static final class NdjsonWriter<T> extends RowExportWriter<T> {
+
+        private final JsonGenerator generator;
+
+        NdjsonWriter(OutputStream output, List<Column<T>> columns, ObjectMapper objectMapper) throws IOException {
+            super(output, columns);
+            this.generator = objectMapper.getFactory().createGenerator(writer);
+            // 行与行之间由本写入器输出换行；逐行 flush 只写入缓冲，不冲刷到网络
+            this.generator.setRootValueSeparator(null);
+            this.generator.disable(JsonGenerator.Feature.FLUSH_PASSED_TO_STREAM);
+        }
+
+        @Override
+        protected void writeRow(T row) throws IOException {
+            generator.writeStartObject();
+            for (Column<T> column : columns) {
+                Object value = column.getter().apply(row);
+                generator.writeFieldName(column.name());
+                if (value == null) {
+                    generator.writeNull();
+                } else if (value instanceof Integer number) {
+                    generator.writeNumber(number);
+                } else {
+                    // 长整型ID按字符串输出，避免 JavaScript 解析丢失精度
+                    generator.writeString(text(value));
+                }
+            }
+            generator.writeEndObject();
+            generator.flush();
+            writer.write('\n');
+        }
+
+        @Override
+        public void close() throws IOException {
+            generator.close();
+            super.close();
+        }
+    }
+}
@@ -0,0 +1,248 @@
+package com.xiaoxin.iam.core.support;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.xiaoxin.iam.core.dto.UserImportRow;
+
+/**
+ * 用户导入文件流式读取器
+ * <p>
+ * 逐行解析，不将整个文件加载到内存：
+ * </p>
+ * <ul>
+ *     <li>CSV：首行为表头，列名与 {@link UserImportRow} 属性名一致（不区分大小写），
+ *     支持双引号包裹与转义，roleIds/deptIds 以分号分隔</li>
+ *     <li>JSON：顶层为对象数组，逐个对象读取</li>
+ * </ul>
+ * 单行内容无法解析时返回带错误信息的行，不中断后续读取。
+ *
+ * @author xiaoxin
+ * @since 1.0.0
+ */
+public abstract class UserImportReader implements Closeable {
+
+    public static final String FORMAT_CSV = "csv";
+
+    public static final String FORMAT_JSON = "json";
+
+    /**
+     * 已读取的数据行数
+     */
+    protected int rowNumber;
+
+    /**
+     * 读取下一行
+     *
+     * @return 下一行，没有更多数据时返回 null
+     * @throws IOException 文件结构损坏，无法继续读取
+     */
+    public abstract Row next() throws IOException;
+
+    /**
+     * 按格式打开读取器
+     *
+     * @param input 输入流，由读取器负责关闭
+     * @param format 文件格式，csv 或 json
+     * @param objectMapper JSON映射器
+     * @return 读取器
+     */
+    public static UserImportReader open(InputStream input, String format, ObjectMapper objectMapper)
+            throws IOException {
+        if (FORMAT_JSON.equals(format)) {
+            return new JsonReader(input, objectMapper);
+        }
+        return new CsvReader(input);
+    }
+
+    /**
+     * 读取到的行
+     *
+     * @param number 行号
+     * @param data 行数据，解析失败时为 null
+     * @param error 解析错误
+     */
+    public record Row(int number, UserImportRow data, String error) {
+    }
+
+    /**
+     * CSV读取器
+     */
+    private static final class CsvReader extends UserImportReader {
+
+        private final BufferedReader reader;
+
+        private final String[] header;
+
+        CsvReader(InputStream input) throws IOException {
+            this.reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+            List<String> columns = readRecord();
+            if (columns == null) {
+                this.header = new String[0];
+                return;
+            }
+            // 去掉 Excel 导出的 UTF-8 BOM
+            if (!columns.isEmpty() && columns.get(0).startsWith("\uFEFF")) {
+                columns.set(0, columns.get(0).substring(1));
+            }
+            this.header = columns.stream()
+                    .map(column -> column.trim().toLowerCase(Locale.ROOT))
+                    .toArray(String[]::new);
+        }
+
+        @Override
+        public Row next() throws IOException {
+            List<String> values;
+            do {
+                values = readRecord();
+                if (values == null) {
+                    return null;
+                }
+            } while (values.size() == 1 && values.get(0).isBlank());
+
+            int number = ++rowNumber;
+            try {
+                UserImportRow row = new UserImportRow();
+                for (int i = 0; i < header.length && i < values.size(); i++) {
+                    String value = values.get(i).trim();
+                    if (!value.isEmpty()) {
+                        assign(row, header[i], value);
+                    }
+                }
+                return new Row(number, row, null);
+            } catch (NumberFormatException e) {
+                return new Row(number, null, "ID列表格式错误: " + e.getMessage());
+            }
+        }
+
+        private static void assign(UserImportRow row, String column, String value) {
+            switch (column) {
+                case "username" -> row.setUsername(value);
+                case "password" -> row.setPassword(value);
+                case "nickname" -> row.setNickname(value);
+                case "email" -> row.setEmail(value);
+                case "phone" -> row.setPhone(value);
+                case "sex" -> row.setSex(value);
+                case "avatar" -> row.setAvatar(value);
+                case "remark" -> row.setRemark(value);
+                case "status" -> row.setStatus(value);
+                case "roleids" -> row.setRoleIds(parseIds(value));
+                case "deptids" -> row.setDeptIds(parseIds(value));
+                default -> {
+                    // 忽略未知列
+                }
+            }
+        }
+
+        private static List<Long> parseIds(String value) {
+            return Arrays.stream(value.split(";"))
+                    .map(String::trim)
+                    .filter(id -> !id.isEmpty())
+                    .map(Long::valueOf)
+                    .toList();
+        }
+
+        /**
+         * 读取一条记录，引号内的换行属于字段内容
+         */
+        private List<String> readRecord() throws IOException {
+            String line = reader.readLine();
+            if (line == null) {
+                return null;
+            }
+            List<String> values = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            while (true) {
+                for (int i = 0; i < line.length(); i++) {
+                    char c = line.charAt(i);
+                    if (quoted) {
+                        if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                            field.append('"');
+                            i++;
+                        } else if (c == '"') {
+                            quoted = false;
+                        } else {
+                            field.append(c);
+                        }
+                    } else if (c == '"') {
+                        quoted = true;
+                    } else if (c == ',') {
+                        values.add(field.toString());
+                        field.setLength(0);
+                    } else {
+                        field.append(c);
+                    }
+                }
+                if (!quoted) {
+                    break;
+                }
+                line = reader.readLine();
+                if (line == null) {
+                    throw new IOException("CSV引号未闭合");
+                }
+                field.append('\n');
+            }
+            values.add(field.toString());
+            return values;
+        }
+
+        @Override
+        public void close() throws IOException {
+            reader.close();
+        }
+    }
+
+    /**
+     * JSON读取器
+     */
+    private static final class JsonReader extends UserImportReader {
+
+        private final JsonParser parser;
+
+        private final ObjectMapper objectMapper;
+
+        JsonReader(InputStream input, ObjectMapper objectMapper) throws IOException {
+            this.objectMapper = objectMapper;
+            this.parser = objectMapper.getFactory().createParser(input);
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                parser.close();
+                throw new IOException("JSON导入文件必须是对象数组");
+            }
+        }
+
+        @Override
+        public Row next() throws IOException {
+            JsonToken token = parser.nextToken();
+            if (token == null || token == JsonToken.END_ARRAY) {
+                return null;
+            }
+            int number = ++rowNumber;
+            // 先读成树再映射，单个对象字段类型错误时不影响后续对象的解析位置
+            JsonNode node = objectMapper.readTree(parser);
+            try {
+                return new Row(number, objectMapper.treeToValue(node, UserImportRow.class), null);
+            } catch (JsonProcessingException | IllegalArgumentException e) {
+                return new Row(number, null, "数据格式错误: " + e.getMessage());
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            parser.close();
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.xiaoxin.iam.core.unique;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 布隆过滤器
+ * <p>
+ * 位数组按预期容量与误判率确定大小，k 个位置由两个64位哈希组合生成（Kirsch-Mitzenmacher）。
+ * 只支持添加，不支持删除；写入使用原子按位或，可与查询并发执行。
+ * </p>
+ *
+ * @author xiaoxin
+ * @since 1.0.0
+ */
+final class BloomFilter {
+
+    private static final double LN2 = Math.log(2);
+
+    private final AtomicLongArray words;
+
+    private final long bitCount;
+
+    private final int hashCount;
+
+    private final long capacity;
+
+    private final AtomicLong insertions = new AtomicLong();
+
+    private BloomFilter(long bitCount, int hashCount, long capacity) {
+        this.words = new AtomicLongArray(Math.toIntExact(bitCount >>> 6));
+        this.bitCount = bitCount;
+        this.hashCount = hashCount;
+        this.capacity = capacity;
+    }
+
+    /**
+     * 按预期元素数与误判率创建
+     *
+     * @param expectedInsertions 预期元素数，超出后误判率逐渐升高
+     * @param falsePositiveRate 目标误判率，取值 (0, 1)
+     */
+    static BloomFilter create(long expectedInsertions, double falsePositiveRate) {
+        long capacity = Math.max(1, expectedInsertions);
+        long bits = (long) Math.ceil(-capacity * Math.log(falsePositiveRate) / (LN2 * LN2));
+        bits = Math.max(Long.SIZE, (bits + Long.SIZE - 1) / Long.SIZE * Long.SIZE);
+        int hashes = Math.max(1, (int) Math.round((double) bits / capacity * LN2));
+        return new BloomFilter(bits, hashes, capacity);
+    }
+
+    /**
+     * 计算字符串的64位哈希（FNV-1a 后做 murmur3 终结混合）
+     */
+    static long hash(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return mix(hash);
+    }
+
+    void put(long hash) {
+        long step = mix(hash ^ 0x9e3779b97f4a7c15L) | 1;
+        long combined = hash;
+        for (int i = 0; i < hashCount; i++) {
+            long bit = (combined & Long.MAX_VALUE) % bitCount;
+            long mask = 1L << bit;
+            int index = (int) (bit >>> 6);
+            if ((words.get(index) & mask) == 0) {
+                words.getAndAccumulate(index, mask, (current, add) -> current | add);
+            }
+            combined += step;
+        }
+        insertions.incrementAndGet();
+    }
+
+    /**
+     * 是否可能包含；返回 false 时一定不包含
+     */
+    boolean mightContain(long hash) {
+        long step = mix(hash ^ 0x9e3779b97f4a7c15L) | 1;
+        long combined = hash;
+        for (int i = 0; i < hashCount; i++) {
+            long bit = (combined & Long.MAX_VALUE) % bitCount;
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+            combined += step;
+        }
+        return true;
+    }
+
+    /**
+     * 写入次数是否已超过预期容量
+     */
+    boolean isSaturated() {
+        return insertions.get() > capacity;
+    }
+
+    long bitCount() {
+        return bitCount;
+    }
+
+    private static long mix(long value) {
+        value = (value ^ (value >>> 33)) * 0xff51afd7ed558ccdL;
+        value = (value ^ (value >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        return value ^ (value >>> 33);
+    }
+}
@@ -0,0 +1,14 @@
+package com.xiaoxin.iam.core.unique;
+
+/**
+ * 用户唯一性字段
+ *
+ * @author xiaoxin
+ * @since 1.0.0
+ */
+public enum UserUniqueField {
+
+    USERNAME,
+    EMAIL,
+    PHONE
+}
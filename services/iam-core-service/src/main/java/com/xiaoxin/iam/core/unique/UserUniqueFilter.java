@@ -0,0 +1,389 @@
+package com.xiaoxin.iam.core.unique;
+
+import java.text.Normalizer;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import com.xiaoxin.iam.core.config.UserUniqueFilterProperties;
+import com.xiaoxin.iam.core.entity.User;
+import com.xiaoxin.iam.core.mapper.UserImportMapper;
+import com.xiaoxin.iam.core.mapper.UserSearchMapper;
+import com.xiaoxin.iam.core.search.UserSearchDocument;
+import com.xiaoxin.iam.core.support.ReloadableIndex;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 用户唯一性预检过滤器
+ * <p>
+ * 为用户名、邮箱、手机号各维护一个布隆过滤器，唯一性校验先查过滤器，"一定不存在"直接返回，
+ * 只有可能冲突时才执行数据库 COUNT 查询：
+ * </p>
+ * <ul>
+ *     <li>启动时流式读取用户表构建，容量按当前用户量与增长倍数分配</li>
+ *     <li>本实例的新增、修改在事务提交后写入，其他实例的写操作通过身份变更事件同步</li>
+ *     <li>布隆过滤器不支持删除，已删除或已改掉的旧值只会造成误判回退，由定期全量重建清除</li>
+ *     <li>写入次数超过容量时提前触发重建，避免误判率持续升高</li>
+ * </ul>
+ * <p>
+ * 比较前统一去除首尾空白、分解并去掉重音符号、转为小写，与数据库不区分大小写和重音的排序规则保持一致；
+ * 归一化只会让更多值落入同一位置，不会产生漏判。
+ * </p>
+ *
+ * @author xiaoxin
+ * @since 1.0.0
+ */
+@Slf4j
+@Component
+public class UserUniqueFilter extends ReloadableIndex {
+
+    private static final String METRIC_PREFIX = "iam.core.unique-filter";
+
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+
+    private static final UserUniqueField[] FIELDS = UserUniqueField.values();
+
+    private final UserImportMapper userImportMapper;
+
+    private final UserSearchMapper userSearchMapper;
+
+    private final UserUniqueFilterProperties properties;
+
+    /**
+     * 按字段统计：过滤器直接判定不存在的次数
+     */
+    private final Map<UserUniqueField, Counter> absentCounters = new EnumMap<>(UserUniqueField.class);
+
+    /**
+     * 按字段统计：回退数据库校验的次数
+     */
+    private final Map<UserUniqueField, Counter> fallthroughCounters = new EnumMap<>(UserUniqueField.class);
+
+    private final Object reloadLock = new Object();
+
+    /**
+     * 当前过滤器，为 null 表示尚未加载完成
+     */
+    private volatile State state;
+
+    /**
+     * 全量重建期间写入的值，重建完成后补入新过滤器，避免丢失；非重建期间为 null
+     */
+    private List<Entry> pending;
+
+    public UserUniqueFilter(UserImportMapper userImportMapper,
+                            UserSearchMapper userSearchMapper,
+                            UserUniqueFilterProperties properties,
+                            ObjectProvider<MeterRegistry> meterRegistryProvider) {
+        super("用户唯一性预检过滤器", "user-unique-filter-reloader");
+        this.userImportMapper = userImportMapper;
+        this.userSearchMapper = userSearchMapper;
+        this.properties = properties;
+        MeterRegistry meterRegistry = meterRegistryProvider.getIfAvailable();
+        if (meterRegistry != null) {
+            for (UserUniqueField field : FIELDS) {
+                String tag = field.name().toLowerCase(Locale.ROOT);
+                absentCounters.put(field, Counter.builder(METRIC_PREFIX + ".checks")
+                        .description("唯一性预检次数")
+                        .tag("field", tag)
+                        .tag("result", "absent")
+                        .register(meterRegistry));
+                fallthroughCounters.put(field, Counter.builder(METRIC_PREFIX + ".checks")
+                        .description("唯一性预检次数")
+                        .tag("field", tag)
+                        .tag("result", "fallthrough")
+                        .register(meterRegistry));
+            }
+            Gauge.builder(METRIC_PREFIX + ".memory", this, UserUniqueFilter::memoryBytes)
+                    .description("过滤器位数组内存占用")
+                    .baseUnit("bytes")
+                    .register(meterRegistry);
+        }
+    }
+
+    @Override
+    protected boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    @Override
+    protected Duration reloadInterval() {
+        return properties.getReloadInterval();
+    }
+
+    @Override
+    protected String fallbackDescription() {
+        return "用户名/邮箱/手机号校验将直接访问数据库";
+    }
+
+    /**
+     * 加载完成前所有校验回退数据库，不阻塞启动
+     */
+    @Override
+    protected boolean loadInBackground() {
+        return true;
+    }
+
+    /**
+     * 过滤器是否可用
+     */
+    public boolean isReady() {
+        return state != null;
+    }
+
+    // ==================== 查询 ====================
+
+    /**
+     * 值是否可能已被占用
+     *
+     * @param field 唯一性字段
+     * @param value 待校验的值
+     * @return false 表示一定未被占用，可跳过数据库校验；过滤器不可用或可能冲突时返回 true
+     */
+    public boolean mightBeTaken(UserUniqueField field, String value) {
+        State current = state;
+        String folded = fold(value);
+        if (current == null || folded == null) {
+            return true;
+        }
+        if (current.filters.get(field).mightContain(BloomFilter.hash(folded))) {
+            increment(fallthroughCounters, field);
+            return true;
+        }
+        increment(absentCounters, field);
+        return false;
+    }
+
+    // ==================== 增量更新 ====================
+
+    /**
+     * 用户已新增或修改，事务提交后写入其唯一性字段；未设置的字段忽略
+     */
+    public void onUsersWritten(Collection<User> users) {
+        if (users == null || users.isEmpty()) {
+            return;
+        }
+        List<Entry> entries = new ArrayList<>();
+        for (User user : users) {
+            collect(entries, user.getUsername(), user.getEmail(), user.getPhone());
+        }
+        afterCommit(() -> put(entries));
+    }
+
+    /**
+     * 其他实例新增或修改了用户，从数据库读取这些用户的当前值写入
+     */
+    public void onUsersChanged(Collection<Long> userIds) {
+        if (userIds == null || userIds.isEmpty() || !properties.isEnabled()) {
+            return;
+        }
+        afterCommit(() -> {
+            List<Entry> entries = new ArrayList<>();
+            for (UserSearchDocument document : userSearchMapper.selectSearchDocuments(userIds)) {
+                collect(entries, document.getUsername(), document.getEmail(), document.getPhone());
+            }
+            put(entries);
+        });
+    }
+
+    /**
+     * 全量重建，流式读取用户表，按读取到的用户量确定过滤器容量
+     */
+    @Override
+    public void reload() {
+        synchronized (reloadLock) {
+            long startMillis = System.currentTimeMillis();
+            synchronized (this) {
+                pending = new ArrayList<>();
+            }
+            State next;
+            try {
+                next = build();
+            } catch (RuntimeException e) {
+                synchronized (this) {
+                    pending = null;
+                }
+                throw e;
+            }
+            int replayed;
+            synchronized (this) {
+                pending.forEach(next::put);
+                replayed = pending.size();
+                pending = null;
+                state = next;
+            }
+            log.info("用户唯一性预检过滤器已全量加载: 用户名{}个, 邮箱{}个, 手机号{}个, 补入并发写入{}个, 占用内存{}KB, 耗时{}ms",
+                    next.loaded.get(UserUniqueField.USERNAME), next.loaded.get(UserUniqueField.EMAIL),
+                    next.loaded.get(UserUniqueField.PHONE), replayed, next.memoryBytes() / 1024,
+                    System.currentTimeMillis() - startMillis);
+        }
+    }
+
+    private State build() {
+        Map<UserUniqueField, LongList> hashes = new EnumMap<>(UserUniqueField.class);
+        for (UserUniqueField field : FIELDS) {
+            hashes.put(field, new LongList());
+        }
+        // 用户名唯一索引包含已删除用户，一并加入；邮箱与手机号只校验未删除用户
+        userImportMapper.streamUniqueKeys(context -> {
+            User user = context.getResultObject();
+            append(hashes.get(UserUniqueField.USERNAME), user.getUsername());
+            if ("0".equals(user.getDelFlag())) {
+                append(hashes.get(UserUniqueField.EMAIL), user.getEmail());
+                append(hashes.get(UserUniqueField.PHONE), user.getPhone());
+            }
+        });
+        State next = new State();
+        for (UserUniqueField field : FIELDS) {
+            LongList list = hashes.get(field);
+            long capacity = Math.max(properties.getExpectedInsertions(),
+                    (long) Math.ceil(list.size * properties.getGrowthFactor()));
+            BloomFilter filter = BloomFilter.create(capacity, properties.getFalsePositiveRate());
+            for (int i = 0; i < list.size; i++) {
+                filter.put(list.values[i]);
+            }
+            next.filters.put(field, filter);
+            next.loaded.put(field, list.size);
+        }
+        return next;
+    }
+
+    private void put(List<Entry> entries) {
+        boolean saturated = false;
+        boolean rebuilding;
+        synchronized (this) {
+            State current = state;
+            for (Entry entry : entries) {
+                if (current != null) {
+                    saturated |= current.put(entry);
+                }
+                if (pending != null) {
+                    pending.add(entry);
+                }
+            }
+            rebuilding = pending != null;
+        }
+        // 重建期间写入的仍是旧过滤器，新过滤器按当前用户量分配容量，无需再排一次
+        if (saturated && !rebuilding) {
+            log.info("用户唯一性预检过滤器写入已超过预期容量，提前全量重建");
+            requestReload();
+        }
+    }
+
+    /**
+     * 漏写会导致漏判，增量写入失败时停用过滤器直至重建完成
+     */
+    @Override
+    protected void onUpdateFailure() {
+        state = null;
+        super.onUpdateFailure();
+    }
+
+    private double memoryBytes() {
+        State current = state;
+        return current == null ? 0 : current.memoryBytes();
+    }
+
+    private static void increment(Map<UserUniqueField, Counter> counters, UserUniqueField field) {
+        Counter counter = counters.get(field);
+        if (counter != null) {
+            counter.increment();
+        }
+    }
+
+    private static void collect(List<Entry> entries, String username, String email, String phone) {
+        addEntry(entries, UserUniqueField.USERNAME, username);
+        addEntry(entries, UserUniqueField.EMAIL, email);
+        addEntry(entries, UserUniqueField.PHONE, phone);
+    }
+
+    private static void addEntry(List<Entry> entries, UserUniqueField field, String value) {
+        String folded = fold(value);
+        if (folded != null) {
+            entries.add(new Entry(field, BloomFilter.hash(folded)));
+        }
+    }
+
+    private static void append(LongList list, String value) {
+        String folded = fold(value);
+        if (folded != null) {
+            list.append(BloomFilter.hash(folded));
+        }
+    }
+
+    /**
+     * 归一化：去除首尾空白，非 ASCII 值做兼容分解并去掉重音符号，再转小写；空值返回 null
+     */
+    static String fold(String value) {
+        if (!StringUtils.hasText(value)) {
+            return null;
+        }
+        String trimmed = value.trim();
+        boolean ascii = trimmed.chars().allMatch(ch -> ch < 0x80);
+        String folded = ascii ? trimmed
+                : COMBINING_MARKS.matcher(Normalizer.normalize(trimmed, Normalizer.Form.NFKD)).replaceAll("");
+        return folded.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * 待写入的字段值哈希
+     */
+    private record Entry(UserUniqueField field, long hash) {
+    }
+
+    /**
+     * 过滤器快照，全量重建时整体替换
+     */
+    private static final class State {
+
+        final Map<UserUniqueField, BloomFilter> filters = new EnumMap<>(UserUniqueField.class);
+
+        final Map<UserUniqueField, Integer> loaded = new EnumMap<>(UserUniqueField.class);
+
+        /**
+         * 写入一个值
+         *
+         * @return 该字段的过滤器是否已超过预期容量
+         */
+        boolean put(Entry entry) {
+            BloomFilter filter = filters.get(entry.field());
+            filter.put(entry.hash());
+            return filter.isSaturated();
+        }
+
+        long memoryBytes() {
+            return filters.values().stream().mapToLong(filter -> filter.bitCount() / Byte.SIZE).sum();
+        }
+    }
+
+    /**
+     * 可增长的 long 数组，构建期间暂存哈希值
+     */
+    private static final class LongList {
+
+        long[] values = new long[1024];
+
+        int size;
+
+        void append(long value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size << 1);
+            }
+            values[size++] = value;
+        }
+    }
+}
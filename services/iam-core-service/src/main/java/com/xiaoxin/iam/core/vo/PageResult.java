@@ -5,6 +5,7 @@ import lombok.Data;
 
 import java.io.Serializable;
 import java.util.List;
+import java.util.function.Function;
 
 /**
  * 分页结果封装
@@ -39,6 +40,9 @@ public class PageResult<T> implements Serializable {
     @Schema(description = "是否有上一页")
     private Boolean hasPrevious;
 
+    @Schema(description = "下一页游标，仅游标分页返回，为空表示没有更多数据")
+    private String nextCursor;
+
     /**
      * 创建分页结果
      *
@@ -66,6 +70,68 @@ public class PageResult<T> implements Serializable {
         return pageResult;
     }
 
+    /**
+     * 创建不依赖精确总数的分页结果
+     *
+     * @param current 当前页码
+     * @param size 每页大小
+     * @param total 总记录数，估算值或 null
+     * @param records 数据列表
+     * @param hasNext 是否有下一页
+     * @return 分页结果
+     */
+    public static <T> PageResult<T> of(Long current, Long size, Long total, List<T> records, boolean hasNext) {
+        PageResult<T> pageResult = new PageResult<>();
+        pageResult.setCurrent(current);
+        pageResult.setSize(size);
+        pageResult.setTotal(total);
+        pageResult.setRecords(records);
+        if (total != null) {
+            pageResult.setPages((total + size - 1) / size);
+        }
+        pageResult.setHasNext(hasNext);
+        pageResult.setHasPrevious(current > 1);
+        return pageResult;
+    }
+
+    /**
+     * 创建游标分页结果
+     *
+     * @param size 每页大小
+     * @param total 总记录数，未统计时为 null
+     * @param records 数据列表
+     * @param nextCursor 下一页游标，没有更多数据时为 null
+     * @return 分页结果
+     */
+    public static <T> PageResult<T> ofCursor(Long size, Long total, List<T> records, String nextCursor) {
+        PageResult<T> pageResult = new PageResult<>();
+        pageResult.setSize(size);
+        pageResult.setTotal(total);
+        pageResult.setRecords(records);
+        pageResult.setHasNext(nextCursor != null);
+        pageResult.setNextCursor(nextCursor);
+        return pageResult;
+    }
+
+    /**
+     * 转换数据列表，保留分页信息
+     *
+     * @param mapper 转换函数
+     * @return 新的分页结果
+     */
+    public <R> PageResult<R> map(Function<? super T, ? extends R> mapper) {
+        PageResult<R> pageResult = new PageResult<>();
+        pageResult.setCurrent(current);
+        pageResult.setSize(size);
+        pageResult.setTotal(total);
+        pageResult.setPages(pages);
+        pageResult.setRecords(records == null ? null : records.stream().<R>map(mapper).toList());
+        pageResult.setHasNext(hasNext);
+        pageResult.setHasPrevious(hasPrevious);
+        pageResult.setNextCursor(nextCursor);
+        return pageResult;
+    }
+
     /**
      * 从MyBatis Plus的IPage创建分页结果
      *
@@ -0,0 +1,61 @@
+package com.xiaoxin.iam.core.vo;
+
+import java.time.LocalDateTime;
+
+import lombok.Data;
+
+/**
+ * 角色导出行
+ * 权限编码以分号拼接
+ *
+ * @author xiaoxin
+ * @since 1.0.0
+ */
+@Data
+public class RoleExportRow {
+
+    /**
+     * 角色ID
+     */
+    private Long id;
+
+    /**
+     * 角色名称
+     */
+    private String roleName;
+
+    /**
+     * 角色权限字符串
+     */
+    private String roleKey;
+
+    /**
+     * 显示顺序
+     */
+    private Integer roleSort;
+
+    /**
+     * 数据范围（1全部 2自定义 3本部门 4本部门及以下）
+     */
+    private String dataScope;
+
+    /**
+     * 角色状态（0正常 1停用）
+     */
+    private String status;
+
+    /**
+     * 创建时间
+     */
+    private LocalDateTime createTime;
+
+    /**
+     * 分配了该角色的未删除用户数
+     */
+    private Long userCount;
+
+    /**
+     * 权限编码，分号分隔
+     */
+    private String permissionCodes;
+}
@@ -71,6 +71,12 @@ public class RoleVO implements Serializable {
     @Schema(description = "角色部门列表")
     private List<DeptVO> depts;
 
+    @Schema(description = "未删除用户数")
+    private Integer userCount;
+
+    @Schema(description = "未删除部门数")
+    private Integer deptCount;
+
     /**
      * 判断角色是否正常状态
      */
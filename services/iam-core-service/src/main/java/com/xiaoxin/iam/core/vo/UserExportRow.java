@@ -0,0 +1,76 @@
+package com.xiaoxin.iam.core.vo;
+
+import java.time.LocalDateTime;
+
+import lombok.Data;
+
+/**
+ * 用户导出行
+ * 角色标识与部门名称以分号拼接，与导入文件的多值格式一致
+ *
+ * @author xiaoxin
+ * @since 1.0.0
+ */
+@Data
+public class UserExportRow {
+
+    /**
+     * 用户ID
+     */
+    private Long id;
+
+    /**
+     * 用户账号
+     */
+    private String username;
+
+    /**
+     * 用户昵称
+     */
+    private String nickname;
+
+    /**
+     * 用户邮箱
+     */
+    private String email;
+
+    /**
+     * 手机号码
+     */
+    private String phone;
+
+    /**
+     * 用户性别（0男 1女 2未知）
+     */
+    private String sex;
+
+    /**
+     * 帐号状态（0正常 1停用）
+     */
+    private String status;
+
+    /**
+     * 最后登录IP
+     */
+    private String loginIp;
+
+    /**
+     * 最后登录时间
+     */
+    private LocalDateTime loginDate;
+
+    /**
+     * 创建时间
+     */
+    private LocalDateTime createTime;
+
+    /**
+     * 角色标识，分号分隔
+     */
+    private String roleKeys;
+
+    /**
+     * 部门名称，分号分隔
+     */
+    private String deptNames;
+}
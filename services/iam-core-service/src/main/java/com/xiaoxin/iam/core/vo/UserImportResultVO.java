@@ -0,0 +1,74 @@
+package com.xiaoxin.iam.core.vo;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 用户导入任务视图对象
+ *
+ * @author xiaoxin
+ * @since 1.0.0
+ */
+@Data
+@Schema(description = "用户导入任务")
+public class UserImportResultVO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Schema(description = "任务ID")
+    private String taskId;
+
+    @Schema(description = "任务状态：RUNNING-执行中，COMPLETED-已完成，FAILED-失败")
+    private String status;
+
+    @Schema(description = "已处理行数")
+    private Integer processed;
+
+    @Schema(description = "导入成功行数")
+    private Integer succeeded;
+
+    @Schema(description = "导入失败行数")
+    private Integer failed;
+
+    @Schema(description = "任务失败原因")
+    private String message;
+
+    @Schema(description = "失败行明细，超出上限的部分不返回")
+    private List<RowError> errors;
+
+    @Schema(description = "开始时间")
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime startTime;
+
+    @Schema(description = "结束时间")
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime endTime;
+
+    /**
+     * 失败行
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Schema(description = "导入失败行")
+    public static class RowError implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        @Schema(description = "行号，CSV从表头下一行开始计1，JSON为数组下标加1")
+        private Integer row;
+
+        @Schema(description = "用户账号")
+        private String username;
+
+        @Schema(description = "失败原因")
+        private String message;
+    }
+}
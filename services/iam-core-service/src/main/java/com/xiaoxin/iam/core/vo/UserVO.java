@@ -2,6 +2,8 @@ package com.xiaoxin.iam.core.vo;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.xiaoxin.iam.core.constant.CoreConstants;
+import com.xiaoxin.iam.starter.web.field.FieldPermission;
 import io.swagger.v3.oas.annotations.media.Schema;
 import lombok.Data;
 
@@ -11,11 +13,13 @@ import java.util.List;
 
 /**
  * 用户视图对象
+ * 按当前用户角色的字段权限隐藏或脱敏字段（如手机号、邮箱）
  *
  * @author xiaoxin
  * @since 1.0.0
  */
 @Data
+@FieldPermission(resource = CoreConstants.RESOURCE_USER)
 @Schema(description = "用户视图对象")
 public class UserVO implements Serializable {
 
@@ -0,0 +1,142 @@
+package com.xiaoxin.iam.core.dept;
+
+import com.xiaoxin.iam.core.config.DeptHierarchyProperties;
+import com.xiaoxin.iam.core.entity.Dept;
+import com.xiaoxin.iam.core.mapper.DeptMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 部门层级索引测试
+ *
+ * @author xiaoxin
+ * @since 1.0.0
+ */
+public class DeptHierarchyTest {
+
+    private final List<Dept> depts = new ArrayList<>();
+
+    private DeptMapper deptMapper;
+
+    private DeptHierarchyProperties properties;
+
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    public void setUp() {
+        // 100 ─┬─ 120
+        //      └─ 110 ── 111
+        // 200
+        depts.add(dept(100L, 0L, 1));
+        depts.add(dept(110L, 100L, 2));
+        depts.add(dept(111L, 110L, 1));
+        depts.add(dept(120L, 100L, 1));
+        depts.add(dept(200L, 0L, 2));
+        deptMapper = mock(DeptMapper.class);
+        when(deptMapper.selectHierarchyNodes()).thenAnswer(invocation -> new ArrayList<>(depts));
+        properties = new DeptHierarchyProperties();
+        properties.setSyncClosure(false);
+        transactionTemplate = mock(TransactionTemplate.class);
+    }
+
+    @Test
+    public void testDescendantsFollowDisplayOrder() {
+        DeptHierarchy hierarchy = newHierarchy();
+
+        assertEquals(List.of(100L, 120L, 110L, 111L), hierarchy.getDescendantIds(100L, true));
+        assertEquals(List.of(111L), hierarchy.getDescendantIds(110L, false));
+        assertTrue(hierarchy.getDescendantIds(999L, true).isEmpty());
+    }
+
+    @Test
+    public void testAncestorsAndContainment() {
+        DeptHierarchy hierarchy = newHierarchy();
+
+        assertEquals(List.of(100L, 110L), hierarchy.getAncestorIds(111L));
+        assertTrue(hierarchy.getAncestorIds(200L).isEmpty());
+        assertTrue(hierarchy.isDescendantOrSelf(111L, 100L));
+        assertTrue(hierarchy.isDescendantOrSelf(111L, 111L));
+        assertTrue(hierarchy.isDescendantOrSelf(200L, DeptHierarchy.ROOT_ID));
+        assertFalse(hierarchy.isDescendantOrSelf(100L, 111L));
+        assertFalse(hierarchy.isDescendantOrSelf(111L, 200L));
+    }
+
+    @Test
+    public void testUnreachableDeptsAreIgnored() {
+        depts.add(dept(300L, 301L, 1));
+        depts.add(dept(301L, 300L, 1));
+        DeptHierarchy hierarchy = newHierarchy();
+
+        assertFalse(hierarchy.contains(300L));
+        assertTrue(hierarchy.contains(111L));
+    }
+
+    @Test
+    public void testMoveCarriesSubtree() {
+        DeptHierarchy hierarchy = newHierarchy();
+
+        hierarchy.onDeptMoved(110L, 200L);
+
+        assertEquals(List.of(100L, 120L), hierarchy.getDescendantIds(100L, true));
+        assertEquals(List.of(200L, 110L, 111L), hierarchy.getDescendantIds(200L, true));
+        assertEquals(List.of(200L, 110L), hierarchy.getAncestorIds(111L));
+        assertFalse(hierarchy.isDescendantOrSelf(111L, 100L));
+    }
+
+    @Test
+    public void testMoveUnderOwnDescendantIsNotApplied() {
+        DeptHierarchy hierarchy = newHierarchy();
+
+        hierarchy.onDeptMoved(100L, 111L);
+
+        assertEquals(List.of(100L, 110L), hierarchy.getAncestorIds(111L));
+        assertTrue(hierarchy.getAncestorIds(100L).isEmpty());
+    }
+
+    @Test
+    public void testClosureIsRewrittenOnlyWhenRowCountDiffers() {
+        properties.setSyncClosure(true);
+        // 每个部门一行自身，再加每个祖先一行：1 + 2 + 3 + 2 + 1
+        when(deptMapper.countClosureRows()).thenReturn(9L);
+
+        newHierarchy();
+
+        verify(transactionTemplate, never()).execute(any());
+    }
+
+    @Test
+    public void testQueriesFailBeforeLoad() {
+        DeptHierarchy hierarchy = new DeptHierarchy(deptMapper, properties, transactionTemplate);
+
+        assertFalse(hierarchy.isReady());
+        assertThrows(IllegalStateException.class, () -> hierarchy.getDescendantIds(100L, true));
+    }
+
+    private DeptHierarchy newHierarchy() {
+        DeptHierarchy hierarchy = new DeptHierarchy(deptMapper, properties, transactionTemplate);
+        hierarchy.reload();
+        return hierarchy;
+    }
+
+    private static Dept dept(Long id, Long parentId, int orderNum) {
+        Dept dept = new Dept();
+        dept.setId(id);
+        dept.setParentId(parentId);
+        dept.setOrderNum(orderNum);
+        return dept;
+    }
+}
@@ -0,0 +1,270 @@
+package com.xiaoxin.iam.core.mapper;
+
+import com.baomidou.mybatisplus.core.MybatisConfiguration;
+import com.baomidou.mybatisplus.core.MybatisSqlSessionFactoryBuilder;
+import com.xiaoxin.iam.core.entity.Role;
+import com.xiaoxin.iam.core.entity.User;
+import org.apache.ibatis.builder.xml.XMLMapperBuilder;
+import org.apache.ibatis.executor.resultset.ResultSetHandler;
+import org.apache.ibatis.mapping.Environment;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.transaction.jdbc.JdbcTransactionFactory;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 用户/角色详情加载回归测试
+ * <p>
+ * 在 H2（MySQL 模式）上执行 UserMapper.xml 与 RoleMapper.xml 中的详情查询，数据为一个管理员账号：
+ * 5 个角色、2 个部门、300 个权限、200 个菜单（角色之间有重叠），另有已删除的角色、权限和菜单。
+ * 除校验关联内容外，统计每次加载执行的语句数与返回的总行数：各关联独立查询时行数为各关联行数之和，
+ * 退回多表 LEFT JOIN 时行数按乘积增长，测试即失败。耗时只打印不断言。
+ * </p>
+ *
+ * @author xiaoxin
+ * @since 1.0.0
+ */
+public class DetailLoadingRegressionTest {
+
+    private static final long ADMIN_ID = 1L;
+    private static final int ROLES = 5;
+    private static final int DEPTS = 2;
+    private static final int PERMISSIONS = 300;
+    private static final int MENUS = 200;
+
+    /**
+     * 角色 i 的权限区间 [i * 50, i * 50 + 100)，菜单区间 [i * 40, i * 40 + 60)，相邻角色重叠
+     */
+    private static final int PERMISSION_STEP = 50;
+    private static final int PERMISSIONS_PER_ROLE = 100;
+    private static final int MENU_STEP = 40;
+    private static final int MENUS_PER_ROLE = 60;
+
+    private static final long DELETED_ROLE_ID = 99L;
+
+    private static final int TIMING_ITERATIONS = 200;
+
+    private static SqlSessionFactory sqlSessionFactory;
+
+    private static RowCounter rowCounter;
+
+    @BeforeAll
+    public static void setUpDatabase() throws Exception {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:detail_loading;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1");
+        try (Connection connection = dataSource.getConnection()) {
+            createSchema(connection);
+            seed(connection);
+        }
+
+        MybatisConfiguration configuration = new MybatisConfiguration();
+        configuration.setMapUnderscoreToCamelCase(true);
+        configuration.setEnvironment(new Environment("test", new JdbcTransactionFactory(), dataSource));
+        for (String resource : List.of("mapper/UserMapper.xml", "mapper/RoleMapper.xml")) {
+            try (InputStream in = DetailLoadingRegressionTest.class.getClassLoader().getResourceAsStream(resource)) {
+                new XMLMapperBuilder(in, configuration, resource, configuration.getSqlFragments()).parse();
+            }
+        }
+        rowCounter = new RowCounter();
+        configuration.addInterceptor(rowCounter);
+        sqlSessionFactory = new MybatisSqlSessionFactoryBuilder().build(configuration);
+    }
+
+    @BeforeEach
+    public void resetCounter() {
+        rowCounter.reset();
+    }
+
+    @Test
+    public void testUserDetailRowsAreSumOfAssociations() {
+        User user;
+        try (SqlSession session = sqlSessionFactory.openSession()) {
+            user = session.getMapper(UserMapper.class).selectUserDetailById(ADMIN_ID);
+        }
+
+        assertNotNull(user);
+        assertEquals(ROLES, user.getRoles().size());
+        assertEquals(DEPTS, user.getDepts().size());
+        assertEquals(PERMISSIONS, user.getPermissions().size());
+        assertEquals(MENUS, user.getMenus().size());
+        assertTrue(user.getRoles().stream().noneMatch(role -> role.getId() == DELETED_ROLE_ID));
+
+        assertEquals(5, rowCounter.statements);
+        assertEquals(1 + ROLES + DEPTS + PERMISSIONS + MENUS, rowCounter.rows);
+        report("selectUserDetailById", () -> {
+            try (SqlSession session = sqlSessionFactory.openSession()) {
+                session.getMapper(UserMapper.class).selectUserDetailById(ADMIN_ID);
+            }
+        });
+    }
+
+    @Test
+    public void testRoleDetailRowsAreSumOfAssociations() {
+        Role role;
+        try (SqlSession session = sqlSessionFactory.openSession()) {
+            role = session.getMapper(RoleMapper.class).selectRoleDetailById(1L);
+        }
+
+        assertNotNull(role);
+        assertEquals(PERMISSIONS_PER_ROLE, role.getPermissions().size());
+        assertEquals(MENUS_PER_ROLE, role.getMenus().size());
+        assertEquals(DEPTS, role.getDepts().size());
+
+        assertEquals(4, rowCounter.statements);
+        assertEquals(1 + PERMISSIONS_PER_ROLE + MENUS_PER_ROLE + DEPTS, rowCounter.rows);
+        report("selectRoleDetailById", () -> {
+            try (SqlSession session = sqlSessionFactory.openSession()) {
+                session.getMapper(RoleMapper.class).selectRoleDetailById(1L);
+            }
+        });
+    }
+
+    private static void report(String statement, Runnable load) {
+        long begin = System.nanoTime();
+        for (int i = 0; i < TIMING_ITERATIONS; i++) {
+            load.run();
+        }
+        double millis = (System.nanoTime() - begin) / (double) TimeUnit.MILLISECONDS.toNanos(1) / TIMING_ITERATIONS;
+        System.out.printf("%s: %.2fms/次（%d 次平均）%n", statement, millis, TIMING_ITERATIONS);
+    }
+
+    private static void createSchema(Connection connection) throws Exception {
+        String script;
+        try (InputStream in = DetailLoadingRegressionTest.class.getClassLoader()
+                .getResourceAsStream("db/detail-loading-schema.sql")) {
+            script = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        try (Statement statement = connection.createStatement()) {
+            for (String sql : script.replaceAll("(?m)^--.*$", "").split(";")) {
+                if (!sql.isBlank()) {
+                    statement.execute(sql);
+                }
+            }
+        }
+    }
+
+    private static void seed(Connection connection) throws Exception {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("INSERT INTO sys_user (id, username, nickname) VALUES (" + ADMIN_ID + ", 'admin', '管理员')");
+            for (int d = 1; d <= DEPTS; d++) {
+                statement.execute("INSERT INTO sys_dept (id, dept_name, order_num) VALUES (" + d + ", 'dept" + d + "', " + d + ")");
+                statement.execute("INSERT INTO sys_user_dept VALUES (" + ADMIN_ID + ", " + d + ")");
+            }
+            statement.execute("INSERT INTO sys_role (id, role_name, role_key, role_sort, del_flag) "
+                    + "VALUES (" + DELETED_ROLE_ID + ", 'deleted', 'deleted', 99, '2')");
+            statement.execute("INSERT INTO sys_user_role VALUES (" + ADMIN_ID + ", " + DELETED_ROLE_ID + ")");
+            // 已删除的权限与菜单，以及只挂在已删除角色上的权限，均不应出现在详情中
+            statement.execute("INSERT INTO sys_permission (id, permission_code, level, sort_order, del_flag) "
+                    + "VALUES (" + (PERMISSIONS + 1) + ", 'deleted', 1, 0, '2')");
+            statement.execute("INSERT INTO sys_permission (id, permission_code, level, sort_order) "
+                    + "VALUES (" + (PERMISSIONS + 2) + ", 'orphan', 1, 0)");
+            statement.execute("INSERT INTO sys_role_permission VALUES (" + DELETED_ROLE_ID + ", " + (PERMISSIONS + 2) + ")");
+            statement.execute("INSERT INTO sys_menu (id, menu_name, order_num, del_flag) VALUES (" + (MENUS + 1) + ", 'deleted', 0, '2')");
+            statement.execute("INSERT INTO sys_role_menu VALUES (1, " + (MENUS + 1) + ")");
+            statement.execute("INSERT INTO sys_role_permission VALUES (1, " + (PERMISSIONS + 1) + ")");
+        }
+        try (PreparedStatement permission = connection.prepareStatement(
+                "INSERT INTO sys_permission (id, permission_name, permission_code, permission_type, level, sort_order) "
+                        + "VALUES (?, ?, ?, 'API', ?, ?)");
+             PreparedStatement menu = connection.prepareStatement(
+                     "INSERT INTO sys_menu (id, menu_name, parent_id, order_num, menu_type) VALUES (?, ?, ?, ?, 'C')")) {
+            for (int p = 1; p <= PERMISSIONS; p++) {
+                permission.setLong(1, p);
+                permission.setString(2, "permission" + p);
+                permission.setString(3, "system:resource" + p + ":read");
+                permission.setInt(4, p % 3 + 1);
+                permission.setInt(5, p);
+                permission.addBatch();
+            }
+            permission.executeBatch();
+            for (int m = 1; m <= MENUS; m++) {
+                menu.setLong(1, m);
+                menu.setString(2, "menu" + m);
+                menu.setLong(3, m / 20);
+                menu.setInt(4, m);
+                menu.addBatch();
+            }
+            menu.executeBatch();
+        }
+        try (PreparedStatement role = connection.prepareStatement(
+                "INSERT INTO sys_role (id, role_name, role_key, role_sort) VALUES (?, ?, ?, ?)");
+             PreparedStatement userRole = connection.prepareStatement("INSERT INTO sys_user_role VALUES (?, ?)");
+             PreparedStatement rolePermission = connection.prepareStatement("INSERT INTO sys_role_permission VALUES (?, ?)");
+             PreparedStatement roleMenu = connection.prepareStatement("INSERT INTO sys_role_menu VALUES (?, ?)");
+             PreparedStatement roleDept = connection.prepareStatement("INSERT INTO sys_role_dept VALUES (?, ?)")) {
+            for (int r = 1; r <= ROLES; r++) {
+                role.setLong(1, r);
+                role.setString(2, "role" + r);
+                role.setString(3, "role" + r);
+                role.setInt(4, r);
+                role.executeUpdate();
+                userRole.setLong(1, ADMIN_ID);
+                userRole.setLong(2, r);
+                userRole.executeUpdate();
+                int firstPermission = (r - 1) * PERMISSION_STEP + 1;
+                for (int p = firstPermission; p < firstPermission + PERMISSIONS_PER_ROLE && p <= PERMISSIONS; p++) {
+                    rolePermission.setLong(1, r);
+                    rolePermission.setLong(2, p);
+                    rolePermission.addBatch();
+                }
+                int firstMenu = (r - 1) * MENU_STEP + 1;
+                for (int m = firstMenu; m < firstMenu + MENUS_PER_ROLE && m <= MENUS; m++) {
+                    roleMenu.setLong(1, r);
+                    roleMenu.setLong(2, m);
+                    roleMenu.addBatch();
+                }
+                for (int d = 1; d <= DEPTS; d++) {
+                    roleDept.setLong(1, r);
+                    roleDept.setLong(2, d);
+                    roleDept.addBatch();
+                }
+            }
+            rolePermission.executeBatch();
+            roleMenu.executeBatch();
+            roleDept.executeBatch();
+        }
+    }
+
+    /**
+     * 统计执行的查询语句数与返回行数（含嵌套查询）
+     */
+    @Intercepts(@Signature(type = ResultSetHandler.class, method = "handleResultSets", args = Statement.class))
+    private static final class RowCounter implements Interceptor {
+
+        private int statements;
+
+        private int rows;
+
+        @Override
+        public Object intercept(Invocation invocation) throws Throwable {
+            Object result = invocation.proceed();
+            statements++;
+            rows += result instanceof List<?> list ? list.size() : 0;
+            return result;
+        }
+
+        void reset() {
+            statements = 0;
+            rows = 0;
+        }
+    }
+}
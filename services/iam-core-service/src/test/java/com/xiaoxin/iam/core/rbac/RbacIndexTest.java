@@ -0,0 +1,153 @@
+package com.xiaoxin.iam.core.rbac;
+
+import com.xiaoxin.iam.core.config.RbacIndexProperties;
+import com.xiaoxin.iam.core.entity.Menu;
+import com.xiaoxin.iam.core.entity.Permission;
+import com.xiaoxin.iam.core.entity.Role;
+import com.xiaoxin.iam.core.mapper.RbacIndexMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * RBAC内存索引测试
+ *
+ * @author xiaoxin
+ * @since 1.0.0
+ */
+public class RbacIndexTest {
+
+    private RbacIndexMapper mapper;
+
+    private RbacIndex index;
+
+    @BeforeEach
+    public void setUp() {
+        mapper = mock(RbacIndexMapper.class);
+        when(mapper.selectActivePermissions(null))
+                .thenReturn(List.of(permission(11L, "user:read"), permission(12L, "user:write")));
+        when(mapper.selectActiveMenus(null)).thenReturn(List.of(menu(21L, "system")));
+        when(mapper.selectActiveRoles(null)).thenReturn(List.of(role(1L, "admin", 2), role(2L, "viewer", 1)));
+        when(mapper.selectRolePermissionRelations(null))
+                .thenReturn(List.of(relation(1L, 11L), relation(1L, 12L), relation(2L, 11L)));
+        when(mapper.selectRoleMenuRelations(null)).thenReturn(List.of(relation(1L, 21L)));
+        when(mapper.selectUserRoleRelations(null))
+                .thenReturn(List.of(relation(100L, 1L), relation(100L, 2L), relation(101L, 2L)));
+        index = new RbacIndex(mapper, new RbacIndexProperties());
+    }
+
+    @AfterEach
+    public void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    public void testEffectivePermissionsAreUnionOfRoles() {
+        index.reload();
+
+        assertTrue(index.hasPermission(100L, "user:write"));
+        assertTrue(index.hasPermission(101L, "user:read"));
+        assertFalse(index.hasPermission(101L, "user:write"));
+        assertFalse(index.hasPermission(999L, "user:read"));
+        assertEquals(List.of("viewer", "admin"), index.getUserRoles(100L).stream().map(Role::getRoleKey).toList());
+        assertEquals(List.of("system"), index.getUserMenus(100L).stream().map(Menu::getPerms).toList());
+        assertTrue(index.getUserMenus(101L).isEmpty());
+    }
+
+    @Test
+    public void testDisabledRoleIsDroppedOnRoleChange() {
+        index.reload();
+        assertTrue(index.hasPermission(100L, "user:write"));
+        when(mapper.selectActiveRoles(List.of(1L))).thenReturn(List.of());
+
+        index.onRolesChanged(List.of(1L));
+
+        assertFalse(index.hasPermission(100L, "user:write"));
+        assertTrue(index.hasPermission(100L, "user:read"));
+        assertEquals(List.of("viewer"), index.getUserRoles(100L).stream().map(Role::getRoleKey).toList());
+    }
+
+    @Test
+    public void testPermissionCreatedAfterLoadIsAppended() {
+        index.reload();
+        when(mapper.selectActivePermissions(List.of(13L))).thenReturn(List.of(permission(13L, "user:delete")));
+
+        index.onRolePermissionsAssigned(2L, List.of(11L, 13L));
+
+        assertTrue(index.hasPermission(101L, "user:delete"));
+        assertEquals(List.of("user:read", "user:delete"),
+                index.getUserPermissions(101L).stream().map(Permission::getPermissionCode).toList());
+    }
+
+    @Test
+    public void testUpdateIsAppliedOnlyAfterCommit() {
+        index.reload();
+        TransactionSynchronizationManager.initSynchronization();
+
+        index.onUserRolesAssigned(101L, List.of(1L));
+        assertFalse(index.hasPermission(101L, "user:write"));
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        assertTrue(index.hasPermission(101L, "user:write"));
+    }
+
+    @Test
+    public void testRolledBackUpdateIsDiscarded() {
+        index.reload();
+        TransactionSynchronizationManager.initSynchronization();
+
+        index.onUserRolesAssigned(101L, List.of(1L));
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        assertFalse(index.hasPermission(101L, "user:write"));
+    }
+
+    @Test
+    public void testQueriesFailBeforeLoad() {
+        assertFalse(index.isReady());
+        assertThrows(IllegalStateException.class, () -> index.hasPermission(100L, "user:read"));
+    }
+
+    private static Permission permission(Long id, String code) {
+        Permission permission = new Permission();
+        permission.setId(id);
+        permission.setPermissionCode(code);
+        return permission;
+    }
+
+    private static Menu menu(Long id, String perms) {
+        Menu menu = new Menu();
+        menu.setId(id);
+        menu.setPerms(perms);
+        return menu;
+    }
+
+    private static Role role(Long id, String roleKey, int sort) {
+        Role role = new Role();
+        role.setId(id);
+        role.setRoleKey(roleKey);
+        role.setRoleSort(sort);
+        return role;
+    }
+
+    private static RbacRelation relation(Long ownerId, Long targetId) {
+        RbacRelation relation = new RbacRelation();
+        relation.setOwnerId(ownerId);
+        relation.setTargetId(targetId);
+        return relation;
+    }
+}
@@ -0,0 +1,157 @@
+package com.xiaoxin.iam.core.rbac;
+
+import com.xiaoxin.iam.core.config.RoleMembershipProperties;
+import com.xiaoxin.iam.core.entity.Role;
+import com.xiaoxin.iam.core.mapper.RbacIndexMapper;
+import com.xiaoxin.iam.core.support.LinkDiff;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 角色成员计数测试
+ *
+ * @author xiaoxin
+ * @since 1.0.0
+ */
+public class RoleMembershipCounterTest {
+
+    private RbacIndexMapper mapper;
+
+    private MeterRegistry meterRegistry;
+
+    private RoleMembershipCounter counter;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        mapper = mock(RbacIndexMapper.class);
+        when(mapper.selectRoleUserCounts(isNull())).thenReturn(List.of(count(1L, 3), count(2L, 1)));
+        when(mapper.selectRoleDeptCounts(isNull())).thenReturn(List.of(count(1L, 2)));
+        meterRegistry = new SimpleMeterRegistry();
+        ObjectProvider<MeterRegistry> provider = mock(ObjectProvider.class);
+        when(provider.getIfAvailable()).thenReturn(meterRegistry);
+        counter = new RoleMembershipCounter(mapper, new RoleMembershipProperties(), provider);
+        counter.afterPropertiesSet();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        counter.destroy();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    public void testLoadedCountsAreFilled() {
+        Role admin = role(1L);
+        Role guest = role(3L);
+
+        counter.fill(List.of(admin, guest));
+
+        assertEquals(3, admin.getUserCount());
+        assertEquals(2, admin.getDeptCount());
+        assertEquals(0, guest.getUserCount());
+        assertEquals(0, guest.getDeptCount());
+    }
+
+    @Test
+    public void testLocalChangeIsRecountedOnlyAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        when(mapper.selectRoleUserCounts(anyCollection())).thenReturn(List.of(count(1L, 4), count(2L, 0)));
+        when(mapper.selectRoleDeptCounts(anyCollection())).thenReturn(List.of(count(1L, 2)));
+
+        counter.onUserRolesChanged(new LinkDiff(List.of(1L), List.of(2L)));
+        assertEquals(3, counter.userCount(1L));
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        assertEquals(4, counter.userCount(1L));
+        assertEquals(0, counter.userCount(2L));
+    }
+
+    @Test
+    public void testOwnEventAndLocalChangeDoNotDoubleCount() {
+        TransactionSynchronizationManager.initSynchronization();
+        when(mapper.selectRoleUserCounts(anyCollection())).thenReturn(List.of(count(1L, 4)));
+        when(mapper.selectRoleDeptCounts(anyCollection())).thenReturn(List.of(count(1L, 2)));
+
+        counter.onUserRolesChanged(new LinkDiff(List.of(1L), List.of()));
+        // 本实例发布的事件先于本地回调到达
+        counter.recount(List.of(1L));
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        counter.recount(List.of(1L));
+
+        assertEquals(4, counter.userCount(1L));
+    }
+
+    @Test
+    public void testRolledBackChangeIsIgnored() {
+        TransactionSynchronizationManager.initSynchronization();
+        when(mapper.selectRoleUserCounts(anyCollection())).thenReturn(List.of());
+        when(mapper.selectRoleDeptCounts(anyCollection())).thenReturn(List.of());
+
+        counter.onRolesDeleted(List.of(1L));
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        assertEquals(3, counter.userCount(1L));
+    }
+
+    @Test
+    public void testReconcileReplacesCountsAndRecordsDrift() {
+        when(mapper.selectRoleUserCounts(isNull())).thenReturn(List.of(count(1L, 5)));
+        when(mapper.selectRoleDeptCounts(isNull())).thenReturn(List.of(count(1L, 2)));
+
+        counter.reload();
+
+        assertEquals(5, counter.userCount(1L));
+        assertEquals(0, counter.userCount(2L));
+        assertEquals(3.0, meterRegistry.get("iam.core.role-membership.drift").functionCounter().count());
+    }
+
+    @Test
+    public void testFallsBackToDatabaseWhenDisabled() {
+        RoleMembershipProperties properties = new RoleMembershipProperties();
+        properties.setEnabled(false);
+        @SuppressWarnings("unchecked")
+        RoleMembershipCounter disabled = new RoleMembershipCounter(mapper, properties, mock(ObjectProvider.class));
+        disabled.afterPropertiesSet();
+        when(mapper.selectRoleUserCounts(anyCollection())).thenReturn(List.of(count(1L, 7)));
+        when(mapper.selectRoleDeptCounts(anyCollection())).thenReturn(List.of());
+        Role admin = role(1L);
+
+        disabled.fill(List.of(admin));
+
+        assertFalse(disabled.isReady());
+        assertEquals(7, admin.getUserCount());
+        assertEquals(0, admin.getDeptCount());
+    }
+
+    private static Role role(Long id) {
+        Role role = new Role();
+        role.setId(id);
+        return role;
+    }
+
+    private static RoleMemberCount count(Long roleId, int memberCount) {
+        RoleMemberCount count = new RoleMemberCount();
+        count.setRoleId(roleId);
+        count.setMemberCount(memberCount);
+        return count;
+    }
+}
@@ -0,0 +1,150 @@
+package com.xiaoxin.iam.core.search;
+
+import com.xiaoxin.iam.core.config.UserSearchIndexProperties;
+import com.xiaoxin.iam.core.mapper.UserSearchMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.ibatis.session.ResultContext;
+import org.apache.ibatis.session.ResultHandler;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 用户搜索索引测试
+ *
+ * @author xiaoxin
+ * @since 1.0.0
+ */
+public class UserSearchIndexTest {
+
+    private final List<UserSearchDocument> documents = new ArrayList<>();
+
+    private UserSearchMapper userSearchMapper;
+
+    private UserSearchIndexProperties properties;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        documents.add(document(1L, "alice", "Alice Wang", "alice@example.com", "0"));
+        documents.add(document(2L, "malice", "Mal", "mal@example.com", "0"));
+        documents.add(document(3L, "alicex", "Alice X", "ax@example.com", "1"));
+        documents.add(document(4L, "bob", "Bob", "bob@example.com", "0"));
+        userSearchMapper = mock(UserSearchMapper.class);
+        doAnswer(invocation -> {
+            ResultHandler<UserSearchDocument> handler = invocation.getArgument(0);
+            for (UserSearchDocument document : documents) {
+                ResultContext<UserSearchDocument> context = mock(ResultContext.class);
+                when(context.getResultObject()).thenReturn(document);
+                handler.handleResult(context);
+            }
+            return null;
+        }).when(userSearchMapper).streamSearchDocuments(any());
+        properties = new UserSearchIndexProperties();
+    }
+
+    @Test
+    public void testExactThenPrefixThenContains() {
+        UserSearchIndex index = newIndex();
+
+        UserSearchIndex.SearchResult result = index.search(terms(UserSearchField.USERNAME, "ALICE"), null);
+
+        assertEquals(List.of(1L, 3L, 2L), result.userIds());
+        assertEquals(3, result.total());
+        assertFalse(result.truncated());
+    }
+
+    @Test
+    public void testStatusFilterAndConjunction() {
+        UserSearchIndex index = newIndex();
+
+        assertEquals(List.of(2L, 1L), index.search(terms(UserSearchField.USERNAME, "lic"), "0").userIds());
+
+        Map<UserSearchField, String> terms = terms(UserSearchField.USERNAME, "alice");
+        terms.put(UserSearchField.NICKNAME, "wang");
+        assertEquals(List.of(1L), index.search(terms, null).userIds());
+    }
+
+    @Test
+    public void testUnknownGramAndShortTerms() {
+        UserSearchIndex index = newIndex();
+
+        assertEquals(0, index.search(terms(UserSearchField.USERNAME, "zzz"), null).total());
+        assertNull(index.search(terms(UserSearchField.USERNAME, "al"), null));
+    }
+
+    @Test
+    public void testTotalIsNotCappedByMaxResults() {
+        properties.setMaxResults(2);
+        UserSearchIndex index = newIndex();
+
+        UserSearchIndex.SearchResult result = index.search(terms(UserSearchField.EMAIL, "example.com"), null);
+
+        assertEquals(2, result.userIds().size());
+        assertEquals(4, result.total());
+        assertTrue(result.truncated());
+    }
+
+    @Test
+    public void testIncrementalUpdateAndRemoval() {
+        UserSearchIndex index = newIndex();
+        when(userSearchMapper.selectSearchDocuments(anyCollection()))
+                .thenReturn(List.of(document(4L, "alice.bob", "Bob", "bob@example.com", "0")));
+
+        index.onUsersChanged(List.of(4L, 1L));
+
+        assertEquals(List.of(4L, 3L, 2L), index.search(terms(UserSearchField.USERNAME, "alice"), null).userIds());
+        assertEquals(0, index.search(terms(UserSearchField.NICKNAME, "wang"), null).total());
+    }
+
+    @Test
+    public void testNotReadyBeforeLoad() {
+        UserSearchIndex index = new UserSearchIndex(userSearchMapper, properties, meterProvider());
+
+        assertFalse(index.isReady());
+        assertNull(index.search(terms(UserSearchField.USERNAME, "alice"), null));
+    }
+
+    private UserSearchIndex newIndex() {
+        UserSearchIndex index = new UserSearchIndex(userSearchMapper, properties, meterProvider());
+        index.reload();
+        return index;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ObjectProvider<MeterRegistry> meterProvider() {
+        return mock(ObjectProvider.class);
+    }
+
+    private static Map<UserSearchField, String> terms(UserSearchField field, String term) {
+        Map<UserSearchField, String> terms = new EnumMap<>(UserSearchField.class);
+        terms.put(field, term);
+        return terms;
+    }
+
+    private static UserSearchDocument document(Long id, String username, String nickname, String email,
+                                               String status) {
+        UserSearchDocument document = new UserSearchDocument();
+        document.setId(id);
+        document.setUsername(username);
+        document.setNickname(nickname);
+        document.setEmail(email);
+        document.setStatus(status);
+        return document;
+    }
+}
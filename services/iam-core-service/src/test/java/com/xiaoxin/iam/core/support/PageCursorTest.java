@@ -0,0 +1,50 @@
+package com.xiaoxin.iam.core.support;
+
+import com.xiaoxin.iam.common.exception.BusinessException;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * 键集分页游标测试
+ *
+ * @author xiaoxin
+ * @since 1.0.0
+ */
+public class PageCursorTest {
+
+    @Test
+    public void testRoundTripKeepsNanosAndLargeIds() {
+        PageCursor cursor = new PageCursor(LocalDateTime.of(2024, 5, 6, 7, 8, 9, 123_456_000), 1_790_000_000_000_000_001L);
+
+        String encoded = cursor.encode();
+
+        assertFalse(encoded.contains("=") || encoded.contains("+") || encoded.contains("/"));
+        assertEquals(cursor, PageCursor.decode(encoded));
+    }
+
+    @Test
+    public void testEmptyCursorMeansFirstPage() {
+        assertNull(PageCursor.decode(null));
+        assertNull(PageCursor.decode(""));
+    }
+
+    @Test
+    public void testMalformedCursorIsRejected() {
+        assertThrows(BusinessException.class, () -> PageCursor.decode("not base64!"));
+        assertThrows(BusinessException.class, () -> PageCursor.decode(encode("2024-05-06T07:08:09")));
+        assertThrows(BusinessException.class, () -> PageCursor.decode(encode("yesterday|1")));
+        assertThrows(BusinessException.class, () -> PageCursor.decode(encode("2024-05-06T07:08:09|abc")));
+    }
+
+    private static String encode(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
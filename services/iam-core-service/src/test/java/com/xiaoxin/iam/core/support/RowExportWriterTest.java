@@ -0,0 +1,102 @@
+package com.xiaoxin.iam.core.support;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.xiaoxin.iam.common.exception.BusinessException;
+import com.xiaoxin.iam.starter.web.field.FieldPolicy;
+import org.apache.ibatis.session.ResultContext;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 导出行流式写入器测试
+ *
+ * @author xiaoxin
+ * @since 1.0.0
+ */
+public class RowExportWriterTest {
+
+    private static final String BOM = "\uFEFF";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    public void testCsvQuotesSeparatorsQuotesAndLineBreaks() throws IOException {
+        String csv = export(RowExportWriter.FORMAT_CSV, null, List.of(
+                new Object[]{1L, "a,b", "say \"hi\""},
+                new Object[]{2L, "line\nbreak", null}));
+
+        assertEquals(BOM + "id,name,remark\r\n"
+                + "1,\"a,b\",\"say \"\"hi\"\"\"\r\n"
+                + "2,\"line\nbreak\",\r\n", csv);
+    }
+
+    @Test
+    public void testCsvGuardsFormulaPrefixesButNotNumbers() throws IOException {
+        String csv = export(RowExportWriter.FORMAT_CSV, null, List.of(
+                new Object[]{-1L, "=SUM(A1:A2)", "+1"},
+                new Object[]{2L, "-x", "@cmd,1"}));
+
+        assertEquals(BOM + "id,name,remark\r\n"
+                + "-1,'=SUM(A1:A2),'+1\r\n"
+                + "2,'-x,\"'@cmd,1\"\r\n", csv);
+    }
+
+    @Test
+    public void testFieldPolicyHidesAndMasksColumns() throws IOException {
+        FieldPolicy policy = FieldPolicy.of(Map.of(
+                "name", FieldPolicy.Rule.masked(value -> value.charAt(0) + "***"),
+                "remark", FieldPolicy.Rule.HIDDEN));
+
+        String csv = export(RowExportWriter.FORMAT_CSV, policy, List.<Object[]>of(new Object[]{1L, "alice", "secret"}));
+
+        assertEquals(BOM + "id,name\r\n1,a***\r\n", csv);
+    }
+
+    @Test
+    public void testNdjsonWritesLongsAsStringsAndFormatsTimes() throws IOException {
+        String ndjson = export(RowExportWriter.FORMAT_NDJSON, null, List.of(
+                new Object[]{9007199254740993L, LocalDateTime.of(2024, 1, 2, 3, 4, 5), null},
+                new Object[]{2L, "=x", 7}));
+
+        assertEquals("{\"id\":\"9007199254740993\",\"name\":\"2024-01-02 03:04:05\",\"remark\":null}\n"
+                + "{\"id\":\"2\",\"name\":\"=x\",\"remark\":7}\n", ndjson);
+    }
+
+    @Test
+    public void testFormatParsing() {
+        assertEquals(RowExportWriter.FORMAT_CSV, RowExportWriter.format(null));
+        assertEquals(RowExportWriter.FORMAT_NDJSON, RowExportWriter.format(" NDJSON "));
+        assertThrows(BusinessException.class, () -> RowExportWriter.format("xlsx"));
+    }
+
+    @SuppressWarnings("unchecked")
+    private String export(String format, FieldPolicy policy, List<Object[]> rows) throws IOException {
+        Map<String, Function<Object[], Object>> columns = new LinkedHashMap<>();
+        columns.put("id", row -> row[0]);
+        columns.put("name", row -> row[1]);
+        columns.put("remark", row -> row[2]);
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (RowExportWriter<Object[]> writer = RowExportWriter.open(output, format, columns, policy, objectMapper)) {
+            for (Object[] row : rows) {
+                ResultContext<Object[]> context = mock(ResultContext.class);
+                when(context.getResultObject()).thenReturn(row);
+                writer.handleResult(context);
+            }
+            assertEquals(rows.size(), writer.getRowCount());
+        }
+        return output.toString(StandardCharsets.UTF_8);
+    }
+}
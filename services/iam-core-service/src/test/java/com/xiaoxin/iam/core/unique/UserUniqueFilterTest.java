@@ -0,0 +1,141 @@
+package com.xiaoxin.iam.core.unique;
+
+import com.xiaoxin.iam.core.config.UserUniqueFilterProperties;
+import com.xiaoxin.iam.core.entity.User;
+import com.xiaoxin.iam.core.mapper.UserImportMapper;
+import com.xiaoxin.iam.core.mapper.UserSearchMapper;
+import com.xiaoxin.iam.core.search.UserSearchDocument;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.ibatis.session.ResultContext;
+import org.apache.ibatis.session.ResultHandler;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 用户唯一性预检过滤器测试
+ *
+ * @author xiaoxin
+ * @since 1.0.0
+ */
+public class UserUniqueFilterTest {
+
+    private final List<User> users = new ArrayList<>();
+
+    private UserImportMapper userImportMapper;
+
+    private UserSearchMapper userSearchMapper;
+
+    private UserUniqueFilterProperties properties;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        users.add(user("alice", "alice@example.com", "13800000001", "0"));
+        users.add(user("removed", "removed@example.com", "13800000002", "2"));
+        userImportMapper = mock(UserImportMapper.class);
+        doAnswer(invocation -> {
+            ResultHandler<User> handler = invocation.getArgument(0);
+            for (User user : users) {
+                ResultContext<User> context = mock(ResultContext.class);
+                when(context.getResultObject()).thenReturn(user);
+                handler.handleResult(context);
+            }
+            return null;
+        }).when(userImportMapper).streamUniqueKeys(any());
+        userSearchMapper = mock(UserSearchMapper.class);
+        properties = new UserUniqueFilterProperties();
+        properties.setExpectedInsertions(1000);
+    }
+
+    @Test
+    public void testLoadedValuesMayBeTakenAndOthersAreAbsent() {
+        UserUniqueFilter filter = newFilter();
+
+        assertTrue(filter.mightBeTaken(UserUniqueField.USERNAME, "alice"));
+        assertTrue(filter.mightBeTaken(UserUniqueField.EMAIL, "alice@example.com"));
+        assertTrue(filter.mightBeTaken(UserUniqueField.PHONE, "13800000001"));
+        assertFalse(filter.mightBeTaken(UserUniqueField.USERNAME, "bob"));
+        assertFalse(filter.mightBeTaken(UserUniqueField.EMAIL, "bob@example.com"));
+    }
+
+    @Test
+    public void testDeletedUsersKeepUsernameOnly() {
+        UserUniqueFilter filter = newFilter();
+
+        assertTrue(filter.mightBeTaken(UserUniqueField.USERNAME, "removed"));
+        assertFalse(filter.mightBeTaken(UserUniqueField.EMAIL, "removed@example.com"));
+        assertFalse(filter.mightBeTaken(UserUniqueField.PHONE, "13800000002"));
+    }
+
+    @Test
+    public void testFoldingIgnoresCaseWhitespaceAndAccents() {
+        users.add(user("José", null, null, "0"));
+        UserUniqueFilter filter = newFilter();
+
+        assertTrue(filter.mightBeTaken(UserUniqueField.USERNAME, "  ALICE "));
+        assertTrue(filter.mightBeTaken(UserUniqueField.USERNAME, "jose"));
+        assertEquals("jose", UserUniqueFilter.fold(" JOSÉ "));
+        assertNull(UserUniqueFilter.fold("  "));
+    }
+
+    @Test
+    public void testWritesAndRemoteChangesAreAdded() {
+        UserUniqueFilter filter = newFilter();
+        when(userSearchMapper.selectSearchDocuments(anyCollection())).thenReturn(List.of(document("carol")));
+
+        filter.onUsersWritten(List.of(user("bob", "bob@example.com", null, "0")));
+        filter.onUsersChanged(List.of(3L));
+
+        assertTrue(filter.mightBeTaken(UserUniqueField.USERNAME, "bob"));
+        assertTrue(filter.mightBeTaken(UserUniqueField.EMAIL, "bob@example.com"));
+        assertTrue(filter.mightBeTaken(UserUniqueField.USERNAME, "carol"));
+    }
+
+    @Test
+    public void testNotReadyFallsThroughToDatabase() {
+        UserUniqueFilter filter = new UserUniqueFilter(userImportMapper, userSearchMapper, properties, meterProvider());
+
+        assertFalse(filter.isReady());
+        assertTrue(filter.mightBeTaken(UserUniqueField.USERNAME, "anyone"));
+    }
+
+    private UserUniqueFilter newFilter() {
+        UserUniqueFilter filter = new UserUniqueFilter(userImportMapper, userSearchMapper, properties, meterProvider());
+        filter.reload();
+        return filter;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ObjectProvider<MeterRegistry> meterProvider() {
+        return mock(ObjectProvider.class);
+    }
+
+    private static User user(String username, String email, String phone, String delFlag) {
+        User user = new User();
+        user.setUsername(username);
+        user.setEmail(email);
+        user.setPhone(phone);
+        user.setDelFlag(delFlag);
+        return user;
+    }
+
+    private static UserSearchDocument document(String username) {
+        UserSearchDocument document = new UserSearchDocument();
+        document.setUsername(username);
+        return document;
+    }
+}
@@ -0,0 +1,87 @@
+-- 详情加载回归测试用表结构，仅包含详情查询涉及的列
+CREATE TABLE sys_user (
+    id BIGINT PRIMARY KEY,
+    username VARCHAR(64) NOT NULL,
+    nickname VARCHAR(64),
+    email VARCHAR(128),
+    phone VARCHAR(32),
+    sex CHAR(1),
+    avatar VARCHAR(255),
+    password VARCHAR(128),
+    status CHAR(1) DEFAULT '0',
+    del_flag CHAR(1) DEFAULT '0',
+    login_ip VARCHAR(64),
+    login_date TIMESTAMP,
+    remark VARCHAR(255),
+    create_by VARCHAR(64),
+    create_time TIMESTAMP,
+    update_by VARCHAR(64),
+    update_time TIMESTAMP
+);
+
+CREATE TABLE sys_role (
+    id BIGINT PRIMARY KEY,
+    role_name VARCHAR(64) NOT NULL,
+    role_key VARCHAR(64) NOT NULL,
+    role_sort INT,
+    data_scope CHAR(1) DEFAULT '1',
+    menu_check_strictly BOOLEAN DEFAULT TRUE,
+    dept_check_strictly BOOLEAN DEFAULT TRUE,
+    status CHAR(1) DEFAULT '0',
+    del_flag CHAR(1) DEFAULT '0',
+    remark VARCHAR(255),
+    create_by VARCHAR(64),
+    create_time TIMESTAMP,
+    update_by VARCHAR(64),
+    update_time TIMESTAMP
+);
+
+CREATE TABLE sys_dept (
+    id BIGINT PRIMARY KEY,
+    parent_id BIGINT DEFAULT 0,
+    ancestors VARCHAR(255),
+    dept_name VARCHAR(64),
+    order_num INT,
+    leader VARCHAR(64),
+    phone VARCHAR(32),
+    email VARCHAR(128),
+    status CHAR(1) DEFAULT '0',
+    del_flag CHAR(1) DEFAULT '0'
+);
+
+CREATE TABLE sys_permission (
+    id BIGINT PRIMARY KEY,
+    permission_name VARCHAR(64),
+    permission_code VARCHAR(128),
+    permission_type VARCHAR(16),
+    resource_type VARCHAR(16),
+    resource_path VARCHAR(255),
+    http_method VARCHAR(16),
+    parent_id BIGINT DEFAULT 0,
+    level INT,
+    sort_order INT,
+    status CHAR(1) DEFAULT '0',
+    del_flag CHAR(1) DEFAULT '0'
+);
+
+CREATE TABLE sys_menu (
+    id BIGINT PRIMARY KEY,
+    menu_name VARCHAR(64),
+    parent_id BIGINT DEFAULT 0,
+    order_num INT,
+    path VARCHAR(255),
+    component VARCHAR(255),
+    query VARCHAR(255),
+    is_frame INT DEFAULT 1,
+    is_cache INT DEFAULT 0,
+    menu_type CHAR(1),
+    visible CHAR(1) DEFAULT '0',
+    status CHAR(1) DEFAULT '0',
+    del_flag CHAR(1) DEFAULT '0'
+);
+
+CREATE TABLE sys_user_role (user_id BIGINT, role_id BIGINT, PRIMARY KEY (user_id, role_id));
+CREATE TABLE sys_user_dept (user_id BIGINT, dept_id BIGINT, PRIMARY KEY (user_id, dept_id));
+CREATE TABLE sys_role_permission (role_id BIGINT, permission_id BIGINT, PRIMARY KEY (role_id, permission_id));
+CREATE TABLE sys_role_menu (role_id BIGINT, menu_id BIGINT, PRIMARY KEY (role_id, menu_id));
+CREATE TABLE sys_role_dept (role_id BIGINT, dept_id BIGINT, PRIMARY KEY (role_id, dept_id));